@@ -0,0 +1,68 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.client;
+
+import java.io.Serializable;
+
+/**
+ * Concurrent cache settings: a cache that is bounded by size and optionally by the age of entries,
+ * and that serves lookups without locking.
+ */
+public class ConfigurationConcurrentCache implements ConfigurationDataCache, Serializable
+{
+    private int maxSize;
+    private double maxAgeSeconds;
+    private boolean weighByRowCount;
+    private static final long serialVersionUID = -1520318651823459231L;
+
+    /**
+     * Ctor.
+     * @param maxSize is the maximum cache size, as the number of entries or, when weighing by row count, as the number of rows
+     * @param maxAgeSeconds is the maximum age in seconds, or zero for entries not to expire
+     * @param weighByRowCount true to weigh each entry by the number of rows it holds, false to weigh each entry as one
+     */
+    public ConfigurationConcurrentCache(int maxSize, double maxAgeSeconds, boolean weighByRowCount)
+    {
+        this.maxSize = maxSize;
+        this.maxAgeSeconds = maxAgeSeconds;
+        this.weighByRowCount = weighByRowCount;
+    }
+
+    /**
+     * Returns the maximum cache size.
+     * @return max cache size
+     */
+    public int getMaxSize()
+    {
+        return maxSize;
+    }
+
+    /**
+     * Returns the maximum age in seconds, or zero if entries do not expire.
+     * @return number of seconds
+     */
+    public double getMaxAgeSeconds()
+    {
+        return maxAgeSeconds;
+    }
+
+    /**
+     * Returns indicator whether entries are weighed by the number of rows they hold.
+     * @return true to weigh by row count
+     */
+    public boolean isWeighByRowCount()
+    {
+        return weighByRowCount;
+    }
+
+    public String toString()
+    {
+        return "ConcurrentCacheDesc maxSize=" + maxSize + " maxAgeSeconds=" + maxAgeSeconds + " weighByRowCount=" + weighByRowCount;
+    }
+}
@@ -31,6 +31,7 @@ public class ConfigurationDBRef implements Serializable
     private MetadataOriginEnum metadataOrigin;
     private ColumnChangeCaseEnum columnChangeCase;
     private Map<Integer, String> sqlTypesMapping;
+    private int parallelPollingThreads;
 
     /**
      * Ctor.
@@ -196,6 +197,18 @@ public class ConfigurationDBRef implements Serializable
         dataCacheDesc = new ConfigurationLRUCache(size);
     }
 
+    /**
+     * Configures a concurrent cache for the database that serves lookups without locking, bounded by the given
+     * maximum size and, if a maximum age is given, by the age of entries.
+     * @param maxSize is the maximum cache size, as the number of entries or, when weighing by row count, as the number of rows
+     * @param maxAgeSeconds is the maximum age in seconds, or zero for entries not to expire
+     * @param weighByRowCount true to weigh each entry by the number of rows it holds, false to weigh each entry as one
+     */
+    public void setConcurrentCache(int maxSize, double maxAgeSeconds, boolean weighByRowCount)
+    {
+        dataCacheDesc = new ConfigurationConcurrentCache(maxSize, maxAgeSeconds, weighByRowCount);
+    }
+
     /**
      * Configures an expiry-time cache of the given maximum age in seconds and purge interval in seconds.
      * <p>
@@ -323,6 +336,34 @@ public class ConfigurationDBRef implements Serializable
         return sqlTypesMapping;
     }
 
+    /**
+     * Returns the number of threads that execute the queries of a join lookup in parallel,
+     * or zero (the default) for executing the queries on the thread processing the event.
+     * @return number of polling threads, or zero for no parallel polling
+     */
+    public int getParallelPollingThreads()
+    {
+        return parallelPollingThreads;
+    }
+
+    /**
+     * Sets the number of threads that execute the queries of a join lookup in parallel.
+     * <p>
+     * When set, the engine collects the distinct lookup keys of all events that a join processes together
+     * and executes a query for each distinct key, with up to the given number of queries in flight
+     * at the same time, each on its own database connection. The thread processing the events waits for
+     * all queries to complete and joins the results in event order.
+     * <p>
+     * The polling threads are shared by all statements that poll the database. Each statement obtains
+     * a connection per query in flight when first needed, up to the given number of connections.
+     * Set to zero (the default) to execute queries on the thread processing the event.
+     * @param parallelPollingThreads number of polling threads, or zero for no parallel polling
+     */
+    public void setParallelPollingThreads(int parallelPollingThreads)
+    {
+        this.parallelPollingThreads = parallelPollingThreads;
+    }
+
     /**
      * Supplies connectioon-level settings for a given database name.
      */
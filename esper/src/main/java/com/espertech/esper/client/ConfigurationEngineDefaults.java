@@ -13,7 +13,9 @@ import com.espertech.esper.client.soda.StreamSelector;
 import java.io.Serializable;
 import java.math.MathContext;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.TimeZone;
 
 /**
@@ -315,6 +317,12 @@ public class ConfigurationEngineDefaults implements Serializable
         private Integer threadPoolInboundCapacity;
         private Integer threadPoolRouteExecCapacity;
         private Integer threadPoolOutboundCapacity;
+        private boolean isThreadPoolInboundKeyAffinity;
+        private boolean isThreadPoolRouteExecVirtualThreads;
+        private boolean isThreadPoolOutboundVirtualThreads;
+        private Map<String, String> threadPoolInboundPartitionKeys;
+        private ThreadPoolQueueType threadPoolQueueType;
+        private ThreadPoolWaitStrategy threadPoolWaitStrategy;
 
         private boolean engineFairlock;
 
@@ -347,6 +355,9 @@ public class ConfigurationEngineDefaults implements Serializable
             threadPoolInboundNumThreads = 2;
             threadPoolRouteExecNumThreads = 2;
             threadPoolOutboundNumThreads = 2;
+            threadPoolInboundPartitionKeys = new LinkedHashMap<String, String>();
+            threadPoolQueueType = ThreadPoolQueueType.BLOCKINGQUEUE;
+            threadPoolWaitStrategy = ThreadPoolWaitStrategy.PARK;
         }
 
         /**
@@ -534,6 +545,49 @@ public class ConfigurationEngineDefaults implements Serializable
             isThreadPoolInbound = threadPoolInbound;
         }
 
+        /**
+         * Returns true if inbound threading assigns each partition key to a fixed thread, preserving the order
+         * of events for the same key, the default is false for any thread.
+         * @return indicator whether inbound threading uses key affinity
+         */
+        public boolean isThreadPoolInboundKeyAffinity()
+        {
+            return isThreadPoolInboundKeyAffinity;
+        }
+
+        /**
+         * Set to true for inbound threading to assign each partition key to a fixed thread, preserving the order
+         * of events for the same key, the default is false for any thread.
+         * <p>
+         * The partition key of an event type is the property configured by {@link #addThreadPoolInboundPartitionKey(String, String)}
+         * or otherwise the hash function of a hash segmented context for the event type.
+         * Events without a partition key may be processed by any inbound thread.
+         * @param threadPoolInboundKeyAffinity indicator whether inbound threading uses key affinity
+         */
+        public void setThreadPoolInboundKeyAffinity(boolean threadPoolInboundKeyAffinity)
+        {
+            isThreadPoolInboundKeyAffinity = threadPoolInboundKeyAffinity;
+        }
+
+        /**
+         * Returns the partition key property name per event type name, for inbound threading with key affinity.
+         * @return map of event type name and property name
+         */
+        public Map<String, String> getThreadPoolInboundPartitionKeys()
+        {
+            return threadPoolInboundPartitionKeys;
+        }
+
+        /**
+         * Adds the partition key property for an event type, for inbound threading with key affinity.
+         * @param eventTypeName event type name
+         * @param propertyName name of the property, or property expression, that provides the partition key
+         */
+        public void addThreadPoolInboundPartitionKey(String eventTypeName, String propertyName)
+        {
+            threadPoolInboundPartitionKeys.put(eventTypeName, propertyName);
+        }
+
         /**
          * Returns true for timer execution threading enabled, the default is false for not enabled.
          * @return indicator whether timer execution threading is enabled
@@ -570,6 +624,27 @@ public class ConfigurationEngineDefaults implements Serializable
             isThreadPoolRouteExec = threadPoolRouteExec;
         }
 
+        /**
+         * Returns true if the route execution thread pool uses virtual threads, the default is false for platform threads.
+         * @return indicator whether virtual threads are used
+         */
+        public boolean isThreadPoolRouteExecVirtualThreads()
+        {
+            return isThreadPoolRouteExecVirtualThreads;
+        }
+
+        /**
+         * Set to true for the route execution thread pool to use virtual threads, the default is false for platform threads.
+         * <p>
+         * The number of threads is then the maximum number of route executions that run concurrently.
+         * If the JVM does not support virtual threads, the pool uses platform threads.
+         * @param threadPoolRouteExecVirtualThreads indicator whether virtual threads are used
+         */
+        public void setThreadPoolRouteExecVirtualThreads(boolean threadPoolRouteExecVirtualThreads)
+        {
+            isThreadPoolRouteExecVirtualThreads = threadPoolRouteExecVirtualThreads;
+        }
+
         /**
          * Returns true for outbound threading enabled, the default is false for not enabled.
          * @return indicator whether outbound threading is enabled
@@ -588,6 +663,28 @@ public class ConfigurationEngineDefaults implements Serializable
             isThreadPoolOutbound = threadPoolOutbound;
         }
 
+        /**
+         * Returns true if the outbound thread pool uses virtual threads, the default is false for platform threads.
+         * @return indicator whether virtual threads are used
+         */
+        public boolean isThreadPoolOutboundVirtualThreads()
+        {
+            return isThreadPoolOutboundVirtualThreads;
+        }
+
+        /**
+         * Set to true for the outbound thread pool to use virtual threads, the default is false for platform threads.
+         * <p>
+         * The number of threads is then the maximum number of listener dispatches that run concurrently,
+         * and can be large for listeners that block on I/O.
+         * If the JVM does not support virtual threads, the pool uses platform threads.
+         * @param threadPoolOutboundVirtualThreads indicator whether virtual threads are used
+         */
+        public void setThreadPoolOutboundVirtualThreads(boolean threadPoolOutboundVirtualThreads)
+        {
+            isThreadPoolOutboundVirtualThreads = threadPoolOutboundVirtualThreads;
+        }
+
         /**
          * Returns the number of thread in the inbound threading pool. 
          * @return number of threads
@@ -732,6 +829,42 @@ public class ConfigurationEngineDefaults implements Serializable
             this.threadPoolOutboundCapacity = capacity;
         }
 
+        /**
+         * Returns the type of queue backing the inbound, outbound, timer and route execution thread pools (default is blocking queue).
+         * @return queue type
+         */
+        public ThreadPoolQueueType getThreadPoolQueueType()
+        {
+            return threadPoolQueueType;
+        }
+
+        /**
+         * Sets the type of queue backing the inbound, outbound, timer and route execution thread pools (default is blocking queue).
+         * @param threadPoolQueueType queue type
+         */
+        public void setThreadPoolQueueType(ThreadPoolQueueType threadPoolQueueType)
+        {
+            this.threadPoolQueueType = threadPoolQueueType;
+        }
+
+        /**
+         * Returns the strategy for threads waiting on a full or empty ring buffer queue (default is park).
+         * @return wait strategy
+         */
+        public ThreadPoolWaitStrategy getThreadPoolWaitStrategy()
+        {
+            return threadPoolWaitStrategy;
+        }
+
+        /**
+         * Sets the strategy for threads waiting on a full or empty ring buffer queue (default is park).
+         * @param threadPoolWaitStrategy wait strategy
+         */
+        public void setThreadPoolWaitStrategy(ThreadPoolWaitStrategy threadPoolWaitStrategy)
+        {
+            this.threadPoolWaitStrategy = threadPoolWaitStrategy;
+        }
+
         /**
          * Returns true if the engine-level lock is configured as a fair lock (default is false).
          * <p>
@@ -825,6 +958,50 @@ public class ConfigurationEngineDefaults implements Serializable
              */
             SUSPEND
         }
+
+        /**
+         * Enumeration of queue types for thread pools.
+         */
+        public enum ThreadPoolQueueType
+        {
+            /**
+             * Linked blocking queue if unbounded, or array blocking queue if a capacity is set, the default.
+             */
+            BLOCKINGQUEUE,
+
+            /**
+             * Preallocated ring buffer that is lock-free for producers and consumers, bounded by the capacity.
+             * Applies only to thread pools that have a capacity set, thread pools without capacity keep the unbounded linked blocking queue.
+             */
+            RINGBUFFER
+        }
+
+        /**
+         * Enumeration of wait strategies for threads waiting on a full or empty ring buffer queue.
+         */
+        public enum ThreadPoolWaitStrategy
+        {
+            /**
+             * Busy-spin, for the lowest latency at the cost of keeping a core fully busy for each waiting thread.
+             * <p>
+             * Pool threads wait on an empty queue, therefore each idle pool thread consumes a full core even when no events arrive.
+             * Only use when the number of pool threads is well below the number of available cores.
+             */
+            BUSYSPIN,
+
+            /**
+             * Yield the thread.
+             * <p>
+             * Idle pool threads continuously yield and therefore show full CPU usage when no other thread is runnable,
+             * yielding only gives up the core when other threads compete for it.
+             */
+            YIELD,
+
+            /**
+             * Yield briefly and then park the thread for a short, increasing time, the default.
+             */
+            PARK
+        }
     }
 
     /**
@@ -1615,6 +1792,9 @@ public class ConfigurationEngineDefaults implements Serializable
         private FilterServiceProfile filterServiceProfile = FilterServiceProfile.READMOSTLY;
         private int filterServiceMaxFilterWidth = 16;
         private int declaredExprValueCacheSize = 1;
+        private SchedulingServiceProfile schedulingServiceProfile = SchedulingServiceProfile.SORTEDMAP;
+        private int schedulingServicePartitions = 1;
+        private int adaptiveJoinOrderInterval;
 
         private static final long serialVersionUID = 0L;
 
@@ -1763,6 +1943,62 @@ public class ConfigurationEngineDefaults implements Serializable
         public void setDeclaredExprValueCacheSize(int declaredExprValueCacheSize) {
             this.declaredExprValueCacheSize = declaredExprValueCacheSize;
         }
+
+        /**
+         * Returns the scheduling service profile for tuning schedule operations.
+         * @return scheduling service profile
+         */
+        public SchedulingServiceProfile getSchedulingServiceProfile() {
+            return schedulingServiceProfile;
+        }
+
+        /**
+         * Set the scheduling service profile for tuning schedule operations.
+         * @param schedulingServiceProfile scheduling service profile
+         */
+        public void setSchedulingServiceProfile(SchedulingServiceProfile schedulingServiceProfile) {
+            this.schedulingServiceProfile = schedulingServiceProfile;
+        }
+
+        /**
+         * Returns the number of partitions of the scheduling service, the default is 1 for no partitioning.
+         * With more than one partition schedules are partitioned by statement and context partition,
+         * allowing partitions to be evaluated in parallel when the timer execution thread pool is enabled.
+         * @return number of scheduling service partitions
+         */
+        public int getSchedulingServicePartitions() {
+            return schedulingServicePartitions;
+        }
+
+        /**
+         * Sets the number of partitions of the scheduling service, the default is 1 for no partitioning.
+         * With more than one partition schedules are partitioned by statement and context partition,
+         * allowing partitions to be evaluated in parallel when the timer execution thread pool is enabled.
+         * @param schedulingServicePartitions number of scheduling service partitions
+         */
+        public void setSchedulingServicePartitions(int schedulingServicePartitions) {
+            this.schedulingServicePartitions = schedulingServicePartitions;
+        }
+
+        /**
+         * Returns the number of lookups after which joins of three or more streams re-evaluate the order in which
+         * they look up streams, the default is 0 for no re-evaluation.
+         * @return number of lookups between re-evaluations of join order
+         */
+        public int getAdaptiveJoinOrderInterval() {
+            return adaptiveJoinOrderInterval;
+        }
+
+        /**
+         * Sets the number of lookups after which joins of three or more streams re-evaluate the order in which
+         * they look up streams, the default is 0 for no re-evaluation.
+         * When set to a positive value, a join keeps alternative lookup orders and switches to a different order
+         * when the current index sizes and key selectivity estimate it to be much cheaper.
+         * @param adaptiveJoinOrderInterval number of lookups between re-evaluations of join order
+         */
+        public void setAdaptiveJoinOrderInterval(int adaptiveJoinOrderInterval) {
+            this.adaptiveJoinOrderInterval = adaptiveJoinOrderInterval;
+        }
     }
 
     /**
@@ -1794,7 +2030,29 @@ public class ConfigurationEngineDefaults implements Serializable
         /**
          * For very dynamic filters that come and go in a highly threaded environment.
          */
-        READWRITE
+        READWRITE,
+
+        /**
+         * For filters that rarely change and very high event rates in a highly threaded environment:
+         * filter changes copy the changed index nodes and events are evaluated without locking.
+         */
+        COPYONWRITE
+    }
+
+    /**
+     * Scheduling service profile.
+     */
+    public enum SchedulingServiceProfile
+    {
+        /**
+         * Schedules are kept in a sorted map of times, the default.
+         */
+        SORTEDMAP,
+
+        /**
+         * Schedules are kept in a hierarchical timing wheel, for a large number of schedules that are frequently added and removed.
+         */
+        TIMINGWHEEL
     }
 
     /**
@@ -27,6 +27,18 @@ public class ConfigurationMethodRef implements Serializable
         dataCacheDesc = new ConfigurationLRUCache(size);
     }
 
+    /**
+     * Configures a concurrent cache for the method invocation that serves lookups without locking, bounded by the given
+     * maximum size and, if a maximum age is given, by the age of entries.
+     * @param maxSize is the maximum cache size, as the number of entries or, when weighing by row count, as the number of rows
+     * @param maxAgeSeconds is the maximum age in seconds, or zero for entries not to expire
+     * @param weighByRowCount true to weigh each entry by the number of rows it holds, false to weigh each entry as one
+     */
+    public void setConcurrentCache(int maxSize, double maxAgeSeconds, boolean weighByRowCount)
+    {
+        dataCacheDesc = new ConfigurationConcurrentCache(maxSize, maxAgeSeconds, weighByRowCount);
+    }
+
     /**
      * Configures an expiry-time cache of the given maximum age in seconds and purge interval in seconds.
      * <p>
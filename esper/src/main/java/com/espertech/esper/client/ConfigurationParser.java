@@ -595,6 +595,18 @@ class ConfigurationParser {
                 String size = getRequiredAttribute(subElement, "size");
                 configDBRef.setLRUCache(Integer.parseInt(size));
             }
+            else if (subElement.getNodeName().equals("concurrent-cache"))
+            {
+                String maxSize = getRequiredAttribute(subElement, "max-size");
+                String maxAge = getOptionalAttribute(subElement, "max-age-seconds");
+                String weighByRowCount = getOptionalAttribute(subElement, "weigh-by-row-count");
+                configDBRef.setConcurrentCache(Integer.parseInt(maxSize), maxAge == null ? 0 : Double.parseDouble(maxAge), weighByRowCount != null && Boolean.parseBoolean(weighByRowCount));
+            }
+            else if (subElement.getNodeName().equals("parallel-polling"))
+            {
+                String threads = getRequiredAttribute(subElement, "threads");
+                configDBRef.setParallelPollingThreads(Integer.parseInt(threads));
+            }
         }
     }
 
@@ -625,6 +637,13 @@ class ConfigurationParser {
                 String size = getRequiredAttribute(subElement, "size");
                 configMethodRef.setLRUCache(Integer.parseInt(size));
             }
+            else if (subElement.getNodeName().equals("concurrent-cache"))
+            {
+                String maxSize = getRequiredAttribute(subElement, "max-size");
+                String maxAge = getOptionalAttribute(subElement, "max-age-seconds");
+                String weighByRowCount = getOptionalAttribute(subElement, "weigh-by-row-count");
+                configMethodRef.setConcurrentCache(Integer.parseInt(maxSize), maxAge == null ? 0 : Double.parseDouble(maxAge), weighByRowCount != null && Boolean.parseBoolean(weighByRowCount));
+            }
         }
     }
 
@@ -1157,6 +1176,24 @@ class ConfigurationParser {
                 configuration.getEngineDefaults().getThreading().setThreadPoolInbound(result.isEnabled());
                 configuration.getEngineDefaults().getThreading().setThreadPoolInboundNumThreads(result.getNumThreads());
                 configuration.getEngineDefaults().getThreading().setThreadPoolInboundCapacity(result.getCapacity());
+
+                String keyAffinityStr = getOptionalAttribute(subElement, "key-affinity");
+                if (keyAffinityStr != null)
+                {
+                    configuration.getEngineDefaults().getThreading().setThreadPoolInboundKeyAffinity(Boolean.parseBoolean(keyAffinityStr));
+                }
+
+                DOMElementIterator partitionKeyIterator = new DOMElementIterator(subElement.getChildNodes());
+                while (partitionKeyIterator.hasNext())
+                {
+                    Element partitionKeyElement = partitionKeyIterator.next();
+                    if (partitionKeyElement.getNodeName().equals("partition-key"))
+                    {
+                        String eventTypeName = getRequiredAttribute(partitionKeyElement, "event-type-name");
+                        String propertyName = getRequiredAttribute(partitionKeyElement, "property-name");
+                        configuration.getEngineDefaults().getThreading().addThreadPoolInboundPartitionKey(eventTypeName, propertyName);
+                    }
+                }
             }
             if (subElement.getNodeName().equals("threadpool-outbound"))
             {
@@ -1164,6 +1201,7 @@ class ConfigurationParser {
                 configuration.getEngineDefaults().getThreading().setThreadPoolOutbound(result.isEnabled());
                 configuration.getEngineDefaults().getThreading().setThreadPoolOutboundNumThreads(result.getNumThreads());
                 configuration.getEngineDefaults().getThreading().setThreadPoolOutboundCapacity(result.getCapacity());
+                configuration.getEngineDefaults().getThreading().setThreadPoolOutboundVirtualThreads(result.isVirtualThreads());
             }
             if (subElement.getNodeName().equals("threadpool-timerexec"))
             {
@@ -1178,6 +1216,20 @@ class ConfigurationParser {
                 configuration.getEngineDefaults().getThreading().setThreadPoolRouteExec(result.isEnabled());
                 configuration.getEngineDefaults().getThreading().setThreadPoolRouteExecNumThreads(result.getNumThreads());
                 configuration.getEngineDefaults().getThreading().setThreadPoolRouteExecCapacity(result.getCapacity());
+                configuration.getEngineDefaults().getThreading().setThreadPoolRouteExecVirtualThreads(result.isVirtualThreads());
+            }
+            if (subElement.getNodeName().equals("threadpool-queue"))
+            {
+                String typeStr = getRequiredAttribute(subElement, "type");
+                configuration.getEngineDefaults().getThreading().setThreadPoolQueueType(
+                        ConfigurationEngineDefaults.Threading.ThreadPoolQueueType.valueOf(typeStr.toUpperCase()));
+
+                String waitStrategyStr = getOptionalAttribute(subElement, "wait-strategy");
+                if (waitStrategyStr != null)
+                {
+                    configuration.getEngineDefaults().getThreading().setThreadPoolWaitStrategy(
+                            ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy.valueOf(waitStrategyStr.toUpperCase()));
+                }
             }
         }
     }
@@ -1197,7 +1249,10 @@ class ConfigurationParser {
             capacity = Integer.parseInt(capacityStr);
         }
 
-        return new ThreadPoolConfig(isEnabled, numThreads, capacity);
+        String virtualThreadsStr = getOptionalAttribute(parentElement, "virtual-threads");
+        boolean isVirtualThreads = virtualThreadsStr != null && Boolean.parseBoolean(virtualThreadsStr);
+
+        return new ThreadPoolConfig(isEnabled, numThreads, capacity, isVirtualThreads);
     }
 
     private static void handleDefaultsViewResources(Configuration configuration, Element parentElement)
@@ -1569,6 +1624,23 @@ class ConfigurationParser {
         {
             configuration.getEngineDefaults().getExecution().setDeclaredExprValueCacheSize(Integer.parseInt(declExprValueCacheSizeStr));
         }
+        String schedulingServiceProfileStr = getOptionalAttribute(parentElement, "scheduling-service-profile");
+        if (schedulingServiceProfileStr != null)
+        {
+            ConfigurationEngineDefaults.SchedulingServiceProfile profile = ConfigurationEngineDefaults.SchedulingServiceProfile.valueOf(schedulingServiceProfileStr.toUpperCase());
+            configuration.getEngineDefaults().getExecution().setSchedulingServiceProfile(profile);
+        }
+        String schedulingServicePartitionsStr = getOptionalAttribute(parentElement, "scheduling-service-partitions");
+        if (schedulingServicePartitionsStr != null)
+        {
+            configuration.getEngineDefaults().getExecution().setSchedulingServicePartitions(Integer.parseInt(schedulingServicePartitionsStr));
+        }
+
+        String adaptiveJoinOrderIntervalStr = getOptionalAttribute(parentElement, "adaptive-join-order-interval");
+        if (adaptiveJoinOrderIntervalStr != null)
+        {
+            configuration.getEngineDefaults().getExecution().setAdaptiveJoinOrderInterval(Integer.parseInt(adaptiveJoinOrderIntervalStr));
+        }
     }
 
     private static void handleDefaultScriptConfig(Configuration configuration, Element parentElement)
@@ -1740,12 +1812,14 @@ class ConfigurationParser {
         private boolean enabled;
         private int numThreads;
         private Integer capacity;
+        private boolean virtualThreads;
 
-        public ThreadPoolConfig(boolean enabled, int numThreads, Integer capacity)
+        public ThreadPoolConfig(boolean enabled, int numThreads, Integer capacity, boolean virtualThreads)
         {
             this.enabled = enabled;
             this.numThreads = numThreads;
             this.capacity = capacity;
+            this.virtualThreads = virtualThreads;
         }
 
         public boolean isEnabled()
@@ -1762,6 +1836,11 @@ class ConfigurationParser {
         {
             return capacity;
         }
+
+        public boolean isVirtualThreads()
+        {
+            return virtualThreads;
+        }
     }
 
     private static Logger log = LoggerFactory.getLogger(ConfigurationParser.class);
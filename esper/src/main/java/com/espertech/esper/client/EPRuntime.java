@@ -76,6 +76,33 @@ public interface EPRuntime
      */
     public void sendEvent(org.w3c.dom.Node node) throws EPException;
 
+    /**
+     * Send a batch of events represented by plain Java objects to the event stream processing runtime.
+     * <p>
+     * Each event is processed as if sent by {@link #sendEvent(Object)}, in the order of the list, and its results are
+     * delivered to listeners before the next event of the batch is processed. Sending a batch amortizes the
+     * per-event overhead of the runtime, such as locking and thread-local lookup, over the events of the batch.
+     * <p>
+     * When the processing of an event leads to an error the remaining events of the batch are not processed.
+     *
+     * @param events is the list of events to send to the runtime
+     * @throws EPException is thrown when the processing of an event lead to an error
+     */
+    public void sendEvents(List<?> events) throws EPException;
+
+    /**
+     * Send a batch of object arrays containing event property values to the event stream processing runtime.
+     * <p>
+     * Each event is processed as if sent by {@link #sendEvent(Object[], String)}, in the order of the array, and its results
+     * are delivered to listeners before the next event of the batch is processed.
+     * The event type is resolved once for the batch.
+     *
+     * @param objectarrays - arrays that each contain event property values
+     * @param objectArrayEventTypeName - the name for the Object-array event type that was previously configured
+     * @throws EPException - when the processing of an event leads to an error
+     */
+    public void sendEvents(Object[][] objectarrays, String objectArrayEventTypeName) throws EPException;
+
     /**
      * Number of events evaluated over the lifetime of the event stream processing runtime,
      * or since the last resetStats() call.
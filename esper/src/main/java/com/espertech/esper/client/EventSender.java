@@ -8,6 +8,8 @@
  **************************************************************************************/
 package com.espertech.esper.client;
 
+import java.util.List;
+
 /**
  * Returns a facility to process event objects that are of a known type.
  * <p>
@@ -30,6 +32,25 @@ public interface EventSender
      */
     public void sendEvent(Object theEvent) throws EPException;
 
+    /**
+     * Processes a batch of event objects.
+     * <p>
+     * Each event object is processed as by the sendEvent method, in the order of the list, and its results are
+     * delivered to listeners before the next event object of the batch is processed. Sending a batch amortizes the
+     * per-event overhead of the runtime over the events of the batch.
+     * <p>
+     * The default implementation sends each event object via the sendEvent method.
+     * @param events to process
+     * @throws EPException if a runtime error occured.
+     */
+    public default void sendEventBatch(List<?> events) throws EPException
+    {
+        for (Object theEvent : events)
+        {
+            sendEvent(theEvent);
+        }
+    }
+
     /**
      * Route the event object back to the event stream processing runtime for internal dispatching,
      * to avoid the possibility of a stack overflow due to nested calls to sendEvent.
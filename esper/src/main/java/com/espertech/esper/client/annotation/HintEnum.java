@@ -107,7 +107,36 @@ public enum HintEnum
     /**
      * For use with output rate limiting to enable certain optimization that may however change output.
      */
-    ENABLE_OUTPUTLIMIT_OPT("ENABLE_OUTPUTLIMIT_OPT", false, false, false);
+    ENABLE_OUTPUTLIMIT_OPT("ENABLE_OUTPUTLIMIT_OPT", false, false, false),
+
+    /**
+     * For use with group-by to compute the rows of a snapshot, such as for output snapshot or iteration, on multiple threads
+     * when there are many groups. Applies when the group-by, select and having expressions consist only of properties,
+     * constants, operators and aggregation functions that are not access aggregations and there is no order-by clause.
+     * <p>
+     * The snapshot is computed while the statement lock is held, as without the hint: processing of events
+     * by the statement remains blocked until the snapshot is complete, only for a shorter time.
+     */
+    ENABLE_PARALLEL_SNAPSHOT("ENABLE_PARALLEL_SNAPSHOT", false, false, false),
+
+    /**
+     * For use with aggregation without group-by over a time window with output snapshot at a time interval, to keep
+     * partial aggregation states per pane of time instead of the events of the time window. Applies when all
+     * aggregation functions can be combined from partial states, such as sum, avg, count, min and max, and the
+     * statement selects from a single filter stream without prev or prior and without selecting the remove stream.
+     * <p>
+     * Panes are aligned to the time of the first event, which is also the reference point of the output interval,
+     * so that the output values equal those computed over the time window. Iterating the statement between outputs
+     * returns approximate values: they include the values of the oldest pane, of which some already left the time window.
+     */
+    ENABLE_PANE_AGGREGATION("ENABLE_PANE_AGGREGATION", false, false, false),
+
+    /**
+     * For use with a group-by window that has a single length window or last-event child view, to keep the events of all
+     * groups in arrays shared by the groups instead of a copy of the child view per group. Applies to filter streams
+     * when the statement does not use prev or prior.
+     */
+    ENABLE_COMPACT_GROUPWIN("ENABLE_COMPACT_GROUPWIN", false, false, false);
 
     private final String value;
     private final boolean acceptsParameters;
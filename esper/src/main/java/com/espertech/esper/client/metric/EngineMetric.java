@@ -17,6 +17,11 @@ public class EngineMetric extends MetricEvent
     private final long inputCount;
     private final long inputCountDelta;
     private final long scheduleDepth;
+    private final long latencyCount;
+    private final long latencyP50;
+    private final long latencyP99;
+    private final long latencyP999;
+    private final long latencyMax;
 
     /**
      * Ctor.
@@ -27,12 +32,36 @@ public class EngineMetric extends MetricEvent
      * @param scheduleDepth schedule depth
      */
     public EngineMetric(String engineURI, long timestamp, long inputCount, long inputCountDelta, long scheduleDepth)
+    {
+        this(engineURI, timestamp, inputCount, inputCountDelta, scheduleDepth, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Ctor.
+     * @param engineURI engine URI
+     * @param timestamp engine timestamp
+     * @param inputCount number of input events
+     * @param inputCountDelta number of input events since last
+     * @param scheduleDepth schedule depth
+     * @param latencyCount number of latencies recorded since last
+     * @param latencyP50 median latency in nanoseconds since last
+     * @param latencyP99 99th percentile latency in nanoseconds since last
+     * @param latencyP999 99.9th percentile latency in nanoseconds since last
+     * @param latencyMax maximum latency in nanoseconds since last
+     */
+    public EngineMetric(String engineURI, long timestamp, long inputCount, long inputCountDelta, long scheduleDepth,
+                        long latencyCount, long latencyP50, long latencyP99, long latencyP999, long latencyMax)
     {
         super(engineURI);
         this.timestamp = timestamp;
         this.inputCount = inputCount;
         this.inputCountDelta = inputCountDelta;
         this.scheduleDepth = scheduleDepth;
+        this.latencyCount = latencyCount;
+        this.latencyP50 = latencyP50;
+        this.latencyP99 = latencyP99;
+        this.latencyP999 = latencyP999;
+        this.latencyMax = latencyMax;
     }
 
     /**
@@ -69,4 +98,45 @@ public class EngineMetric extends MetricEvent
     public long getInputCountDelta() {
         return inputCountDelta;
     }
+
+    /**
+     * Returns the number of latencies recorded across all statements since last reporting period.
+     * @return number of latencies
+     */
+    public long getLatencyCount() {
+        return latencyCount;
+    }
+
+    /**
+     * Returns the median latency in nanoseconds, across all statements since last reporting period,
+     * between the engine receiving the event or time advance and statement output being delivered to listeners or subscribers.
+     * @return median latency
+     */
+    public long getLatencyP50() {
+        return latencyP50;
+    }
+
+    /**
+     * Returns the 99th percentile latency in nanoseconds since last reporting period.
+     * @return 99th percentile latency
+     */
+    public long getLatencyP99() {
+        return latencyP99;
+    }
+
+    /**
+     * Returns the 99.9th percentile latency in nanoseconds since last reporting period.
+     * @return 99.9th percentile latency
+     */
+    public long getLatencyP999() {
+        return latencyP999;
+    }
+
+    /**
+     * Returns the maximum latency in nanoseconds since last reporting period.
+     * @return maximum latency
+     */
+    public long getLatencyMax() {
+        return latencyMax;
+    }
 }
@@ -22,6 +22,11 @@ public class StatementMetric extends MetricEvent
     private AtomicLong numInput;
     private AtomicLong numOutputRStream;
     private AtomicLong numOutputIStream;
+    private long latencyCount;
+    private long latencyP50;
+    private long latencyP99;
+    private long latencyP999;
+    private long latencyMax;
 
     /**
      * Ctor.
@@ -154,4 +159,63 @@ public class StatementMetric extends MetricEvent
     {
         numInput.addAndGet(numInputAdd);
     }
+
+    /**
+     * Sets the latency percentiles, in nanoseconds, of the statement output during the interval.
+     * @param count number of latencies recorded
+     * @param p50 median latency
+     * @param p99 99th percentile latency
+     * @param p999 99.9th percentile latency
+     * @param max maximum latency
+     */
+    public void setLatency(long count, long p50, long p99, long p999, long max)
+    {
+        this.latencyCount = count;
+        this.latencyP50 = p50;
+        this.latencyP99 = p99;
+        this.latencyP999 = p999;
+        this.latencyMax = max;
+    }
+
+    /**
+     * Returns the number of latencies recorded, which is the number of times the statement delivered output
+     * to listeners or subscribers.
+     * @return number of latencies
+     */
+    public long getLatencyCount() {
+        return latencyCount;
+    }
+
+    /**
+     * Returns the median latency in nanoseconds between the engine receiving the event or time advance
+     * and the statement output being delivered to listeners or subscribers.
+     * @return median latency
+     */
+    public long getLatencyP50() {
+        return latencyP50;
+    }
+
+    /**
+     * Returns the 99th percentile latency in nanoseconds.
+     * @return 99th percentile latency
+     */
+    public long getLatencyP99() {
+        return latencyP99;
+    }
+
+    /**
+     * Returns the 99.9th percentile latency in nanoseconds.
+     * @return 99.9th percentile latency
+     */
+    public long getLatencyP999() {
+        return latencyP999;
+    }
+
+    /**
+     * Returns the maximum latency in nanoseconds.
+     * @return maximum latency
+     */
+    public long getLatencyMax() {
+        return latencyMax;
+    }
 }
@@ -17,7 +17,7 @@ import java.util.NoSuchElementException;
  * - this must be used with care as old elements could be in the array and the array is only valid until
  *  the number of elements indicated by size.
  * <p>
- * Implements only the add, size and clear methods of the collection interface.
+ * Implements only the add, size, isEmpty, contains, iterator and clear methods of the collection interface.
  * <p>
  * When running out of space for the underlying array, allocates a new array of double the size of the
  * current array.
@@ -84,12 +84,19 @@ public class ArrayBackedCollection<T> implements Collection<T>
 
     public boolean isEmpty()
     {
-        throw new UnsupportedOperationException();
+        return currentIndex == 0;
     }
 
     public boolean contains(Object o)
     {
-        throw new UnsupportedOperationException();
+        for (int i = 0; i < currentIndex; i++)
+        {
+            if (o == null ? handles[i] == null : o.equals(handles[i]))
+            {
+                return true;
+            }
+        }
+        return false;
     }
 
     public Iterator<T> iterator()
@@ -0,0 +1,275 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+import com.espertech.esper.client.EventBean;
+
+import java.util.*;
+
+/**
+ * Insertion-ordered set of events that is optimized towards holding a single event, for use as the
+ * per-key bucket of hash indexes.
+ * <p>
+ * A single event is held inline in a field. Upon adding a second event the set switches to a small array
+ * that it grows and shifts as needed, and when the array size exceeds a threshold the set switches to a
+ * linked hash set so that removal stays constant-time for keys with many events.
+ * Events are compared by equals-method the same as a linked hash set does.
+ * <p>
+ * Not thread-safe.
+ */
+public final class CompactEventSet extends AbstractSet<EventBean>
+{
+    private static final int MAX_ARRAY_SIZE = 16;
+
+    // either null, a single event, an event array or a linked hash set
+    private Object events;
+    private int size;
+
+    /**
+     * Ctor.
+     */
+    public CompactEventSet()
+    {
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public boolean contains(Object o)
+    {
+        if (size == 0 || o == null) {
+            return false;
+        }
+        if (events instanceof EventBean) {
+            return events.equals(o);
+        }
+        if (events instanceof EventBean[]) {
+            return indexOf((EventBean[]) events, o) != -1;
+        }
+        return ((Set) events).contains(o);
+    }
+
+    public boolean add(EventBean theEvent)
+    {
+        if (theEvent == null) {
+            throw new IllegalArgumentException("Null event not allowed");
+        }
+        if (size == 0) {
+            events = theEvent;
+            size = 1;
+            return true;
+        }
+        if (events instanceof EventBean) {
+            if (events.equals(theEvent)) {
+                return false;
+            }
+            EventBean[] array = new EventBean[4];
+            array[0] = (EventBean) events;
+            array[1] = theEvent;
+            events = array;
+            size = 2;
+            return true;
+        }
+        if (events instanceof EventBean[]) {
+            EventBean[] array = (EventBean[]) events;
+            if (indexOf(array, theEvent) != -1) {
+                return false;
+            }
+            if (size == MAX_ARRAY_SIZE) {
+                Set<EventBean> set = new LinkedHashSet<EventBean>();
+                for (int i = 0; i < size; i++) {
+                    set.add(array[i]);
+                }
+                set.add(theEvent);
+                events = set;
+                size++;
+                return true;
+            }
+            if (size == array.length) {
+                array = Arrays.copyOf(array, Math.min(size << 1, MAX_ARRAY_SIZE));
+                events = array;
+            }
+            array[size++] = theEvent;
+            return true;
+        }
+        Set<EventBean> set = (Set<EventBean>) events;
+        if (set.add(theEvent)) {
+            size++;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean remove(Object o)
+    {
+        if (size == 0 || o == null) {
+            return false;
+        }
+        if (events instanceof EventBean) {
+            if (events.equals(o)) {
+                events = null;
+                size = 0;
+                return true;
+            }
+            return false;
+        }
+        if (events instanceof EventBean[]) {
+            EventBean[] array = (EventBean[]) events;
+            int index = indexOf(array, o);
+            if (index == -1) {
+                return false;
+            }
+            removeAt(array, index);
+            return true;
+        }
+        Set<EventBean> set = (Set<EventBean>) events;
+        if (set.remove(o)) {
+            size--;
+            if (size == 0) {
+                events = null;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    public void clear()
+    {
+        events = null;
+        size = 0;
+    }
+
+    public Iterator<EventBean> iterator()
+    {
+        if (size == 0) {
+            return Collections.<EventBean>emptySet().iterator();
+        }
+        if (events instanceof EventBean) {
+            return new SingleIterator((EventBean) events);
+        }
+        if (events instanceof EventBean[]) {
+            return new ArrayIterator((EventBean[]) events);
+        }
+        return new SetIterator(((Set<EventBean>) events).iterator());
+    }
+
+    private int indexOf(EventBean[] array, Object o)
+    {
+        for (int i = 0; i < size; i++) {
+            if (array[i].equals(o)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void removeAt(EventBean[] array, int index)
+    {
+        int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(array, index + 1, array, index, moved);
+        }
+        size--;
+        array[size] = null;
+        if (size == 1) {
+            events = array[0];
+        }
+    }
+
+    private static class SingleIterator implements Iterator<EventBean>
+    {
+        private EventBean next;
+
+        private SingleIterator(EventBean next)
+        {
+            this.next = next;
+        }
+
+        public boolean hasNext()
+        {
+            return next != null;
+        }
+
+        public EventBean next()
+        {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            EventBean result = next;
+            next = null;
+            return result;
+        }
+
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private class ArrayIterator implements Iterator<EventBean>
+    {
+        private final EventBean[] array;
+        private int position;
+
+        private ArrayIterator(EventBean[] array)
+        {
+            this.array = array;
+        }
+
+        public boolean hasNext()
+        {
+            return position < size;
+        }
+
+        public EventBean next()
+        {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return array[position++];
+        }
+
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class SetIterator implements Iterator<EventBean>
+    {
+        private final Iterator<EventBean> iterator;
+
+        private SetIterator(Iterator<EventBean> iterator)
+        {
+            this.iterator = iterator;
+        }
+
+        public boolean hasNext()
+        {
+            return iterator.hasNext();
+        }
+
+        public EventBean next()
+        {
+            return iterator.next();
+        }
+
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
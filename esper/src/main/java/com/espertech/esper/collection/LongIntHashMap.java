@@ -0,0 +1,194 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+import java.util.Arrays;
+
+/**
+ * Hash map of primitive long keys to non-negative primitive int values based on open addressing with linear probing.
+ * <p>
+ * Keys and values are kept in primitive arrays, therefore neither looking up nor adding a key allocates or boxes.
+ * Removal shifts back the entries of the probe sequence and does not leave deleted-markers behind.
+ * <p>
+ * Not thread-safe.
+ */
+public class LongIntHashMap
+{
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int shift;
+
+    /**
+     * Ctor.
+     */
+    public LongIntHashMap()
+    {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Returns the value for the key or -1 if the key is not found.
+     * @param key to look up
+     * @return value or -1
+     */
+    public int get(long key)
+    {
+        int mask = values.length - 1;
+        int index = indexFor(key);
+        while (true) {
+            int value = values[index];
+            if (value == -1) {
+                return -1;
+            }
+            if (keys[index] == key) {
+                return value;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Put a value for the key, replacing any existing value.
+     * @param key key
+     * @param value value, cannot be negative
+     * @return prior value for the key or -1 if none
+     */
+    public int put(long key, int value)
+    {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative values are not supported");
+        }
+        int mask = values.length - 1;
+        int index = indexFor(key);
+        while (true) {
+            int existing = values[index];
+            if (existing == -1) {
+                break;
+            }
+            if (keys[index] == key) {
+                values[index] = value;
+                return existing;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        size++;
+
+        // keep the load factor at or below one half
+        if (size > (values.length >> 1)) {
+            rehash(values.length << 1);
+        }
+        return -1;
+    }
+
+    /**
+     * Remove the key.
+     * @param key to remove
+     * @return removed value or -1 if the key was not found
+     */
+    public int remove(long key)
+    {
+        int mask = values.length - 1;
+        int index = indexFor(key);
+        while (true) {
+            int existing = values[index];
+            if (existing == -1) {
+                return -1;
+            }
+            if (keys[index] == key) {
+                shiftBack(index);
+                size--;
+                return existing;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Returns the number of keys.
+     * @return size
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns true if empty.
+     * @return indicator
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Remove all keys.
+     */
+    public void clear()
+    {
+        allocate(MIN_CAPACITY);
+        size = 0;
+    }
+
+    private void shiftBack(int gap)
+    {
+        int mask = values.length - 1;
+        int index = (gap + 1) & mask;
+        while (values[index] != -1) {
+            int home = indexFor(keys[index]);
+            // move the entry into the gap unless its home slot lies cyclically between the gap and itself
+            if (((index - home) & mask) >= ((index - gap) & mask)) {
+                keys[gap] = keys[index];
+                values[gap] = values[index];
+                gap = index;
+            }
+            index = (index + 1) & mask;
+        }
+        values[gap] = -1;
+    }
+
+    private void rehash(int capacity)
+    {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] == -1) {
+                continue;
+            }
+            int index = indexFor(oldKeys[i]);
+            while (values[index] != -1) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = oldKeys[i];
+            values[index] = oldValues[i];
+        }
+    }
+
+    private void allocate(int capacity)
+    {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, -1);
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    private int indexFor(long key)
+    {
+        // Fibonacci hashing, spreads consecutive keys over the table
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+}
@@ -0,0 +1,214 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+/**
+ * Hash map of primitive long keys to non-null values based on open addressing with linear probing.
+ * <p>
+ * Keys are kept in a primitive array, therefore looking up a key does not allocate and does not box the key.
+ * Removal shifts back the entries of the probe sequence and does not leave deleted-markers behind.
+ * <p>
+ * Not thread-safe.
+ * @param <V> value type
+ */
+public class LongObjectHashMap<V>
+{
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int shift;
+
+    /**
+     * Ctor.
+     */
+    public LongObjectHashMap()
+    {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Ctor, makes a copy of the map provided.
+     * @param other to copy
+     */
+    public LongObjectHashMap(LongObjectHashMap<V> other)
+    {
+        keys = other.keys.clone();
+        values = other.values.clone();
+        size = other.size;
+        shift = other.shift;
+    }
+
+    /**
+     * Returns the value for the key or null if the key is not found.
+     * @param key to look up
+     * @return value or null
+     */
+    public V get(long key)
+    {
+        int mask = values.length - 1;
+        int index = indexFor(key);
+        while (true) {
+            Object value = values[index];
+            if (value == null) {
+                return null;
+            }
+            if (keys[index] == key) {
+                return (V) value;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Returns an indicator whether the key is found.
+     * @param key to look up
+     * @return true for found
+     */
+    public boolean containsKey(long key)
+    {
+        return get(key) != null;
+    }
+
+    /**
+     * Put a value for the key, replacing any existing value.
+     * @param key key
+     * @param value value, cannot be null
+     * @return prior value for the key or null if none
+     */
+    public V put(long key, V value)
+    {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        int mask = values.length - 1;
+        int index = indexFor(key);
+        while (true) {
+            Object existing = values[index];
+            if (existing == null) {
+                break;
+            }
+            if (keys[index] == key) {
+                values[index] = value;
+                return (V) existing;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        size++;
+
+        // keep the load factor at or below one half
+        if (size > (values.length >> 1)) {
+            rehash(values.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Remove the key.
+     * @param key to remove
+     * @return removed value or null if the key was not found
+     */
+    public V remove(long key)
+    {
+        int mask = values.length - 1;
+        int index = indexFor(key);
+        while (true) {
+            Object existing = values[index];
+            if (existing == null) {
+                return null;
+            }
+            if (keys[index] == key) {
+                shiftBack(index);
+                size--;
+                return (V) existing;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Returns the number of keys.
+     * @return size
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns true if empty.
+     * @return indicator
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Remove all keys.
+     */
+    public void clear()
+    {
+        allocate(MIN_CAPACITY);
+        size = 0;
+    }
+
+    private void shiftBack(int gap)
+    {
+        int mask = values.length - 1;
+        int index = (gap + 1) & mask;
+        while (values[index] != null) {
+            int home = indexFor(keys[index]);
+            // move the entry into the gap unless its home slot lies cyclically between the gap and itself
+            if (((index - home) & mask) >= ((index - gap) & mask)) {
+                keys[gap] = keys[index];
+                values[gap] = values[index];
+                gap = index;
+            }
+            index = (index + 1) & mask;
+        }
+        values[gap] = null;
+    }
+
+    private void rehash(int capacity)
+    {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] == null) {
+                continue;
+            }
+            int index = indexFor(oldKeys[i]);
+            while (values[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = oldKeys[i];
+            values[index] = oldValues[i];
+        }
+    }
+
+    private void allocate(int capacity)
+    {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    private int indexFor(long key)
+    {
+        // Fibonacci hashing, spreads consecutive keys over the table
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+}
@@ -8,6 +8,7 @@
  **************************************************************************************/
 package com.espertech.esper.collection;
 
+import com.espertech.esper.util.MurmurHash;
 import com.espertech.esper.util.MetaDefItem;
 
 import java.util.Arrays;
@@ -35,16 +36,7 @@ public final class MultiKeyUntyped implements MetaDefItem, Serializable
             throw new IllegalArgumentException("The array of keys must not be null");
         }
 
-        int total = 0;
-        for (int i = 0; i < keys.length; i++)
-        {
-            if (keys[i] != null) {
-                total *= 31;
-                total ^= keys[i].hashCode();
-            }
-        }
-
-        this.hashCode = total;
+        this.hashCode = MurmurHash.hashObjects(keys);
         this.keys = keys;
     }
 
@@ -118,7 +110,7 @@ public final class MultiKeyUntyped implements MetaDefItem, Serializable
         if (other instanceof MultiKeyUntyped)
         {
             MultiKeyUntyped otherKeys = (MultiKeyUntyped) other;
-            return Arrays.equals(keys, otherKeys.keys);
+            return hashCode == otherKeys.hashCode && Arrays.equals(keys, otherKeys.keys);
         }
         return false;
     }
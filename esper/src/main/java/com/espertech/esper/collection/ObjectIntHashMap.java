@@ -0,0 +1,215 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+/**
+ * Hash map of non-null object keys to non-negative primitive int values based on open addressing with linear probing.
+ * Keys are compared by equals or, if so constructed, by identity.
+ * <p>
+ * Keys and values are kept in arrays, therefore adding a key does not allocate an entry object and values are not boxed.
+ * Removal shifts back the entries of the probe sequence and does not leave deleted-markers behind.
+ * <p>
+ * Not thread-safe.
+ * @param <K> key type
+ */
+public class ObjectIntHashMap<K>
+{
+    private static final int MIN_CAPACITY = 8;
+
+    private final boolean identity;
+    private Object[] keys;
+    private int[] values;
+    private int size;
+    private int shift;
+
+    /**
+     * Ctor, comparing keys by equals.
+     */
+    public ObjectIntHashMap()
+    {
+        this(false);
+    }
+
+    /**
+     * Ctor.
+     * @param identity true to compare keys by identity and hash by identity hash code, false to use equals and hash code
+     */
+    public ObjectIntHashMap(boolean identity)
+    {
+        this.identity = identity;
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Returns the value for the key or -1 if the key is not found.
+     * @param key to look up, cannot be null
+     * @return value or -1
+     */
+    public int get(K key)
+    {
+        int mask = keys.length - 1;
+        int index = indexFor(key);
+        while (true) {
+            Object existing = keys[index];
+            if (existing == null) {
+                return -1;
+            }
+            if (isSameKey(existing, key)) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Put a value for the key, replacing any existing value.
+     * @param key key, cannot be null
+     * @param value value, cannot be negative
+     * @return prior value for the key or -1 if none
+     */
+    public int put(K key, int value)
+    {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not supported");
+        }
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative values are not supported");
+        }
+        int mask = keys.length - 1;
+        int index = indexFor(key);
+        while (true) {
+            Object existing = keys[index];
+            if (existing == null) {
+                break;
+            }
+            if (isSameKey(existing, key)) {
+                int prior = values[index];
+                values[index] = value;
+                return prior;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        size++;
+
+        // keep the load factor at or below one half
+        if (size > (keys.length >> 1)) {
+            rehash(keys.length << 1);
+        }
+        return -1;
+    }
+
+    /**
+     * Remove the key.
+     * @param key to remove, cannot be null
+     * @return removed value or -1 if the key was not found
+     */
+    public int remove(K key)
+    {
+        int mask = keys.length - 1;
+        int index = indexFor(key);
+        while (true) {
+            Object existing = keys[index];
+            if (existing == null) {
+                return -1;
+            }
+            if (isSameKey(existing, key)) {
+                int prior = values[index];
+                shiftBack(index);
+                size--;
+                return prior;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Returns the number of keys.
+     * @return size
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns true if empty.
+     * @return indicator
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Remove all keys.
+     */
+    public void clear()
+    {
+        allocate(MIN_CAPACITY);
+        size = 0;
+    }
+
+    private void shiftBack(int gap)
+    {
+        int mask = keys.length - 1;
+        int index = (gap + 1) & mask;
+        while (keys[index] != null) {
+            int home = indexFor(keys[index]);
+            // move the entry into the gap unless its home slot lies cyclically between the gap and itself
+            if (((index - home) & mask) >= ((index - gap) & mask)) {
+                keys[gap] = keys[index];
+                values[gap] = values[index];
+                gap = index;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[gap] = null;
+    }
+
+    private void rehash(int capacity)
+    {
+        Object[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == null) {
+                continue;
+            }
+            int index = indexFor(oldKeys[i]);
+            while (keys[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = oldKeys[i];
+            values[index] = oldValues[i];
+        }
+    }
+
+    private void allocate(int capacity)
+    {
+        keys = new Object[capacity];
+        values = new int[capacity];
+        shift = 32 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    private boolean isSameKey(Object existing, Object key)
+    {
+        return existing == key || (!identity && existing.equals(key));
+    }
+
+    private int indexFor(Object key)
+    {
+        // Fibonacci hashing, spreads hash codes that differ in the low bits only over the table
+        int hash = identity ? System.identityHashCode(key) : key.hashCode();
+        return (hash * 0x9E3779B9) >>> shift;
+    }
+}
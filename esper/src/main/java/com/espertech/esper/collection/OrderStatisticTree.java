@@ -0,0 +1,728 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Sorted sequence of values by key that allows duplicate keys and provides access by position (rank),
+ * based on a B+-tree whose nodes carry the number of values they hold.
+ * <p>
+ * Values with equal keys are kept in the order determined by the insert method used:
+ * {@link #addFirst(Object, Object)} inserts before, {@link #addLast(Object, Object)} inserts after the values with an equal key.
+ * Accessing, inserting and removing a value by position or by key take logarithmic time.
+ * <p>
+ * Keys and values are held in arrays in the leaf nodes, therefore the tree does not allocate an entry object per value.
+ * Leaf arrays start small and grow up to the fan-out, so that small trees, such as one per group, remain small.
+ * The collection view is read-only. Not thread-safe.
+ * @param <V> value type
+ */
+public class OrderStatisticTree<V> extends AbstractCollection<V>
+{
+    private static final int MAX_ENTRIES = 64;
+    private static final int MIN_ENTRIES = MAX_ENTRIES / 4;
+    private static final int INITIAL_LEAF_CAPACITY = 4;
+
+    private final Comparator<Object> comparator;
+    private Node root;
+    private Leaf lastLeaf;
+
+    /**
+     * Ctor.
+     * @param comparator comparator for keys
+     */
+    public OrderStatisticTree(Comparator<Object> comparator)
+    {
+        this.comparator = comparator;
+        clear();
+    }
+
+    public int size()
+    {
+        return root.count;
+    }
+
+    public void clear()
+    {
+        Leaf leaf = new Leaf(INITIAL_LEAF_CAPACITY);
+        root = leaf;
+        lastLeaf = leaf;
+    }
+
+    /**
+     * Add the value before all values that have an equal key.
+     * @param key key
+     * @param value value
+     */
+    public void addFirst(Object key, V value)
+    {
+        add(key, value, true);
+    }
+
+    /**
+     * Add the value after all values that have an equal key.
+     * @param key key
+     * @param value value
+     */
+    public void addLast(Object key, V value)
+    {
+        add(key, value, false);
+    }
+
+    /**
+     * Returns the value at the position.
+     * @param index position, zero for the value with the lowest key
+     * @return value
+     */
+    public V get(int index)
+    {
+        checkIndex(index);
+        Node node = root;
+        while (node instanceof Branch) {
+            Branch branch = (Branch) node;
+            int child = 0;
+            while (index >= branch.children[child].count) {
+                index -= branch.children[child].count;
+                child++;
+            }
+            node = branch.children[child];
+        }
+        return (V) ((Leaf) node).values[index];
+    }
+
+    /**
+     * Returns the key at the position.
+     * @param index position, zero for the lowest key
+     * @return key
+     */
+    public Object getKey(int index)
+    {
+        checkIndex(index);
+        Node node = root;
+        while (node instanceof Branch) {
+            Branch branch = (Branch) node;
+            int child = 0;
+            while (index >= branch.children[child].count) {
+                index -= branch.children[child].count;
+                child++;
+            }
+            node = branch.children[child];
+        }
+        return ((Leaf) node).keys[index];
+    }
+
+    /**
+     * Replace the value at the position, retaining the key.
+     * @param index position
+     * @param value new value
+     * @return replaced value
+     */
+    public V set(int index, V value)
+    {
+        checkIndex(index);
+        Node node = root;
+        while (node instanceof Branch) {
+            Branch branch = (Branch) node;
+            int child = 0;
+            while (index >= branch.children[child].count) {
+                index -= branch.children[child].count;
+                child++;
+            }
+            node = branch.children[child];
+        }
+        Leaf leaf = (Leaf) node;
+        V replaced = (V) leaf.values[index];
+        leaf.values[index] = value;
+        return replaced;
+    }
+
+    /**
+     * Returns the position of the first value whose key is not less than the key, or the size if there is none.
+     * @param key to look up
+     * @return position
+     */
+    public int lowerBound(Object key)
+    {
+        return bound(key, true);
+    }
+
+    /**
+     * Returns the position of the first value whose key is greater than the key, or the size if there is none.
+     * @param key to look up
+     * @return position
+     */
+    public int upperBound(Object key)
+    {
+        return bound(key, false);
+    }
+
+    /**
+     * Returns the position of the first value that has the key and equals the value, or -1 if not found.
+     * @param key key of the value
+     * @param value value to find
+     * @return position or -1
+     */
+    public int indexOf(Object key, Object value)
+    {
+        int index = lowerBound(key);
+        Cursor cursor = new Cursor(index);
+        while (cursor.leaf != null) {
+            if (comparator.compare(cursor.leaf.keys[cursor.offset], key) != 0) {
+                return -1;
+            }
+            if (value.equals(cursor.leaf.values[cursor.offset])) {
+                return index;
+            }
+            cursor.forward();
+            index++;
+        }
+        return -1;
+    }
+
+    /**
+     * Remove the first value that has the key and equals the value.
+     * @param key key of the value
+     * @param value value to remove
+     * @return true if removed, false if not found
+     */
+    public boolean remove(Object key, Object value)
+    {
+        int index = indexOf(key, value);
+        if (index == -1) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * Remove the value at the position.
+     * @param index position
+     * @return removed value
+     */
+    public V removeAt(int index)
+    {
+        checkIndex(index);
+        V removed = removeAt(root, index);
+        if (root instanceof Branch && ((Branch) root).size == 1) {
+            root = ((Branch) root).children[0];
+        }
+        return removed;
+    }
+
+    public Iterator<V> iterator()
+    {
+        return iterator(0);
+    }
+
+    /**
+     * Returns an iterator in key order starting at the position.
+     * @param index position of the first value returned
+     * @return iterator
+     */
+    public Iterator<V> iterator(int index)
+    {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " for size " + size());
+        }
+        return new ForwardIterator(index);
+    }
+
+    /**
+     * Returns an iterator in reverse key order, values with equal keys are returned in reverse order as well.
+     * @return iterator
+     */
+    public Iterator<V> descendingIterator()
+    {
+        return new DescendingIterator();
+    }
+
+    private void add(Object key, V value, boolean first)
+    {
+        Node split = insert(root, key, value, first);
+        if (split != null) {
+            Branch branch = new Branch();
+            branch.children[0] = root;
+            branch.lastKeys[0] = root.lastKey();
+            branch.children[1] = split;
+            branch.lastKeys[1] = split.lastKey();
+            branch.size = 2;
+            branch.count = root.count + split.count;
+            root = branch;
+        }
+    }
+
+    private Node insert(Node node, Object key, V value, boolean first)
+    {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int pos = leafBound(leaf, key, first);
+            leaf.ensureCapacity(leaf.size + 1);
+            System.arraycopy(leaf.keys, pos, leaf.keys, pos + 1, leaf.size - pos);
+            System.arraycopy(leaf.values, pos, leaf.values, pos + 1, leaf.size - pos);
+            leaf.keys[pos] = key;
+            leaf.values[pos] = value;
+            leaf.size++;
+            leaf.count++;
+            return leaf.size > MAX_ENTRIES ? splitLeaf(leaf) : null;
+        }
+
+        Branch branch = (Branch) node;
+        int child = branchBound(branch, key, first);
+        if (child == branch.size) {
+            child--;
+        }
+        Node split = insert(branch.children[child], key, value, first);
+        branch.count++;
+        branch.lastKeys[child] = branch.children[child].lastKey();
+        if (split == null) {
+            return null;
+        }
+        int pos = child + 1;
+        System.arraycopy(branch.children, pos, branch.children, pos + 1, branch.size - pos);
+        System.arraycopy(branch.lastKeys, pos, branch.lastKeys, pos + 1, branch.size - pos);
+        branch.children[pos] = split;
+        branch.lastKeys[pos] = split.lastKey();
+        branch.size++;
+        return branch.size > MAX_ENTRIES ? splitBranch(branch) : null;
+    }
+
+    private Leaf splitLeaf(Leaf leaf)
+    {
+        int move = leaf.size / 2;
+        int from = leaf.size - move;
+        Leaf right = new Leaf(MAX_ENTRIES + 1);
+        System.arraycopy(leaf.keys, from, right.keys, 0, move);
+        System.arraycopy(leaf.values, from, right.values, 0, move);
+        clearRange(leaf.keys, leaf.values, from, leaf.size);
+        right.size = move;
+        right.count = move;
+        leaf.size = from;
+        leaf.count = from;
+
+        right.prev = leaf;
+        right.next = leaf.next;
+        if (leaf.next != null) {
+            leaf.next.prev = right;
+        }
+        else {
+            lastLeaf = right;
+        }
+        leaf.next = right;
+        return right;
+    }
+
+    private Branch splitBranch(Branch branch)
+    {
+        Branch right = new Branch();
+        int move = branch.size / 2;
+        int from = branch.size - move;
+        System.arraycopy(branch.children, from, right.children, 0, move);
+        System.arraycopy(branch.lastKeys, from, right.lastKeys, 0, move);
+        int movedCount = 0;
+        for (int i = 0; i < move; i++) {
+            movedCount += right.children[i].count;
+        }
+        clearRange(branch.children, branch.lastKeys, from, branch.size);
+        right.size = move;
+        right.count = movedCount;
+        branch.size = from;
+        branch.count -= movedCount;
+        return right;
+    }
+
+    private V removeAt(Node node, int index)
+    {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            V removed = (V) leaf.values[index];
+            System.arraycopy(leaf.keys, index + 1, leaf.keys, index, leaf.size - index - 1);
+            System.arraycopy(leaf.values, index + 1, leaf.values, index, leaf.size - index - 1);
+            leaf.size--;
+            leaf.count--;
+            leaf.keys[leaf.size] = null;
+            leaf.values[leaf.size] = null;
+            return removed;
+        }
+
+        Branch branch = (Branch) node;
+        int child = 0;
+        while (index >= branch.children[child].count) {
+            index -= branch.children[child].count;
+            child++;
+        }
+        Node childNode = branch.children[child];
+        V removed = removeAt(childNode, index);
+        branch.count--;
+        if (getSize(childNode) < MIN_ENTRIES) {
+            rebalance(branch, child);
+        }
+        else {
+            branch.lastKeys[child] = childNode.lastKey();
+        }
+        return removed;
+    }
+
+    private void rebalance(Branch branch, int child)
+    {
+        int left = child > 0 ? child - 1 : child;
+        int right = left + 1;
+        if (right >= branch.size) {
+            // single child, only occurs at the root which is collapsed by the caller
+            if (getSize(branch.children[child]) > 0) {
+                branch.lastKeys[child] = branch.children[child].lastKey();
+            }
+            return;
+        }
+        Node leftNode = branch.children[left];
+        Node rightNode = branch.children[right];
+        if (getSize(leftNode) + getSize(rightNode) <= MAX_ENTRIES) {
+            if (leftNode instanceof Leaf) {
+                mergeLeaves((Leaf) leftNode, (Leaf) rightNode);
+            }
+            else {
+                mergeBranches((Branch) leftNode, (Branch) rightNode);
+            }
+            System.arraycopy(branch.children, right + 1, branch.children, right, branch.size - right - 1);
+            System.arraycopy(branch.lastKeys, right + 1, branch.lastKeys, right, branch.size - right - 1);
+            branch.size--;
+            branch.children[branch.size] = null;
+            branch.lastKeys[branch.size] = null;
+            branch.lastKeys[left] = leftNode.lastKey();
+            return;
+        }
+
+        if (leftNode instanceof Leaf) {
+            redistributeLeaves((Leaf) leftNode, (Leaf) rightNode);
+        }
+        else {
+            redistributeBranches((Branch) leftNode, (Branch) rightNode);
+        }
+        branch.lastKeys[left] = leftNode.lastKey();
+        branch.lastKeys[right] = rightNode.lastKey();
+    }
+
+    private void mergeLeaves(Leaf left, Leaf right)
+    {
+        left.ensureCapacity(left.size + right.size);
+        System.arraycopy(right.keys, 0, left.keys, left.size, right.size);
+        System.arraycopy(right.values, 0, left.values, left.size, right.size);
+        left.size += right.size;
+        left.count = left.size;
+        left.next = right.next;
+        if (right.next != null) {
+            right.next.prev = left;
+        }
+        else {
+            lastLeaf = left;
+        }
+    }
+
+    private void mergeBranches(Branch left, Branch right)
+    {
+        System.arraycopy(right.children, 0, left.children, left.size, right.size);
+        System.arraycopy(right.lastKeys, 0, left.lastKeys, left.size, right.size);
+        left.size += right.size;
+        left.count += right.count;
+    }
+
+    private void redistributeLeaves(Leaf left, Leaf right)
+    {
+        int total = left.size + right.size;
+        int leftSize = total / 2;
+        if (left.size > leftSize) {
+            int move = left.size - leftSize;
+            right.ensureCapacity(right.size + move);
+            System.arraycopy(right.keys, 0, right.keys, move, right.size);
+            System.arraycopy(right.values, 0, right.values, move, right.size);
+            System.arraycopy(left.keys, leftSize, right.keys, 0, move);
+            System.arraycopy(left.values, leftSize, right.values, 0, move);
+            clearRange(left.keys, left.values, leftSize, left.size);
+        }
+        else {
+            int move = leftSize - left.size;
+            left.ensureCapacity(leftSize);
+            System.arraycopy(right.keys, 0, left.keys, left.size, move);
+            System.arraycopy(right.values, 0, left.values, left.size, move);
+            System.arraycopy(right.keys, move, right.keys, 0, right.size - move);
+            System.arraycopy(right.values, move, right.values, 0, right.size - move);
+            clearRange(right.keys, right.values, right.size - move, right.size);
+        }
+        left.size = leftSize;
+        left.count = leftSize;
+        right.size = total - leftSize;
+        right.count = right.size;
+    }
+
+    private void redistributeBranches(Branch left, Branch right)
+    {
+        int total = left.size + right.size;
+        int leftSize = total / 2;
+        if (left.size > leftSize) {
+            int move = left.size - leftSize;
+            System.arraycopy(right.children, 0, right.children, move, right.size);
+            System.arraycopy(right.lastKeys, 0, right.lastKeys, move, right.size);
+            System.arraycopy(left.children, leftSize, right.children, 0, move);
+            System.arraycopy(left.lastKeys, leftSize, right.lastKeys, 0, move);
+            int movedCount = 0;
+            for (int i = 0; i < move; i++) {
+                movedCount += right.children[i].count;
+            }
+            clearRange(left.children, left.lastKeys, leftSize, left.size);
+            left.count -= movedCount;
+            right.count += movedCount;
+        }
+        else {
+            int move = leftSize - left.size;
+            int movedCount = 0;
+            for (int i = 0; i < move; i++) {
+                movedCount += right.children[i].count;
+            }
+            System.arraycopy(right.children, 0, left.children, left.size, move);
+            System.arraycopy(right.lastKeys, 0, left.lastKeys, left.size, move);
+            System.arraycopy(right.children, move, right.children, 0, right.size - move);
+            System.arraycopy(right.lastKeys, move, right.lastKeys, 0, right.size - move);
+            clearRange(right.children, right.lastKeys, right.size - move, right.size);
+            left.count += movedCount;
+            right.count -= movedCount;
+        }
+        left.size = leftSize;
+        right.size = total - leftSize;
+    }
+
+    private int bound(Object key, boolean lower)
+    {
+        int index = 0;
+        Node node = root;
+        while (node instanceof Branch) {
+            Branch branch = (Branch) node;
+            int child = branchBound(branch, key, lower);
+            if (child == branch.size) {
+                return index + branch.count;
+            }
+            for (int i = 0; i < child; i++) {
+                index += branch.children[i].count;
+            }
+            node = branch.children[child];
+        }
+        return index + leafBound((Leaf) node, key, lower);
+    }
+
+    // first child whose last key is not less than (lower) or greater than (upper) the key, or the number of children
+    private int branchBound(Branch branch, Object key, boolean lower)
+    {
+        int low = 0;
+        int high = branch.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int compared = comparator.compare(branch.lastKeys[mid], key);
+            if (lower ? compared < 0 : compared <= 0) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int leafBound(Leaf leaf, Object key, boolean lower)
+    {
+        int low = 0;
+        int high = leaf.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int compared = comparator.compare(leaf.keys[mid], key);
+            if (lower ? compared < 0 : compared <= 0) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void checkIndex(int index)
+    {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " for size " + size());
+        }
+    }
+
+    private static int getSize(Node node)
+    {
+        return node instanceof Leaf ? ((Leaf) node).size : ((Branch) node).size;
+    }
+
+    private static void clearRange(Object[] first, Object[] second, int from, int to)
+    {
+        for (int i = from; i < to; i++) {
+            first[i] = null;
+            second[i] = null;
+        }
+    }
+
+    private abstract static class Node
+    {
+        // number of values held by the node and its descendants
+        protected int count;
+
+        protected abstract Object lastKey();
+    }
+
+    private static final class Leaf extends Node
+    {
+        private Object[] keys;
+        private Object[] values;
+        private int size;
+        private Leaf prev;
+        private Leaf next;
+
+        private Leaf(int capacity)
+        {
+            keys = new Object[capacity];
+            values = new Object[capacity];
+        }
+
+        private void ensureCapacity(int capacity)
+        {
+            if (keys.length >= capacity) {
+                return;
+            }
+            int newCapacity = Math.min(Math.max(capacity, keys.length * 2), MAX_ENTRIES + 1);
+            keys = Arrays.copyOf(keys, newCapacity);
+            values = Arrays.copyOf(values, newCapacity);
+        }
+
+        protected Object lastKey()
+        {
+            return keys[size - 1];
+        }
+    }
+
+    private static final class Branch extends Node
+    {
+        private final Node[] children = new Node[MAX_ENTRIES + 1];
+        private final Object[] lastKeys = new Object[MAX_ENTRIES + 1];
+        private int size;
+
+        protected Object lastKey()
+        {
+            return lastKeys[size - 1];
+        }
+    }
+
+    // position in the leaf chain
+    private class Cursor
+    {
+        private Leaf leaf;
+        private int offset;
+
+        private Cursor(int index)
+        {
+            if (index >= size()) {
+                return;
+            }
+            Node node = root;
+            while (node instanceof Branch) {
+                Branch branch = (Branch) node;
+                int child = 0;
+                while (index >= branch.children[child].count) {
+                    index -= branch.children[child].count;
+                    child++;
+                }
+                node = branch.children[child];
+            }
+            leaf = (Leaf) node;
+            offset = index;
+        }
+
+        private void forward()
+        {
+            offset++;
+            if (offset == leaf.size) {
+                leaf = leaf.next;
+                offset = 0;
+            }
+        }
+    }
+
+    private class ForwardIterator implements Iterator<V>
+    {
+        private final Cursor cursor;
+
+        private ForwardIterator(int index)
+        {
+            cursor = new Cursor(index);
+        }
+
+        public boolean hasNext()
+        {
+            return cursor.leaf != null;
+        }
+
+        public V next()
+        {
+            if (cursor.leaf == null) {
+                throw new NoSuchElementException();
+            }
+            V value = (V) cursor.leaf.values[cursor.offset];
+            cursor.forward();
+            return value;
+        }
+
+        public void remove()
+        {
+            throw new UnsupportedOperationException("Read-only implementation");
+        }
+    }
+
+    private class DescendingIterator implements Iterator<V>
+    {
+        private Leaf leaf;
+        private int offset;
+
+        private DescendingIterator()
+        {
+            if (size() > 0) {
+                leaf = lastLeaf;
+                offset = leaf.size - 1;
+            }
+        }
+
+        public boolean hasNext()
+        {
+            return leaf != null;
+        }
+
+        public V next()
+        {
+            if (leaf == null) {
+                throw new NoSuchElementException();
+            }
+            V value = (V) leaf.values[offset];
+            offset--;
+            if (offset < 0) {
+                leaf = leaf.prev;
+                offset = leaf == null ? 0 : leaf.size - 1;
+            }
+            return value;
+        }
+
+        public void remove()
+        {
+            throw new UnsupportedOperationException("Read-only implementation");
+        }
+    }
+}
@@ -0,0 +1,370 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+/**
+ * Sorted multiset of primitive double values that provides access by position (rank),
+ * based on a B+-tree whose nodes carry the number of values they hold.
+ * <p>
+ * Adding, removing and accessing a value by position take logarithmic time. Values are held in primitive arrays
+ * in the leaf nodes, therefore values are not boxed. NaN values are ignored, and the values 0.0 and -0.0 are considered equal.
+ * <p>
+ * Not thread-safe.
+ */
+public class SortedDoubleTree
+{
+    private static final int MAX_ENTRIES = 64;
+    private static final int MIN_ENTRIES = MAX_ENTRIES / 4;
+
+    private Node root;
+
+    /**
+     * Ctor.
+     */
+    public SortedDoubleTree()
+    {
+        clear();
+    }
+
+    /**
+     * Returns the number of values.
+     * @return size
+     */
+    public int size()
+    {
+        return root.count;
+    }
+
+    /**
+     * Clear out the collection.
+     */
+    public void clear()
+    {
+        root = new Leaf();
+    }
+
+    /**
+     * Returns the value at the position.
+     * @param index position, zero for the lowest value
+     * @return value
+     */
+    public double getValue(int index)
+    {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " for size " + size());
+        }
+        Node node = root;
+        while (node instanceof Branch) {
+            Branch branch = (Branch) node;
+            int child = 0;
+            while (index >= branch.children[child].count) {
+                index -= branch.children[child].count;
+                child++;
+            }
+            node = branch.children[child];
+        }
+        return ((Leaf) node).values[index];
+    }
+
+    /**
+     * Add a value to the collection.
+     * @param value is the double-type value to add
+     */
+    public void add(double value)
+    {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        Node split = insert(root, value);
+        if (split != null) {
+            Branch branch = new Branch();
+            branch.children[0] = root;
+            branch.lastValues[0] = root.lastValue();
+            branch.children[1] = split;
+            branch.lastValues[1] = split.lastValue();
+            branch.size = 2;
+            branch.count = root.count + split.count;
+            root = branch;
+        }
+    }
+
+    /**
+     * Remove a value from the collection.
+     * @param value to remove
+     * @throws IllegalStateException if the value has not been added
+     */
+    public void remove(double value)
+    {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (!remove(root, value)) {
+            throw new IllegalStateException("Value not found in collection");
+        }
+        if (root instanceof Branch && ((Branch) root).size == 1) {
+            root = ((Branch) root).children[0];
+        }
+    }
+
+    private Node insert(Node node, double value)
+    {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int pos = lowerBound(leaf.values, leaf.size, value);
+            System.arraycopy(leaf.values, pos, leaf.values, pos + 1, leaf.size - pos);
+            leaf.values[pos] = value;
+            leaf.size++;
+            leaf.count++;
+            return leaf.size > MAX_ENTRIES ? splitLeaf(leaf) : null;
+        }
+
+        Branch branch = (Branch) node;
+        int child = lowerBound(branch.lastValues, branch.size, value);
+        if (child == branch.size) {
+            child--;
+        }
+        Node split = insert(branch.children[child], value);
+        branch.count++;
+        branch.lastValues[child] = branch.children[child].lastValue();
+        if (split == null) {
+            return null;
+        }
+        int pos = child + 1;
+        System.arraycopy(branch.children, pos, branch.children, pos + 1, branch.size - pos);
+        System.arraycopy(branch.lastValues, pos, branch.lastValues, pos + 1, branch.size - pos);
+        branch.children[pos] = split;
+        branch.lastValues[pos] = split.lastValue();
+        branch.size++;
+        return branch.size > MAX_ENTRIES ? splitBranch(branch) : null;
+    }
+
+    private Leaf splitLeaf(Leaf leaf)
+    {
+        Leaf right = new Leaf();
+        int move = leaf.size / 2;
+        int from = leaf.size - move;
+        System.arraycopy(leaf.values, from, right.values, 0, move);
+        right.size = move;
+        right.count = move;
+        leaf.size = from;
+        leaf.count = from;
+        return right;
+    }
+
+    private Branch splitBranch(Branch branch)
+    {
+        Branch right = new Branch();
+        int move = branch.size / 2;
+        int from = branch.size - move;
+        System.arraycopy(branch.children, from, right.children, 0, move);
+        System.arraycopy(branch.lastValues, from, right.lastValues, 0, move);
+        int movedCount = 0;
+        for (int i = 0; i < move; i++) {
+            movedCount += right.children[i].count;
+            branch.children[from + i] = null;
+        }
+        right.size = move;
+        right.count = movedCount;
+        branch.size = from;
+        branch.count -= movedCount;
+        return right;
+    }
+
+    private boolean remove(Node node, double value)
+    {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int index = lowerBound(leaf.values, leaf.size, value);
+            if (index == leaf.size || leaf.values[index] != value) {
+                return false;
+            }
+            System.arraycopy(leaf.values, index + 1, leaf.values, index, leaf.size - index - 1);
+            leaf.size--;
+            leaf.count--;
+            return true;
+        }
+
+        // the first child whose last value is not less than the value holds the first occurrence of the value
+        Branch branch = (Branch) node;
+        int child = lowerBound(branch.lastValues, branch.size, value);
+        if (child == branch.size) {
+            return false;
+        }
+        Node childNode = branch.children[child];
+        if (!remove(childNode, value)) {
+            return false;
+        }
+        branch.count--;
+        if (getSize(childNode) < MIN_ENTRIES) {
+            rebalance(branch, child);
+        }
+        else {
+            branch.lastValues[child] = childNode.lastValue();
+        }
+        return true;
+    }
+
+    private void rebalance(Branch branch, int child)
+    {
+        int left = child > 0 ? child - 1 : child;
+        int right = left + 1;
+        if (right >= branch.size) {
+            // single child, only occurs at the root which is collapsed by the caller
+            if (getSize(branch.children[child]) > 0) {
+                branch.lastValues[child] = branch.children[child].lastValue();
+            }
+            return;
+        }
+        Node leftNode = branch.children[left];
+        Node rightNode = branch.children[right];
+        if (getSize(leftNode) + getSize(rightNode) <= MAX_ENTRIES) {
+            if (leftNode instanceof Leaf) {
+                Leaf leftLeaf = (Leaf) leftNode;
+                Leaf rightLeaf = (Leaf) rightNode;
+                System.arraycopy(rightLeaf.values, 0, leftLeaf.values, leftLeaf.size, rightLeaf.size);
+                leftLeaf.size += rightLeaf.size;
+                leftLeaf.count = leftLeaf.size;
+            }
+            else {
+                Branch leftBranch = (Branch) leftNode;
+                Branch rightBranch = (Branch) rightNode;
+                System.arraycopy(rightBranch.children, 0, leftBranch.children, leftBranch.size, rightBranch.size);
+                System.arraycopy(rightBranch.lastValues, 0, leftBranch.lastValues, leftBranch.size, rightBranch.size);
+                leftBranch.size += rightBranch.size;
+                leftBranch.count += rightBranch.count;
+            }
+            System.arraycopy(branch.children, right + 1, branch.children, right, branch.size - right - 1);
+            System.arraycopy(branch.lastValues, right + 1, branch.lastValues, right, branch.size - right - 1);
+            branch.size--;
+            branch.children[branch.size] = null;
+            branch.lastValues[left] = leftNode.lastValue();
+            return;
+        }
+
+        if (leftNode instanceof Leaf) {
+            redistributeLeaves((Leaf) leftNode, (Leaf) rightNode);
+        }
+        else {
+            redistributeBranches((Branch) leftNode, (Branch) rightNode);
+        }
+        branch.lastValues[left] = leftNode.lastValue();
+        branch.lastValues[right] = rightNode.lastValue();
+    }
+
+    private void redistributeLeaves(Leaf left, Leaf right)
+    {
+        int total = left.size + right.size;
+        int leftSize = total / 2;
+        if (left.size > leftSize) {
+            int move = left.size - leftSize;
+            System.arraycopy(right.values, 0, right.values, move, right.size);
+            System.arraycopy(left.values, leftSize, right.values, 0, move);
+        }
+        else {
+            int move = leftSize - left.size;
+            System.arraycopy(right.values, 0, left.values, left.size, move);
+            System.arraycopy(right.values, move, right.values, 0, right.size - move);
+        }
+        left.size = leftSize;
+        left.count = leftSize;
+        right.size = total - leftSize;
+        right.count = right.size;
+    }
+
+    private void redistributeBranches(Branch left, Branch right)
+    {
+        int total = left.size + right.size;
+        int leftSize = total / 2;
+        if (left.size > leftSize) {
+            int move = left.size - leftSize;
+            System.arraycopy(right.children, 0, right.children, move, right.size);
+            System.arraycopy(right.lastValues, 0, right.lastValues, move, right.size);
+            System.arraycopy(left.children, leftSize, right.children, 0, move);
+            System.arraycopy(left.lastValues, leftSize, right.lastValues, 0, move);
+            int movedCount = 0;
+            for (int i = 0; i < move; i++) {
+                movedCount += right.children[i].count;
+                left.children[leftSize + i] = null;
+            }
+            left.count -= movedCount;
+            right.count += movedCount;
+        }
+        else {
+            int move = leftSize - left.size;
+            int movedCount = 0;
+            for (int i = 0; i < move; i++) {
+                movedCount += right.children[i].count;
+            }
+            System.arraycopy(right.children, 0, left.children, left.size, move);
+            System.arraycopy(right.lastValues, 0, left.lastValues, left.size, move);
+            System.arraycopy(right.children, move, right.children, 0, right.size - move);
+            System.arraycopy(right.lastValues, move, right.lastValues, 0, right.size - move);
+            for (int i = right.size - move; i < right.size; i++) {
+                right.children[i] = null;
+            }
+            left.count += movedCount;
+            right.count -= movedCount;
+        }
+        left.size = leftSize;
+        right.size = total - leftSize;
+    }
+
+    // first position whose value is not less than the value, or the size
+    private static int lowerBound(double[] values, int size, double value)
+    {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < value) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int getSize(Node node)
+    {
+        return node instanceof Leaf ? ((Leaf) node).size : ((Branch) node).size;
+    }
+
+    private abstract static class Node
+    {
+        // number of values held by the node and its descendants
+        protected int count;
+
+        protected abstract double lastValue();
+    }
+
+    private static final class Leaf extends Node
+    {
+        private final double[] values = new double[MAX_ENTRIES + 1];
+        private int size;
+
+        protected double lastValue()
+        {
+            return values[size - 1];
+        }
+    }
+
+    private static final class Branch extends Node
+    {
+        private final Node[] children = new Node[MAX_ENTRIES + 1];
+        private final double[] lastValues = new double[MAX_ENTRIES + 1];
+        private int size;
+
+        protected double lastValue()
+        {
+            return lastValues[size - 1];
+        }
+    }
+}
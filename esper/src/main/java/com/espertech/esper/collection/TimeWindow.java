@@ -12,23 +12,34 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.view.DataWindowViewFactory;
 import com.espertech.esper.view.ViewDataVisitor;
 
-import java.util.*;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * Container for events per time slot. The time is provided as long milliseconds by client classes.
- * Events are for a specified timestamp and the implementation creates and adds the event to a slot for that timestamp.
+ * Events are for a specified timestamp and the implementation adds the event to a slot for that timestamp.
  * Events can be expired from the window via the expireEvents method when their timestamp is before
  * (or less then) an expiry timestamp passed in. Expiry removes the event from the window.
  * The window allows iteration through its contents.
  *
  * It is assumed that the timestamp passed to the add method is ascending. The window is backed by a
- * collection reflecting the timestamp order rather then any sorted map or linked hash map for performance reasons.
+ * ring buffer of primitive timestamps and events reflecting the timestamp order rather then any sorted map
+ * or linked hash map for performance reasons. Once the ring buffer has grown to the window size, adding,
+ * removing and expiring events does not allocate other then the array of expired events returned.
+ *
+ * Events removed by the remove stream leave an empty slot behind that is skipped by expiry and iteration.
+ * Empty slots are reclaimed when the ring buffer is full, before growing it.
  */
-public final class TimeWindow implements Iterable
+public final class TimeWindow implements Iterable<EventBean>
 {
-    private ArrayDeque<TimeWindowPair> window;
-    private Map<EventBean, TimeWindowPair> reverseIndex;
-    private int size;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] timestamps;
+    private EventBean[] events;
+    private int head;       // slot of the oldest entry
+    private int count;      // number of slots in use, including empty slots of removed events
+    private int size;       // number of events
+    private ObjectIntHashMap<EventBean> reverseIndex;  // event to slot
 
     /**
      * Ctor.
@@ -37,11 +48,12 @@ public final class TimeWindow implements Iterable
      */
     public TimeWindow(boolean isSupportRemoveStream)
     {
-        this.window = new ArrayDeque<TimeWindowPair>();
+        this.timestamps = new long[MIN_CAPACITY];
+        this.events = new EventBean[MIN_CAPACITY];
 
         if (isSupportRemoveStream)
         {
-            reverseIndex = new HashMap<EventBean, TimeWindowPair>();
+            reverseIndex = new ObjectIntHashMap<EventBean>(true);
         }
     }
 
@@ -51,9 +63,10 @@ public final class TimeWindow implements Iterable
      */
     public void adjust(long delta)
     {
-        for (TimeWindowPair data : window)
+        int mask = events.length - 1;
+        for (int i = 0; i < count; i++)
         {
-            data.setTimestamp(data.getTimestamp() + delta);
+            timestamps[(head + i) & mask] += delta;
         }
     }
 
@@ -64,52 +77,19 @@ public final class TimeWindow implements Iterable
      */
     public final void add(long timestamp, EventBean bean)
     {
-        // Empty window
-        if (window.isEmpty())
+        if (count == events.length)
         {
-            TimeWindowPair pair = new TimeWindowPair(timestamp, bean);
-            window.add(pair);
-
-            if (reverseIndex != null) {
-                reverseIndex.put(bean, pair);
-            }
-            size = 1;
-            return;
-        }
-
-        TimeWindowPair lastPair = window.getLast();
-
-        // Windows last timestamp matches the one supplied
-        if (lastPair.getTimestamp() == timestamp)
-        {
-            if (lastPair.getEventHolder() instanceof List) {
-                List<EventBean> list = (List<EventBean>) lastPair.getEventHolder();
-                list.add(bean);
-            }
-            else if (lastPair.getEventHolder() == null) {
-                lastPair.setEventHolder(bean);
-            }
-            else {
-                EventBean existing = (EventBean) lastPair.getEventHolder();
-                List<EventBean> list = new ArrayList<EventBean>(4);
-                list.add(existing);
-                list.add(bean);
-                lastPair.setEventHolder(list);
-            }
-            if (reverseIndex != null) {
-                reverseIndex.put(bean, lastPair);
-            }
-            size++;
-            return;
+            makeRoom();
         }
+        int slot = (head + count) & (events.length - 1);
+        timestamps[slot] = timestamp;
+        events[slot] = bean;
+        count++;
+        size++;
 
-        // Append to window
-        TimeWindowPair pair = new TimeWindowPair(timestamp, bean);
         if (reverseIndex != null) {
-            reverseIndex.put(bean, pair);
+            reverseIndex.put(bean, slot);
         }
-        window.add(pair);
-        size++;
     }
 
     /**
@@ -122,75 +102,70 @@ public final class TimeWindow implements Iterable
         {
             throw new UnsupportedOperationException("Time window does not accept event removal");
         }
-        TimeWindowPair pair = reverseIndex.get(theEvent);
-        if (pair != null) {
-            if (pair.getEventHolder() != null && pair.getEventHolder().equals(theEvent)) {
-                pair.setEventHolder(null);
-                size--;
-            }
-            else if (pair.getEventHolder() != null) {
-                List<EventBean> list = (List<EventBean>) pair.getEventHolder();
-                boolean removed = list.remove(theEvent);
-                if (removed) {
-                    size--;
-                }
-            }
-            reverseIndex.remove(theEvent);
+        int slot = reverseIndex.remove(theEvent);
+        if (slot == -1) {
+            return;
+        }
+        events[slot] = null;
+        size--;
+
+        // drop empty slots at the front
+        int mask = events.length - 1;
+        while (count > 0 && events[head] == null) {
+            head = (head + 1) & mask;
+            count--;
         }
     }
 
     /**
      * Return and remove events in time-slots earlier (less) then the timestamp passed in,
-     * returning the list of events expired.
+     * returning the events expired.
      * @param expireBefore is the timestamp from which on to keep events in the window
-     * @return a list of events expired and removed from the window, or null if none expired
+     * @return events expired and removed from the window, or null if none expired
      */
-    public final ArrayDeque<EventBean> expireEvents(long expireBefore)
+    public final EventBean[] expireEvents(long expireBefore)
     {
-        if (window.isEmpty())
+        // Determine the slots to expire, until the window is empty or the timestamp is above the expiry time
+        int mask = events.length - 1;
+        int expiredSlots = 0;
+        int expiredCount = 0;
+        while (expiredSlots < count)
         {
-            return null;
+            int slot = (head + expiredSlots) & mask;
+            if (timestamps[slot] >= expireBefore) {
+                break;
+            }
+            if (events[slot] != null) {
+                expiredCount++;
+            }
+            expiredSlots++;
         }
 
-        TimeWindowPair pair = window.getFirst();
-
-        // If the first entry's timestamp is after the expiry date, nothing to expire
-        if (pair.getTimestamp() >= expireBefore)
+        if (expiredSlots == 0)
         {
             return null;
         }
 
-        ArrayDeque<EventBean> resultBeans = new ArrayDeque<EventBean>();
-
-        // Repeat until the window is empty or the timestamp is above the expiry time
-        do {
-            if (pair.getEventHolder() != null) {
-                if (pair.getEventHolder() instanceof EventBean) {
-                    resultBeans.add((EventBean) pair.getEventHolder());
-                }
-                else {
-                    resultBeans.addAll((List<EventBean>) pair.getEventHolder());
-                }
-            }
-
-            window.removeFirst();
-
-            if (window.isEmpty()) {
-                break;
+        EventBean[] result = expiredCount == 0 ? null : new EventBean[expiredCount];
+        int index = 0;
+        for (int i = 0; i < expiredSlots; i++)
+        {
+            int slot = (head + i) & mask;
+            EventBean expired = events[slot];
+            if (expired == null) {
+                continue;
             }
-
-            pair = window.getFirst();
-        }
-        while (pair.getTimestamp() < expireBefore);
-
-        if (reverseIndex != null) {
-            for (EventBean expired : resultBeans) {
+            result[index++] = expired;
+            events[slot] = null;
+            if (reverseIndex != null) {
                 reverseIndex.remove(expired);
             }
         }
 
-        size -= resultBeans.size();
-        return resultBeans;
+        head = (head + expiredSlots) & mask;
+        count -= expiredSlots;
+        size -= expiredCount;
+        return result;
     }
 
     /**
@@ -199,7 +174,7 @@ public final class TimeWindow implements Iterable
      */
     public final Iterator<EventBean> iterator()
     {
-        return new TimeWindowIterator(window);
+        return new TimeWindowRingIterator();
     }
 
     /**
@@ -209,15 +184,11 @@ public final class TimeWindow implements Iterable
      */
     public final Long getOldestTimestamp()
     {
-        if (window.isEmpty()) {
-            return null;
-        }
-        if (window.getFirst().getEventHolder() != null) {
-            return window.getFirst().getTimestamp();
-        }
-        for (TimeWindowPair pair : window) {
-            if (pair.getEventHolder() != null) {
-                return pair.getTimestamp();
+        int mask = events.length - 1;
+        for (int i = 0; i < count; i++) {
+            int slot = (head + i) & mask;
+            if (events[slot] != null) {
+                return timestamps[slot];
             }
         }
         return null;
@@ -229,31 +200,112 @@ public final class TimeWindow implements Iterable
      */
     public final boolean isEmpty()
     {
-        return getOldestTimestamp() == null;
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of events in the window.
+     * @return number of events
+     */
+    public final int size()
+    {
+        return size;
     }
 
     /**
      * Returns the reverse index, for testing purposes.
      * @return reverse index
      */
-    public Map<EventBean, TimeWindowPair> getReverseIndex() {
+    public ObjectIntHashMap<EventBean> getReverseIndex() {
         return reverseIndex;
     }
 
-    public ArrayDeque<TimeWindowPair> getWindow() {
-        return window;
+    public void visitView(ViewDataVisitor viewDataVisitor, DataWindowViewFactory viewFactory) {
+        EventBean[] contents = new EventBean[size];
+        int index = 0;
+        for (Iterator<EventBean> it = iterator(); it.hasNext();) {
+            contents[index++] = it.next();
+        }
+        viewDataVisitor.visitPrimary(contents, viewFactory.getViewName());
     }
 
-    public void setWindow(ArrayDeque<TimeWindowPair> window, int size) {
-        this.window = window;
-        this.size = size;
-    }
+    private void makeRoom()
+    {
+        // reclaim the empty slots left by removed events, unless there are few, in which case grow
+        if (size < (events.length >> 1))
+        {
+            int mask = events.length - 1;
+            int target = 0;
+            for (int i = 0; i < count; i++)
+            {
+                int slot = (head + i) & mask;
+                EventBean theEvent = events[slot];
+                if (theEvent == null) {
+                    continue;
+                }
+                int targetSlot = (head + target) & mask;
+                if (targetSlot != slot) {
+                    timestamps[targetSlot] = timestamps[slot];
+                    events[targetSlot] = theEvent;
+                    events[slot] = null;
+                    if (reverseIndex != null) {
+                        reverseIndex.put(theEvent, targetSlot);
+                    }
+                }
+                target++;
+            }
+            count = target;
+            return;
+        }
 
-    public void setReverseIndex(Map<EventBean, TimeWindowPair> reverseIndex) {
-        this.reverseIndex = reverseIndex;
+        int capacity = events.length << 1;
+        long[] newTimestamps = new long[capacity];
+        EventBean[] newEvents = new EventBean[capacity];
+        int mask = events.length - 1;
+        int target = 0;
+        for (int i = 0; i < count; i++)
+        {
+            int slot = (head + i) & mask;
+            EventBean theEvent = events[slot];
+            if (theEvent == null) {
+                continue;
+            }
+            newTimestamps[target] = timestamps[slot];
+            newEvents[target] = theEvent;
+            if (reverseIndex != null) {
+                reverseIndex.put(theEvent, target);
+            }
+            target++;
+        }
+        timestamps = newTimestamps;
+        events = newEvents;
+        head = 0;
+        count = target;
     }
 
-    public void visitView(ViewDataVisitor viewDataVisitor, DataWindowViewFactory viewFactory) {
-        viewDataVisitor.visitPrimary(window, false, viewFactory.getViewName(), size);
+    private class TimeWindowRingIterator implements Iterator<EventBean>
+    {
+        private int position;   // offset from head of the next slot to inspect
+
+        public boolean hasNext() {
+            int mask = events.length - 1;
+            while (position < count && events[(head + position) & mask] == null) {
+                position++;
+            }
+            return position < count;
+        }
+
+        public EventBean next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            EventBean theEvent = events[(head + position) & (events.length - 1)];
+            position++;
+            return theEvent;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
     }
 }
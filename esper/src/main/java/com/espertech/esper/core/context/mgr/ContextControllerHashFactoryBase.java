@@ -206,6 +206,9 @@ public abstract class ContextControllerHashFactoryBase extends ContextController
             item.setLookupable(lookupable);
             factoryContext.getServicesContext().getFilterNonPropertyRegisteryService().registerNonPropertyExpression(factoryContext.getAgentInstanceContextCreate().getStatementName(), item.getFilterSpecCompiled().getFilterForEventType(), lookupable);
             nonPropertyExpressions.put(item.getFilterSpecCompiled().getFilterForEventType(), lookupable);
+
+            // with inbound threading key affinity, events of the same context partition go to the same thread
+            factoryContext.getServicesContext().getThreadingService().addInboundPartitionKeyGetter(factoryContext.getOutermostContextName(), item.getFilterSpecCompiled().getFilterForEventType(), getter);
         }
     }
 
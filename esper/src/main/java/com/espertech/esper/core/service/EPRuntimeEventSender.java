@@ -21,6 +21,12 @@ public interface EPRuntimeEventSender
      */
     public void processWrappedEvent(EventBean eventBean);
 
+    /**
+     * For use to process a batch of known events, each event processed as by the processWrappedEvent method and in order.
+     * @param eventBeans events wrapped by event beans providing the event metadata
+     */
+    public void processWrappedEvents(EventBean[] eventBeans);
+
     /**
      * For processing a routed event.
      * @param theEvent routed event
@@ -42,6 +42,8 @@ import com.espertech.esper.epl.table.mgmt.TableExprEvaluatorContext;
 import com.espertech.esper.epl.variable.VariableMetaData;
 import com.espertech.esper.epl.variable.VariableReader;
 import com.espertech.esper.epl.variable.VariableService;
+import com.espertech.esper.event.EventAdapterServiceHelper;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
 import com.espertech.esper.event.util.EventRendererImpl;
 import com.espertech.esper.filter.FilterHandle;
 import com.espertech.esper.filter.FilterHandleCallback;
@@ -50,6 +52,7 @@ import com.espertech.esper.metrics.jmx.JmxGetter;
 import com.espertech.esper.schedule.*;
 import com.espertech.esper.timer.TimerCallback;
 import com.espertech.esper.util.ExecutionPathDebugLog;
+import com.espertech.esper.util.ManagedReadWriteLock;
 import com.espertech.esper.util.MetricUtil;
 import com.espertech.esper.util.ThreadLogUtil;
 import com.espertech.esper.util.UuidGenerator;
@@ -68,6 +71,8 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerCallback, InternalEventRouteDest
 {
+    private static final int MAX_CALLBACK_HOLDERS = 64;
+
     protected EPServicesContext services;
     protected boolean isLatchStatementInsertStream;
     protected boolean isUsingExternalClocking;
@@ -82,7 +87,9 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
     protected ThreadLocal<ArrayBackedCollection<FilterHandle>> matchesArrayThreadLocal;
     protected ThreadLocal<ArrayBackedCollection<ScheduleHandle>> scheduleArrayThreadLocal;
     protected ThreadLocal<Map<EPStatementAgentInstanceHandle, Object>> matchesPerStmtThreadLocal;
+    protected ThreadLocal<ArrayDeque<ArrayBackedCollection<FilterHandleCallback>>> matchesCallbackHoldersThreadLocal;
     protected ThreadLocal<Map<EPStatementAgentInstanceHandle, Object>> schedulePerStmtThreadLocal;
+    private final TimerUnitPartition[] timerUnitPartitions;
 
     /**
      * Constructor.
@@ -95,6 +102,16 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         isLatchStatementInsertStream = this.services.getEngineSettingsService().getEngineSettings().getThreading().isInsertIntoDispatchPreserveOrder();
         isUsingExternalClocking = !this.services.getEngineSettingsService().getEngineSettings().getThreading().isInternalTimerEnabled();
         isPrioritized = services.getEngineSettingsService().getEngineSettings().getExecution().isPrioritized();
+        if (services.getSchedulingService() instanceof SchedulingServicePartitioned) {
+            int numPartitions = ((SchedulingServicePartitioned) services.getSchedulingService()).getNumPartitions();
+            timerUnitPartitions = new TimerUnitPartition[numPartitions];
+            for (int i = 0; i < numPartitions; i++) {
+                timerUnitPartitions[i] = new TimerUnitPartition(this, i);
+            }
+        }
+        else {
+            timerUnitPartitions = null;
+        }
         routedInternal = new AtomicLong();
         routedExternal = new AtomicLong();
         engineFilterAndDispatchTimeContext = new ExprEvaluatorContext()
@@ -208,7 +225,16 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         // Process event
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
         {
-            services.getThreadingService().submitInbound(new InboundUnitSendEvent(theEvent, this));
+            if (services.getThreadingService().isInboundThreadingKeyAffinity() && !(theEvent instanceof TimerEvent))
+            {
+                // wrap in the sending thread to determine the partition key
+                EventBean eventBean = theEvent instanceof EventBean ? (EventBean) theEvent : wrapEvent(theEvent);
+                services.getThreadingService().submitInbound(new InboundUnitSendWrapped(eventBean, this), eventBean);
+            }
+            else
+            {
+                services.getThreadingService().submitInbound(new InboundUnitSendEvent(theEvent, this));
+            }
         }
         else
         {
@@ -232,7 +258,15 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         // Process event
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
         {
-            services.getThreadingService().submitInbound(new InboundUnitSendDOM(document, services, this));
+            if (services.getThreadingService().isInboundThreadingKeyAffinity())
+            {
+                EventBean eventBean = wrapEvent(document);
+                services.getThreadingService().submitInbound(new InboundUnitSendWrapped(eventBean, this), eventBean);
+            }
+            else
+            {
+                services.getThreadingService().submitInbound(new InboundUnitSendDOM(document, services, this));
+            }
         }
         else
         {
@@ -278,7 +312,15 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
 
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
         {
-            services.getThreadingService().submitInbound(new InboundUnitSendMap(map, mapEventTypeName, services, this));
+            if (services.getThreadingService().isInboundThreadingKeyAffinity())
+            {
+                EventBean eventBean = wrapEvent(map, mapEventTypeName);
+                services.getThreadingService().submitInbound(new InboundUnitSendWrapped(eventBean, this), eventBean);
+            }
+            else
+            {
+                services.getThreadingService().submitInbound(new InboundUnitSendMap(map, mapEventTypeName, services, this));
+            }
         }
         else
         {
@@ -302,7 +344,15 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
 
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
         {
-            services.getThreadingService().submitInbound(new InboundUnitSendObjectArray(propertyValues, objectArrayEventTypeName, services, this));
+            if (services.getThreadingService().isInboundThreadingKeyAffinity())
+            {
+                EventBean eventBean = wrapEvent(propertyValues, objectArrayEventTypeName);
+                services.getThreadingService().submitInbound(new InboundUnitSendWrapped(eventBean, this), eventBean);
+            }
+            else
+            {
+                services.getThreadingService().submitInbound(new InboundUnitSendObjectArray(propertyValues, objectArrayEventTypeName, services, this));
+            }
         }
         else
         {
@@ -312,6 +362,79 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
     }
 
+    public void sendEvents(List<?> events) throws EPException
+    {
+        if (events == null)
+        {
+            throw new IllegalArgumentException("Invalid null event list");
+        }
+
+        if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled()))
+        {
+            log.debug(".sendEvents Processing batch of " + events.size() + " events");
+        }
+
+        // Process events, copied as the list may be reused by the application
+        Object[] batch = events.toArray();
+        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
+        {
+            if (services.getThreadingService().isInboundThreadingKeyAffinity())
+            {
+                // each event to the thread of its partition key
+                for (Object theEvent : batch)
+                {
+                    sendEvent(theEvent);
+                }
+            }
+            else
+            {
+                services.getThreadingService().submitInbound(new InboundUnitSendEventBatch(batch, this));
+            }
+        }
+        else
+        {
+            processEvents(batch);
+        }
+    }
+
+    public void sendEvents(Object[][] propertyValues, String objectArrayEventTypeName) throws EPException
+    {
+        if (propertyValues == null)
+        {
+            throw new IllegalArgumentException("Invalid null event object");
+        }
+
+        if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled()))
+        {
+            log.debug(".sendEvents Processing batch of " + propertyValues.length + " object-array events");
+        }
+
+        EventType eventType = services.getEventAdapterService().getExistsTypeByName(objectArrayEventTypeName);
+        if (!(eventType instanceof ObjectArrayEventType))
+        {
+            throw new EPException(EventAdapterServiceHelper.getMessageExpecting(objectArrayEventTypeName, eventType, "Object-array"));
+        }
+
+        EventBean[] eventBeans = new EventBean[propertyValues.length];
+        for (int i = 0; i < propertyValues.length; i++)
+        {
+            if (propertyValues[i] == null)
+            {
+                throw new IllegalArgumentException("Invalid null event object");
+            }
+            eventBeans[i] = services.getEventAdapterService().adapterForTypedObjectArray(propertyValues[i], eventType);
+        }
+
+        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
+        {
+            services.getThreadingService().submitInboundBatch(eventBeans, this);
+        }
+        else
+        {
+            processWrappedEvents(eventBeans);
+        }
+    }
+
     public EventBean wrapEvent(Map map, String eventTypeName) {
         return services.getEventAdapterService().adapterForMap(map, eventTypeName);
     }
@@ -466,6 +589,11 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
     {
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qStimulantEvent(eventBean, services.getEngineURI());}
 
+        if (MetricReportingPath.isMetricsEnabled)
+        {
+            services.getMetricsReportingService().accountLatencyStart();
+        }
+
         if (internalEventRouter.isHasPreprocessing())
         {
             eventBean = internalEventRouter.preprocess(eventBean, engineFilterAndDispatchTimeContext);
@@ -503,6 +631,128 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aStimulantEvent();}
     }
 
+    /**
+     * Process a batch of unwrapped events.
+     * @param events to process
+     */
+    public void processEvents(Object[] events)
+    {
+        EventBean[] eventBeans = new EventBean[events.length];
+        int count = 0;
+        for (Object theEvent : events)
+        {
+            if (theEvent == null)
+            {
+                log.error(".sendEvents Null object supplied");
+                continue;
+            }
+
+            // Timer events are processed in order with the other events of the batch
+            if (theEvent instanceof TimerEvent)
+            {
+                processWrappedEvents(eventBeans, count);
+                count = 0;
+                processTimeEvent((TimerEvent) theEvent);
+                continue;
+            }
+
+            if (theEvent instanceof EventBean)
+            {
+                eventBeans[count++] = (EventBean) theEvent;
+            }
+            else
+            {
+                eventBeans[count++] = wrapEvent(theEvent);
+            }
+        }
+        processWrappedEvents(eventBeans, count);
+    }
+
+    public void processWrappedEvents(EventBean[] eventBeans)
+    {
+        processWrappedEvents(eventBeans, eventBeans.length);
+    }
+
+    /**
+     * Process the first events of a batch of wrapped events.
+     * <p>
+     * Each event is processed, and its results dispatched and the work queue worked off, before the next event
+     * of the batch, same as for a single event. The main processing lock however is kept across consecutive events of the batch
+     * as long as the events leave nothing to dispatch and no routed or inserted events to work off.
+     * @param eventBeans events to process
+     * @param count number of events to process
+     */
+    private void processWrappedEvents(EventBean[] eventBeans, int count)
+    {
+        if (internalEventRouter.isHasPreprocessing())
+        {
+            for (int i = 0; i < count; i++)
+            {
+                processWrappedEvent(eventBeans[i]);
+            }
+            return;
+        }
+
+        DualWorkQueue queues = threadWorkQueue.getThreadQueue();
+        ManagedReadWriteLock eventProcessingRWLock = services.getEventProcessingRWLock();
+        boolean locked = false;
+        try
+        {
+            for (int i = 0; i < count; i++)
+            {
+                EventBean eventBean = eventBeans[i];
+                if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qStimulantEvent(eventBean, services.getEngineURI());}
+
+                if (MetricReportingPath.isMetricsEnabled)
+                {
+                    services.getMetricsReportingService().accountLatencyStart();
+                }
+
+                // Acquire main processing lock which locks out statement management, unless still held for the prior event
+                if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qEvent(eventBean, services.getEngineURI(), true);}
+                if (!locked)
+                {
+                    eventProcessingRWLock.acquireReadLock();
+                    locked = true;
+                }
+                try
+                {
+                    processMatches(eventBean);
+                }
+                catch (RuntimeException ex)
+                {
+                    matchesArrayThreadLocal.get().clear();
+                    throw new EPException(ex);
+                }
+                finally
+                {
+                    if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aEvent();}
+                }
+
+                // Dispatch results to listeners and work off the event queue outside of the read-lock, if there is any
+                if (!services.getDispatchService().isEmpty() ||
+                    !services.getNamedWindowDispatchService().isEmpty() ||
+                    !queues.getFrontQueue().isEmpty() ||
+                    !queues.getBackQueue().isEmpty())
+                {
+                    locked = false;
+                    eventProcessingRWLock.releaseReadLock();
+                    dispatch();
+                    processThreadWorkQueue();
+                }
+
+                if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aStimulantEvent();}
+            }
+        }
+        finally
+        {
+            if (locked)
+            {
+                eventProcessingRWLock.releaseReadLock();
+            }
+        }
+    }
+
     private void processTimeEvent(TimerEvent theEvent)
     {
         if (theEvent instanceof TimerControlEvent)
@@ -550,9 +800,17 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             if (MetricReportingPath.isMetricsEnabled)
             {
                 services.getMetricsReportingService().processTimeEvent(currentTime);
+                services.getMetricsReportingService().accountLatencyStart();
             }
 
-            processSchedule(currentTime);
+            if ((timerUnitPartitions != null) && (ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isTimerThreading()))
+            {
+                processSchedulePartitioned();
+            }
+            else
+            {
+                processSchedule(currentTime);
+            }
 
             // Let listeners know of results
             dispatch();
@@ -616,6 +874,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             if (MetricReportingPath.isMetricsEnabled)
             {
                 services.getMetricsReportingService().processTimeEvent(currentTime);
+                services.getMetricsReportingService().accountLatencyStart();
             }
 
             processSchedule(currentTime);
@@ -630,6 +889,18 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
     }
 
+    private void processSchedulePartitioned()
+    {
+        // Partitions of a partitioned scheduling service are evaluated and processed by timer threads in parallel
+        for (TimerUnitPartition unit : timerUnitPartitions)
+        {
+            if (unit.schedule())
+            {
+                services.getThreadingService().submitTimerWork(unit);
+            }
+        }
+    }
+
     private void processSchedule(long time)
     {
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qTime(time, services.getEngineURI());}
@@ -665,7 +936,37 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
     }
 
+    /**
+     * Evaluates the schedules of a scheduling service partition and processes the callbacks that are due, on the current thread.
+     * @param partition scheduling service partition number
+     */
+    public void processSchedulePartition(int partition)
+    {
+        ArrayBackedCollection<ScheduleHandle> handles = scheduleArrayThreadLocal.get();
+
+        services.getEventProcessingRWLock().acquireReadLock();
+        try
+        {
+            ((SchedulingServicePartitioned) services.getSchedulingService()).evaluatePartition(partition, handles);
+            processScheduleHandles(handles, false);
+        }
+        catch (RuntimeException ex)
+        {
+            handles.clear();
+            throw ex;
+        }
+        finally
+        {
+            services.getEventProcessingRWLock().releaseReadLock();
+        }
+    }
+
     public void processScheduleHandles(ArrayBackedCollection<ScheduleHandle> handles)
+    {
+        processScheduleHandles(handles, (ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isTimerThreading()));
+    }
+
+    private void processScheduleHandles(ArrayBackedCollection<ScheduleHandle> handles, boolean isTimerThreading)
     {
         if (ThreadLogUtil.ENABLED_TRACE)
         {
@@ -698,7 +999,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             }
             else
             {
-                if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isTimerThreading()))
+                if (isTimerThreading)
                 {
                     services.getThreadingService().submitTimerWork(new TimerUnitSingle(services, this, handle));
                 }
@@ -771,7 +1072,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             }
             else
             {
-                if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isTimerThreading()))
+                if (isTimerThreading)
                 {
                     services.getThreadingService().submitTimerWork(new TimerUnitMultiple(services, this, handle, callbackObject));
                 }
@@ -979,6 +1280,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
 
         Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks = matchesPerStmtThreadLocal.get();
+        ArrayDeque<ArrayBackedCollection<FilterHandleCallback>> callbackHolders = matchesCallbackHoldersThreadLocal.get();
         Object[] matchArray = matches.getArray();
         int entryCount = matches.size();
 
@@ -995,12 +1297,16 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
                 if (callbacks == null) {
                     stmtCallbacks.put(handle, handleCallback.getFilterCallback());
                 }
-                else if (callbacks instanceof ArrayDeque) {
-                    ArrayDeque<FilterHandleCallback> q = (ArrayDeque<FilterHandleCallback>) callbacks;
+                else if (callbacks instanceof ArrayBackedCollection) {
+                    ArrayBackedCollection<FilterHandleCallback> q = (ArrayBackedCollection<FilterHandleCallback>) callbacks;
                     q.add(handleCallback.getFilterCallback());
                 }
                 else {
-                    ArrayDeque<FilterHandleCallback> q = new ArrayDeque<FilterHandleCallback>(4);
+                    // reuse a callback holder of an earlier event, if any
+                    ArrayBackedCollection<FilterHandleCallback> q = callbackHolders.poll();
+                    if (q == null) {
+                        q = new ArrayBackedCollection<FilterHandleCallback>(4);
+                    }
                     q.add((FilterHandleCallback) callbacks);
                     q.add(handleCallback.getFilterCallback());
                     stmtCallbacks.put(handle, q);
@@ -1043,6 +1349,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         {
             EPStatementAgentInstanceHandle handle = entry.getKey();
             Object callbackList = entry.getValue();
+            boolean retained = false;
 
             if ((MetricReportingPath.isMetricsEnabled) && (handle.getStatementHandle().getMetricsHandle().isEnabled()))
             {
@@ -1065,7 +1372,9 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             {
                 if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isRouteThreading()))
                 {
+                    // the route unit retains the callback holder, which therefore is not reused
                     services.getThreadingService().submitRoute(new RouteUnitMultiple(this, callbackList, theEvent, handle, version));
+                    retained = true;
                 }
                 else
                 {
@@ -1073,6 +1382,12 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
                 }
             }
 
+            if (!retained && callbackList instanceof ArrayBackedCollection && callbackHolders.size() < MAX_CALLBACK_HOLDERS) {
+                ArrayBackedCollection<FilterHandleCallback> q = (ArrayBackedCollection<FilterHandleCallback>) callbackList;
+                q.clear();
+                callbackHolders.add(q);
+            }
+
             if ((isPrioritized) && (handle.isPreemptive()))
             {
                 break;
@@ -1355,6 +1670,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         removeFromThreadLocals();
         matchesArrayThreadLocal = null;
         matchesPerStmtThreadLocal = null;
+        matchesCallbackHoldersThreadLocal = null;
         scheduleArrayThreadLocal = null;
         schedulePerStmtThreadLocal = null;
     }
@@ -1744,6 +2060,9 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         if (matchesPerStmtThreadLocal != null) {
             matchesPerStmtThreadLocal.remove();
         }
+        if (matchesCallbackHoldersThreadLocal != null) {
+            matchesCallbackHoldersThreadLocal.remove();
+        }
         if (scheduleArrayThreadLocal != null) {
             scheduleArrayThreadLocal.remove();
         }
@@ -1771,6 +2090,14 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             }
         };
 
+        matchesCallbackHoldersThreadLocal = new ThreadLocal<ArrayDeque<ArrayBackedCollection<FilterHandleCallback>>>()
+        {
+            protected synchronized ArrayDeque<ArrayBackedCollection<FilterHandleCallback>> initialValue()
+            {
+                return new ArrayDeque<ArrayBackedCollection<FilterHandleCallback>>();
+            }
+        };
+
         matchesPerStmtThreadLocal =
                 new ThreadLocal<Map<EPStatementAgentInstanceHandle, Object>>()
                 {
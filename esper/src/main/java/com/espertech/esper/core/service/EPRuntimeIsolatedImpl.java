@@ -191,6 +191,14 @@ public class EPRuntimeIsolatedImpl implements EPRuntimeIsolatedSPI, InternalEven
         processWrappedEvent(eventBean);
     }
 
+    public void processWrappedEvents(EventBean[] eventBeans)
+    {
+        for (EventBean eventBean : eventBeans)
+        {
+            processWrappedEvent(eventBean);
+        }
+    }
+
     /**
      * Process a wrapped event.
      * @param eventBean to process
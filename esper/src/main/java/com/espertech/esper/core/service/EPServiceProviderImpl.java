@@ -14,6 +14,8 @@ import com.espertech.esper.core.deploy.DeploymentStateService;
 import com.espertech.esper.core.thread.ThreadingOption;
 import com.espertech.esper.core.thread.ThreadingService;
 import com.espertech.esper.epl.core.EngineImportService;
+import com.espertech.esper.epl.db.DataCacheStatistics;
+import com.espertech.esper.epl.metric.LogLinearSample;
 import com.espertech.esper.epl.metric.MetricReportingPath;
 import com.espertech.esper.epl.metric.MetricReportingService;
 import com.espertech.esper.epl.named.NamedWindowMgmtService;
@@ -24,6 +26,8 @@ import com.espertech.esper.event.EventAdapterService;
 import com.espertech.esper.event.vaevent.ValueAddEventService;
 import com.espertech.esper.filter.FilterService;
 import com.espertech.esper.metrics.codahale_metrics.metrics.MetricNameFactory;
+import com.espertech.esper.metrics.codahale_metrics.metrics.Metrics;
+import com.espertech.esper.metrics.codahale_metrics.metrics.core.Gauge;
 import com.espertech.esper.metrics.codahale_metrics.metrics.core.MetricName;
 import com.espertech.esper.metrics.jmx.CommonJMXUtil;
 import com.espertech.esper.plugin.PluginLoader;
@@ -56,6 +60,9 @@ import java.util.concurrent.locks.ReadWriteLock;
 public class EPServiceProviderImpl implements EPServiceProviderSPI
 {
     private static final Logger log = LoggerFactory.getLogger(EPServiceProviderImpl.class);
+    private static final double[] LATENCY_GAUGE_QUANTILES = {0.5, 0.99, 0.999};
+    private static final String[] LATENCY_GAUGE_TYPES = {"latency-p50", "latency-p99", "latency-p999"};
+
     private volatile EPServiceEngine engine;
     private ConfigurationInformation configSnapshot;
     private String engineURI;
@@ -691,12 +698,59 @@ public class EPServiceProviderImpl implements EPServiceProviderSPI
         CommonJMXUtil.registerMbean(services.getSchedulingService(), scheduleName);
         MetricName runtimeName = MetricNameFactory.name(services.getEngineURI(), "runtime");
         CommonJMXUtil.registerMbean(runtime, runtimeName);
+
+        // latency percentiles since engine initialization, recorded when metrics reporting is enabled
+        final LogLinearSample latency = services.getMetricsReportingService().getEngineLatency();
+        for (int i = 0; i < LATENCY_GAUGE_QUANTILES.length; i++) {
+            final double quantile = LATENCY_GAUGE_QUANTILES[i];
+            Metrics.newGauge(MetricNameFactory.name(services.getEngineURI(), LATENCY_GAUGE_TYPES[i]), new Gauge<Long>() {
+                public Long value() {
+                    return latency.getValueAtQuantile(quantile);
+                }
+            });
+        }
+        Metrics.newGauge(MetricNameFactory.name(services.getEngineURI(), "latency-max"), new Gauge<Long>() {
+            public Long value() {
+                return latency.getMax();
+            }
+        });
+        Metrics.newGauge(MetricNameFactory.name(services.getEngineURI(), "latency-count"), new Gauge<Long>() {
+            public Long value() {
+                return latency.getCount();
+            }
+        });
+
+        // hits, misses and evictions of the concurrent caches for historical data
+        final DataCacheStatistics cacheStatistics = services.getDataCacheFactory().getStatistics();
+        Metrics.newGauge(MetricNameFactory.name(services.getEngineURI(), "datacache-hits"), new Gauge<Long>() {
+            public Long value() {
+                return cacheStatistics.getHits();
+            }
+        });
+        Metrics.newGauge(MetricNameFactory.name(services.getEngineURI(), "datacache-misses"), new Gauge<Long>() {
+            public Long value() {
+                return cacheStatistics.getMisses();
+            }
+        });
+        Metrics.newGauge(MetricNameFactory.name(services.getEngineURI(), "datacache-evictions"), new Gauge<Long>() {
+            public Long value() {
+                return cacheStatistics.getEvictions();
+            }
+        });
     }
 
     private synchronized void destroyEngineMetrics(String engineURI) {
         CommonJMXUtil.unregisterMbean(MetricNameFactory.name(engineURI, "filter"));
         CommonJMXUtil.unregisterMbean(MetricNameFactory.name(engineURI, "schedule"));
         CommonJMXUtil.unregisterMbean(MetricNameFactory.name(engineURI, "runtime"));
+        for (String type : LATENCY_GAUGE_TYPES) {
+            Metrics.defaultRegistry().removeMetric(MetricNameFactory.name(engineURI, type));
+        }
+        Metrics.defaultRegistry().removeMetric(MetricNameFactory.name(engineURI, "latency-max"));
+        Metrics.defaultRegistry().removeMetric(MetricNameFactory.name(engineURI, "latency-count"));
+        Metrics.defaultRegistry().removeMetric(MetricNameFactory.name(engineURI, "datacache-hits"));
+        Metrics.defaultRegistry().removeMetric(MetricNameFactory.name(engineURI, "datacache-misses"));
+        Metrics.defaultRegistry().removeMetric(MetricNameFactory.name(engineURI, "datacache-evictions"));
     }
 
     /**
@@ -458,6 +458,10 @@ public final class EPServicesContext
         {
             statementLifecycleSvc.destroy();
         }
+        if (databaseConfigService != null)
+        {
+            databaseConfigService.destroy();
+        }
         if (filterService != null)
         {
             filterService.destroy();
@@ -105,7 +105,7 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
         ManagedReadWriteLock eventProcessingRWLock = new ManagedReadWriteLock("EventProcLock", false);
 
         TimeSourceService timeSourceService = makeTimeSource(configSnapshot);
-        SchedulingServiceSPI schedulingService = SchedulingServiceProvider.newService(timeSourceService);
+        SchedulingServiceSPI schedulingService = SchedulingServiceProvider.newService(configSnapshot.getEngineDefaults().getExecution().getSchedulingServiceProfile(), configSnapshot.getEngineDefaults().getExecution().getSchedulingServicePartitions(), timeSourceService);
         SchedulingMgmtService schedulingMgmtService = new SchedulingMgmtServiceImpl();
         EngineImportService engineImportService = makeEngineImportService(configSnapshot, AggregationFactoryFactoryDefault.INSTANCE);
         EngineSettingsService engineSettingsService = new EngineSettingsService(configSnapshot.getEngineDefaults(), configSnapshot.getPlugInEventTypeResolutionURIs());
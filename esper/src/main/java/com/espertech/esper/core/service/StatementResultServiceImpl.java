@@ -234,6 +234,11 @@ public class StatementResultServiceImpl implements StatementResultService
             processDispatch(events);
         }
 
+        if ((MetricReportingPath.isMetricsEnabled) && (statementMetricHandle.isEnabled()))
+        {
+            this.metricReportingService.accountLatency(statementMetricHandle);
+        }
+
         dispatches.clear();
     }
 
@@ -12,6 +12,7 @@
 package com.espertech.esper.core.service.multimatch;
 
 import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.ArrayBackedCollection;
 import com.espertech.esper.filter.FilterHandleCallback;
 
 import java.util.Collection;
@@ -24,6 +25,14 @@ public class MultiMatchHandlerNoSubqueryNoDedup implements MultiMatchHandler {
     }
 
     public void handle(Collection<FilterHandleCallback> callbacks, EventBean theEvent) {
+        if (callbacks instanceof ArrayBackedCollection) {
+            Object[] array = ((ArrayBackedCollection<FilterHandleCallback>) callbacks).getArray();
+            int size = callbacks.size();
+            for (int i = 0; i < size; i++) {
+                ((FilterHandleCallback) array[i]).matchFound(theEvent, callbacks);
+            }
+            return;
+        }
         for (FilterHandleCallback callback : callbacks) {
             callback.matchFound(theEvent, callbacks);
         }
@@ -12,6 +12,7 @@
 package com.espertech.esper.core.service.multimatch;
 
 import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.ArrayBackedCollection;
 import com.espertech.esper.filter.FilterHandleCallback;
 
 import java.util.Collection;
@@ -23,6 +24,24 @@ public class MultiMatchHandlerSubqueryPostevalNoDedup implements MultiMatchHandl
     }
 
     public void handle(Collection<FilterHandleCallback> callbacks, EventBean theEvent) {
+        if (callbacks instanceof ArrayBackedCollection) {
+            Object[] array = ((ArrayBackedCollection<FilterHandleCallback>) callbacks).getArray();
+            int size = callbacks.size();
+            for (int i = 0; i < size; i++) {
+                FilterHandleCallback callback = (FilterHandleCallback) array[i];
+                if (!callback.isSubSelect()) {
+                    callback.matchFound(theEvent, callbacks);
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                FilterHandleCallback callback = (FilterHandleCallback) array[i];
+                if (callback.isSubSelect()) {
+                    callback.matchFound(theEvent, callbacks);
+                }
+            }
+            return;
+        }
+
         for (FilterHandleCallback callback : callbacks) {
             if (!callback.isSubSelect()) {
                 callback.matchFound(theEvent, callbacks);
@@ -54,7 +54,17 @@ public class EPStatementStartMethodCreateContext extends EPStatementStartMethodB
         EventType statementResultEventType = services.getEventAdapterService().createAnonymousMapType(typeName, Collections.<String, Object>emptyMap(), true);
 
         // add context - does not activate that context
-        services.getContextManagementService().addContextSpec(services, agentInstanceContext, context, isRecoveringResilient, statementResultEventType);
+        try {
+            services.getContextManagementService().addContextSpec(services, agentInstanceContext, context, isRecoveringResilient, statementResultEventType);
+        }
+        catch (ExprValidationException ex) {
+            services.getThreadingService().removeInboundPartitionKeyGetters(context.getContextName());
+            throw ex;
+        }
+        catch (RuntimeException ex) {
+            services.getThreadingService().removeInboundPartitionKeyGetters(context.getContextName());
+            throw ex;
+        }
 
         EPStatementStopMethod stopMethod = new EPStatementStopMethod() {
             public void stop() {
@@ -65,6 +75,7 @@ public class EPStatementStartMethodCreateContext extends EPStatementStartMethodB
         EPStatementDestroyMethod destroyMethod = new EPStatementDestroyMethod() {
             public void destroy() {
                 services.getContextManagementService().destroyedContext(context.getContextName());
+                services.getThreadingService().removeInboundPartitionKeyGetters(context.getContextName());
             }
         };
         return new EPStatementStartResult(new ZeroDepthStreamNoIterate(statementResultEventType), stopMethod, destroyMethod);
@@ -9,6 +9,7 @@
 package com.espertech.esper.core.start;
 
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.client.annotation.HookType;
 import com.espertech.esper.client.annotation.IterableUnbound;
 import com.espertech.esper.client.hook.SQLColumnTypeConversion;
@@ -25,12 +26,17 @@ import com.espertech.esper.core.service.EPServicesContext;
 import com.espertech.esper.core.service.ExprEvaluatorContextStatement;
 import com.espertech.esper.core.service.StatementContext;
 import com.espertech.esper.core.service.StreamJoinAnalysisResult;
+import com.espertech.esper.epl.agg.service.AggSvcGroupAllNoAccessFactory;
+import com.espertech.esper.epl.agg.service.AggSvcGroupAllPanedFactory;
+import com.espertech.esper.epl.agg.service.AggregationServiceFactoryDesc;
 import com.espertech.esper.epl.annotation.AnnotationUtil;
 import com.espertech.esper.epl.core.*;
 import com.espertech.esper.epl.db.DatabasePollingViewableFactory;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprNodeUtility;
 import com.espertech.esper.epl.expression.core.ExprValidationException;
+import com.espertech.esper.epl.expression.time.ExprTimePeriodEvalDeltaConst;
+import com.espertech.esper.epl.expression.time.ExprTimePeriodEvalDeltaConstMsec;
 import com.espertech.esper.epl.join.base.HistoricalViewableDesc;
 import com.espertech.esper.epl.join.base.JoinSetComposerPrototype;
 import com.espertech.esper.epl.join.base.JoinSetComposerPrototypeFactory;
@@ -54,7 +60,10 @@ import com.espertech.esper.type.OuterJoinType;
 import com.espertech.esper.util.JavaClassHelper;
 import com.espertech.esper.util.StopCallback;
 import com.espertech.esper.view.HistoricalEventViewable;
+import com.espertech.esper.view.ViewFactory;
 import com.espertech.esper.view.ViewFactoryChain;
+import com.espertech.esper.view.std.GroupByViewCompactFactory;
+import com.espertech.esper.view.window.TimeWindowViewFactory;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -322,6 +331,28 @@ public class EPStatementStartMethodSelectUtil
         // Validate where-clause filter tree, outer join clause and output limit expression
         EPStatementStartMethodHelperValidate.validateNodes(statementSpec, statementContext, typeService, viewResourceDelegateUnverified);
 
+        // When requested, keep grouped length windows in shared arrays instead of a view per group
+        if (HintEnum.ENABLE_COMPACT_GROUPWIN.getHint(statementSpec.getAnnotations()) != null &&
+            viewResourceDelegateUnverified.getPriorRequests().isEmpty() && viewResourceDelegateUnverified.getPreviousRequests().isEmpty()) {
+            for (int i = 0; i < numStreams; i++) {
+                if (statementSpec.getStreamSpecs()[i] instanceof FilterStreamSpecCompiled) {
+                    ViewFactoryChain compactChain = GroupByViewCompactFactory.compact(unmaterializedViewChain[i]);
+                    if (compactChain != null) {
+                        unmaterializedViewChain[i] = compactChain;
+                    }
+                }
+            }
+        }
+
+        // When requested, aggregate by panes of time instead of retaining the events of the time window
+        if (HintEnum.ENABLE_PANE_AGGREGATION.getHint(statementSpec.getAnnotations()) != null) {
+            ResultSetProcessorFactoryDesc panedDesc = planPaneAggregation(statementSpec, unmaterializedViewChain, resultSetProcessorPrototypeDesc, viewResourceDelegateUnverified, evaluatorContextStmt);
+            if (panedDesc != null) {
+                resultSetProcessorPrototypeDesc = panedDesc;
+                unmaterializedViewChain[0] = ViewFactoryChain.fromTypeNoViews(unmaterializedViewChain[0].getEventType());
+            }
+        }
+
         // Handle 'prior' function nodes in terms of view requirements
         ViewResourceDelegateVerified viewResourceDelegateVerified = EPStatementStartMethodHelperViewResources.verifyPreviousAndPriorRequirements(unmaterializedViewChain, viewResourceDelegateUnverified);
 
@@ -352,6 +383,49 @@ public class EPStatementStartMethodSelectUtil
         return new EPStatementStartMethodSelectDesc(factory, subSelectStrategyCollection, viewResourceDelegateUnverified, resultSetProcessorPrototypeDesc, stopMethod, destroyCallbacks);
     }
 
+    private static ResultSetProcessorFactoryDesc planPaneAggregation(StatementSpecCompiled statementSpec, ViewFactoryChain[] unmaterializedViewChain, ResultSetProcessorFactoryDesc prototypeDesc, ViewResourceDelegateUnverified viewResourceDelegateUnverified, ExprEvaluatorContextStatement evaluatorContextStmt)
+    {
+        if (statementSpec.getStreamSpecs().length != 1 || !(statementSpec.getStreamSpecs()[0] instanceof FilterStreamSpecCompiled) ||
+            statementSpec.getMatchRecognizeSpec() != null ||
+            !(prototypeDesc.getResultSetProcessorFactory() instanceof ResultSetProcessorRowForAllFactory) ||
+            !(prototypeDesc.getAggregationServiceFactoryDesc().getAggregationServiceFactory() instanceof AggSvcGroupAllNoAccessFactory) ||
+            statementSpec.getSelectStreamSelectorEnum().isSelectsRStream() ||
+            (statementSpec.getInsertIntoDesc() != null && statementSpec.getInsertIntoDesc().getStreamSelector().isSelectsRStream()) ||
+            !viewResourceDelegateUnverified.getPriorRequests().isEmpty() ||
+            !viewResourceDelegateUnverified.getPreviousRequests().isEmpty()) {
+            return null;
+        }
+
+        // the view must be a single time window
+        List<ViewFactory> viewFactories = unmaterializedViewChain[0].getViewFactoryChain();
+        if (viewFactories.size() != 1 || !(viewFactories.get(0) instanceof TimeWindowViewFactory)) {
+            return null;
+        }
+        ExprTimePeriodEvalDeltaConst windowDelta = ((TimeWindowViewFactory) viewFactories.get(0)).getTimeDeltaComputation();
+
+        // the output must be a snapshot at a constant time interval; for a filter stream the interval starts with the first event, as do the panes
+        OutputLimitSpec outputLimitSpec = statementSpec.getOutputLimitSpec();
+        if (outputLimitSpec == null || outputLimitSpec.getDisplayLimit() != OutputLimitLimitType.SNAPSHOT ||
+            outputLimitSpec.getRateType() != OutputLimitRateType.TIME_PERIOD || outputLimitSpec.getTimePeriodExpr() == null ||
+            outputLimitSpec.getTimePeriodExpr().hasVariable() || !outputLimitSpec.getTimePeriodExpr().isConstantResult() ||
+            outputLimitSpec.getAfterTimePeriodExpr() != null || outputLimitSpec.getAfterNumberOfEvents() != null) {
+            return null;
+        }
+        ExprTimePeriodEvalDeltaConst intervalDelta = outputLimitSpec.getTimePeriodExpr().constEvaluator(evaluatorContextStmt);
+        if (!(windowDelta instanceof ExprTimePeriodEvalDeltaConstMsec) || !(intervalDelta instanceof ExprTimePeriodEvalDeltaConstMsec)) {
+            return null;
+        }
+
+        AggregationServiceFactoryDesc aggDesc = prototypeDesc.getAggregationServiceFactoryDesc();
+        AggSvcGroupAllPanedFactory panedFactory = AggSvcGroupAllPanedFactory.make((AggSvcGroupAllNoAccessFactory) aggDesc.getAggregationServiceFactory(),
+                windowDelta.deltaMillisecondsAdd(0), intervalDelta.deltaMillisecondsAdd(0));
+        if (panedFactory == null) {
+            return null;
+        }
+        AggregationServiceFactoryDesc panedAggDesc = new AggregationServiceFactoryDesc(panedFactory, aggDesc.getExpressions(), aggDesc.getGroupKeyExpressions());
+        return new ResultSetProcessorFactoryDesc(prototypeDesc.getResultSetProcessorFactory(), prototypeDesc.getOrderByProcessorFactory(), panedAggDesc);
+    }
+
     private static void validateNoViews(StreamSpecCompiled streamSpec, String conceptName)
             throws ExprValidationException
     {
@@ -0,0 +1,76 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.core.thread;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread factory for threading options that creates virtual threads, on JVMs that support virtual threads.
+ * <p>
+ * Virtual threads are obtained by reflection so that the engine continues to run on JVMs without virtual threads.
+ */
+public class EngineVirtualThreadFactory implements ThreadFactory
+{
+    private static final Logger log = LoggerFactory.getLogger(EngineVirtualThreadFactory.class);
+
+    private final ThreadFactory virtualThreadFactory;
+
+    private EngineVirtualThreadFactory(ThreadFactory virtualThreadFactory)
+    {
+        this.virtualThreadFactory = virtualThreadFactory;
+    }
+
+    /**
+     * Returns a factory for virtual threads, or null if the JVM does not support virtual threads.
+     * @param engineURI engine URI
+     * @param prefix prefix for thread names
+     * @return factory or null if not supported
+     */
+    public static EngineVirtualThreadFactory make(String engineURI, String prefix)
+    {
+        if (engineURI == null)
+        {
+            engineURI = "default";
+        }
+        try
+        {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class builderClass = Class.forName("java.lang.Thread$Builder");
+            Method nameMethod = builderClass.getMethod("name", String.class, long.class);
+            builder = nameMethod.invoke(builder, "com.espertech.esper." + prefix + "-" + engineURI + "-", 0L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            return new EngineVirtualThreadFactory(factory);
+        }
+        catch (Exception ex)
+        {
+            if (log.isDebugEnabled())
+            {
+                log.debug("Virtual threads not supported: " + ex.getMessage(), ex);
+            }
+            return null;
+        }
+    }
+
+    public Thread newThread(Runnable runnable)
+    {
+        Thread t = virtualThreadFactory.newThread(runnable);
+        if (log.isDebugEnabled())
+        {
+            log.debug("Creating virtual thread '" + t.getName() + "' : " + t);
+        }
+        return t;
+    }
+}
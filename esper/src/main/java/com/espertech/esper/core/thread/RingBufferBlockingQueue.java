@@ -0,0 +1,292 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded blocking queue for engine thread pools that is backed by a preallocated ring buffer of slots.
+ * <p>
+ * Producers and consumers claim slots by compare-and-set on a sequence and each slot carries its own sequence number
+ * that publishes the slot to the other side, therefore neither put nor take allocate or acquire a lock.
+ * Multiple producers (threads sending events, routing or dispatching) and multiple consumers (the pool threads) are supported.
+ * <p>
+ * Threads that find the buffer full (producers) or empty (consumers) wait according to the wait strategy:
+ * busy-spin for the lowest latency at the cost of a core per waiting thread, yield, or park for a short and increasing time.
+ */
+public class RingBufferBlockingQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable>
+{
+    private static final long PARK_NANOS_MAX = 1000000L;
+
+    private final Runnable[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy waitStrategy;
+    private final AtomicLong enqueuePosition = new AtomicLong();
+    private final AtomicLong dequeuePosition = new AtomicLong();
+
+    /**
+     * Ctor.
+     * @param capacity minimum capacity, rounded up to the next power of two
+     * @param waitStrategy strategy for waiting when full or empty
+     */
+    public RingBufferBlockingQueue(int capacity, ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy waitStrategy)
+    {
+        if (capacity < 1 || capacity > (1 << 30))
+        {
+            throw new IllegalArgumentException("Invalid ring buffer capacity " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity)
+        {
+            size = size << 1;
+        }
+        this.slots = new Runnable[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++)
+        {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.waitStrategy = waitStrategy;
+    }
+
+    public boolean offer(Runnable runnable)
+    {
+        if (runnable == null)
+        {
+            throw new NullPointerException();
+        }
+        long position = enqueuePosition.get();
+        while (true)
+        {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0)
+            {
+                if (enqueuePosition.compareAndSet(position, position + 1))
+                {
+                    slots[index] = runnable;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = enqueuePosition.get();
+            }
+            else if (difference < 0)
+            {
+                return false;   // full
+            }
+            else
+            {
+                position = enqueuePosition.get();
+            }
+        }
+    }
+
+    public Runnable poll()
+    {
+        long position = dequeuePosition.get();
+        while (true)
+        {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0)
+            {
+                if (dequeuePosition.compareAndSet(position, position + 1))
+                {
+                    Runnable runnable = slots[index];
+                    slots[index] = null;
+                    sequences.lazySet(index, position + mask + 1);
+                    return runnable;
+                }
+                position = dequeuePosition.get();
+            }
+            else if (difference < 0)
+            {
+                return null;    // empty
+            }
+            else
+            {
+                position = dequeuePosition.get();
+            }
+        }
+    }
+
+    public Runnable peek()
+    {
+        long position = dequeuePosition.get();
+        int index = (int) position & mask;
+        if (sequences.get(index) - (position + 1) != 0)
+        {
+            return null;
+        }
+        return slots[index];
+    }
+
+    public void put(Runnable runnable) throws InterruptedException
+    {
+        int idleCount = 0;
+        while (!offer(runnable))
+        {
+            idle(idleCount++);
+        }
+    }
+
+    public boolean offer(Runnable runnable, long timeout, TimeUnit unit) throws InterruptedException
+    {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int idleCount = 0;
+        while (!offer(runnable))
+        {
+            if (System.nanoTime() - deadline >= 0)
+            {
+                return false;
+            }
+            idle(idleCount++);
+        }
+        return true;
+    }
+
+    public Runnable take() throws InterruptedException
+    {
+        int idleCount = 0;
+        while (true)
+        {
+            Runnable runnable = poll();
+            if (runnable != null)
+            {
+                return runnable;
+            }
+            idle(idleCount++);
+        }
+    }
+
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int idleCount = 0;
+        while (true)
+        {
+            Runnable runnable = poll();
+            if (runnable != null)
+            {
+                return runnable;
+            }
+            if (System.nanoTime() - deadline >= 0)
+            {
+                return null;
+            }
+            idle(idleCount++);
+        }
+    }
+
+    public int size()
+    {
+        while (true)
+        {
+            long dequeue = dequeuePosition.get();
+            long enqueue = enqueuePosition.get();
+            if (dequeue == dequeuePosition.get())
+            {
+                return (int) Math.max(0, Math.min(enqueue - dequeue, slots.length));
+            }
+        }
+    }
+
+    public int remainingCapacity()
+    {
+        return slots.length - size();
+    }
+
+    public int drainTo(Collection<? super Runnable> c)
+    {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    public int drainTo(Collection<? super Runnable> c, int maxElements)
+    {
+        int count = 0;
+        while (count < maxElements)
+        {
+            Runnable runnable = poll();
+            if (runnable == null)
+            {
+                break;
+            }
+            c.add(runnable);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns a weakly-consistent iterator over a snapshot of the queued units, that does not support removal.
+     * @return iterator
+     */
+    public Iterator<Runnable> iterator()
+    {
+        List<Runnable> snapshot = new ArrayList<Runnable>();
+        long position = dequeuePosition.get();
+        while (true)
+        {
+            int index = (int) position & mask;
+            if (sequences.get(index) - (position + 1) != 0)
+            {
+                break;
+            }
+            Runnable runnable = slots[index];
+            if (runnable == null)
+            {
+                break;
+            }
+            snapshot.add(runnable);
+            position++;
+        }
+        return Collections.unmodifiableList(snapshot).iterator();
+    }
+
+    /**
+     * Returns the number of slots.
+     * @return capacity
+     */
+    public int getCapacity()
+    {
+        return slots.length;
+    }
+
+    private void idle(int idleCount) throws InterruptedException
+    {
+        if (Thread.interrupted())
+        {
+            throw new InterruptedException();
+        }
+        if (waitStrategy == ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy.BUSYSPIN)
+        {
+            return;
+        }
+        if (waitStrategy == ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy.YIELD || idleCount < 100)
+        {
+            Thread.yield();
+            return;
+        }
+        // park, backing off up to the maximum
+        long nanos = Math.min(PARK_NANOS_MAX, 1000L << Math.min(idleCount - 100, 10));
+        LockSupport.parkNanos(this, nanos);
+    }
+}
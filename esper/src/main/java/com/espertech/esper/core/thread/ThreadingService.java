@@ -11,6 +11,10 @@
 
 package com.espertech.esper.core.thread;
 
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.core.service.EPRuntimeEventSender;
 import com.espertech.esper.core.service.EPRuntimeImpl;
 import com.espertech.esper.core.service.EPServicesContext;
 
@@ -58,6 +62,44 @@ public interface ThreadingService
      */
     public void submitInbound(InboundUnitRunnable unit);
 
+    /**
+     * Returns true for inbound threading with key affinity, for which events of the same partition key
+     * are always processed by the same inbound thread.
+     * @return indicator
+     */
+    public boolean isInboundThreadingKeyAffinity();
+
+    /**
+     * Submit inbound work unit for a wrapped event, which with key affinity executes on the thread assigned to the event's partition key.
+     * @param unit unit of work
+     * @param theEvent the event processed by the unit
+     */
+    public void submitInbound(InboundUnitRunnable unit, EventBean theEvent);
+
+    /**
+     * Submit inbound work for a batch of wrapped events, which with key affinity is split into a batch per thread
+     * retaining the order of events.
+     * @param eventBeans events
+     * @param runtimeEventSender runtime to process events
+     */
+    public void submitInboundBatch(EventBean[] eventBeans, EPRuntimeEventSender runtimeEventSender);
+
+    /**
+     * Adds a getter that returns the partition key for events of the given type, for use with key affinity,
+     * unless a partition key is configured for the type. When multiple contexts register a getter for the same type
+     * the context registered first provides the partition key.
+     * @param contextName name of the context registering the getter
+     * @param eventType event type
+     * @param getter partition key getter
+     */
+    public void addInboundPartitionKeyGetter(String contextName, EventType eventType, EventPropertyGetter getter);
+
+    /**
+     * Removes the partition key getters registered by a context, for use when the context is destroyed.
+     * @param contextName name of the context
+     */
+    public void removeInboundPartitionKeyGetters(String contextName);
+
     /**
      * Returns true for route execution threading enabled.
      * @return indicator
@@ -119,13 +161,13 @@ public interface ThreadingService
     public ThreadPoolExecutor getTimerThreadPool();
 
     /**
-     * Returns the inbound queue.
+     * Returns the inbound queue, or null when inbound threading uses key affinity as each thread has its own queue.
      * @return queue
      */
     public BlockingQueue<Runnable> getInboundQueue();
 
     /**
-     * Returns the inbound thread pool
+     * Returns the inbound thread pool, or null when inbound threading uses key affinity as each thread has its own queue.
      * @return thread pool
      */
     public ThreadPoolExecutor getInboundThreadPool();
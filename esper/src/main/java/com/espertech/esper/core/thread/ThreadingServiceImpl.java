@@ -12,12 +12,18 @@
 package com.espertech.esper.core.thread;
 
 import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.core.service.EPRuntimeEventSender;
 import com.espertech.esper.core.service.EPRuntimeImpl;
 import com.espertech.esper.core.service.EPServicesContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Implementation for engine-level threading.
@@ -25,12 +31,26 @@ import java.util.concurrent.*;
 public class ThreadingServiceImpl implements ThreadingService
 {
     private static final Logger log = LoggerFactory.getLogger(ThreadingServiceImpl.class);
+    private static final EventPropertyGetter NO_PARTITION_KEY = new EventPropertyGetter() {
+        public Object get(EventBean eventBean) {
+            return null;
+        }
+
+        public boolean isExistsProperty(EventBean eventBean) {
+            return false;
+        }
+
+        public Object getFragment(EventBean eventBean) {
+            return null;
+        }
+    };
 
     private final ConfigurationEngineDefaults.Threading config;
     private final boolean isTimerThreading;
     private final boolean isInboundThreading;
     private final boolean isRouteThreading;
     private final boolean isOutboundThreading;
+    private final boolean isInboundThreadingKeyAffinity;
 
     private BlockingQueue<Runnable> timerQueue;
     private BlockingQueue<Runnable> inboundQueue;
@@ -42,6 +62,12 @@ public class ThreadingServiceImpl implements ThreadingService
     private ThreadPoolExecutor routeThreadPool;
     private ThreadPoolExecutor outboundThreadPool;
 
+    private BlockingQueue<Runnable>[] inboundPartitionQueues;
+    private ThreadPoolExecutor[] inboundPartitionThreadPools;
+    private volatile Map<EventType, EventPropertyGetter> inboundPartitionKeyGetters = new HashMap<EventType, EventPropertyGetter>();
+    private final Map<String, Map<EventType, EventPropertyGetter>> inboundPartitionKeyGettersRegistered = new LinkedHashMap<String, Map<EventType, EventPropertyGetter>>();
+    private final AtomicInteger inboundRoundRobin = new AtomicInteger();
+
     /**
      * Ctor.
      * @param threadingConfig configuration
@@ -55,6 +81,7 @@ public class ThreadingServiceImpl implements ThreadingService
             isInboundThreading = threadingConfig.isThreadPoolInbound();
             isRouteThreading = threadingConfig.isThreadPoolRouteExec();
             isOutboundThreading = threadingConfig.isThreadPoolOutbound();
+            isInboundThreadingKeyAffinity = isInboundThreading && threadingConfig.isThreadPoolInboundKeyAffinity();
         }
         else
         {
@@ -62,6 +89,7 @@ public class ThreadingServiceImpl implements ThreadingService
             isInboundThreading = false;
             isRouteThreading = false;
             isOutboundThreading = false;
+            isInboundThreadingKeyAffinity = false;
         }
     }
 
@@ -75,6 +103,11 @@ public class ThreadingServiceImpl implements ThreadingService
         return isInboundThreading;
     }
 
+    public boolean isInboundThreadingKeyAffinity()
+    {
+        return isInboundThreadingKeyAffinity;
+    }
+
     public boolean isTimerThreading()
     {
         return isTimerThreading;
@@ -87,28 +120,40 @@ public class ThreadingServiceImpl implements ThreadingService
 
     public void initThreading(EPServicesContext services, EPRuntimeImpl runtime)
     {
-        if (isInboundThreading)
+        if (isInboundThreadingKeyAffinity)
+        {
+            // a single-threaded pool per partition so that events of the same key are processed in order by the same thread
+            int numThreads = config.getThreadPoolInboundNumThreads();
+            inboundPartitionQueues = new BlockingQueue[numThreads];
+            inboundPartitionThreadPools = new ThreadPoolExecutor[numThreads];
+            for (int i = 0; i < numThreads; i++)
+            {
+                inboundPartitionQueues[i] = makeQueue(config.getThreadPoolInboundCapacity());
+                inboundPartitionThreadPools[i] = getThreadPool(services.getEngineURI(), "Inbound-" + i, inboundPartitionQueues[i], 1, false);
+            }
+        }
+        else if (isInboundThreading)
         {
             inboundQueue = makeQueue(config.getThreadPoolInboundCapacity());
-            inboundThreadPool = getThreadPool(services.getEngineURI(), "Inbound", inboundQueue, config.getThreadPoolInboundNumThreads());
+            inboundThreadPool = getThreadPool(services.getEngineURI(), "Inbound", inboundQueue, config.getThreadPoolInboundNumThreads(), false);
         }
 
         if (isTimerThreading)
         {
             timerQueue = makeQueue(config.getThreadPoolTimerExecCapacity());
-            timerThreadPool = getThreadPool(services.getEngineURI(), "TimerExec", timerQueue, config.getThreadPoolTimerExecNumThreads());
+            timerThreadPool = getThreadPool(services.getEngineURI(), "TimerExec", timerQueue, config.getThreadPoolTimerExecNumThreads(), false);
         }
 
         if (isRouteThreading)
         {
             routeQueue = makeQueue(config.getThreadPoolRouteExecCapacity());
-            routeThreadPool = getThreadPool(services.getEngineURI(), "RouteExec", routeQueue, config.getThreadPoolRouteExecNumThreads());
+            routeThreadPool = getThreadPool(services.getEngineURI(), "RouteExec", routeQueue, config.getThreadPoolRouteExecNumThreads(), config.isThreadPoolRouteExecVirtualThreads());
         }
 
         if (isOutboundThreading)
         {
             outboundQueue = makeQueue(config.getThreadPoolOutboundCapacity());
-            outboundThreadPool = getThreadPool(services.getEngineURI(), "Outbound", outboundQueue, config.getThreadPoolOutboundNumThreads());
+            outboundThreadPool = getThreadPool(services.getEngineURI(), "Outbound", outboundQueue, config.getThreadPoolOutboundNumThreads(), config.isThreadPoolOutboundVirtualThreads());
         }
     }
 
@@ -118,8 +163,13 @@ public class ThreadingServiceImpl implements ThreadingService
             (threadPoolTimerExecCapacity <= 0) ||
             (threadPoolTimerExecCapacity == Integer.MAX_VALUE))
         {
+            // a ring buffer is always bounded, an unbounded pool keeps the unbounded queue regardless of the queue type
             return new LinkedBlockingQueue<Runnable>();
         }
+        else if (config.getThreadPoolQueueType() == ConfigurationEngineDefaults.Threading.ThreadPoolQueueType.RINGBUFFER)
+        {
+            return new RingBufferBlockingQueue(Math.min(threadPoolTimerExecCapacity, 1 << 30), config.getThreadPoolWaitStrategy());
+        }
         else
         {
             return new ArrayBlockingQueue<Runnable>(threadPoolTimerExecCapacity);
@@ -140,6 +190,14 @@ public class ThreadingServiceImpl implements ThreadingService
 
     public void submitInbound(InboundUnitRunnable unit)
     {
+        if (isInboundThreadingKeyAffinity)
+        {
+            // no partition key: any thread
+            int partition = (inboundRoundRobin.getAndIncrement() & 0x7fffffff) % inboundPartitionQueues.length;
+            submitInboundPartition(partition, unit);
+            return;
+        }
+
         try
         {
             inboundQueue.put(unit);
@@ -150,6 +208,160 @@ public class ThreadingServiceImpl implements ThreadingService
         }
     }
 
+    public void submitInbound(InboundUnitRunnable unit, EventBean theEvent)
+    {
+        if (!isInboundThreadingKeyAffinity)
+        {
+            submitInbound(unit);
+            return;
+        }
+
+        EventPropertyGetter getter = getInboundPartitionKeyGetter(theEvent.getEventType());
+        if (getter == null)
+        {
+            submitInbound(unit);
+            return;
+        }
+        submitInboundPartition(getInboundPartition(getter, theEvent), unit);
+    }
+
+    public void submitInboundBatch(EventBean[] eventBeans, EPRuntimeEventSender runtimeEventSender)
+    {
+        if (!isInboundThreadingKeyAffinity)
+        {
+            submitInbound(new InboundUnitSendWrappedBatch(eventBeans, runtimeEventSender));
+            return;
+        }
+
+        // split into a batch per thread, retaining the order of events for each thread
+        List<EventBean>[] partitions = new List[inboundPartitionQueues.length];
+        int partitionNoKey = (inboundRoundRobin.getAndIncrement() & 0x7fffffff) % inboundPartitionQueues.length;
+        for (EventBean eventBean : eventBeans)
+        {
+            EventPropertyGetter getter = getInboundPartitionKeyGetter(eventBean.getEventType());
+            int partition = getter == null ? partitionNoKey : getInboundPartition(getter, eventBean);
+            if (partitions[partition] == null)
+            {
+                partitions[partition] = new ArrayList<EventBean>();
+            }
+            partitions[partition].add(eventBean);
+        }
+        for (int i = 0; i < partitions.length; i++)
+        {
+            if (partitions[i] != null)
+            {
+                EventBean[] batch = partitions[i].toArray(new EventBean[partitions[i].size()]);
+                submitInboundPartition(i, new InboundUnitSendWrappedBatch(batch, runtimeEventSender));
+            }
+        }
+    }
+
+    public synchronized void addInboundPartitionKeyGetter(String contextName, EventType eventType, EventPropertyGetter getter)
+    {
+        if (!isInboundThreadingKeyAffinity || config.getThreadPoolInboundPartitionKeys().containsKey(eventType.getName()))
+        {
+            return;
+        }
+        Map<EventType, EventPropertyGetter> registered = inboundPartitionKeyGettersRegistered.get(contextName);
+        if (registered == null)
+        {
+            registered = new HashMap<EventType, EventPropertyGetter>();
+            inboundPartitionKeyGettersRegistered.put(contextName, registered);
+        }
+        registered.put(eventType, getter);
+
+        // the type may already be resolved, without partition key if events arrived before the context was created
+        removeResolvedPartitionKeyGetters(Collections.singleton(eventType));
+    }
+
+    public synchronized void removeInboundPartitionKeyGetters(String contextName)
+    {
+        Map<EventType, EventPropertyGetter> registered = inboundPartitionKeyGettersRegistered.remove(contextName);
+        if (registered != null)
+        {
+            removeResolvedPartitionKeyGetters(registered.keySet());
+        }
+    }
+
+    EventPropertyGetter getInboundPartitionKeyGetter(EventType eventType)
+    {
+        EventPropertyGetter getter = inboundPartitionKeyGetters.get(eventType);
+        if (getter != null)
+        {
+            return getter == NO_PARTITION_KEY ? null : getter;
+        }
+
+        synchronized (this)
+        {
+            getter = inboundPartitionKeyGetters.get(eventType);
+            if (getter == null)
+            {
+                getter = resolvePartitionKeyGetter(eventType);
+                Map<EventType, EventPropertyGetter> getters = new HashMap<EventType, EventPropertyGetter>(inboundPartitionKeyGetters);
+                getters.put(eventType, getter);
+                inboundPartitionKeyGetters = getters;
+            }
+        }
+        return getter == NO_PARTITION_KEY ? null : getter;
+    }
+
+    private EventPropertyGetter resolvePartitionKeyGetter(EventType eventType)
+    {
+        String propertyName = eventType.getName() == null ? null : config.getThreadPoolInboundPartitionKeys().get(eventType.getName());
+        if (propertyName != null)
+        {
+            EventPropertyGetter propertyGetter = eventType.getGetter(propertyName);
+            if (propertyGetter != null)
+            {
+                return propertyGetter;
+            }
+            log.warn("Partition key property '" + propertyName + "' configured for inbound threading is not a valid property of event type '" + eventType.getName() + "', ignoring the partition key");
+            return NO_PARTITION_KEY;
+        }
+
+        // the context created first provides the partition key
+        for (Map<EventType, EventPropertyGetter> registered : inboundPartitionKeyGettersRegistered.values())
+        {
+            EventPropertyGetter registeredGetter = registered.get(eventType);
+            if (registeredGetter != null)
+            {
+                return registeredGetter;
+            }
+        }
+        return NO_PARTITION_KEY;
+    }
+
+    private void removeResolvedPartitionKeyGetters(Collection<EventType> eventTypes)
+    {
+        Map<EventType, EventPropertyGetter> getters = new HashMap<EventType, EventPropertyGetter>(inboundPartitionKeyGetters);
+        getters.keySet().removeAll(eventTypes);
+        inboundPartitionKeyGetters = getters;
+    }
+
+    private int getInboundPartition(EventPropertyGetter getter, EventBean theEvent)
+    {
+        Object key = getter.get(theEvent);
+        if (key == null)
+        {
+            return 0;
+        }
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return (hash & 0x7fffffff) % inboundPartitionQueues.length;
+    }
+
+    private void submitInboundPartition(int partition, InboundUnitRunnable unit)
+    {
+        try
+        {
+            inboundPartitionQueues[partition].put(unit);
+        }
+        catch (InterruptedException e)
+        {
+            log.info("Submit interrupted:" + e);
+        }
+    }
+
     public void submitOutbound(OutboundUnitRunnable unit)
     {
         try
@@ -232,23 +444,48 @@ public class ThreadingServiceImpl implements ThreadingService
         {
             stopPool(inboundThreadPool, inboundQueue, "Inbound");
         }
+        if (inboundPartitionThreadPools != null)
+        {
+            for (int i = 0; i < inboundPartitionThreadPools.length; i++)
+            {
+                stopPool(inboundPartitionThreadPools[i], inboundPartitionQueues[i], "Inbound-" + i);
+            }
+        }
 
         timerThreadPool = null;
         routeThreadPool = null;
         outboundThreadPool = null;
         inboundThreadPool = null;
+        inboundPartitionThreadPools = null;
     }
 
-    private ThreadPoolExecutor getThreadPool(String engineURI, String name, BlockingQueue<Runnable> queue, int numThreads)
+    private ThreadPoolExecutor getThreadPool(String engineURI, String name, BlockingQueue<Runnable> queue, int numThreads, boolean virtualThreads)
     {
-        if (log.isInfoEnabled())
+        if (engineURI == null)
         {
-            log.info("Starting pool " + name + " with " + numThreads + " threads");
+            engineURI = "default";
         }
 
-        if (engineURI == null)
+        if (virtualThreads)
         {
-            engineURI = "default";
+            EngineVirtualThreadFactory virtualThreadFactory = EngineVirtualThreadFactory.make(engineURI, name);
+            if (virtualThreadFactory != null)
+            {
+                if (log.isInfoEnabled())
+                {
+                    log.info("Starting pool " + name + " with " + numThreads + " virtual threads");
+                }
+                // the number of virtual threads bounds the number of units executing concurrently
+                ThreadPoolExecutor pool = new ThreadPoolExecutor(numThreads, numThreads, 1, TimeUnit.SECONDS, queue, virtualThreadFactory);
+                pool.prestartAllCoreThreads();
+                return pool;
+            }
+            log.warn("Virtual threads are not supported by this JVM, using platform threads for pool " + name);
+        }
+
+        if (log.isInfoEnabled())
+        {
+            log.info("Starting pool " + name + " with " + numThreads + " threads");
         }
 
         String threadGroupName = "com.espertech.esper." + engineURI + "-" + name;
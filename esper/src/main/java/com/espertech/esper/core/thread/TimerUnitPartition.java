@@ -0,0 +1,84 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.core.service.EPRuntimeImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Timer unit for evaluating and processing the schedules of a scheduling service partition.
+ * <p>
+ * The unit is reused for each timer tick. At most one thread works off a given partition at any time
+ * so that the callbacks of the partition are processed in schedule order. A tick that arrives while the
+ * partition is being worked off is picked up by the working thread rather than by a second thread.
+ */
+public class TimerUnitPartition implements TimerUnit
+{
+    private static final Logger log = LoggerFactory.getLogger(TimerUnitPartition.class);
+
+    private final EPRuntimeImpl runtime;
+    private final int partition;
+    private final AtomicBoolean pending = new AtomicBoolean();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Ctor.
+     * @param runtime runtime to process
+     * @param partition scheduling service partition number
+     */
+    public TimerUnitPartition(EPRuntimeImpl runtime, int partition)
+    {
+        this.runtime = runtime;
+        this.partition = partition;
+    }
+
+    /**
+     * Indicates a timer tick for the partition.
+     * @return true if the unit must be submitted for execution, false if the unit is already queued or running
+     */
+    public boolean schedule()
+    {
+        pending.set(true);
+        return running.compareAndSet(false, true);
+    }
+
+    public void run()
+    {
+        do {
+            try
+            {
+                while (pending.getAndSet(false))
+                {
+                    runtime.processSchedulePartition(partition);
+
+                    // Let listeners know of results
+                    runtime.dispatch();
+
+                    // Work off the event queue if any events accumulated in there via a route()
+                    runtime.processThreadWorkQueue();
+                }
+            }
+            catch (RuntimeException e)
+            {
+                log.error("Unexpected error processing partitioned timer execution: " + e.getMessage(), e);
+            }
+            finally
+            {
+                running.set(false);
+            }
+        }
+        while (pending.get() && running.compareAndSet(false, true));
+    }
+}
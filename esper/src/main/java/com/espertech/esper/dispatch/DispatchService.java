@@ -36,4 +36,10 @@ public interface DispatchService
      */
     public void dispatch();
 
+    /**
+     * Returns true if no Dispatchable implementations were added by the current thread since the last invocation of the dispatch method.
+     * @return indicator whether there is nothing to dispatch
+     */
+    public boolean isEmpty();
+
 }
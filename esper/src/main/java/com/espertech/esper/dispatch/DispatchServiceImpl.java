@@ -31,6 +31,11 @@ public class DispatchServiceImpl implements DispatchService
         dispatchFromQueue(threadDispatchQueue.get());
     }
 
+    public boolean isEmpty()
+    {
+        return threadDispatchQueue.get().isEmpty();
+    }
+
     public void addExternal(Dispatchable dispatchable)
     {
         ArrayDeque<Dispatchable> dispatchQueue = threadDispatchQueue.get();
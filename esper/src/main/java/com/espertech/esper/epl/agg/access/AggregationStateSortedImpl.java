@@ -10,10 +10,12 @@ package com.espertech.esper.epl.agg.access;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.collection.OrderStatisticTree;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 
-import java.util.*;
+import java.util.Collection;
+import java.util.Iterator;
 
 /**
  * Implementation of access function for single-stream (not joins).
@@ -21,7 +23,7 @@ import java.util.*;
 public class AggregationStateSortedImpl implements AggregationStateWithSize, AggregationStateSorted
 {
     protected final AggregationStateSortedSpec spec;
-    protected final TreeMap<Object, Object> sorted;
+    protected final OrderStatisticTree<EventBean> sorted;
     protected int size;
 
     /**
@@ -30,7 +32,7 @@ public class AggregationStateSortedImpl implements AggregationStateWithSize, Agg
      */
     public AggregationStateSortedImpl(AggregationStateSortedSpec spec) {
         this.spec = spec;
-        sorted = new TreeMap<Object, Object>(spec.getComparator());
+        sorted = new OrderStatisticTree<EventBean>(spec.getComparator());
     }
 
     public void clear() {
@@ -46,20 +48,7 @@ public class AggregationStateSortedImpl implements AggregationStateWithSize, Agg
         }
         if (referenceEvent(theEvent)) {
             Object comparable = getComparable(spec.getCriteria(), eventsPerStream, true, exprEvaluatorContext);
-            Object existing = sorted.get(comparable);
-            if (existing == null) {
-                sorted.put(comparable, theEvent);
-            }
-            else if (existing instanceof EventBean) {
-                ArrayDeque coll = new ArrayDeque(2);
-                coll.add(existing);
-                coll.add(theEvent);
-                sorted.put(comparable, coll);
-            }
-            else {
-                ArrayDeque q = (ArrayDeque) existing;
-                q.add(theEvent);
-            }
+            sorted.addLast(comparable, theEvent);
             size++;
         }
     }
@@ -82,20 +71,8 @@ public class AggregationStateSortedImpl implements AggregationStateWithSize, Agg
         }
         if (dereferenceEvent(theEvent)) {
             Object comparable = getComparable(spec.getCriteria(), eventsPerStream, false, exprEvaluatorContext);
-            Object existing = sorted.get(comparable);
-            if (existing != null) {
-                if (existing.equals(theEvent)) {
-                    sorted.remove(comparable);
-                    size--;
-                }
-                else if (existing instanceof ArrayDeque) {
-                    ArrayDeque q = (ArrayDeque) existing;
-                    q.remove(theEvent);
-                    if (q.isEmpty()) {
-                        sorted.remove(comparable);
-                    }
-                    size--;
-                }
+            if (sorted.remove(comparable, theEvent)) {
+                size--;
             }
         }
     }
@@ -104,8 +81,7 @@ public class AggregationStateSortedImpl implements AggregationStateWithSize, Agg
         if (sorted.isEmpty()) {
             return null;
         }
-        Map.Entry<Object, Object> max = sorted.firstEntry();
-        return checkedPayload(max.getValue());
+        return sorted.get(0);
     }
 
     public EventBean getLastValue()
@@ -113,8 +89,8 @@ public class AggregationStateSortedImpl implements AggregationStateWithSize, Agg
         if (sorted.isEmpty()) {
             return null;
         }
-        Map.Entry<Object, Object> min = sorted.lastEntry();
-        return checkedPayload(min.getValue());
+        // first-entered event among those sharing the last sort key
+        return sorted.get(sorted.lowerBound(sorted.getKey(sorted.size() - 1)));
     }
 
     public Iterator<EventBean> iterator() {
@@ -147,12 +123,4 @@ public class AggregationStateSortedImpl implements AggregationStateWithSize, Agg
             return new MultiKeyUntyped(result);
         }
     }
-
-    private EventBean checkedPayload(Object value) {
-        if (value instanceof EventBean) {
-            return (EventBean) value;
-        }
-        ArrayDeque<EventBean> q = (ArrayDeque<EventBean>) value;
-        return q.getFirst();
-    }
-}
\ No newline at end of file
+}
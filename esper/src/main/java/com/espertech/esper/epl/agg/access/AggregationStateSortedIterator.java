@@ -10,28 +10,70 @@
  */
 package com.espertech.esper.epl.agg.access;
 
-import com.espertech.esper.collection.MixedEventBeanAndCollectionIteratorBase;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.OrderStatisticTree;
 
-import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
-public class AggregationStateSortedIterator extends MixedEventBeanAndCollectionIteratorBase
+/**
+ * Iterator over sorted aggregation state. The reverse iterator returns sort keys in descending order
+ * and events of the same sort key in the order they were entered.
+ */
+public class AggregationStateSortedIterator implements Iterator<EventBean>
 {
-    private final SortedMap<Object, Object> window;
+    private final OrderStatisticTree<EventBean> window;
+    private final boolean reverse;
+    private Iterator<EventBean> groupIterator;
+    private int groupStart;
+    private int groupRemaining;
 
     /**
      * Ctor.
-     * @param window - sorted map with events
+     * @param window - sorted events
      * @param reverse for reverse iterator
      */
-    public AggregationStateSortedIterator(TreeMap<Object, Object> window, boolean reverse)
+    public AggregationStateSortedIterator(OrderStatisticTree<EventBean> window, boolean reverse)
     {
-        super(reverse ? window.descendingKeySet().iterator() : window.keySet().iterator());
         this.window = window;
-        init();
+        this.reverse = reverse;
+        if (reverse) {
+            groupStart = window.size();
+            nextGroup();
+        }
+        else {
+            groupIterator = window.iterator();
+            groupRemaining = window.size();
+        }
+    }
+
+    public boolean hasNext() {
+        return groupRemaining > 0;
+    }
+
+    public EventBean next() {
+        if (groupRemaining <= 0) {
+            throw new NoSuchElementException();
+        }
+        EventBean theEvent = groupIterator.next();
+        groupRemaining--;
+        if (groupRemaining == 0 && reverse) {
+            nextGroup();
+        }
+        return theEvent;
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException();
     }
 
-    protected Object getValue(Object iteratorKeyValue) {
-        return window.get(iteratorKeyValue);
+    private void nextGroup() {
+        if (groupStart == 0) {
+            return;
+        }
+        int groupEnd = groupStart;
+        groupStart = window.lowerBound(window.getKey(groupEnd - 1));
+        groupRemaining = groupEnd - groupStart;
+        groupIterator = window.iterator(groupStart);
     }
 }
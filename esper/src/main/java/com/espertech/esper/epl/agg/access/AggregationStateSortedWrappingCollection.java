@@ -11,16 +11,18 @@
 
 package com.espertech.esper.epl.agg.access;
 
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.OrderStatisticTree;
+
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.TreeMap;
 
 public class AggregationStateSortedWrappingCollection implements Collection {
 
-    private final TreeMap<Object, Object> sorted;
+    private final OrderStatisticTree<EventBean> sorted;
     private final int size;
 
-    public AggregationStateSortedWrappingCollection(TreeMap<Object, Object> sorted, int size) {
+    public AggregationStateSortedWrappingCollection(OrderStatisticTree<EventBean> sorted, int size) {
         this.sorted = sorted;
         this.size = size;
     }
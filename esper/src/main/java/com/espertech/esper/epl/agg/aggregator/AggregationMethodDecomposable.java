@@ -0,0 +1,33 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+/**
+ * Aggregation method whose state is determined by the values that entered and did not leave,
+ * and whose state for a set of values can be combined from the states for disjoint slices of the values.
+ * <p>
+ * Clearing the state is equivalent to leaving all values that entered.
+ * A partial, as returned by {@link #newPartial()}, only receives entering values and
+ * is smaller than the aggregation method where possible, for example a minimum that does not keep values.
+ */
+public interface AggregationMethodDecomposable extends AggregationMethod
+{
+    /**
+     * Returns a new and empty aggregation method for a slice of the values, that accepts the same entering values
+     * as this aggregation method and that can be merged into this aggregation method.
+     * @return partial
+     */
+    public AggregationMethod newPartial();
+
+    /**
+     * Enter all values aggregated by a partial as returned by {@link #newPartial()}.
+     * @param partial to merge
+     */
+    public void merge(AggregationMethod partial);
+}
@@ -0,0 +1,48 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+/**
+ * Aggregation method for numeric values that, in addition to boxed values, accepts unboxed values and
+ * returns its current value unboxed.
+ * <P>Unboxed values are never null, and are converted to the value type of the aggregation like a cast would.
+ * The result of entering or leaving an unboxed value is the same as entering or leaving the equivalent boxed value.
+ */
+public interface AggregationMethodPrimitive extends AggregationMethod
+{
+    /**
+     * Apply the value as entering aggregation (entering window).
+     * @param value to add to aggregate
+     */
+    public void enterDouble(double value);
+
+    /**
+     * Apply the value as leaving aggregation (leaving window).
+     * @param value to remove from aggregate
+     */
+    public void leaveDouble(double value);
+
+    /**
+     * Apply the value as entering aggregation (entering window).
+     * @param value to add to aggregate
+     */
+    public void enterLong(long value);
+
+    /**
+     * Apply the value as leaving aggregation (leaving window).
+     * @param value to remove from aggregate
+     */
+    public void leaveLong(long value);
+
+    /**
+     * Returns the current value held as a double, or NaN if the current value is null.
+     * @return current value
+     */
+    public double getDouble();
+}
@@ -0,0 +1,50 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+import com.espertech.esper.epl.approx.HyperLogLogState;
+
+/**
+ * Approximate distinct-count aggregation based on a HyperLogLog sketch of fixed size.
+ * <p>
+ * The sketch cannot remove values. Validation rejects the aggregation function for streams that have a remove stream,
+ * such as data windows, therefore values do not leave the aggregation.
+ */
+public class AggregatorApproxCountDistinct implements AggregationMethod
+{
+    protected final HyperLogLogState sketch;
+
+    /**
+     * Ctor.
+     */
+    public AggregatorApproxCountDistinct()
+    {
+        this.sketch = new HyperLogLogState();
+    }
+
+    public void clear()
+    {
+        sketch.clear();
+    }
+
+    public void enter(Object object)
+    {
+        sketch.add(object);
+    }
+
+    public void leave(Object object)
+    {
+        throw new UnsupportedOperationException("Sketch does not support removal");
+    }
+
+    public Object getValue()
+    {
+        return sketch.estimate();
+    }
+}
@@ -6,31 +6,22 @@
  * The software in this package is published under the terms of the GPL license       *
  * a copy of which has been included with this distribution in the license.txt file.  *
  **************************************************************************************/
-package com.espertech.esper.collection;
+package com.espertech.esper.epl.agg.aggregator;
 
-public final class TimeWindowPair
-{
-    private long timestamp;
-    private Object eventHolder;
-
-    public TimeWindowPair(long timestamp, Object eventHolder) {
-        this.timestamp = timestamp;
-        this.eventHolder = eventHolder;
-    }
-
-    public long getTimestamp() {
-        return timestamp;
-    }
+import com.espertech.esper.epl.agg.service.AggregatorUtil;
 
-    public Object getEventHolder() {
-        return eventHolder;
-    }
-
-    public void setEventHolder(Object eventHolder) {
-        this.eventHolder = eventHolder;
-    }
-
-    public void setTimestamp(long timestamp) {
-        this.timestamp = timestamp;
+/**
+ * Approximate distinct-count aggregation with filter.
+ */
+public class AggregatorApproxCountDistinctFilter extends AggregatorApproxCountDistinct
+{
+    @Override
+    public void enter(Object parameters)
+    {
+        Object[] paramArray = (Object[]) parameters;
+        if (!AggregatorUtil.checkFilter(paramArray)) {
+            return;
+        }
+        super.enter(paramArray[0]);
     }
 }
@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Average that generates double-typed numbers.
  */
-public class AggregatorAvg implements AggregationMethod
+public class AggregatorAvg implements AggregationMethodPrimitive, AggregationMethodDecomposable
 {
     protected double sum;
     protected long numDataPoints;
@@ -45,6 +45,49 @@ public class AggregatorAvg implements AggregationMethod
         }
     }
 
+    public void enterDouble(double value)
+    {
+        numDataPoints++;
+        sum += value;
+    }
+
+    public void leaveDouble(double value)
+    {
+        if (numDataPoints <= 1) {
+            clear();
+        }
+        else {
+            numDataPoints--;
+            sum -= value;
+        }
+    }
+
+    public void enterLong(long value)
+    {
+        numDataPoints++;
+        sum += value;
+    }
+
+    public void leaveLong(long value)
+    {
+        if (numDataPoints <= 1) {
+            clear();
+        }
+        else {
+            numDataPoints--;
+            sum -= value;
+        }
+    }
+
+    public double getDouble()
+    {
+        if (numDataPoints == 0)
+        {
+            return Double.NaN;
+        }
+        return sum / numDataPoints;
+    }
+
     public Object getValue()
     {
         if (numDataPoints == 0) {
@@ -52,4 +95,16 @@ public class AggregatorAvg implements AggregationMethod
         }
         return sum / numDataPoints;
     }
+
+    public AggregationMethod newPartial()
+    {
+        return new AggregatorAvg();
+    }
+
+    public void merge(AggregationMethod partial)
+    {
+        AggregatorAvg other = (AggregatorAvg) partial;
+        sum += other.sum;
+        numDataPoints += other.numDataPoints;
+    }
 }
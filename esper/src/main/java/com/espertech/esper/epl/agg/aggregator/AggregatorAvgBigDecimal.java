@@ -18,7 +18,7 @@ import java.math.MathContext;
 /**
  * Average that generates a BigDecimal numbers.
  */
-public class AggregatorAvgBigDecimal implements AggregationMethod
+public class AggregatorAvgBigDecimal implements AggregationMethod, AggregationMethodDecomposable
 {
     private static final Logger log = LoggerFactory.getLogger(AggregatorAvgBigDecimal.class);
     protected BigDecimal sum;
@@ -97,4 +97,15 @@ public class AggregatorAvgBigDecimal implements AggregationMethod
         }
     }
 
+    public AggregationMethod newPartial()
+    {
+        return new AggregatorAvgBigDecimal(optionalMathContext);
+    }
+
+    public void merge(AggregationMethod partial)
+    {
+        AggregatorAvgBigDecimal other = (AggregatorAvgBigDecimal) partial;
+        sum = sum.add(other.sum);
+        numDataPoints += other.numDataPoints;
+    }
 }
@@ -38,4 +38,9 @@ public class AggregatorAvgBigDecimalFilter extends AggregatorAvgBigDecimal
         }
         super.leave(paramArray[0]);
     }
+
+    @Override
+    public AggregationMethod newPartial() {
+        return new AggregatorAvgBigDecimalFilter(optionalMathContext);
+    }
 }
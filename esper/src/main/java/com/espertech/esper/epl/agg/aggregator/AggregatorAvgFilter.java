@@ -34,4 +34,9 @@ public class AggregatorAvgFilter extends AggregatorAvg
         }
         super.leave(paramArray[0]);
     }
+
+    @Override
+    public AggregationMethod newPartial() {
+        return new AggregatorAvgFilter();
+    }
 }
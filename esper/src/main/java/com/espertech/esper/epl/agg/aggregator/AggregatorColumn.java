@@ -0,0 +1,83 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+/**
+ * Maintains the aggregation state of one aggregation function for all groups, in columnar form.
+ * <P>The state of each group is kept at a row number in primitive arrays, rather than in an aggregation method
+ * object per group. Rows are assigned and reused by the aggregation service.
+ */
+public interface AggregatorColumn
+{
+    /**
+     * Apply the value as entering aggregation (entering window) for the row.
+     * @param row row number of the group
+     * @param value to add to aggregate
+     */
+    public void enter(int row, Object value);
+
+    /**
+     * Apply the value as leaving aggregation (leaving window) for the row.
+     * @param row row number of the group
+     * @param value to remove from aggregate
+     */
+    public void leave(int row, Object value);
+
+    /**
+     * Apply the unboxed value as entering aggregation for the row.
+     * @param row row number of the group
+     * @param value to add to aggregate
+     */
+    public void enterDouble(int row, double value);
+
+    /**
+     * Apply the unboxed value as leaving aggregation for the row.
+     * @param row row number of the group
+     * @param value to remove from aggregate
+     */
+    public void leaveDouble(int row, double value);
+
+    /**
+     * Apply the unboxed value as entering aggregation for the row.
+     * @param row row number of the group
+     * @param value to add to aggregate
+     */
+    public void enterLong(int row, long value);
+
+    /**
+     * Apply the unboxed value as leaving aggregation for the row.
+     * @param row row number of the group
+     * @param value to remove from aggregate
+     */
+    public void leaveLong(int row, long value);
+
+    /**
+     * Returns the current value held for the row.
+     * @param row row number of the group
+     * @return current value
+     */
+    public Object getValue(int row);
+
+    /**
+     * Grow the column to hold at least the number of rows provided, new rows are empty.
+     * @param numRows number of rows
+     */
+    public void ensureCapacity(int numRows);
+
+    /**
+     * Clear out the state of a row, for reuse of the row by another group.
+     * @param row row number
+     */
+    public void clear(int row);
+
+    /**
+     * Clear out all rows.
+     */
+    public void clear();
+}
@@ -0,0 +1,105 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+import java.util.Arrays;
+
+/**
+ * Average per row that generates double-typed numbers, in columnar form.
+ */
+public class AggregatorColumnAvg implements AggregatorColumn
+{
+    private double[] sum = new double[0];
+    private long[] numDataPoints = new long[0];
+
+    public void enter(int row, Object value)
+    {
+        if (value == null) {
+            return;
+        }
+        numDataPoints[row]++;
+        sum[row] += ((Number) value).doubleValue();
+    }
+
+    public void leave(int row, Object value)
+    {
+        if (value == null) {
+            return;
+        }
+        if (numDataPoints[row] <= 1) {
+            clear(row);
+        }
+        else {
+            numDataPoints[row]--;
+            sum[row] -= ((Number) value).doubleValue();
+        }
+    }
+
+    public void enterDouble(int row, double value)
+    {
+        numDataPoints[row]++;
+        sum[row] += value;
+    }
+
+    public void leaveDouble(int row, double value)
+    {
+        if (numDataPoints[row] <= 1) {
+            clear(row);
+        }
+        else {
+            numDataPoints[row]--;
+            sum[row] -= value;
+        }
+    }
+
+    public void enterLong(int row, long value)
+    {
+        numDataPoints[row]++;
+        sum[row] += value;
+    }
+
+    public void leaveLong(int row, long value)
+    {
+        if (numDataPoints[row] <= 1) {
+            clear(row);
+        }
+        else {
+            numDataPoints[row]--;
+            sum[row] -= value;
+        }
+    }
+
+    public Object getValue(int row)
+    {
+        if (numDataPoints[row] == 0) {
+            return null;
+        }
+        return sum[row] / numDataPoints[row];
+    }
+
+    public void ensureCapacity(int numRows)
+    {
+        if (numDataPoints.length < numRows) {
+            sum = Arrays.copyOf(sum, numRows);
+            numDataPoints = Arrays.copyOf(numDataPoints, numRows);
+        }
+    }
+
+    public void clear(int row)
+    {
+        sum[row] = 0;
+        numDataPoints[row] = 0;
+    }
+
+    public void clear()
+    {
+        sum = new double[0];
+        numDataPoints = new long[0];
+    }
+}
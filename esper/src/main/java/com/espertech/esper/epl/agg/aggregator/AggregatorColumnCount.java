@@ -0,0 +1,95 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+import java.util.Arrays;
+
+/**
+ * Counts values per row, in columnar form.
+ */
+public class AggregatorColumnCount implements AggregatorColumn
+{
+    private final boolean ignoreNulls;
+    private long[] numDataPoints = new long[0];
+
+    /**
+     * Ctor.
+     * @param ignoreNulls true to not count null values
+     */
+    public AggregatorColumnCount(boolean ignoreNulls)
+    {
+        this.ignoreNulls = ignoreNulls;
+    }
+
+    public void enter(int row, Object value)
+    {
+        if (ignoreNulls && value == null)
+        {
+            return;
+        }
+        numDataPoints[row]++;
+    }
+
+    public void leave(int row, Object value)
+    {
+        if (ignoreNulls && value == null)
+        {
+            return;
+        }
+        if (numDataPoints[row] > 0) {
+            numDataPoints[row]--;
+        }
+    }
+
+    public void enterDouble(int row, double value)
+    {
+        numDataPoints[row]++;
+    }
+
+    public void leaveDouble(int row, double value)
+    {
+        if (numDataPoints[row] > 0) {
+            numDataPoints[row]--;
+        }
+    }
+
+    public void enterLong(int row, long value)
+    {
+        numDataPoints[row]++;
+    }
+
+    public void leaveLong(int row, long value)
+    {
+        if (numDataPoints[row] > 0) {
+            numDataPoints[row]--;
+        }
+    }
+
+    public Object getValue(int row)
+    {
+        return numDataPoints[row];
+    }
+
+    public void ensureCapacity(int numRows)
+    {
+        if (numDataPoints.length < numRows) {
+            numDataPoints = Arrays.copyOf(numDataPoints, numRows);
+        }
+    }
+
+    public void clear(int row)
+    {
+        numDataPoints[row] = 0;
+    }
+
+    public void clear()
+    {
+        numDataPoints = new long[0];
+    }
+}
@@ -0,0 +1,118 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+import java.util.Arrays;
+
+/**
+ * Sum per row of double-typed or float-typed values, in columnar form, generating Double or Float numbers.
+ * <P>Float sums are computed in float precision, as the non-columnar aggregator does.
+ */
+public class AggregatorColumnSumDouble implements AggregatorColumn
+{
+    private final boolean floatResult;
+    private double[] sum = new double[0];
+    private long[] numDataPoints = new long[0];
+
+    /**
+     * Ctor.
+     * @param floatResult true to sum in float precision and return Float-typed sums, false for Double
+     */
+    public AggregatorColumnSumDouble(boolean floatResult)
+    {
+        this.floatResult = floatResult;
+    }
+
+    public void enter(int row, Object value)
+    {
+        if (value == null)
+        {
+            return;
+        }
+        enterDouble(row, ((Number) value).doubleValue());
+    }
+
+    public void leave(int row, Object value)
+    {
+        if (value == null)
+        {
+            return;
+        }
+        leaveDouble(row, ((Number) value).doubleValue());
+    }
+
+    public void enterDouble(int row, double value)
+    {
+        numDataPoints[row]++;
+        if (floatResult) {
+            sum[row] = (float) sum[row] + (float) value;
+        }
+        else {
+            sum[row] += value;
+        }
+    }
+
+    public void leaveDouble(int row, double value)
+    {
+        if (numDataPoints[row] <= 1) {
+            clear(row);
+        }
+        else {
+            numDataPoints[row]--;
+            if (floatResult) {
+                sum[row] = (float) sum[row] - (float) value;
+            }
+            else {
+                sum[row] -= value;
+            }
+        }
+    }
+
+    public void enterLong(int row, long value)
+    {
+        enterDouble(row, value);
+    }
+
+    public void leaveLong(int row, long value)
+    {
+        leaveDouble(row, value);
+    }
+
+    public Object getValue(int row)
+    {
+        if (numDataPoints[row] == 0)
+        {
+            return null;
+        }
+        if (floatResult) {
+            return (float) sum[row];
+        }
+        return sum[row];
+    }
+
+    public void ensureCapacity(int numRows)
+    {
+        if (numDataPoints.length < numRows) {
+            sum = Arrays.copyOf(sum, numRows);
+            numDataPoints = Arrays.copyOf(numDataPoints, numRows);
+        }
+    }
+
+    public void clear(int row)
+    {
+        sum[row] = 0;
+        numDataPoints[row] = 0;
+    }
+
+    public void clear()
+    {
+        sum = new double[0];
+        numDataPoints = new long[0];
+    }
+}
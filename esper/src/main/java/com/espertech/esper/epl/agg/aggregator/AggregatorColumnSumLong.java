@@ -0,0 +1,122 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+import java.util.Arrays;
+
+/**
+ * Sum per row of int-typed or long-typed values, in columnar form, generating Integer or Long numbers.
+ * <P>Integer sums are kept as long and narrowed when returned, which yields the same result as summing as int.
+ */
+public class AggregatorColumnSumLong implements AggregatorColumn
+{
+    private final boolean integerResult;
+    private long[] sum = new long[0];
+    private long[] numDataPoints = new long[0];
+
+    /**
+     * Ctor.
+     * @param integerResult true to return Integer-typed sums, false to return Long-typed sums
+     */
+    public AggregatorColumnSumLong(boolean integerResult)
+    {
+        this.integerResult = integerResult;
+    }
+
+    public void enter(int row, Object value)
+    {
+        if (value == null)
+        {
+            return;
+        }
+        numDataPoints[row]++;
+        sum[row] += ((Number) value).longValue();
+    }
+
+    public void leave(int row, Object value)
+    {
+        if (value == null)
+        {
+            return;
+        }
+        if (numDataPoints[row] <= 1) {
+            clear(row);
+        }
+        else {
+            numDataPoints[row]--;
+            sum[row] -= ((Number) value).longValue();
+        }
+    }
+
+    public void enterDouble(int row, double value)
+    {
+        numDataPoints[row]++;
+        sum[row] += (long) value;
+    }
+
+    public void leaveDouble(int row, double value)
+    {
+        if (numDataPoints[row] <= 1) {
+            clear(row);
+        }
+        else {
+            numDataPoints[row]--;
+            sum[row] -= (long) value;
+        }
+    }
+
+    public void enterLong(int row, long value)
+    {
+        numDataPoints[row]++;
+        sum[row] += value;
+    }
+
+    public void leaveLong(int row, long value)
+    {
+        if (numDataPoints[row] <= 1) {
+            clear(row);
+        }
+        else {
+            numDataPoints[row]--;
+            sum[row] -= value;
+        }
+    }
+
+    public Object getValue(int row)
+    {
+        if (numDataPoints[row] == 0)
+        {
+            return null;
+        }
+        if (integerResult) {
+            return (int) sum[row];
+        }
+        return sum[row];
+    }
+
+    public void ensureCapacity(int numRows)
+    {
+        if (numDataPoints.length < numRows) {
+            sum = Arrays.copyOf(sum, numRows);
+            numDataPoints = Arrays.copyOf(numDataPoints, numRows);
+        }
+    }
+
+    public void clear(int row)
+    {
+        sum[row] = 0;
+        numDataPoints[row] = 0;
+    }
+
+    public void clear()
+    {
+        sum = new long[0];
+        numDataPoints = new long[0];
+    }
+}
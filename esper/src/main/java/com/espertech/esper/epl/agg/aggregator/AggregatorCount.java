@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Counts all datapoints including null values.
  */
-public class AggregatorCount implements AggregationMethod
+public class AggregatorCount implements AggregationMethodPrimitive, AggregationMethodDecomposable
 {
     protected long numDataPoints;
 
@@ -32,9 +32,47 @@ public class AggregatorCount implements AggregationMethod
         }
     }
 
+    public void enterDouble(double value)
+    {
+        numDataPoints++;
+    }
+
+    public void leaveDouble(double value)
+    {
+        if (numDataPoints > 0) {
+            numDataPoints--;
+        }
+    }
+
+    public void enterLong(long value)
+    {
+        numDataPoints++;
+    }
+
+    public void leaveLong(long value)
+    {
+        if (numDataPoints > 0) {
+            numDataPoints--;
+        }
+    }
+
+    public double getDouble()
+    {
+        return numDataPoints;
+    }
+
     public Object getValue()
     {
         return numDataPoints;
     }
 
+    public AggregationMethod newPartial()
+    {
+        return new AggregatorCount();
+    }
+
+    public void merge(AggregationMethod partial)
+    {
+        numDataPoints += ((AggregatorCount) partial).numDataPoints;
+    }
 }
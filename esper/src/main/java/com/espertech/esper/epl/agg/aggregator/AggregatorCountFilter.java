@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Counts all datapoints including null values.
  */
-public class AggregatorCountFilter implements AggregationMethod
+public class AggregatorCountFilter implements AggregationMethod, AggregationMethodDecomposable
 {
     protected long numDataPoints;
 
@@ -48,4 +48,14 @@ public class AggregatorCountFilter implements AggregationMethod
         }
         return false;
     }
+
+    public AggregationMethod newPartial()
+    {
+        return new AggregatorCountFilter();
+    }
+
+    public void merge(AggregationMethod partial)
+    {
+        numDataPoints += ((AggregatorCountFilter) partial).numDataPoints;
+    }
 }
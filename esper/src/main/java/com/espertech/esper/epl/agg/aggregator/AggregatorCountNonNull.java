@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Count all non-null values.
  */
-public class AggregatorCountNonNull implements AggregationMethod
+public class AggregatorCountNonNull implements AggregationMethodPrimitive, AggregationMethodDecomposable
 {
     protected long numDataPoints;
 
@@ -42,9 +42,47 @@ public class AggregatorCountNonNull implements AggregationMethod
         }
     }
 
+    public void enterDouble(double value)
+    {
+        numDataPoints++;
+    }
+
+    public void leaveDouble(double value)
+    {
+        if (numDataPoints > 0) {
+            numDataPoints--;
+        }
+    }
+
+    public void enterLong(long value)
+    {
+        numDataPoints++;
+    }
+
+    public void leaveLong(long value)
+    {
+        if (numDataPoints > 0) {
+            numDataPoints--;
+        }
+    }
+
+    public double getDouble()
+    {
+        return numDataPoints;
+    }
+
     public Object getValue()
     {
         return numDataPoints;
     }
 
+    public AggregationMethod newPartial()
+    {
+        return new AggregatorCountNonNull();
+    }
+
+    public void merge(AggregationMethod partial)
+    {
+        numDataPoints += ((AggregatorCountNonNull) partial).numDataPoints;
+    }
 }
@@ -13,7 +13,7 @@ import java.lang.reflect.Array;
 /**
  * Count all non-null values.
  */
-public class AggregatorCountNonNullFilter implements AggregationMethod
+public class AggregatorCountNonNullFilter implements AggregationMethod, AggregationMethodDecomposable
 {
     protected long numDataPoints;
 
@@ -50,4 +50,14 @@ public class AggregatorCountNonNullFilter implements AggregationMethod
         }
         return false;
     }
+
+    public AggregationMethod newPartial()
+    {
+        return new AggregatorCountNonNullFilter();
+    }
+
+    public void merge(AggregationMethod partial)
+    {
+        numDataPoints += ((AggregatorCountNonNullFilter) partial).numDataPoints;
+    }
 }
@@ -8,14 +8,14 @@
  **************************************************************************************/
 package com.espertech.esper.epl.agg.aggregator;
 
-import com.espertech.esper.collection.SortedDoubleVector;
+import com.espertech.esper.collection.SortedDoubleTree;
 
 /**
  * Median aggregation.
  */
-public class AggregatorMedian implements AggregationMethod
+public class AggregatorMedian implements AggregationMethodPrimitive
 {
-    protected SortedDoubleVector vector;
+    protected SortedDoubleTree vector;
 
     public void clear()
     {
@@ -27,7 +27,7 @@ public class AggregatorMedian implements AggregationMethod
      */
     public AggregatorMedian()
     {
-        this.vector = new SortedDoubleVector();
+        this.vector = new SortedDoubleTree();
     }
 
     public void enter(Object object)
@@ -50,11 +50,31 @@ public class AggregatorMedian implements AggregationMethod
         vector.remove(value);
     }
 
-    public Object getValue()
+    public void enterDouble(double value)
+    {
+        vector.add(value);
+    }
+
+    public void leaveDouble(double value)
+    {
+        vector.remove(value);
+    }
+
+    public void enterLong(long value)
+    {
+        vector.add(value);
+    }
+
+    public void leaveLong(long value)
+    {
+        vector.remove(value);
+    }
+
+    public double getDouble()
     {
         if (vector.size() == 0)
         {
-            return null;
+            return Double.NaN;
         }
         if (vector.size() == 1)
         {
@@ -72,4 +92,12 @@ public class AggregatorMedian implements AggregationMethod
         }
     }
 
+    public Object getValue()
+    {
+        if (vector.size() == 0)
+        {
+            return null;
+        }
+        return getDouble();
+    }
 }
@@ -14,7 +14,7 @@ import com.espertech.esper.collection.SortedRefCountedSet;
 /**
  * Min/max aggregator for all values.
  */
-public class AggregatorMinMax implements AggregationMethod
+public class AggregatorMinMax implements AggregationMethodDecomposable
 {
     protected final MinMaxTypeEnum minMaxTypeEnum;
 
@@ -69,4 +69,18 @@ public class AggregatorMinMax implements AggregationMethod
     public SortedRefCountedSet<Object> getRefSet() {
         return refSet;
     }
+
+    public AggregationMethod newPartial()
+    {
+        return new AggregatorMinMaxEver(minMaxTypeEnum);
+    }
+
+    public void merge(AggregationMethod partial)
+    {
+        Object value = partial.getValue();
+        if (value != null)
+        {
+            refSet.add(value);
+        }
+    }
 }
@@ -0,0 +1,216 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+import com.espertech.esper.collection.SortedRefCountedSet;
+import com.espertech.esper.type.MinMaxTypeEnum;
+
+/**
+ * Min/max aggregator for values of a data window that leave in the order they entered, such as for length and time windows.
+ * <p>
+ * Keeps the values in entering order in a ring buffer and maintains a monotonic deque of the positions of the values
+ * that can still become the minimum or maximum, therefore entering and leaving take amortized constant time
+ * and the current value is the value at the front of the deque.
+ * <p>
+ * When a leaving value is not the oldest value, for example for sorted or unique windows, the aggregator switches to
+ * a sorted reference-counted set of the values until the set becomes empty.
+ */
+public class AggregatorMinMaxDeque implements AggregationMethodDecomposable
+{
+    private static final int MIN_CAPACITY = 8;
+
+    protected final MinMaxTypeEnum minMaxTypeEnum;
+
+    // values in entering order, the value with sequence number n is at n & (values.length - 1)
+    private Object[] values;
+    private long firstSeq;
+    private long nextSeq;
+
+    // sequence numbers of candidate values, front is the current minimum or maximum
+    private long[] deque;
+    private int dequeHead;
+    private int dequeSize;
+
+    private SortedRefCountedSet<Object> refSet;
+
+    /**
+     * Ctor.
+     *
+     * @param minMaxTypeEnum - enum indicating to return minimum or maximum values
+     */
+    public AggregatorMinMaxDeque(MinMaxTypeEnum minMaxTypeEnum)
+    {
+        this.minMaxTypeEnum = minMaxTypeEnum;
+        allocate(MIN_CAPACITY);
+    }
+
+    public void clear()
+    {
+        allocate(MIN_CAPACITY);
+        firstSeq = 0;
+        nextSeq = 0;
+        refSet = null;
+    }
+
+    public void enter(Object object)
+    {
+        if (object == null)
+        {
+            return;
+        }
+        enterValue(object);
+    }
+
+    public AggregationMethod newPartial()
+    {
+        return new AggregatorMinMaxEver(minMaxTypeEnum);
+    }
+
+    public void merge(AggregationMethod partial)
+    {
+        Object value = partial.getValue();
+        if (value != null)
+        {
+            enterValue(value);
+        }
+    }
+
+    private void enterValue(Object object)
+    {
+        if (refSet != null)
+        {
+            refSet.add(object);
+            return;
+        }
+
+        if (nextSeq - firstSeq == values.length)
+        {
+            grow();
+        }
+        int mask = values.length - 1;
+        values[(int) nextSeq & mask] = object;
+
+        // remove candidates that can no longer become the minimum or maximum, since the new value leaves after them
+        while (dequeSize > 0)
+        {
+            Object last = values[(int) deque[(dequeHead + dequeSize - 1) & mask] & mask];
+            int compared = compare(last, object);
+            if ((minMaxTypeEnum == MinMaxTypeEnum.MAX) ? compared > 0 : compared < 0)
+            {
+                break;
+            }
+            dequeSize--;
+        }
+        deque[(dequeHead + dequeSize) & mask] = nextSeq;
+        dequeSize++;
+        nextSeq++;
+    }
+
+    public void leave(Object object)
+    {
+        if (object == null)
+        {
+            return;
+        }
+        if (refSet == null)
+        {
+            if (firstSeq == nextSeq)
+            {
+                return;
+            }
+            if (compare(values[(int) firstSeq & (values.length - 1)], object) == 0)
+            {
+                leaveOldest();
+                return;
+            }
+            // not leaving in entering order
+            switchToRefSet();
+        }
+
+        refSet.remove(object);
+        if (refSet.getRefSet().isEmpty())
+        {
+            refSet = null;
+        }
+    }
+
+    private void leaveOldest()
+    {
+        int mask = values.length - 1;
+        int oldest = (int) firstSeq & mask;
+        values[oldest] = null;
+        if (deque[dequeHead] == firstSeq)
+        {
+            dequeHead = (dequeHead + 1) & mask;
+            dequeSize--;
+        }
+        firstSeq++;
+    }
+
+    public Object getValue()
+    {
+        if (refSet != null)
+        {
+            return minMaxTypeEnum == MinMaxTypeEnum.MAX ? refSet.maxValue() : refSet.minValue();
+        }
+        if (dequeSize == 0)
+        {
+            return null;
+        }
+        int mask = values.length - 1;
+        return values[(int) deque[dequeHead] & mask];
+    }
+
+    private void switchToRefSet()
+    {
+        refSet = new SortedRefCountedSet<Object>();
+        int mask = values.length - 1;
+        for (long seq = firstSeq; seq < nextSeq; seq++)
+        {
+            refSet.add(values[(int) seq & mask]);
+        }
+        allocate(MIN_CAPACITY);
+        firstSeq = 0;
+        nextSeq = 0;
+    }
+
+    private void grow()
+    {
+        int oldMask = values.length - 1;
+        Object[] oldValues = values;
+        long[] oldDeque = deque;
+        int oldDequeHead = dequeHead;
+        int oldDequeSize = dequeSize;
+
+        allocate(values.length << 1);
+        int mask = values.length - 1;
+        for (long seq = firstSeq; seq < nextSeq; seq++)
+        {
+            values[(int) seq & mask] = oldValues[(int) seq & oldMask];
+        }
+        for (int i = 0; i < oldDequeSize; i++)
+        {
+            deque[i] = oldDeque[(oldDequeHead + i) & oldMask];
+        }
+        dequeSize = oldDequeSize;
+    }
+
+    private void allocate(int capacity)
+    {
+        values = new Object[capacity];
+        deque = new long[capacity];
+        dequeHead = 0;
+        dequeSize = 0;
+    }
+
+    private static int compare(Object first, Object second)
+    {
+        return ((Comparable) first).compareTo(second);
+    }
+}
@@ -37,4 +37,9 @@ public class AggregatorMinMaxFilter extends AggregatorMinMax
         }
         super.leave(paramArray[0]);
     }
+
+    @Override
+    public AggregationMethod newPartial() {
+        return new AggregatorMinMaxEverFilter(minMaxTypeEnum);
+    }
 }
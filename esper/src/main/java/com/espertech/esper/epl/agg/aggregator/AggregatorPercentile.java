@@ -0,0 +1,115 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+import com.espertech.esper.collection.SortedDoubleTree;
+
+/**
+ * Percentile aggregation, interpolating linearly between the closest ranks.
+ */
+public class AggregatorPercentile implements AggregationMethodPrimitive
+{
+    protected final double percentile;
+    protected SortedDoubleTree values;
+
+    /**
+     * Ctor.
+     * @param percentile percentile between zero and one
+     */
+    public AggregatorPercentile(double percentile)
+    {
+        this.percentile = percentile;
+        this.values = new SortedDoubleTree();
+    }
+
+    public void clear()
+    {
+        values.clear();
+    }
+
+    public void enter(Object object)
+    {
+        if (object == null)
+        {
+            return;
+        }
+        values.add(((Number) object).doubleValue());
+    }
+
+    public void leave(Object object)
+    {
+        if (object == null)
+        {
+            return;
+        }
+        values.remove(((Number) object).doubleValue());
+    }
+
+    public void enterDouble(double value)
+    {
+        values.add(value);
+    }
+
+    public void leaveDouble(double value)
+    {
+        values.remove(value);
+    }
+
+    public void enterLong(long value)
+    {
+        values.add(value);
+    }
+
+    public void leaveLong(long value)
+    {
+        values.remove(value);
+    }
+
+    public double getDouble()
+    {
+        return getPercentile(values, percentile);
+    }
+
+    public Object getValue()
+    {
+        if (values.size() == 0)
+        {
+            return null;
+        }
+        return getPercentile(values, percentile);
+    }
+
+    /**
+     * Returns the percentile of the sorted values, interpolating linearly between the closest ranks.
+     * @param values sorted values
+     * @param percentile percentile between zero and one
+     * @return value at percentile or NaN if there are no values
+     */
+    public static double getPercentile(SortedDoubleTree values, double percentile)
+    {
+        int size = values.size();
+        if (size == 0)
+        {
+            return Double.NaN;
+        }
+        double position = percentile * (size - 1);
+        int lower = (int) position;
+        if (lower >= size - 1)
+        {
+            return values.getValue(size - 1);
+        }
+        double fraction = position - lower;
+        double lowerValue = values.getValue(lower);
+        if (fraction == 0)
+        {
+            return lowerValue;
+        }
+        return lowerValue + (values.getValue(lower + 1) - lowerValue) * fraction;
+    }
+}
@@ -0,0 +1,86 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+import com.espertech.esper.epl.approx.TDigestState;
+
+/**
+ * Approximate percentile aggregation based on a t-digest, for unbounded streams.
+ * <p>
+ * The digest cannot remove values. Validation rejects the aggregation function for streams that have a remove stream,
+ * such as data windows, therefore values do not leave the aggregation.
+ */
+public class AggregatorPercentileApprox implements AggregationMethodPrimitive
+{
+    protected final double percentile;
+    protected final TDigestState digest;
+
+    /**
+     * Ctor.
+     * @param percentile percentile between zero and one
+     */
+    public AggregatorPercentileApprox(double percentile)
+    {
+        this.percentile = percentile;
+        this.digest = new TDigestState();
+    }
+
+    public void clear()
+    {
+        digest.clear();
+    }
+
+    public void enter(Object object)
+    {
+        if (object == null)
+        {
+            return;
+        }
+        digest.add(((Number) object).doubleValue());
+    }
+
+    public void leave(Object object)
+    {
+        throw new UnsupportedOperationException("Digest does not support removal");
+    }
+
+    public void enterDouble(double value)
+    {
+        digest.add(value);
+    }
+
+    public void leaveDouble(double value)
+    {
+        throw new UnsupportedOperationException("Digest does not support removal");
+    }
+
+    public void enterLong(long value)
+    {
+        digest.add(value);
+    }
+
+    public void leaveLong(long value)
+    {
+        throw new UnsupportedOperationException("Digest does not support removal");
+    }
+
+    public double getDouble()
+    {
+        return digest.quantile(percentile);
+    }
+
+    public Object getValue()
+    {
+        if (digest.size() == 0)
+        {
+            return null;
+        }
+        return digest.quantile(percentile);
+    }
+}
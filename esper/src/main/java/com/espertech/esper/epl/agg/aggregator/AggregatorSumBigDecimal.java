@@ -13,7 +13,7 @@ import java.math.BigDecimal;
 /**
  * Sum for BigInteger values.
  */
-public class AggregatorSumBigDecimal implements AggregationMethod
+public class AggregatorSumBigDecimal implements AggregationMethod, AggregationMethodDecomposable
 {
     protected BigDecimal sum;
     protected long numDataPoints;
@@ -66,4 +66,15 @@ public class AggregatorSumBigDecimal implements AggregationMethod
         return sum;
     }
 
+    public AggregationMethod newPartial()
+    {
+        return new AggregatorSumBigDecimal();
+    }
+
+    public void merge(AggregationMethod partial)
+    {
+        AggregatorSumBigDecimal other = (AggregatorSumBigDecimal) partial;
+        sum = sum.add(other.sum);
+        numDataPoints += other.numDataPoints;
+    }
 }
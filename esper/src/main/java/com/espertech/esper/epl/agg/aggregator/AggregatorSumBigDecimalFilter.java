@@ -34,4 +34,9 @@ public class AggregatorSumBigDecimalFilter extends AggregatorSumBigDecimal
         }
         super.leave(paramArray[0]);
     }
+
+    @Override
+    public AggregationMethod newPartial() {
+        return new AggregatorSumBigDecimalFilter();
+    }
 }
@@ -13,7 +13,7 @@ import java.math.BigInteger;
 /**
  * Sum for BigInteger values.
  */
-public class AggregatorSumBigInteger implements AggregationMethod
+public class AggregatorSumBigInteger implements AggregationMethod, AggregationMethodDecomposable
 {
     protected BigInteger sum;
     protected long numDataPoints;
@@ -66,4 +66,15 @@ public class AggregatorSumBigInteger implements AggregationMethod
         return sum;
     }
 
+    public AggregationMethod newPartial()
+    {
+        return new AggregatorSumBigInteger();
+    }
+
+    public void merge(AggregationMethod partial)
+    {
+        AggregatorSumBigInteger other = (AggregatorSumBigInteger) partial;
+        sum = sum.add(other.sum);
+        numDataPoints += other.numDataPoints;
+    }
 }
@@ -34,4 +34,9 @@ public class AggregatorSumBigIntegerFilter extends AggregatorSumBigInteger
         }
         super.leave(paramArray[0]);
     }
+
+    @Override
+    public AggregationMethod newPartial() {
+        return new AggregatorSumBigIntegerFilter();
+    }
 }
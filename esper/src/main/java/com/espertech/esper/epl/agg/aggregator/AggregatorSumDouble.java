@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Sum for double values.
  */
-public class AggregatorSumDouble implements AggregationMethod
+public class AggregatorSumDouble implements AggregationMethodPrimitive, AggregationMethodDecomposable
 {
     protected double sum;
     protected long numDataPoints;
@@ -47,6 +47,49 @@ public class AggregatorSumDouble implements AggregationMethod
         }
     }
 
+    public void enterDouble(double value)
+    {
+        numDataPoints++;
+        sum += value;
+    }
+
+    public void leaveDouble(double value)
+    {
+        if (numDataPoints <= 1) {
+            clear();
+        }
+        else {
+            numDataPoints--;
+            sum -= value;
+        }
+    }
+
+    public void enterLong(long value)
+    {
+        numDataPoints++;
+        sum += value;
+    }
+
+    public void leaveLong(long value)
+    {
+        if (numDataPoints <= 1) {
+            clear();
+        }
+        else {
+            numDataPoints--;
+            sum -= value;
+        }
+    }
+
+    public double getDouble()
+    {
+        if (numDataPoints == 0)
+        {
+            return Double.NaN;
+        }
+        return sum;
+    }
+
     public Object getValue()
     {
         if (numDataPoints == 0)
@@ -56,6 +99,15 @@ public class AggregatorSumDouble implements AggregationMethod
         return sum;
     }
 
-}
-
+    public AggregationMethod newPartial()
+    {
+        return new AggregatorSumDouble();
+    }
 
+    public void merge(AggregationMethod partial)
+    {
+        AggregatorSumDouble other = (AggregatorSumDouble) partial;
+        sum += other.sum;
+        numDataPoints += other.numDataPoints;
+    }
+}
@@ -34,6 +34,9 @@ public class AggregatorSumDoubleFilter extends AggregatorSumDouble
         }
         super.leave(paramArray[0]);
     }
-}
-
 
+    @Override
+    public AggregationMethod newPartial() {
+        return new AggregatorSumDoubleFilter();
+    }
+}
@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Sum for float values.
  */
-public class AggregatorSumFloat implements AggregationMethod
+public class AggregatorSumFloat implements AggregationMethodPrimitive, AggregationMethodDecomposable
 {
     protected float sum;
     protected long numDataPoints;
@@ -47,6 +47,49 @@ public class AggregatorSumFloat implements AggregationMethod
         }
     }
 
+    public void enterDouble(double value)
+    {
+        numDataPoints++;
+        sum += (float) value;
+    }
+
+    public void leaveDouble(double value)
+    {
+        if (numDataPoints <= 1) {
+            clear();
+        }
+        else {
+            numDataPoints--;
+            sum -= (float) value;
+        }
+    }
+
+    public void enterLong(long value)
+    {
+        numDataPoints++;
+        sum += value;
+    }
+
+    public void leaveLong(long value)
+    {
+        if (numDataPoints <= 1) {
+            clear();
+        }
+        else {
+            numDataPoints--;
+            sum -= value;
+        }
+    }
+
+    public double getDouble()
+    {
+        if (numDataPoints == 0)
+        {
+            return Double.NaN;
+        }
+        return sum;
+    }
+
     public Object getValue()
     {
         if (numDataPoints == 0)
@@ -56,4 +99,15 @@ public class AggregatorSumFloat implements AggregationMethod
         return sum;
     }
 
+    public AggregationMethod newPartial()
+    {
+        return new AggregatorSumFloat();
+    }
+
+    public void merge(AggregationMethod partial)
+    {
+        AggregatorSumFloat other = (AggregatorSumFloat) partial;
+        sum += other.sum;
+        numDataPoints += other.numDataPoints;
+    }
 }
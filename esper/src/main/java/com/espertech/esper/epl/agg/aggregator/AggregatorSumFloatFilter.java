@@ -34,4 +34,9 @@ public class AggregatorSumFloatFilter extends AggregatorSumFloat
         }
         super.leave(paramArray[0]);
     }
+
+    @Override
+    public AggregationMethod newPartial() {
+        return new AggregatorSumFloatFilter();
+    }
 }
@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Sum for integer values.
  */
-public class AggregatorSumInteger implements AggregationMethod
+public class AggregatorSumInteger implements AggregationMethodPrimitive, AggregationMethodDecomposable
 {
     protected int sum;
     protected long numDataPoints;
@@ -48,6 +48,49 @@ public class AggregatorSumInteger implements AggregationMethod
     }
 
 
+    public void enterDouble(double value)
+    {
+        numDataPoints++;
+        sum += (int) value;
+    }
+
+    public void leaveDouble(double value)
+    {
+        if (numDataPoints <= 1) {
+            clear();
+        }
+        else {
+            numDataPoints--;
+            sum -= (int) value;
+        }
+    }
+
+    public void enterLong(long value)
+    {
+        numDataPoints++;
+        sum += (int) value;
+    }
+
+    public void leaveLong(long value)
+    {
+        if (numDataPoints <= 1) {
+            clear();
+        }
+        else {
+            numDataPoints--;
+            sum -= (int) value;
+        }
+    }
+
+    public double getDouble()
+    {
+        if (numDataPoints == 0)
+        {
+            return Double.NaN;
+        }
+        return sum;
+    }
+
     public Object getValue()
     {
         if (numDataPoints == 0)
@@ -57,4 +100,15 @@ public class AggregatorSumInteger implements AggregationMethod
         return sum;
     }
 
+    public AggregationMethod newPartial()
+    {
+        return new AggregatorSumInteger();
+    }
+
+    public void merge(AggregationMethod partial)
+    {
+        AggregatorSumInteger other = (AggregatorSumInteger) partial;
+        sum += other.sum;
+        numDataPoints += other.numDataPoints;
+    }
 }
@@ -34,4 +34,9 @@ public class AggregatorSumIntegerFilter extends AggregatorSumInteger
         }
         super.leave(paramArray[0]);
     }
+
+    @Override
+    public AggregationMethod newPartial() {
+        return new AggregatorSumIntegerFilter();
+    }
 }
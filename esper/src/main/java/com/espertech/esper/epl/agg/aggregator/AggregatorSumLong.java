@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Sum for long values.
  */
-public class AggregatorSumLong implements AggregationMethod
+public class AggregatorSumLong implements AggregationMethodPrimitive, AggregationMethodDecomposable
 {
     protected long sum;
     protected long numDataPoints;
@@ -47,6 +47,49 @@ public class AggregatorSumLong implements AggregationMethod
         }
     }
 
+    public void enterDouble(double value)
+    {
+        numDataPoints++;
+        sum += (long) value;
+    }
+
+    public void leaveDouble(double value)
+    {
+        if (numDataPoints <= 1) {
+            clear();
+        }
+        else {
+            numDataPoints--;
+            sum -= (long) value;
+        }
+    }
+
+    public void enterLong(long value)
+    {
+        numDataPoints++;
+        sum += value;
+    }
+
+    public void leaveLong(long value)
+    {
+        if (numDataPoints <= 1) {
+            clear();
+        }
+        else {
+            numDataPoints--;
+            sum -= value;
+        }
+    }
+
+    public double getDouble()
+    {
+        if (numDataPoints == 0)
+        {
+            return Double.NaN;
+        }
+        return sum;
+    }
+
     public Object getValue()
     {
         if (numDataPoints == 0)
@@ -56,6 +99,15 @@ public class AggregatorSumLong implements AggregationMethod
         return sum;
     }
 
-}
-
+    public AggregationMethod newPartial()
+    {
+        return new AggregatorSumLong();
+    }
 
+    public void merge(AggregationMethod partial)
+    {
+        AggregatorSumLong other = (AggregatorSumLong) partial;
+        sum += other.sum;
+        numDataPoints += other.numDataPoints;
+    }
+}
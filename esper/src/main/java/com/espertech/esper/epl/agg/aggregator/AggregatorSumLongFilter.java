@@ -34,6 +34,9 @@ public class AggregatorSumLongFilter extends AggregatorSumLong
         }
         super.leave(paramArray[0]);
     }
-}
-
 
+    @Override
+    public AggregationMethod newPartial() {
+        return new AggregatorSumLongFilter();
+    }
+}
@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Sum for any number value.
  */
-public class AggregatorSumNumInteger implements AggregationMethod
+public class AggregatorSumNumInteger implements AggregationMethod, AggregationMethodDecomposable
 {
     protected int sum;
     protected long numDataPoints;
@@ -58,4 +58,15 @@ public class AggregatorSumNumInteger implements AggregationMethod
         return sum;
     }
 
+    public AggregationMethod newPartial()
+    {
+        return new AggregatorSumNumInteger();
+    }
+
+    public void merge(AggregationMethod partial)
+    {
+        AggregatorSumNumInteger other = (AggregatorSumNumInteger) partial;
+        sum += other.sum;
+        numDataPoints += other.numDataPoints;
+    }
 }
@@ -34,4 +34,9 @@ public class AggregatorSumNumIntegerFilter extends AggregatorSumNumInteger
         }
         super.leave(paramArray[0]);
     }
+
+    @Override
+    public AggregationMethod newPartial() {
+        return new AggregatorSumNumIntegerFilter();
+    }
 }
@@ -37,6 +37,8 @@ public interface AggregationFactoryFactory {
     AggregationMethodFactory makeLastEver(StatementExtensionSvcContext statementExtensionSvcContext, ExprLastEverNode exprLastEverNode, Class type);
     AggregationMethodFactory makeLeaving(StatementExtensionSvcContext statementExtensionSvcContext, ExprLeavingAggNode exprLeavingAggNode);
     AggregationMethodFactory makeMedian(StatementExtensionSvcContext statementExtensionSvcContext, ExprMedianNode exprMedianNode, Class childType);
+    AggregationMethodFactory makePercentile(StatementExtensionSvcContext statementExtensionSvcContext, ExprPercentileAggNode exprPercentileAggNode, Class childType, double percentile);
+    AggregationMethodFactory makeApproxCountDistinct(StatementExtensionSvcContext statementExtensionSvcContext, ExprApproxCountDistinctNode exprApproxCountDistinctNode, Class childType);
     AggregationMethodFactory makeMinMax(StatementExtensionSvcContext statementExtensionSvcContext, ExprMinMaxAggrNode exprMinMaxAggrNode, Class type, boolean hasDataWindows);
     AggregationMethodFactory makeNth(StatementExtensionSvcContext statementExtensionSvcContext, ExprNthAggNode exprNthAggNode, Class type, int size);
     AggregationMethodFactory makePlugInMethod(StatementExtensionSvcContext statementExtensionSvcContext, ExprPlugInAggNode expr, AggregationFunctionFactory factory, Class childType);
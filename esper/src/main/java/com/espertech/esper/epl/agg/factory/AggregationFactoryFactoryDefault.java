@@ -69,6 +69,14 @@ public class AggregationFactoryFactoryDefault implements AggregationFactoryFacto
         return new AggregationMethodFactoryMedian(exprMedianNode, childType);
     }
 
+    public AggregationMethodFactory makePercentile(StatementExtensionSvcContext statementExtensionSvcContext, ExprPercentileAggNode exprPercentileAggNode, Class childType, double percentile) {
+        return new AggregationMethodFactoryPercentile(exprPercentileAggNode, childType, percentile);
+    }
+
+    public AggregationMethodFactory makeApproxCountDistinct(StatementExtensionSvcContext statementExtensionSvcContext, ExprApproxCountDistinctNode exprApproxCountDistinctNode, Class childType) {
+        return new AggregationMethodFactoryApproxCountDistinct(exprApproxCountDistinctNode, childType);
+    }
+
     public AggregationMethodFactory makeMinMax(StatementExtensionSvcContext statementExtensionSvcContext, ExprMinMaxAggrNode exprMinMaxAggrNode, Class type, boolean hasDataWindows) {
         return new AggregationMethodFactoryMinMax(exprMinMaxAggrNode, type, hasDataWindows);
     }
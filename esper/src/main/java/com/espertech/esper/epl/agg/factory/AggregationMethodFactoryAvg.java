@@ -14,6 +14,7 @@ import com.espertech.esper.epl.agg.access.AggregationAgent;
 import com.espertech.esper.epl.agg.access.AggregationStateKey;
 import com.espertech.esper.epl.agg.aggregator.*;
 import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.agg.service.AggregationMethodFactoryColumnar;
 import com.espertech.esper.epl.agg.service.AggregationStateFactory;
 import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
@@ -25,7 +26,7 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.MathContext;
 
-public class AggregationMethodFactoryAvg implements AggregationMethodFactory
+public class AggregationMethodFactoryAvg implements AggregationMethodFactoryColumnar
 {
     protected final ExprAvgNode parent;
     protected final Class childType;
@@ -69,6 +70,13 @@ public class AggregationMethodFactoryAvg implements AggregationMethodFactory
         return AggregationMethodFactoryUtil.makeDistinctAggregator(method, parent.isHasFilter());
     }
 
+    public AggregatorColumn makeColumn() {
+        if (parent.isDistinct() || parent.isHasFilter() || resultType != Double.class) {
+            return null;
+        }
+        return new AggregatorColumnAvg();
+    }
+
     public ExprAggregateNodeBase getAggregationExpression() {
         return parent;
     }
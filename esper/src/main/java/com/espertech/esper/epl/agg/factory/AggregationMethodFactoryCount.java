@@ -14,6 +14,7 @@ import com.espertech.esper.epl.agg.access.AggregationAgent;
 import com.espertech.esper.epl.agg.access.AggregationStateKey;
 import com.espertech.esper.epl.agg.aggregator.*;
 import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.agg.service.AggregationMethodFactoryColumnar;
 import com.espertech.esper.epl.agg.service.AggregationStateFactory;
 import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
@@ -23,7 +24,7 @@ import com.espertech.esper.epl.expression.core.ExprWildcard;
 import com.espertech.esper.epl.expression.methodagg.ExprCountNode;
 import com.espertech.esper.epl.expression.methodagg.ExprMethodAggUtil;
 
-public class AggregationMethodFactoryCount implements AggregationMethodFactory
+public class AggregationMethodFactoryCount implements AggregationMethodFactoryColumnar
 {
     protected final ExprCountNode parent;
     protected final boolean ignoreNulls;
@@ -65,6 +66,13 @@ public class AggregationMethodFactoryCount implements AggregationMethodFactory
         return AggregationMethodFactoryUtil.makeDistinctAggregator(method, parent.isHasFilter());
     }
 
+    public AggregatorColumn makeColumn() {
+        if (parent.isDistinct() || parent.isHasFilter()) {
+            return null;
+        }
+        return new AggregatorColumnCount(ignoreNulls);
+    }
+
     public ExprAggregateNodeBase getAggregationExpression() {
         return parent;
     }
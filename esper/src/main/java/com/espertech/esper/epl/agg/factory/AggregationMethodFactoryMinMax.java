@@ -98,13 +98,13 @@ public class AggregationMethodFactoryMinMax implements AggregationMethodFactory
             if (!isHasDataWindows) {
                 return new AggregatorMinMaxEver(minMaxTypeEnum);
             }
-            return new AggregatorMinMax(minMaxTypeEnum);
+            return new AggregatorMinMaxDeque(minMaxTypeEnum);
         }
         else {
             if (!isHasDataWindows) {
                 return new AggregatorMinMaxEverFilter(minMaxTypeEnum);
             }
-            return new AggregatorMinMaxFilter(minMaxTypeEnum);
+            return new AggregatorMinMaxDequeFilter(minMaxTypeEnum);
         }
     }
 }
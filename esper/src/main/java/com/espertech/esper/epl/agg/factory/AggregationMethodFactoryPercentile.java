@@ -0,0 +1,99 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.factory;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.epl.agg.access.AggregationAccessor;
+import com.espertech.esper.epl.agg.access.AggregationAgent;
+import com.espertech.esper.epl.agg.access.AggregationStateKey;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.agg.aggregator.AggregatorPercentile;
+import com.espertech.esper.epl.agg.aggregator.AggregatorPercentileApprox;
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.agg.service.AggregationStateFactory;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+import com.espertech.esper.epl.expression.methodagg.ExprMethodAggUtil;
+import com.espertech.esper.epl.expression.methodagg.ExprPercentileAggNode;
+
+public class AggregationMethodFactoryPercentile implements AggregationMethodFactory
+{
+    protected final ExprPercentileAggNode parent;
+    protected final Class aggregatedValueType;
+    protected final double percentile;
+
+    public AggregationMethodFactoryPercentile(ExprPercentileAggNode parent, Class aggregatedValueType, double percentile)
+    {
+        this.parent = parent;
+        this.aggregatedValueType = aggregatedValueType;
+        this.percentile = percentile;
+    }
+
+    public boolean isAccessAggregation() {
+        return false;
+    }
+
+    public Class getResultType()
+    {
+        return Double.class;
+    }
+
+    public AggregationStateKey getAggregationStateKey(boolean isMatchRecognize) {
+        throw new IllegalStateException("Not an access aggregation function");
+    }
+
+    public AggregationStateFactory getAggregationStateFactory(boolean isMatchRecognize) {
+        throw new IllegalStateException("Not an access aggregation function");
+    }
+
+    public AggregationAccessor getAccessor() {
+        throw new IllegalStateException("Not an access aggregation function");
+    }
+
+    public AggregationMethod make() {
+        AggregationMethod method = parent.isApproximate() ? new AggregatorPercentileApprox(percentile) : new AggregatorPercentile(percentile);
+        if (!parent.isDistinct()) {
+            return method;
+        }
+        return AggregationMethodFactoryUtil.makeDistinctAggregator(method, false);
+    }
+
+    public ExprAggregateNodeBase getAggregationExpression() {
+        return parent;
+    }
+
+    public void validateIntoTableCompatible(AggregationMethodFactory intoTableAgg) throws ExprValidationException {
+        com.espertech.esper.epl.agg.service.AggregationMethodFactoryUtil.validateAggregationType(this, intoTableAgg);
+        AggregationMethodFactoryPercentile that = (AggregationMethodFactoryPercentile) intoTableAgg;
+        com.espertech.esper.epl.agg.service.AggregationMethodFactoryUtil.validateAggregationInputType(aggregatedValueType, that.aggregatedValueType);
+        if (parent.isApproximate() != that.parent.isApproximate()) {
+            throw new ExprValidationException("The aggregation function is " +
+                    parent.getAggregationFunctionName() +
+                    " and provided is " +
+                    that.parent.getAggregationFunctionName());
+        }
+        if (percentile != that.percentile) {
+            throw new ExprValidationException("The percentile is " +
+                    percentile +
+                    " and provided is " +
+                    that.percentile);
+        }
+    }
+
+    public AggregationAgent getAggregationStateAgent() {
+        return null;
+    }
+
+    public ExprEvaluator getMethodAggregationEvaluator(boolean join, EventType[] typesPerStream) throws ExprValidationException {
+        // the percentile is a constant, only the value expression is evaluated
+        return ExprMethodAggUtil.getDefaultEvaluator(new ExprNode[] {parent.getPositionalParams()[0]}, join, typesPerStream);
+    }
+}
@@ -14,6 +14,7 @@ import com.espertech.esper.epl.agg.access.AggregationAgent;
 import com.espertech.esper.epl.agg.access.AggregationStateKey;
 import com.espertech.esper.epl.agg.aggregator.*;
 import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.agg.service.AggregationMethodFactoryColumnar;
 import com.espertech.esper.epl.agg.service.AggregationStateFactory;
 import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
@@ -24,7 +25,7 @@ import com.espertech.esper.epl.expression.methodagg.ExprSumNode;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
-public class AggregationMethodFactorySum implements AggregationMethodFactory
+public class AggregationMethodFactorySum implements AggregationMethodFactoryColumnar
 {
     protected final ExprSumNode parent;
     protected final Class resultType;
@@ -66,6 +67,25 @@ public class AggregationMethodFactorySum implements AggregationMethodFactory
         return AggregationMethodFactoryUtil.makeDistinctAggregator(method, parent.isHasFilter());
     }
 
+    public AggregatorColumn makeColumn() {
+        if (parent.isDistinct() || parent.isHasFilter()) {
+            return null;
+        }
+        if ((inputValueType == Long.class) || (inputValueType == long.class)) {
+            return new AggregatorColumnSumLong(false);
+        }
+        if ((inputValueType == Integer.class) || (inputValueType == int.class)) {
+            return new AggregatorColumnSumLong(true);
+        }
+        if ((inputValueType == Double.class) || (inputValueType == double.class)) {
+            return new AggregatorColumnSumDouble(false);
+        }
+        if ((inputValueType == Float.class) || (inputValueType == float.class)) {
+            return new AggregatorColumnSumDouble(true);
+        }
+        return null;
+    }
+
     public ExprAggregateNodeBase getAggregationExpression() {
         return parent;
     }
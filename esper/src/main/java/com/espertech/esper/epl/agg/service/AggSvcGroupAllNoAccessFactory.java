@@ -10,6 +10,7 @@ package com.espertech.esper.epl.agg.service;
 
 import com.espertech.esper.core.context.util.AgentInstanceContext;
 import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethodDecomposable;
 import com.espertech.esper.epl.core.EngineImportService;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 
@@ -27,4 +28,18 @@ public class AggSvcGroupAllNoAccessFactory extends AggregationServiceFactoryBase
         AggregationMethod[] aggregatorsAgentInstance = AggSvcGroupByUtil.newAggregators(super.aggregators);
         return new AggSvcGroupAllNoAccessImpl(evaluators, aggregatorsAgentInstance, aggregators);
     }
+
+    /**
+     * Returns true if all aggregation methods are decomposable, i.e. clearing is the same as leaving all values
+     * and state can be combined from partials.
+     * @return indicator
+     */
+    public boolean isDecomposable() {
+        for (AggregationMethodFactory aggregator : aggregators) {
+            if (!(aggregator.make() instanceof AggregationMethodDecomposable)) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
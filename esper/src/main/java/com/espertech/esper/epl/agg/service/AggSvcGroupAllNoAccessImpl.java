@@ -21,6 +21,8 @@ import java.util.Collection;
  */
 public class AggSvcGroupAllNoAccessImpl extends AggregationServiceBaseUngrouped
 {
+    private final AggregationPrimitiveFeed[] feeds;
+
     /**
      * Ctor.
      * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
@@ -30,6 +32,7 @@ public class AggSvcGroupAllNoAccessImpl extends AggregationServiceBaseUngrouped
     public AggSvcGroupAllNoAccessImpl(ExprEvaluator evaluators[], AggregationMethod aggregators[], AggregationMethodFactory aggregatorFactories[])
     {
         super(evaluators, aggregators, aggregatorFactories, new AggregationStateFactory[0]);
+        this.feeds = AggregationPrimitiveFeed.getFeeds(evaluators, aggregatorFactories);
     }
 
     public void applyEnter(EventBean[] eventsPerStream, Object optionalGroupKeyPerRow, ExprEvaluatorContext exprEvaluatorContext)
@@ -38,8 +41,13 @@ public class AggSvcGroupAllNoAccessImpl extends AggregationServiceBaseUngrouped
         for (int j = 0; j < evaluators.length; j++)
         {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggNoAccessEnterLeave(true, j, aggregators[j], aggregatorFactories[j].getAggregationExpression());}
-            Object columnResult = evaluators[j].evaluate(eventsPerStream, true, exprEvaluatorContext);
-            aggregators[j].enter(columnResult);
+            if (feeds != null && feeds[j] != null) {
+                feeds[j].enter(evaluators[j], aggregators[j], eventsPerStream, true, exprEvaluatorContext);
+            }
+            else {
+                Object columnResult = evaluators[j].evaluate(eventsPerStream, true, exprEvaluatorContext);
+                aggregators[j].enter(columnResult);
+            }
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggNoAccessEnterLeave(true, j, aggregators[j]);}
         }
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggregationUngroupedApplyEnterLeave(true);}
@@ -51,8 +59,13 @@ public class AggSvcGroupAllNoAccessImpl extends AggregationServiceBaseUngrouped
         for (int j = 0; j < evaluators.length; j++)
         {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggNoAccessEnterLeave(false, j, aggregators[j], aggregatorFactories[j].getAggregationExpression());}
-            Object columnResult = evaluators[j].evaluate(eventsPerStream, false, exprEvaluatorContext);
-            aggregators[j].leave(columnResult);
+            if (feeds != null && feeds[j] != null) {
+                feeds[j].leave(evaluators[j], aggregators[j], eventsPerStream, false, exprEvaluatorContext);
+            }
+            else {
+                Object columnResult = evaluators[j].evaluate(eventsPerStream, false, exprEvaluatorContext);
+                aggregators[j].leave(columnResult);
+            }
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggNoAccessEnterLeave(false, j, aggregators[j]);}
         }
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggregationUngroupedApplyEnterLeave(false);}
@@ -0,0 +1,83 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.core.EngineImportService;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+
+/**
+ * Factory for aggregation without any grouping (no group-by) over a sliding time window,
+ * that keeps partial aggregation states per pane of time instead of the values of the time window.
+ */
+public class AggSvcGroupAllPanedFactory extends AggregationServiceFactoryBase
+{
+    /**
+     * Maximum number of panes per time window.
+     */
+    public final static int MAX_PANES = 4096;
+
+    private final long paneMillis;
+    private final int numPanes;
+
+    /**
+     * Ctor.
+     * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
+     * @param aggregators - aggregation method factories, all of which must make decomposable aggregation methods
+     * @param paneMillis - pane size in milliseconds
+     * @param numPanes - number of panes of the time window
+     */
+    public AggSvcGroupAllPanedFactory(ExprEvaluator evaluators[], AggregationMethodFactory aggregators[], long paneMillis, int numPanes) {
+        super(evaluators, aggregators);
+        this.paneMillis = paneMillis;
+        this.numPanes = numPanes;
+    }
+
+    /**
+     * Returns a factory for aggregating by panes of the greatest common divisor of the time window size and
+     * the output interval, or null if the aggregation is not decomposable or requires too many panes.
+     * @param factory - aggregation service factory for the time window
+     * @param windowMillis - time window size
+     * @param intervalMillis - output interval
+     * @return factory or null
+     */
+    public static AggSvcGroupAllPanedFactory make(AggSvcGroupAllNoAccessFactory factory, long windowMillis, long intervalMillis) {
+        if (windowMillis <= 0 || intervalMillis <= 0 || !factory.isDecomposable()) {
+            return null;
+        }
+        long paneMillis = gcd(windowMillis, intervalMillis);
+        if (windowMillis / paneMillis > MAX_PANES) {
+            return null;
+        }
+        return new AggSvcGroupAllPanedFactory(factory.evaluators, factory.aggregators, paneMillis, (int) (windowMillis / paneMillis));
+    }
+
+    public AggregationService makeService(AgentInstanceContext agentInstanceContext, EngineImportService engineImportService, boolean isSubquery, Integer subqueryNumber) {
+        AggregationMethod[] aggregatorsAgentInstance = AggSvcGroupByUtil.newAggregators(super.aggregators);
+        return new AggSvcGroupAllPanedImpl(evaluators, aggregatorsAgentInstance, aggregators, paneMillis, numPanes);
+    }
+
+    public long getPaneMillis() {
+        return paneMillis;
+    }
+
+    public int getNumPanes() {
+        return numPanes;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,202 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethodDecomposable;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethodPrimitive;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Implementation for handling aggregation without any grouping (no group-by) over a sliding time window,
+ * keeping partial aggregation states per pane of time.
+ * <p>
+ * The time window is divided into panes of equal size, aligned to the time the first value entered.
+ * Values enter the partial of the pane that contains the current time, and leave with their pane, so there is
+ * no leave per value. Reading a value merges the partials of the panes that end within the time window.
+ * <p>
+ * The output condition of the statement is a time interval that starts with the first event, at the same
+ * time as the first pane, and the pane size divides both the interval and the time window. Therefore each output
+ * time is a pane boundary and the values read at output time are the same as for the time window.
+ * Values read at other times, such as when iterating, also include the values of the oldest pane that partially expired.
+ */
+public class AggSvcGroupAllPanedImpl extends AggregationServiceBaseUngrouped
+{
+    private final AggregationPrimitiveFeed[] feeds;
+    private final long paneMillis;
+    private final long windowMillis;
+
+    // pane number n is at index n modulo the number of panes, a pane covers the interval (reference + (n - 1) * pane size, reference + n * pane size]
+    private final AggregationMethod[][] panes;
+    private final long[] paneNumbers;
+    private Long referenceTime;
+
+    // the aggregators hold the merged partials as of the merge time, until values enter
+    private boolean merged;
+    private long mergeTime;
+
+    /**
+     * Ctor.
+     * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
+     * @param aggregators - decomposable aggregation methods that receive the merged partials
+     * @param aggregatorFactories - factories
+     * @param paneMillis - pane size
+     * @param numPanes - number of panes per time window
+     */
+    public AggSvcGroupAllPanedImpl(ExprEvaluator evaluators[], AggregationMethod aggregators[], AggregationMethodFactory aggregatorFactories[], long paneMillis, int numPanes)
+    {
+        super(evaluators, aggregators, aggregatorFactories, new AggregationStateFactory[0]);
+        this.feeds = AggregationPrimitiveFeed.getFeeds(evaluators, aggregatorFactories);
+        this.paneMillis = paneMillis;
+        this.windowMillis = paneMillis * numPanes;
+        // one more pane than the window holds, for the pane that partially expired
+        this.panes = new AggregationMethod[numPanes + 1][];
+        this.paneNumbers = new long[numPanes + 1];
+        Arrays.fill(paneNumbers, Long.MIN_VALUE);
+    }
+
+    public void applyEnter(EventBean[] eventsPerStream, Object optionalGroupKeyPerRow, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        AggregationMethod[] pane = getPane(exprEvaluatorContext.getTimeProvider().getTime());
+        for (int j = 0; j < evaluators.length; j++)
+        {
+            if (feeds != null && feeds[j] != null && pane[j] instanceof AggregationMethodPrimitive) {
+                feeds[j].enter(evaluators[j], pane[j], eventsPerStream, true, exprEvaluatorContext);
+            }
+            else {
+                Object columnResult = evaluators[j].evaluate(eventsPerStream, true, exprEvaluatorContext);
+                pane[j].enter(columnResult);
+            }
+        }
+        merged = false;
+    }
+
+    public void applyLeave(EventBean[] eventsPerStream, Object optionalGroupKeyPerRow, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        // no action needed - values leave with their pane
+    }
+
+    public void setCurrentAccess(Object groupKey, int agentInstanceId, AggregationGroupByRollupLevel rollupLevel)
+    {
+        // no action needed - this implementation does not group and the current row is the single group
+    }
+
+    public Object getValue(int column, int agentInstanceId, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        long time = exprEvaluatorContext.getTimeProvider().getTime();
+        if (!merged || mergeTime != time) {
+            merge(time);
+        }
+        return aggregators[column].getValue();
+    }
+
+    public Collection<EventBean> getCollectionOfEvents(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public Collection<Object> getCollectionScalar(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public EventBean getEventBean(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public void clearResults(ExprEvaluatorContext exprEvaluatorContext)
+    {
+        for (AggregationMethod aggregator : aggregators)
+        {
+            aggregator.clear();
+        }
+        Arrays.fill(paneNumbers, Long.MIN_VALUE);
+        merged = false;
+    }
+
+    public void setRemovedCallback(AggregationRowRemovedCallback callback) {
+        // not applicable
+    }
+
+    public void accept(AggregationServiceVisitor visitor) {
+        visitor.visitAggregations(1, aggregators);
+    }
+
+    public void acceptGroupDetail(AggregationServiceVisitorWGroupDetail visitor) {
+    }
+
+    public boolean isGrouped() {
+        return false;
+    }
+
+    public Object getGroupKey(int agentInstanceId) {
+        return null;
+    }
+
+    public Collection<Object> getGroupKeys(ExprEvaluatorContext exprEvaluatorContext) {
+        return null;
+    }
+
+    private AggregationMethod[] getPane(long time)
+    {
+        if (referenceTime == null) {
+            // same as the reference point of the output interval, which is the time of the first event
+            referenceTime = time;
+        }
+        long paneNumber = getPaneNumber(time);
+        int index = (int) Math.floorMod(paneNumber, (long) panes.length);
+        AggregationMethod[] pane = panes[index];
+        if (pane == null) {
+            pane = new AggregationMethod[aggregators.length];
+            for (int j = 0; j < aggregators.length; j++) {
+                pane[j] = ((AggregationMethodDecomposable) aggregators[j]).newPartial();
+            }
+            panes[index] = pane;
+        }
+        else if (paneNumbers[index] != paneNumber) {
+            for (AggregationMethod partial : pane) {
+                partial.clear();
+            }
+        }
+        paneNumbers[index] = paneNumber;
+        return pane;
+    }
+
+    private void merge(long time)
+    {
+        for (AggregationMethod aggregator : aggregators) {
+            aggregator.clear();
+        }
+        if (referenceTime != null) {
+            long newest = getPaneNumber(time);
+            // the oldest pane ends after the start of the time window
+            long oldest = Math.floorDiv(time - windowMillis - referenceTime, paneMillis) + 1;
+            for (int i = 0; i < panes.length; i++) {
+                if (paneNumbers[i] < oldest || paneNumbers[i] > newest) {
+                    continue;
+                }
+                AggregationMethod[] pane = panes[i];
+                for (int j = 0; j < aggregators.length; j++) {
+                    ((AggregationMethodDecomposable) aggregators[j]).merge(pane[j]);
+                }
+            }
+        }
+        merged = true;
+        mergeTime = time;
+    }
+
+    private long getPaneNumber(long time)
+    {
+        // the smallest pane number whose pane ends at or after the time
+        return -Math.floorDiv(referenceTime - time, paneMillis);
+    }
+}
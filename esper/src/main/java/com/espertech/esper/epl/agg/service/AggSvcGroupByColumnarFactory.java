@@ -0,0 +1,68 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.epl.core.EngineImportService;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Implementation for handling aggregation with grouping by a single int, long or string group-key, keeping aggregation
+ * state in columnar form.
+ */
+public class AggSvcGroupByColumnarFactory extends AggregationServiceFactoryBase
+{
+    private final Class keyType;
+    private final boolean reclaim;
+
+    /**
+     * Ctor.
+     * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
+     * @param prototypes - collect the aggregation state that evaluators evaluate to, act as factories for columns
+     * @param keyType - boxed type of the group key
+     * @param reclaim - true to remove groups that have no more data points, false to retain all groups
+     */
+    public AggSvcGroupByColumnarFactory(ExprEvaluator evaluators[], AggregationMethodFactory prototypes[], Class keyType, boolean reclaim)
+    {
+        super(evaluators, prototypes);
+        this.keyType = keyType;
+        this.reclaim = reclaim;
+    }
+
+    public AggregationService makeService(AgentInstanceContext agentInstanceContext, EngineImportService engineImportService, boolean isSubquery, Integer subqueryNumber) {
+        return new AggSvcGroupByColumnarImpl(evaluators, aggregators, keyType, reclaim);
+    }
+
+    /**
+     * Returns the boxed group key type if the aggregation state can be kept in columnar form, or null if not.
+     * <p>
+     * Requires grouping by a single int, long or string expression and aggregation functions that all provide columns.
+     * @param groupByNodes group-by expressions
+     * @param prototypes aggregation functions
+     * @return key type or null if not applicable
+     */
+    public static Class getColumnarKeyType(ExprNode[] groupByNodes, AggregationMethodFactory[] prototypes)
+    {
+        if (groupByNodes.length != 1 || prototypes.length == 0) {
+            return null;
+        }
+        Class keyType = JavaClassHelper.getBoxedType(groupByNodes[0].getExprEvaluator().getType());
+        if (keyType != Integer.class && keyType != Long.class && keyType != String.class) {
+            return null;
+        }
+        for (AggregationMethodFactory prototype : prototypes) {
+            if (!(prototype instanceof AggregationMethodFactoryColumnar) || ((AggregationMethodFactoryColumnar) prototype).makeColumn() == null) {
+                return null;
+            }
+        }
+        return keyType;
+    }
+}
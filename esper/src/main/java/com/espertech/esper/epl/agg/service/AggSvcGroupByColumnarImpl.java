@@ -0,0 +1,358 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.LongIntHashMap;
+import com.espertech.esper.collection.ObjectIntHashMap;
+import com.espertech.esper.epl.agg.aggregator.AggregatorColumn;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementation for handling aggregation with grouping by a single int, long or other group-key value,
+ * keeping aggregation state in columnar form.
+ * <p>
+ * Each group is assigned a row number by an open-addressing map, keyed by the primitive value for int and long group keys.
+ * Aggregation state is held in one column per aggregation function, of primitive arrays indexed by row number,
+ * instead of an array of aggregation methods per group. Rows of removed groups are reused.
+ */
+public class AggSvcGroupByColumnarImpl extends AggregationServiceBaseGrouped implements AggregationServiceThreadCursors
+{
+    // row zero never receives values and provides the result for groups that have no state
+    private static final int EMPTY_ROW = 0;
+    private static final int MIN_ROWS = 16;
+    private static final long FREED = Long.MIN_VALUE;
+
+    private final Class keyType;
+    private final boolean longKeys;
+    private final boolean reclaim;
+    private final AggregatorColumn[] columns;
+    private final AggregationPrimitiveFeed[] feeds;
+
+    private LongIntHashMap longKeyRows;
+    private ObjectIntHashMap<Object> objectKeyRows;
+    private int nullKeyRow;
+
+    // per row the group key and number of data points
+    private long[] rowLongKeys;
+    private Object[] rowObjectKeys;
+    private long[] refcounts;
+    private int numRows;
+    private int numGroups;
+
+    private int[] freeRows;
+    private int numFreeRows;
+    private int[] removedRows;
+    private int numRemovedRows;
+
+    private int currentRow;
+    private Object currentGroupKey;
+
+    // current row per thread while rows are read on multiple threads, null otherwise
+    private ThreadLocal<AggregationRowCursor> threadCursors;
+
+    /**
+     * Ctor.
+     * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
+     * @param prototypes - collect the aggregation state that evaluators evaluate to, act as factories for columns
+     * @param keyType - boxed type of the group key, Integer and Long keys are held as primitive long
+     * @param reclaim - true to remove groups that have no more data points, false to retain all groups
+     */
+    public AggSvcGroupByColumnarImpl(ExprEvaluator evaluators[], AggregationMethodFactory prototypes[], Class keyType, boolean reclaim)
+    {
+        super(evaluators, prototypes);
+        this.feeds = AggregationPrimitiveFeed.getFeeds(evaluators, prototypes);
+        this.keyType = keyType;
+        this.longKeys = (keyType == Integer.class) || (keyType == Long.class);
+        this.reclaim = reclaim;
+        this.columns = new AggregatorColumn[prototypes.length];
+        for (int i = 0; i < prototypes.length; i++) {
+            columns[i] = ((AggregationMethodFactoryColumnar) prototypes[i]).makeColumn();
+        }
+        this.removedRows = new int[MIN_ROWS];
+        allocate();
+    }
+
+    public void clearResults(ExprEvaluatorContext exprEvaluatorContext)
+    {
+        for (AggregatorColumn column : columns) {
+            column.clear();
+        }
+        numRemovedRows = 0;
+        allocate();
+    }
+
+    public void applyEnter(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggregationGroupedApplyEnterLeave(true, aggregators.length, 0, groupByKey);}
+        handleRemovedRows();
+
+        int row = findRow(groupByKey);
+        if (row == -1) {
+            row = addRow(groupByKey);
+        }
+        refcounts[row]++;
+
+        currentRow = row;
+        for (int i = 0; i < evaluators.length; i++) {
+            if (feeds != null && feeds[i] != null) {
+                feeds[i].enterColumn(evaluators[i], columns[i], row, eventsPerStream, true, exprEvaluatorContext);
+            }
+            else {
+                Object columnResult = evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
+                columns[i].enter(row, columnResult);
+            }
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggregationGroupedApplyEnterLeave(true);}
+    }
+
+    public void applyLeave(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggregationGroupedApplyEnterLeave(false, aggregators.length, 0, groupByKey);}
+        int row = findRow(groupByKey);
+        if (row == -1) {
+            row = addRow(groupByKey);
+            refcounts[row] = 1;
+        }
+
+        currentRow = row;
+        for (int i = 0; i < evaluators.length; i++) {
+            if (feeds != null && feeds[i] != null) {
+                feeds[i].leaveColumn(evaluators[i], columns[i], row, eventsPerStream, false, exprEvaluatorContext);
+            }
+            else {
+                Object columnResult = evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext);
+                columns[i].leave(row, columnResult);
+            }
+        }
+
+        refcounts[row]--;
+        if (reclaim && refcounts[row] <= 0) {
+            if (numRemovedRows == removedRows.length) {
+                removedRows = Arrays.copyOf(removedRows, removedRows.length << 1);
+            }
+            removedRows[numRemovedRows++] = row;
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggregationGroupedApplyEnterLeave(false);}
+    }
+
+    public void setCurrentAccess(Object groupByKey, int agentInstanceId, AggregationGroupByRollupLevel rollupLevel)
+    {
+        int row = findRow(groupByKey);
+        if (threadCursors != null) {
+            AggregationRowCursor cursor = threadCursors.get();
+            cursor.setRow(row == -1 ? EMPTY_ROW : row);
+            cursor.setGroupKey(groupByKey);
+            return;
+        }
+        if (row == -1) {
+            row = reclaim ? EMPTY_ROW : addRow(groupByKey);
+        }
+        currentRow = row;
+        currentGroupKey = groupByKey;
+    }
+
+    public Object getValue(int column, int agentInstanceId, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        if (threadCursors != null) {
+            return columns[column].getValue(threadCursors.get().getRow());
+        }
+        return columns[column].getValue(currentRow);
+    }
+
+    public Collection<EventBean> getCollectionOfEvents(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public Collection<Object> getCollectionScalar(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public EventBean getEventBean(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public void setRemovedCallback(AggregationRowRemovedCallback callback) {
+        // not applicable
+    }
+
+    public void accept(AggregationServiceVisitor visitor) {
+        visitor.visitAggregations(numGroups, (Object[]) columns);
+    }
+
+    public void acceptGroupDetail(AggregationServiceVisitorWGroupDetail visitor) {
+        visitor.visitGrouped(numGroups);
+        for (int row = EMPTY_ROW + 1; row < numRows; row++) {
+            if (refcounts[row] == FREED) {
+                continue;
+            }
+            Object[] values = new Object[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                values[i] = columns[i].getValue(row);
+            }
+            visitor.visitGroup(getRowKey(row), values);
+        }
+    }
+
+    public boolean isGrouped() {
+        return true;
+    }
+
+    public Object getGroupKey(int agentInstanceId) {
+        if (threadCursors != null) {
+            return threadCursors.get().getGroupKey();
+        }
+        return currentGroupKey;
+    }
+
+    public Collection<Object> getGroupKeys(ExprEvaluatorContext exprEvaluatorContext) {
+        handleRemovedRows();
+        List<Object> keys = new ArrayList<Object>(numGroups);
+        for (int row = EMPTY_ROW + 1; row < numRows; row++) {
+            if (refcounts[row] != FREED) {
+                keys.add(getRowKey(row));
+            }
+        }
+        return keys;
+    }
+
+    public void setThreadCursors(boolean enabled) {
+        threadCursors = enabled ? AggregationRowCursor.makeThreadCursors() : null;
+    }
+
+    public void clearThreadCursor() {
+        if (threadCursors != null) {
+            threadCursors.remove();
+        }
+    }
+
+    private void handleRemovedRows() {
+        // we collect removed rows lazily on the next enter to reduce the chance of empty-group queries creating empty rows temporarily
+        for (int i = 0; i < numRemovedRows; i++) {
+            int row = removedRows[i];
+            if (refcounts[row] != FREED) {  // a row may be listed more than once
+                removeRow(row);
+            }
+        }
+        numRemovedRows = 0;
+    }
+
+    private int findRow(Object groupByKey) {
+        if (groupByKey == null) {
+            return nullKeyRow;
+        }
+        if (longKeys) {
+            return longKeyRows.get(((Number) groupByKey).longValue());
+        }
+        return objectKeyRows.get(groupByKey);
+    }
+
+    private int addRow(Object groupByKey) {
+        int row;
+        if (numFreeRows > 0) {
+            row = freeRows[--numFreeRows];
+        }
+        else {
+            if (numRows == refcounts.length) {
+                grow(numRows << 1);
+            }
+            row = numRows++;
+        }
+
+        if (groupByKey == null) {
+            nullKeyRow = row;
+        }
+        else if (longKeys) {
+            long key = ((Number) groupByKey).longValue();
+            longKeyRows.put(key, row);
+            rowLongKeys[row] = key;
+        }
+        else {
+            objectKeyRows.put(groupByKey, row);
+            rowObjectKeys[row] = groupByKey;
+        }
+        refcounts[row] = 0;
+        numGroups++;
+        return row;
+    }
+
+    private void removeRow(int row) {
+        if (row == nullKeyRow) {
+            nullKeyRow = -1;
+        }
+        else if (longKeys) {
+            longKeyRows.remove(rowLongKeys[row]);
+        }
+        else {
+            objectKeyRows.remove(rowObjectKeys[row]);
+            rowObjectKeys[row] = null;
+        }
+        for (AggregatorColumn column : columns) {
+            column.clear(row);
+        }
+        refcounts[row] = FREED;
+        freeRows[numFreeRows++] = row;
+        numGroups--;
+    }
+
+    private Object getRowKey(int row) {
+        if (row == nullKeyRow) {
+            return null;
+        }
+        if (!longKeys) {
+            return rowObjectKeys[row];
+        }
+        if (keyType == Integer.class) {
+            return (int) rowLongKeys[row];
+        }
+        return rowLongKeys[row];
+    }
+
+    private void allocate() {
+        if (longKeys) {
+            longKeyRows = new LongIntHashMap();
+            rowLongKeys = new long[MIN_ROWS];
+        }
+        else {
+            objectKeyRows = new ObjectIntHashMap<Object>();
+            rowObjectKeys = new Object[MIN_ROWS];
+        }
+        refcounts = new long[MIN_ROWS];
+        freeRows = new int[MIN_ROWS];
+        for (AggregatorColumn column : columns) {
+            column.ensureCapacity(MIN_ROWS);
+        }
+        nullKeyRow = -1;
+        numRows = EMPTY_ROW + 1;
+        numGroups = 0;
+        numFreeRows = 0;
+        currentRow = EMPTY_ROW;
+    }
+
+    private void grow(int capacity) {
+        if (longKeys) {
+            rowLongKeys = Arrays.copyOf(rowLongKeys, capacity);
+        }
+        else {
+            rowObjectKeys = Arrays.copyOf(rowObjectKeys, capacity);
+        }
+        refcounts = Arrays.copyOf(refcounts, capacity);
+        freeRows = Arrays.copyOf(freeRows, capacity);
+        for (AggregatorColumn column : columns) {
+            column.ensureCapacity(capacity);
+        }
+    }
+}
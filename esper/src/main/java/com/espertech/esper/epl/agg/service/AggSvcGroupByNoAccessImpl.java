@@ -21,8 +21,10 @@ import java.util.Map;
 /**
  * Implementation for handling aggregation with grouping by group-keys.
  */
-public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped
+public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped implements AggregationServiceThreadCursors
 {
+    private final AggregationPrimitiveFeed[] feeds;
+
     // maintain for each group a row of aggregator states that the expression node canb pull the data from via index
     private Map<Object, AggregationMethod[]> aggregatorsPerGroup;
 
@@ -31,6 +33,9 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped
     private AggregationMethod[] currentAggregatorRow;
     private Object currentGroupKey;
 
+    // current row per thread while rows are read on multiple threads, null otherwise
+    private ThreadLocal<AggregationRowCursor> threadCursors;
+
     /**
      * Ctor.
      * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
@@ -40,6 +45,7 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped
     public AggSvcGroupByNoAccessImpl(ExprEvaluator evaluators[], AggregationMethodFactory prototypes[])
     {
         super(evaluators, prototypes);
+        this.feeds = AggregationPrimitiveFeed.getFeeds(evaluators, prototypes);
         this.aggregatorsPerGroup = new HashMap<Object, AggregationMethod[]>();
     }
 
@@ -65,8 +71,13 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped
         for (int i = 0; i < evaluators.length; i++)
         {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggNoAccessEnterLeave(true, i, groupAggregators[i], aggregators[i].getAggregationExpression());}
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
-            groupAggregators[i].enter(columnResult);
+            if (feeds != null && feeds[i] != null) {
+                feeds[i].enter(evaluators[i], groupAggregators[i], eventsPerStream, true, exprEvaluatorContext);
+            }
+            else {
+                Object columnResult = evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
+                groupAggregators[i].enter(columnResult);
+            }
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggNoAccessEnterLeave(true, i, groupAggregators[i]);}
         }
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggregationGroupedApplyEnterLeave(true);}
@@ -89,8 +100,13 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped
         for (int i = 0; i < evaluators.length; i++)
         {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggNoAccessEnterLeave(false, i, groupAggregators[i], aggregators[i].getAggregationExpression());}
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext);
-            groupAggregators[i].leave(columnResult);
+            if (feeds != null && feeds[i] != null) {
+                feeds[i].leave(evaluators[i], groupAggregators[i], eventsPerStream, false, exprEvaluatorContext);
+            }
+            else {
+                Object columnResult = evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext);
+                groupAggregators[i].leave(columnResult);
+            }
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggNoAccessEnterLeave(false, i, groupAggregators[i]);}
         }
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggregationGroupedApplyEnterLeave(false);}
@@ -98,6 +114,14 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped
 
     public void setCurrentAccess(Object groupByKey, int agentInstanceId, AggregationGroupByRollupLevel rollupLevel)
     {
+        if (threadCursors != null) {
+            AggregationMethod[] row = aggregatorsPerGroup.get(groupByKey);
+            AggregationRowCursor cursor = threadCursors.get();
+            cursor.setMethods(row != null ? row : AggSvcGroupByUtil.newAggregators(aggregators));
+            cursor.setGroupKey(groupByKey);
+            return;
+        }
+
         currentAggregatorRow = aggregatorsPerGroup.get(groupByKey);
         this.currentGroupKey = groupByKey;
 
@@ -110,6 +134,9 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped
 
     public Object getValue(int column, int agentInstanceId, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext)
     {
+        if (threadCursors != null) {
+            return threadCursors.get().getMethods()[column].getValue();
+        }
         return currentAggregatorRow[column].getValue();
     }
 
@@ -145,10 +172,23 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped
     }
 
     public Object getGroupKey(int agentInstanceId) {
+        if (threadCursors != null) {
+            return threadCursors.get().getGroupKey();
+        }
         return currentGroupKey;
     }
 
     public Collection<Object> getGroupKeys(ExprEvaluatorContext exprEvaluatorContext) {
         return aggregatorsPerGroup.keySet();
     }
+
+    public void setThreadCursors(boolean enabled) {
+        threadCursors = enabled ? AggregationRowCursor.makeThreadCursors() : null;
+    }
+
+    public void clearThreadCursor() {
+        if (threadCursors != null) {
+            threadCursors.remove();
+        }
+    }
 }
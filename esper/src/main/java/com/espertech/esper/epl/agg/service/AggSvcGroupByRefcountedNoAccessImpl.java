@@ -19,8 +19,10 @@ import java.util.*;
 /**
  * Implementation for handling aggregation with grouping by group-keys.
  */
-public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseGrouped
+public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseGrouped implements AggregationServiceThreadCursors
 {
+    private final AggregationPrimitiveFeed[] feeds;
+
     // maintain for each group a row of aggregator states that the expression node canb pull the data from via index
     protected Map<Object, AggregationMethodRow> aggregatorsPerGroup;
 
@@ -29,6 +31,9 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
     private AggregationMethod[] currentAggregatorRow;
     private Object currentGroupKey;
 
+    // current row per thread while rows are read on multiple threads, null otherwise
+    private ThreadLocal<AggregationRowCursor> threadCursors;
+
     private List<Object> removedKeys;
 
     /**
@@ -41,6 +46,7 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
                                        AggregationMethodFactory prototypes[])
     {
         super(evaluators, prototypes);
+        this.feeds = AggregationPrimitiveFeed.getFeeds(evaluators, prototypes);
         this.aggregatorsPerGroup = new HashMap<Object, AggregationMethodRow>();
         removedKeys = new ArrayList<Object>();
     }
@@ -75,8 +81,13 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
         currentAggregatorRow = groupAggregators;
         for (int i = 0; i < evaluators.length; i++) {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggNoAccessEnterLeave(true, i, groupAggregators[i], aggregators[i].getAggregationExpression());}
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
-            groupAggregators[i].enter(columnResult);
+            if (feeds != null && feeds[i] != null) {
+                feeds[i].enter(evaluators[i], groupAggregators[i], eventsPerStream, true, exprEvaluatorContext);
+            }
+            else {
+                Object columnResult = evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
+                groupAggregators[i].enter(columnResult);
+            }
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggNoAccessEnterLeave(true, i, groupAggregators[i]);}
         }
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggregationGroupedApplyEnterLeave(true);}
@@ -104,8 +115,13 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
         currentAggregatorRow = groupAggregators;
         for (int i = 0; i < evaluators.length; i++) {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggNoAccessEnterLeave(false, i, groupAggregators[i], aggregators[i].getAggregationExpression());}
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext);
-            groupAggregators[i].leave(columnResult);
+            if (feeds != null && feeds[i] != null) {
+                feeds[i].leave(evaluators[i], groupAggregators[i], eventsPerStream, false, exprEvaluatorContext);
+            }
+            else {
+                Object columnResult = evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext);
+                groupAggregators[i].leave(columnResult);
+            }
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggNoAccessEnterLeave(false, i, groupAggregators[i]);}
         }
 
@@ -121,6 +137,13 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
     {
         AggregationMethodRow row = aggregatorsPerGroup.get(groupByKey);
 
+        if (threadCursors != null) {
+            AggregationRowCursor cursor = threadCursors.get();
+            cursor.setMethods(row != null ? row.getMethods() : AggSvcGroupByUtil.newAggregators(aggregators));
+            cursor.setGroupKey(groupByKey);
+            return;
+        }
+
         if (row != null) {
             currentAggregatorRow = row.getMethods();
         }
@@ -136,6 +159,9 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
 
     public Object getValue(int column, int agentInstanceId, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext)
     {
+        if (threadCursors != null) {
+            return threadCursors.get().getMethods()[column].getValue();
+        }
         return currentAggregatorRow[column].getValue();
     }
 
@@ -171,9 +197,22 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
     }
 
     public Object getGroupKey(int agentInstanceId) {
+        if (threadCursors != null) {
+            return threadCursors.get().getGroupKey();
+        }
         return currentGroupKey;
     }
 
+    public void setThreadCursors(boolean enabled) {
+        threadCursors = enabled ? AggregationRowCursor.makeThreadCursors() : null;
+    }
+
+    public void clearThreadCursor() {
+        if (threadCursors != null) {
+            threadCursors.remove();
+        }
+    }
+
     protected void handleRemovedKeys() {
         if (!removedKeys.isEmpty())     // we collect removed keys lazily on the next enter to reduce the chance of empty-group queries creating empty aggregators temporarily
         {
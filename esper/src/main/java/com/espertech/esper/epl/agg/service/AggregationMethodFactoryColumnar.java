@@ -6,31 +6,19 @@
  * The software in this package is published under the terms of the GPL license       *
  * a copy of which has been included with this distribution in the license.txt file.  *
  **************************************************************************************/
-package com.espertech.esper.view.ext;
+package com.espertech.esper.epl.agg.service;
 
-import com.espertech.esper.collection.MixedEventBeanAndCollectionIteratorBase;
-
-import java.util.SortedMap;
+import com.espertech.esper.epl.agg.aggregator.AggregatorColumn;
 
 /**
- * Iterator for use by {@link com.espertech.esper.view.ext.RankWindowView}.
+ * Factory for aggregation methods that can also keep the aggregation state of all groups in columnar form.
  */
-public final class RankWindowIterator extends MixedEventBeanAndCollectionIteratorBase
+public interface AggregationMethodFactoryColumnar extends AggregationMethodFactory
 {
-    private final SortedMap<Object, Object> window;
-
     /**
-     * Ctor.
-     * @param window - sorted map with events
+     * Returns a new column of aggregation state, or null if the aggregation cannot be kept in columnar form,
+     * for example because it is distinct or filtered.
+     * @return column or null
      */
-    public RankWindowIterator(SortedMap<Object, Object> window)
-    {
-        super(window.keySet().iterator());
-        this.window = window;
-        init();
-    }
-
-    protected Object getValue(Object iteratorKeyValue) {
-        return window.get(iteratorKeyValue);
-    }
+    public AggregatorColumn makeColumn();
 }
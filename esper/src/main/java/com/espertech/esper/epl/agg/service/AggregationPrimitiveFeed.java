@@ -0,0 +1,166 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethodPrimitive;
+import com.espertech.esper.epl.agg.aggregator.AggregatorColumn;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorPrimitive;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Feeds the result of a primitive evaluator to an aggregation method or aggregation column without boxing,
+ * as a double for floating-point results and as a long for integral results.
+ * <p>
+ * When the evaluator has no value for the event tuple, the feed falls back to the boxed null result.
+ */
+public enum AggregationPrimitiveFeed
+{
+    /**
+     * Floating-point values.
+     */
+    DOUBLE,
+
+    /**
+     * Integral values.
+     */
+    LONG;
+
+    /**
+     * Returns the feeds for the aggregation columns, with a null entry for each column that is not fed unboxed,
+     * or null if no column can be fed unboxed.
+     * @param evaluators evaluators per column
+     * @param prototypes aggregation factories per column
+     * @return feeds or null
+     */
+    public static AggregationPrimitiveFeed[] getFeeds(ExprEvaluator[] evaluators, AggregationMethodFactory[] prototypes)
+    {
+        if (InstrumentationHelper.ENABLED) {
+            return null;
+        }
+        AggregationPrimitiveFeed[] feeds = null;
+        for (int i = 0; i < evaluators.length; i++) {
+            if (!(evaluators[i] instanceof ExprEvaluatorPrimitive) || !(prototypes[i].make() instanceof AggregationMethodPrimitive)) {
+                continue;
+            }
+            Class type = JavaClassHelper.getBoxedType(evaluators[i].getType());
+            AggregationPrimitiveFeed feed;
+            if (type == Double.class || type == Float.class) {
+                feed = DOUBLE;
+            }
+            else if (type == Long.class || type == Integer.class || type == Short.class || type == Byte.class) {
+                feed = LONG;
+            }
+            else {
+                continue;
+            }
+            if (feeds == null) {
+                feeds = new AggregationPrimitiveFeed[evaluators.length];
+            }
+            feeds[i] = feed;
+        }
+        return feeds;
+    }
+
+    /**
+     * Enter the evaluator result into the aggregation method.
+     * @param evaluator primitive evaluator
+     * @param method primitive aggregation method
+     * @param eventsPerStream event tuple
+     * @param isNewData new data indicator
+     * @param context evaluation context
+     */
+    public void enter(ExprEvaluator evaluator, AggregationMethod method, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context)
+    {
+        ExprEvaluatorPrimitive primitive = (ExprEvaluatorPrimitive) evaluator;
+        AggregationMethodPrimitive aggregator = (AggregationMethodPrimitive) method;
+        if (!primitive.hasValue(eventsPerStream)) {
+            aggregator.enter(primitive.evaluate(eventsPerStream, isNewData, context));
+        }
+        else if (this == DOUBLE) {
+            aggregator.enterDouble(primitive.evaluateDouble(eventsPerStream, isNewData, context));
+        }
+        else {
+            aggregator.enterLong(primitive.evaluateLong(eventsPerStream, isNewData, context));
+        }
+    }
+
+    /**
+     * Remove the evaluator result from the aggregation method.
+     * @param evaluator primitive evaluator
+     * @param method primitive aggregation method
+     * @param eventsPerStream event tuple
+     * @param isNewData new data indicator
+     * @param context evaluation context
+     */
+    public void leave(ExprEvaluator evaluator, AggregationMethod method, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context)
+    {
+        ExprEvaluatorPrimitive primitive = (ExprEvaluatorPrimitive) evaluator;
+        AggregationMethodPrimitive aggregator = (AggregationMethodPrimitive) method;
+        if (!primitive.hasValue(eventsPerStream)) {
+            aggregator.leave(primitive.evaluate(eventsPerStream, isNewData, context));
+        }
+        else if (this == DOUBLE) {
+            aggregator.leaveDouble(primitive.evaluateDouble(eventsPerStream, isNewData, context));
+        }
+        else {
+            aggregator.leaveLong(primitive.evaluateLong(eventsPerStream, isNewData, context));
+        }
+    }
+
+    /**
+     * Enter the evaluator result into the row of the aggregation column.
+     * @param evaluator primitive evaluator
+     * @param column aggregation column
+     * @param row row of the group
+     * @param eventsPerStream event tuple
+     * @param isNewData new data indicator
+     * @param context evaluation context
+     */
+    public void enterColumn(ExprEvaluator evaluator, AggregatorColumn column, int row, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context)
+    {
+        ExprEvaluatorPrimitive primitive = (ExprEvaluatorPrimitive) evaluator;
+        if (!primitive.hasValue(eventsPerStream)) {
+            column.enter(row, primitive.evaluate(eventsPerStream, isNewData, context));
+        }
+        else if (this == DOUBLE) {
+            column.enterDouble(row, primitive.evaluateDouble(eventsPerStream, isNewData, context));
+        }
+        else {
+            column.enterLong(row, primitive.evaluateLong(eventsPerStream, isNewData, context));
+        }
+    }
+
+    /**
+     * Remove the evaluator result from the row of the aggregation column.
+     * @param evaluator primitive evaluator
+     * @param column aggregation column
+     * @param row row of the group
+     * @param eventsPerStream event tuple
+     * @param isNewData new data indicator
+     * @param context evaluation context
+     */
+    public void leaveColumn(ExprEvaluator evaluator, AggregatorColumn column, int row, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context)
+    {
+        ExprEvaluatorPrimitive primitive = (ExprEvaluatorPrimitive) evaluator;
+        if (!primitive.hasValue(eventsPerStream)) {
+            column.leave(row, primitive.evaluate(eventsPerStream, isNewData, context));
+        }
+        else if (this == DOUBLE) {
+            column.leaveDouble(row, primitive.evaluateDouble(eventsPerStream, isNewData, context));
+        }
+        else {
+            column.leaveLong(row, primitive.evaluateLong(eventsPerStream, isNewData, context));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+
+/**
+ * Current row and group key of an aggregation service, for use as a thread cursor.
+ */
+public class AggregationRowCursor
+{
+    private AggregationMethod[] methods;
+    private int row;
+    private Object groupKey;
+
+    /**
+     * Returns a thread-local providing a cursor per thread.
+     * @return thread-local
+     */
+    public static ThreadLocal<AggregationRowCursor> makeThreadCursors() {
+        return new ThreadLocal<AggregationRowCursor>() {
+            protected AggregationRowCursor initialValue() {
+                return new AggregationRowCursor();
+            }
+        };
+    }
+
+    public AggregationMethod[] getMethods() {
+        return methods;
+    }
+
+    public void setMethods(AggregationMethod[] methods) {
+        this.methods = methods;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public void setRow(int row) {
+        this.row = row;
+    }
+
+    public Object getGroupKey() {
+        return groupKey;
+    }
+
+    public void setGroupKey(Object groupKey) {
+        this.groupKey = groupKey;
+    }
+}
@@ -325,7 +325,13 @@ public class AggregationServiceFactoryFactory
                         throw getRollupReclaimEx();
                     }
                     if ((methodAggEvaluators.length > 0) && (accessorPairs.length == 0)) {
-                        serviceFactory = factoryService.getGroupedNoReclaimNoAccess(groupByNodes, methodAggEvaluators, methodAggFactories, isUnidirectional, isFireAndForget, isOnSelect);
+                        Class columnarKeyType = AggSvcGroupByColumnarFactory.getColumnarKeyType(groupByNodes, methodAggFactories);
+                        if (columnarKeyType != null) {
+                            serviceFactory = factoryService.getGroupColumnarNoAccess(groupByNodes, methodAggEvaluators, methodAggFactories, columnarKeyType, false, isUnidirectional, isFireAndForget, isOnSelect);
+                        }
+                        else {
+                            serviceFactory = factoryService.getGroupedNoReclaimNoAccess(groupByNodes, methodAggEvaluators, methodAggFactories, isUnidirectional, isFireAndForget, isOnSelect);
+                        }
                     }
                     else if ((methodAggEvaluators.length == 0) && (accessorPairs.length > 0)) {
                         serviceFactory = factoryService.getGroupNoReclaimAccessOnly(groupByNodes, accessorPairs, accessAggregations, isJoin, isUnidirectional, isFireAndForget, isOnSelect);
@@ -346,7 +352,11 @@ public class AggregationServiceFactoryFactory
                 }
                 else
                 {
-                    if ((methodAggEvaluators.length > 0) && (accessorPairs.length == 0)) {
+                    Class columnarKeyType = AggSvcGroupByColumnarFactory.getColumnarKeyType(groupByNodes, methodAggFactories);
+                    if ((methodAggEvaluators.length > 0) && (accessorPairs.length == 0) && (columnarKeyType != null)) {
+                        serviceFactory = factoryService.getGroupColumnarNoAccess(groupByNodes, methodAggEvaluators, methodAggFactories, columnarKeyType, true, isUnidirectional, isFireAndForget, isOnSelect);
+                    }
+                    else if ((methodAggEvaluators.length > 0) && (accessorPairs.length == 0)) {
                         serviceFactory = factoryService.getGroupReclaimNoAccess(groupByNodes, methodAggEvaluators, methodAggFactories, accessorPairs, accessAggregations, isJoin, isUnidirectional, isFireAndForget, isOnSelect);
                     }
                     else {
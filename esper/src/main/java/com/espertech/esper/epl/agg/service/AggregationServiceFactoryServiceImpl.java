@@ -63,6 +63,10 @@ public class AggregationServiceFactoryServiceImpl implements AggregationServiceF
         return new AggSvcGroupByRefcountedNoAccessFactory(evaluatorsArr, aggregatorsArr);
     }
 
+    public AggregationServiceFactory getGroupColumnarNoAccess(ExprNode[] groupByNodes, ExprEvaluator[] evaluatorsArr, AggregationMethodFactory[] aggregatorsArr, Class keyType, boolean reclaim, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
+        return new AggSvcGroupByColumnarFactory(evaluatorsArr, aggregatorsArr, keyType, reclaim);
+    }
+
     public AggregationServiceFactory getGroupReclaimMixable(ExprNode[] groupByNodes, ExprEvaluator[] evaluatorsArr, AggregationMethodFactory[] aggregatorsArr, AggregationAccessorSlotPair[] pairs, AggregationStateFactory[] accessAggregations, boolean join, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
         return new AggSvcGroupByRefcountedWAccessFactory(evaluatorsArr, aggregatorsArr, pairs, accessAggregations, join);
     }
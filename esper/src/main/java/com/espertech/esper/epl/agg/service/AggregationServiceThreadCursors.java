@@ -0,0 +1,31 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+/**
+ * Aggregation service that can position the current row per thread, for evaluating the output rows of different groups
+ * on multiple threads.
+ * <p>
+ * While thread cursors are enabled, {@link AggregationService#setCurrentAccess} and the value and group key accessors
+ * use a current row that is local to the calling thread, and the service does not allocate rows for groups that have none.
+ * The caller must hold the statement lock and must not enter or leave values while thread cursors are enabled.
+ */
+public interface AggregationServiceThreadCursors
+{
+    /**
+     * Enable or disable thread cursors.
+     * @param enabled indicator
+     */
+    public void setThreadCursors(boolean enabled);
+
+    /**
+     * Release the current row of the calling thread.
+     */
+    public void clearThreadCursor();
+}
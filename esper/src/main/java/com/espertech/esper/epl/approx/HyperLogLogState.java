@@ -0,0 +1,207 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.approx;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * HyperLogLog is a probabilistic sketch for estimating the number of distinct values of a stream in fixed space
+ * (source: Wikipedia, see https://en.wikipedia.org/wiki/HyperLogLog)
+ * </p>
+ *
+ * <p>
+ * Each value is hashed to 64 bits. The first bits of the hash select one of 2^precision registers and the register
+ * keeps the maximum position of the leftmost one-bit among the remaining bits. The state is one byte per register,
+ * for example 4 KB for the default precision of 12, for a standard error of about 1.04 / sqrt(2^precision) (1.6%).
+ * Values are only added; a sketch cannot remove values. Sketches of the same precision can be merged
+ * and the merged sketch estimates the distinct count of the union of the values.
+ * </p>
+ *
+ * <p>
+ * The estimate uses the improved raw estimator that does not need empirical bias correction. Paper:
+ * Otmar Ertl. New cardinality estimation algorithms for HyperLogLog sketches. 2017.
+ * https://arxiv.org/abs/1702.01284
+ * </p>
+ */
+public class HyperLogLogState {
+
+    /**
+     * Default precision, i.e. number of index bits.
+     */
+    public final static int DEFAULT_PRECISION = 12;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLogState() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Ctor.
+     * @param precision number of index bits, between 4 and 18
+     */
+    public HyperLogLogState(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("Precision must be between 4 and 18 but is " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Add a value, ignoring null values.
+     * @param value to add
+     */
+    public void add(Object value) {
+        if (value == null) {
+            return;
+        }
+        addHash(hash(value));
+    }
+
+    /**
+     * Add the 64-bit hash of a value.
+     * @param hash to add
+     */
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // the sentinel bit bounds the rank at 65 - precision
+        long remaining = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        if (registers[index] < rank) {
+            registers[index] = rank;
+        }
+    }
+
+    /**
+     * Merge another sketch of the same precision into this sketch.
+     * @param other to merge
+     */
+    public void merge(HyperLogLogState other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge sketches of precision " + precision + " and " + other.precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (registers[i] < other.registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * Returns the estimated number of distinct values.
+     * @return estimate
+     */
+    public long estimate() {
+        int m = registers.length;
+        int q = 64 - precision;
+        int[] histogram = new int[q + 2];
+        for (byte register : registers) {
+            histogram[register]++;
+        }
+        if (histogram[0] == m) {
+            return 0;
+        }
+
+        double z = m * tau(1 - histogram[q + 1] / (double) m);
+        for (int k = q; k >= 1; k--) {
+            z = 0.5 * (z + histogram[k]);
+        }
+        z += m * sigma(histogram[0] / (double) m);
+        return Math.round(m / (2 * Math.log(2)) * m / z);
+    }
+
+    public void clear() {
+        Arrays.fill(registers, (byte) 0);
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public byte[] getRegisters() {
+        return registers;
+    }
+
+    /**
+     * Returns a 64-bit hash of a value. Strings and numbers are hashed by content to 64 bits,
+     * other values are hashed from their hash code.
+     * @param value to hash, not null
+     * @return hash
+     */
+    public static long hash(Object value) {
+        long h;
+        if (value instanceof String) {
+            String text = (String) value;
+            h = text.length();
+            for (int i = 0; i < text.length(); i++) {
+                h = (h ^ text.charAt(i)) * 0x100000001b3L;
+            }
+        }
+        else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            h = ((Number) value).longValue();
+        }
+        else if (value instanceof Double || value instanceof Float) {
+            h = Double.doubleToLongBits(((Number) value).doubleValue());
+        }
+        else {
+            h = value.hashCode();
+        }
+        return fmix64(h);
+    }
+
+    private static long fmix64(long h) {
+        // MurmurHash3 finalizer
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static double sigma(double x) {
+        if (x == 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double y = 1;
+        double z = x;
+        double zPrev;
+        do {
+            x *= x;
+            zPrev = z;
+            z += x * y;
+            y += y;
+        }
+        while (zPrev != z);
+        return z;
+    }
+
+    private static double tau(double x) {
+        if (x == 0 || x == 1) {
+            return 0;
+        }
+        double y = 1;
+        double z = 1 - x;
+        double zPrev;
+        do {
+            x = Math.sqrt(x);
+            zPrev = z;
+            y *= 0.5;
+            z -= Math.pow(1 - x, 2) * y;
+        }
+        while (zPrev != z);
+        return z / 3;
+    }
+}
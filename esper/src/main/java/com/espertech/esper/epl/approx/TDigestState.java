@@ -0,0 +1,234 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.approx;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * T-digest is a sketch for estimating quantiles of a stream of values in bounded space,
+ * with accuracy that is relative to the quantile and therefore highest at the extreme quantiles.
+ * </p>
+ *
+ * <p>
+ * This implementation merges buffered values into a sorted array of centroids (mean and weight).
+ * A centroid spans at most one unit of the scale function {@code k(q) = compression / (2 * pi) * asin(2 * q - 1)},
+ * therefore there are at most about compression centroids and centroids near the extreme quantiles are small.
+ * Values are only added; a digest cannot remove values. When few values were added, each value
+ * is its own centroid and quantiles are exact.
+ * </p>
+ *
+ * <p>
+ * Paper:
+ * Ted Dunning and Otmar Ertl. Computing extremely accurate quantiles using t-digests. 2019.
+ * https://arxiv.org/abs/1902.04023
+ * </p>
+ */
+public class TDigestState {
+
+    /**
+     * Default compression.
+     */
+    public final static double DEFAULT_COMPRESSION = 100;
+
+    private final double compression;
+    private double[] means;
+    private double[] weights;
+    private int centroidCount;
+    private double[] mergeMeans;
+    private double[] mergeWeights;
+    private final double[] buffer;
+    private int bufferCount;
+    private long mergedWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigestState() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Ctor.
+     * @param compression larger values retain more centroids and give more accurate quantiles
+     */
+    public TDigestState(double compression) {
+        if (compression < 10) {
+            throw new IllegalArgumentException("Compression must be at least 10");
+        }
+        this.compression = compression;
+        int capacity = (int) Math.ceil(compression) + 10;
+        this.means = new double[capacity];
+        this.weights = new double[capacity];
+        this.mergeMeans = new double[capacity];
+        this.mergeWeights = new double[capacity];
+        this.buffer = new double[(int) Math.ceil(5 * compression)];
+    }
+
+    /**
+     * Add a value, ignoring NaN.
+     * @param value to add
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+        buffer[bufferCount++] = value;
+        if (bufferCount == buffer.length) {
+            mergeBuffer();
+        }
+    }
+
+    /**
+     * Returns the number of values added.
+     * @return count
+     */
+    public long size() {
+        return mergedWeight + bufferCount;
+    }
+
+    public void clear() {
+        centroidCount = 0;
+        bufferCount = 0;
+        mergedWeight = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Returns the estimated value at the quantile, interpolating between neighbouring centroids.
+     * @param quantile between zero and one
+     * @return value or NaN when no values were added
+     */
+    public double quantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be between zero and one");
+        }
+        mergeBuffer();
+        if (centroidCount == 0) {
+            return Double.NaN;
+        }
+        if (centroidCount == 1) {
+            return means[0];
+        }
+
+        // position of the quantile in weight, with each centroid centered on the middle of its weight
+        double index = quantile * mergedWeight;
+        double firstHalf = weights[0] / 2;
+        if (index < firstHalf) {
+            return min + (means[0] - min) * (index / firstHalf);
+        }
+        double center = firstHalf;
+        for (int i = 0; i < centroidCount - 1; i++) {
+            double nextCenter = center + (weights[i] + weights[i + 1]) / 2;
+            if (index < nextCenter) {
+                double fraction = (index - center) / (nextCenter - center);
+                return means[i] + (means[i + 1] - means[i]) * fraction;
+            }
+            center = nextCenter;
+        }
+        double lastHalf = weights[centroidCount - 1] / 2;
+        double fraction = Math.min(1, (index - center) / lastHalf);
+        return means[centroidCount - 1] + (max - means[centroidCount - 1]) * fraction;
+    }
+
+    /**
+     * Returns the number of centroids, for testing purposes.
+     * @return centroid count
+     */
+    public int getCentroidCount() {
+        mergeBuffer();
+        return centroidCount;
+    }
+
+    private void mergeBuffer() {
+        if (bufferCount == 0) {
+            return;
+        }
+        Arrays.sort(buffer, 0, bufferCount);
+        int maxCentroids = centroidCount + bufferCount;
+        if (mergeMeans.length < maxCentroids) {
+            mergeMeans = new double[maxCentroids];
+            mergeWeights = new double[maxCentroids];
+        }
+
+        double total = mergedWeight + bufferCount;
+        int merged = 0;
+        double weightSoFar = 0;
+        double weightLimit = 0;
+        double currentMean = 0;
+        double currentWeight = 0;
+        int centroid = 0;
+        int buffered = 0;
+        while (centroid < centroidCount || buffered < bufferCount) {
+            // next in order among the existing centroids and the buffered values
+            double mean;
+            double weight;
+            if (buffered == bufferCount || (centroid < centroidCount && means[centroid] <= buffer[buffered])) {
+                mean = means[centroid];
+                weight = weights[centroid];
+                centroid++;
+            }
+            else {
+                mean = buffer[buffered];
+                weight = 1;
+                buffered++;
+            }
+
+            if (currentWeight == 0) {
+                currentMean = mean;
+                currentWeight = weight;
+                weightLimit = weightLimit(weightSoFar, total);
+                continue;
+            }
+            double proposed = currentWeight + weight;
+            if (weightSoFar + proposed <= weightLimit) {
+                currentMean += (mean - currentMean) * weight / proposed;
+                currentWeight = proposed;
+            }
+            else {
+                mergeMeans[merged] = currentMean;
+                mergeWeights[merged] = currentWeight;
+                merged++;
+                weightSoFar += currentWeight;
+                currentMean = mean;
+                currentWeight = weight;
+                weightLimit = weightLimit(weightSoFar, total);
+            }
+        }
+        mergeMeans[merged] = currentMean;
+        mergeWeights[merged] = currentWeight;
+        merged++;
+
+        double[] swapMeans = means;
+        double[] swapWeights = weights;
+        means = mergeMeans;
+        weights = mergeWeights;
+        mergeMeans = swapMeans;
+        mergeWeights = swapWeights;
+        centroidCount = merged;
+        mergedWeight += bufferCount;
+        bufferCount = 0;
+    }
+
+    // cumulative weight up to which a centroid starting at the given cumulative weight may extend
+    private double weightLimit(double weightStart, double total) {
+        double k = compression / (2 * Math.PI) * Math.asin(2 * weightStart / total - 1);
+        double angle = Math.min(Math.PI / 2, (k + 1) * 2 * Math.PI / compression);
+        return total * (Math.sin(angle) + 1) / 2;
+    }
+}
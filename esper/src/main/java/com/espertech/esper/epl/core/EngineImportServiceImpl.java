@@ -486,6 +486,15 @@ public class EngineImportServiceImpl implements EngineImportService
         if (nameLowerCase.equals("leaving")) {
             return new ExprLeavingAggNode(isDistinct);
         }
+        if (nameLowerCase.equals("percentile")) {
+            return new ExprPercentileAggNode(isDistinct, false);
+        }
+        if (nameLowerCase.equals("approxpercentile")) {
+            return new ExprPercentileAggNode(isDistinct, true);
+        }
+        if (nameLowerCase.equals("approxcountdistinct")) {
+            return new ExprApproxCountDistinctNode(isDistinct);
+        }
         if (nameLowerCase.equals("maxby")) {
             return new ExprAggMultiFunctionSortedMinMaxByNode(true, false, false);
         }
@@ -42,6 +42,7 @@ public class ResultSetProcessorAggregateGrouped implements ResultSetProcessor, A
     private final OrderByProcessor orderByProcessor;
     protected final AggregationService aggregationService;
     protected AgentInstanceContext agentInstanceContext;
+    private final ResultSetProcessorGroupedParallelSnapshot parallelSnapshot;
 
     protected final EventBean[] eventsPerStreamOneStream = new EventBean[1];
 
@@ -60,6 +61,7 @@ public class ResultSetProcessorAggregateGrouped implements ResultSetProcessor, A
         this.orderByProcessor = orderByProcessor;
         this.aggregationService = aggregationService;
         this.agentInstanceContext = agentInstanceContext;
+        this.parallelSnapshot = ResultSetProcessorGroupedParallelSnapshot.make(prototype.isEnableParallelSnapshot(), aggregationService, prototype.getGroupKeyNodes(), prototype.getOptionalHavingNode(), selectExprProcessor);
 
         aggregationService.setRemovedCallback(this);
 
@@ -496,6 +498,9 @@ public class ResultSetProcessorAggregateGrouped implements ResultSetProcessor, A
     private Iterator<EventBean> obtainIterator(Viewable parent) {
         if (orderByProcessor == null)
         {
+            if (parallelSnapshot != null) {
+                return parallelSnapshot.iteratorAggregateGrouped(parent.iterator(), this, agentInstanceContext);
+            }
             return new ResultSetAggregateGroupedIterator(parent.iterator(), this, aggregationService,agentInstanceContext);
         }
 
@@ -38,6 +38,7 @@ public class ResultSetProcessorAggregateGroupedFactory implements ResultSetProce
     private final OutputConditionPolledFactory optionalOutputFirstConditionFactory;
     private final boolean enableOutputLimitOpt;
     private final int numStreams;
+    private final boolean enableParallelSnapshot;
 
     public ResultSetProcessorAggregateGroupedFactory(SelectExprProcessor selectExprProcessor,
                                                      ExprNode[] groupKeyNodeExpressions,
@@ -51,7 +52,8 @@ public class ResultSetProcessorAggregateGroupedFactory implements ResultSetProce
                                                      ResultSetProcessorHelperFactory resultSetProcessorHelperFactory,
                                                      OutputConditionPolledFactory optionalOutputFirstConditionFactory,
                                                      boolean enableOutputLimitOpt,
-                                                     int numStreams)
+                                                     int numStreams,
+                                                     boolean enableParallelSnapshot)
     {
         this.selectExprProcessor = selectExprProcessor;
         this.groupKeyNodeExpressions = groupKeyNodeExpressions;
@@ -72,6 +74,7 @@ public class ResultSetProcessorAggregateGroupedFactory implements ResultSetProce
         this.optionalOutputFirstConditionFactory = optionalOutputFirstConditionFactory;
         this.enableOutputLimitOpt = enableOutputLimitOpt;
         this.numStreams = numStreams;
+        this.enableParallelSnapshot = enableParallelSnapshot;
     }
 
     public ResultSetProcessor instantiate(OrderByProcessor orderByProcessor, AggregationService aggregationService, AgentInstanceContext agentInstanceContext) {
@@ -154,4 +157,8 @@ public class ResultSetProcessorAggregateGroupedFactory implements ResultSetProce
     public ResultSetProcessorHelperFactory getResultSetProcessorHelperFactory() {
         return resultSetProcessorHelperFactory;
     }
+
+    public boolean isEnableParallelSnapshot() {
+        return enableParallelSnapshot;
+    }
 }
@@ -22,8 +22,10 @@ import com.espertech.esper.core.service.StatementContext;
 import com.espertech.esper.epl.agg.rollup.GroupByRollupPerLevelExpression;
 import com.espertech.esper.epl.agg.rollup.GroupByRollupPlanDesc;
 import com.espertech.esper.epl.agg.rollup.GroupByRollupPlanHook;
+import com.espertech.esper.epl.agg.service.AggSvcGroupAllNoAccessFactory;
 import com.espertech.esper.epl.agg.service.AggregationGroupByRollupDesc;
 import com.espertech.esper.epl.agg.service.AggregationGroupByRollupLevel;
+import com.espertech.esper.epl.agg.service.AggregationServiceFactory;
 import com.espertech.esper.epl.agg.service.AggregationServiceFactoryDesc;
 import com.espertech.esper.epl.agg.service.AggregationServiceFactoryFactory;
 import com.espertech.esper.epl.annotation.AnnotationUtil;
@@ -43,6 +45,7 @@ import com.espertech.esper.epl.view.OutputConditionPolledFactoryFactory;
 import com.espertech.esper.event.NativeEventType;
 import com.espertech.esper.util.CollectionUtil;
 import com.espertech.esper.util.JavaClassHelper;
+import com.espertech.esper.view.ViewEnum;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -405,7 +408,7 @@ public class ResultSetProcessorFactoryFactory
             if ((nonAggregatedPropsSelect.isEmpty()) && !hasStreamSelect && !isUsingWildcard && !isUsingStreamSelect && localGroupByMatchesGroupBy && (viewResourceDelegate == null || viewResourceDelegate.getPreviousRequests().isEmpty()))
             {
                 log.debug(".getProcessor Using ResultSetProcessorRowForAll");
-                ResultSetProcessorRowForAllFactory factory = new ResultSetProcessorRowForAllFactory(selectExprProcessor, optionHavingEval, isSelectRStream, isUnidirectional, isHistoricalOnly, outputLimitSpec, resultSetProcessorHelperFactory);
+                ResultSetProcessorRowForAllFactory factory = new ResultSetProcessorRowForAllFactory(selectExprProcessor, optionHavingEval, isSelectRStream, isUnidirectional, isHistoricalOnly, outputLimitSpec, resultSetProcessorHelperFactory, isBatchWindowClear(statementSpec, aggregationServiceFactory));
                 return new ResultSetProcessorFactoryDesc(factory, orderByProcessorFactory, aggregationServiceFactory);
             }
 
@@ -474,7 +477,8 @@ public class ResultSetProcessorFactoryFactory
                 factory = new ResultSetProcessorRowPerGroupRollupFactory(perLevelExpression, groupByNodesValidated, groupByEval, isSelectRStream, isUnidirectional, outputLimitSpec, orderByProcessorFactory != null, noDataWindowSingleStream, groupByRollupDesc, typeService.getEventTypes().length > 1, isHistoricalOnly, iterateUnbounded, optionalOutputFirstConditionFactory, resultSetProcessorHelperFactory, hasOutputLimitOptHint, numStreams);
             }
             else {
-                factory = new ResultSetProcessorRowPerGroupFactory(selectExprProcessor, groupByNodesValidated, groupByEval, optionHavingEval, isSelectRStream, isUnidirectional, outputLimitSpec, orderByProcessorFactory != null, noDataWindowSingleStream, isHistoricalOnly, iterateUnbounded, resultSetProcessorHelperFactory, hasOutputLimitOptHint, numStreams, optionalOutputFirstConditionFactory);
+                boolean enableParallelSnapshot = isParallelSnapshot(statementSpec, isUsingWildcard, selectNodes, optionalHavingNode, groupByNodesValidated);
+                factory = new ResultSetProcessorRowPerGroupFactory(selectExprProcessor, groupByNodesValidated, groupByEval, optionHavingEval, isSelectRStream, isUnidirectional, outputLimitSpec, orderByProcessorFactory != null, noDataWindowSingleStream, isHistoricalOnly, iterateUnbounded, resultSetProcessorHelperFactory, hasOutputLimitOptHint, numStreams, optionalOutputFirstConditionFactory, enableParallelSnapshot);
             }
             return new ResultSetProcessorFactoryDesc(factory, orderByProcessorFactory, aggregationServiceFactory);
         }
@@ -487,10 +491,48 @@ public class ResultSetProcessorFactoryFactory
         // There is a group-by clause, and one or more event properties in the select clause that are not under an aggregation
         // function are not listed in the group-by clause (output one row per event, not one row per group)
         log.debug(".getProcessor Using ResultSetProcessorAggregateGrouped");
-        ResultSetProcessorAggregateGroupedFactory factory = new ResultSetProcessorAggregateGroupedFactory(selectExprProcessor, groupByNodesValidated, groupByEval, optionHavingEval, isSelectRStream, isUnidirectional, outputLimitSpec, orderByProcessorFactory != null, isHistoricalOnly, resultSetProcessorHelperFactory, optionalOutputFirstConditionFactory, hasOutputLimitOptHint, numStreams);
+        boolean enableParallelSnapshot = isParallelSnapshot(statementSpec, isUsingWildcard, selectNodes, optionalHavingNode, groupByNodesValidated);
+        ResultSetProcessorAggregateGroupedFactory factory = new ResultSetProcessorAggregateGroupedFactory(selectExprProcessor, groupByNodesValidated, groupByEval, optionHavingEval, isSelectRStream, isUnidirectional, outputLimitSpec, orderByProcessorFactory != null, isHistoricalOnly, resultSetProcessorHelperFactory, optionalOutputFirstConditionFactory, hasOutputLimitOptHint, numStreams, enableParallelSnapshot);
         return new ResultSetProcessorFactoryDesc(factory, orderByProcessorFactory, aggregationServiceFactory);
     }
 
+    private static boolean isParallelSnapshot(StatementSpecCompiled statementSpec, boolean isUsingWildcard, List<ExprNode> selectNodes, ExprNode optionalHavingNode, ExprNode[] groupByNodes) {
+        if (HintEnum.ENABLE_PARALLEL_SNAPSHOT.getHint(statementSpec.getAnnotations()) == null) {
+            return false;
+        }
+        if (isUsingWildcard || statementSpec.getInsertIntoDesc() != null) {
+            return false;
+        }
+        ExprNodeParallelEvalVisitor visitor = new ExprNodeParallelEvalVisitor();
+        for (ExprNode selectNode : selectNodes) {
+            selectNode.accept(visitor);
+        }
+        if (optionalHavingNode != null) {
+            optionalHavingNode.accept(visitor);
+        }
+        for (ExprNode groupByNode : groupByNodes) {
+            groupByNode.accept(visitor);
+        }
+        return visitor.isParallelSafe();
+    }
+
+    private static boolean isBatchWindowClear(StatementSpecCompiled statementSpec, AggregationServiceFactoryDesc aggregationServiceFactory) {
+        if (statementSpec.getStreamSpecs().length != 1 ||
+            !(statementSpec.getStreamSpecs()[0] instanceof FilterStreamSpecCompiled || statementSpec.getStreamSpecs()[0] instanceof PatternStreamSpecCompiled)) {
+            return false;
+        }
+        ViewSpec[] viewSpecs = statementSpec.getStreamSpecs()[0].getViewSpecs();
+        if (viewSpecs.length != 1) {
+            return false;
+        }
+        ViewEnum viewEnum = ViewEnum.forName(viewSpecs[0].getObjectNamespace(), viewSpecs[0].getObjectName());
+        if (viewEnum != ViewEnum.TIME_BATCH && viewEnum != ViewEnum.LENGTH_BATCH) {
+            return false;
+        }
+        AggregationServiceFactory factory = aggregationServiceFactory.getAggregationServiceFactory();
+        return factory instanceof AggSvcGroupAllNoAccessFactory && ((AggSvcGroupAllNoAccessFactory) factory).isDecomposable();
+    }
+
     private static void validateOutputLimit(OutputLimitSpec outputLimitSpec, StatementContext statementContext) throws ExprValidationException {
         if (outputLimitSpec == null) {
             return;
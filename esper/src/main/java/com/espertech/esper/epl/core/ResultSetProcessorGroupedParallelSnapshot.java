@@ -0,0 +1,262 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.core;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.ArrayEventIterator;
+import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.epl.agg.service.AggregationService;
+import com.espertech.esper.epl.agg.service.AggregationServiceThreadCursors;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes the rows of a group-by snapshot, such as for output snapshot or iteration, on the common fork-join pool.
+ * <p>
+ * Candidate events are split into shards of consecutive events. Each shard computes group keys, positions a thread cursor
+ * of the aggregation service and evaluates the having-clause and select-clause for its events. Rows are returned
+ * in the same order as when evaluated on a single thread. The calling thread holds the statement lock for the whole
+ * computation so that aggregation rows do not change: the computation takes less wall-clock time,
+ * but does not release the lock any earlier than a computation on a single thread would.
+ * <p>
+ * Used only when the group-by, having and select expressions can be evaluated concurrently.
+ */
+public class ResultSetProcessorGroupedParallelSnapshot
+{
+    /**
+     * Minimum number of candidate events for building the snapshot on multiple threads.
+     */
+    public final static int MIN_PARALLEL_EVENTS = 4096;
+
+    private final static int SHARD_SIZE = 1024;
+
+    private final AggregationService aggregationService;
+    private final AggregationServiceThreadCursors threadCursors;
+    private final ExprEvaluator[] groupKeyNodes;
+    private final ExprEvaluator optionalHavingNode;
+    private final SelectExprProcessor selectExprProcessor;
+
+    private ResultSetProcessorGroupedParallelSnapshot(AggregationService aggregationService, ExprEvaluator[] groupKeyNodes, ExprEvaluator optionalHavingNode, SelectExprProcessor selectExprProcessor) {
+        this.aggregationService = aggregationService;
+        this.threadCursors = (AggregationServiceThreadCursors) aggregationService;
+        this.groupKeyNodes = groupKeyNodes;
+        this.optionalHavingNode = optionalHavingNode;
+        this.selectExprProcessor = selectExprProcessor;
+    }
+
+    /**
+     * Returns a parallel snapshot builder, or null if not enabled or if the aggregation service does not provide thread cursors.
+     * @param enabled indicator whether enabled for the statement
+     * @param aggregationService aggregation service
+     * @param groupKeyNodes group-by expressions
+     * @param optionalHavingNode having-clause or null
+     * @param selectExprProcessor select-clause
+     * @return builder or null
+     */
+    public static ResultSetProcessorGroupedParallelSnapshot make(boolean enabled, AggregationService aggregationService, ExprEvaluator[] groupKeyNodes, ExprEvaluator optionalHavingNode, SelectExprProcessor selectExprProcessor) {
+        if (!enabled || !(aggregationService instanceof AggregationServiceThreadCursors)) {
+            return null;
+        }
+        return new ResultSetProcessorGroupedParallelSnapshot(aggregationService, groupKeyNodes, optionalHavingNode, selectExprProcessor);
+    }
+
+    /**
+     * Returns an iterator of one row per group, building the rows on multiple threads if there are sufficient candidate events.
+     * @param candidateIt candidate events
+     * @param processor result set processor for evaluating on a single thread
+     * @param agentInstanceContext context
+     * @return row iterator
+     */
+    public Iterator<EventBean> iteratorRowPerGroup(Iterator<EventBean> candidateIt, ResultSetProcessorRowPerGroup processor, AgentInstanceContext agentInstanceContext) {
+        EventBean[] candidates = toArray(candidateIt);
+        if (candidates.length < MIN_PARALLEL_EVENTS) {
+            return new ResultSetRowPerGroupIterator(new ArrayEventIterator(candidates), processor, aggregationService, agentInstanceContext);
+        }
+        return new ArrayEventIterator(snapshotRowPerGroup(candidates, agentInstanceContext));
+    }
+
+    /**
+     * Returns an iterator of one row per candidate event, building the rows on multiple threads if there are sufficient candidate events.
+     * @param candidateIt candidate events
+     * @param processor result set processor for evaluating on a single thread
+     * @param agentInstanceContext context
+     * @return row iterator
+     */
+    public Iterator<EventBean> iteratorAggregateGrouped(Iterator<EventBean> candidateIt, ResultSetProcessorAggregateGrouped processor, AgentInstanceContext agentInstanceContext) {
+        EventBean[] candidates = toArray(candidateIt);
+        if (candidates.length < MIN_PARALLEL_EVENTS) {
+            return new ResultSetAggregateGroupedIterator(new ArrayEventIterator(candidates), processor, aggregationService, agentInstanceContext);
+        }
+        return new ArrayEventIterator(snapshotAggregateGrouped(candidates, agentInstanceContext));
+    }
+
+    /**
+     * Returns one row per group, for the first candidate event of each group that passes the having-clause.
+     * @param candidates events
+     * @param agentInstanceContext context
+     * @return rows
+     */
+    protected EventBean[] snapshotRowPerGroup(final EventBean[] candidates, final AgentInstanceContext agentInstanceContext) {
+        final Object[] keys = new Object[candidates.length];
+        final boolean[] passed = new boolean[candidates.length];
+        invoke(candidates.length, new ShardFunction() {
+            public void apply(int from, int to) {
+                EventBean[] eventsPerStream = new EventBean[1];
+                for (int i = from; i < to; i++) {
+                    eventsPerStream[0] = candidates[i];
+                    keys[i] = generateGroupKey(eventsPerStream, agentInstanceContext);
+                    if (optionalHavingNode != null) {
+                        aggregationService.setCurrentAccess(keys[i], agentInstanceContext.getAgentInstanceId(), null);
+                    }
+                    passed[i] = evaluateHaving(eventsPerStream, agentInstanceContext);
+                }
+            }
+        });
+
+        // the first passing event of each group represents the group
+        Set<Object> priorSeenGroups = new HashSet<Object>();
+        final int[] selected = new int[candidates.length];
+        int count = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            if (passed[i] && priorSeenGroups.add(keys[i])) {
+                selected[count++] = i;
+            }
+        }
+
+        final EventBean[] rows = new EventBean[count];
+        invoke(count, new ShardFunction() {
+            public void apply(int from, int to) {
+                EventBean[] eventsPerStream = new EventBean[1];
+                for (int j = from; j < to; j++) {
+                    int i = selected[j];
+                    eventsPerStream[0] = candidates[i];
+                    aggregationService.setCurrentAccess(keys[i], agentInstanceContext.getAgentInstanceId(), null);
+                    rows[j] = selectExprProcessor.process(eventsPerStream, true, true, agentInstanceContext);
+                }
+            }
+        });
+        return rows;
+    }
+
+    /**
+     * Returns one row per candidate event that passes the having-clause.
+     * @param candidates events
+     * @param agentInstanceContext context
+     * @return rows
+     */
+    protected EventBean[] snapshotAggregateGrouped(final EventBean[] candidates, final AgentInstanceContext agentInstanceContext) {
+        final EventBean[] rows = new EventBean[candidates.length];
+        invoke(candidates.length, new ShardFunction() {
+            public void apply(int from, int to) {
+                EventBean[] eventsPerStream = new EventBean[1];
+                for (int i = from; i < to; i++) {
+                    eventsPerStream[0] = candidates[i];
+                    Object key = generateGroupKey(eventsPerStream, agentInstanceContext);
+                    aggregationService.setCurrentAccess(key, agentInstanceContext.getAgentInstanceId(), null);
+                    if (evaluateHaving(eventsPerStream, agentInstanceContext)) {
+                        rows[i] = selectExprProcessor.process(eventsPerStream, true, true, agentInstanceContext);
+                    }
+                }
+            }
+        });
+
+        int count = 0;
+        for (int i = 0; i < rows.length; i++) {
+            if (rows[i] != null) {
+                rows[count++] = rows[i];
+            }
+        }
+        if (count == rows.length) {
+            return rows;
+        }
+        EventBean[] result = new EventBean[count];
+        System.arraycopy(rows, 0, result, 0, count);
+        return result;
+    }
+
+    private static EventBean[] toArray(Iterator<EventBean> it) {
+        List<EventBean> events = new ArrayList<EventBean>();
+        while (it.hasNext()) {
+            events.add(it.next());
+        }
+        return events.toArray(new EventBean[events.size()]);
+    }
+
+    private Object generateGroupKey(EventBean[] eventsPerStream, AgentInstanceContext agentInstanceContext) {
+        if (groupKeyNodes.length == 1) {
+            return groupKeyNodes[0].evaluate(eventsPerStream, true, agentInstanceContext);
+        }
+        Object[] keys = new Object[groupKeyNodes.length];
+        for (int i = 0; i < groupKeyNodes.length; i++) {
+            keys[i] = groupKeyNodes[i].evaluate(eventsPerStream, true, agentInstanceContext);
+        }
+        return new MultiKeyUntyped(keys);
+    }
+
+    private boolean evaluateHaving(EventBean[] eventsPerStream, AgentInstanceContext agentInstanceContext) {
+        if (optionalHavingNode == null) {
+            return true;
+        }
+        Boolean pass = (Boolean) optionalHavingNode.evaluate(eventsPerStream, true, agentInstanceContext);
+        return pass != null && pass;
+    }
+
+    private void invoke(int size, ShardFunction function) {
+        if (size == 0) {
+            return;
+        }
+        threadCursors.setThreadCursors(true);
+        try {
+            ForkJoinPool.commonPool().invoke(new ShardAction(function, 0, size));
+        }
+        finally {
+            threadCursors.setThreadCursors(false);
+        }
+    }
+
+    private static interface ShardFunction {
+        public void apply(int from, int to);
+    }
+
+    private class ShardAction extends RecursiveAction {
+        private static final long serialVersionUID = -2719164526587812213L;
+
+        private final ShardFunction function;
+        private final int from;
+        private final int to;
+
+        private ShardAction(ShardFunction function, int from, int to) {
+            this.function = function;
+            this.from = from;
+            this.to = to;
+        }
+
+        protected void compute() {
+            if (to - from <= SHARD_SIZE) {
+                try {
+                    function.apply(from, to);
+                }
+                finally {
+                    threadCursors.clearThreadCursor();
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ShardAction(function, from, middle), new ShardAction(function, middle, to));
+        }
+    }
+}
@@ -109,7 +109,12 @@ public class ResultSetProcessorRowForAll implements ResultSetProcessor
         }
 
         EventBean[] eventsPerStream = new EventBean[1];
-        ResultSetProcessorUtil.applyAggViewResult(aggregationService, exprEvaluatorContext, newData, oldData, eventsPerStream);
+        if (prototype.isBatchWindowClear()) {
+            ResultSetProcessorUtil.applyAggViewResultBatchClear(aggregationService, exprEvaluatorContext, newData, oldData, eventsPerStream);
+        }
+        else {
+            ResultSetProcessorUtil.applyAggViewResult(aggregationService, exprEvaluatorContext, newData, oldData, eventsPerStream);
+        }
 
         // generate new events using select expressions
         selectNewEvents = getSelectListEvents(true, isSynthesize, false);
@@ -215,7 +220,12 @@ public class ResultSetProcessorRowForAll implements ResultSetProcessor
 
     public void applyViewResult(EventBean[] newData, EventBean[] oldData) {
         EventBean[] events = new EventBean[1];
-        ResultSetProcessorUtil.applyAggViewResult(aggregationService, exprEvaluatorContext, newData, oldData, events);
+        if (prototype.isBatchWindowClear()) {
+            ResultSetProcessorUtil.applyAggViewResultBatchClear(aggregationService, exprEvaluatorContext, newData, oldData, events);
+        }
+        else {
+            ResultSetProcessorUtil.applyAggViewResult(aggregationService, exprEvaluatorContext, newData, oldData, events);
+        }
     }
 
     public void applyJoinResult(Set<MultiKey<EventBean>> newEvents, Set<MultiKey<EventBean>> oldEvents) {
@@ -28,6 +28,7 @@ public class ResultSetProcessorRowForAllFactory implements ResultSetProcessorFac
     private final ExprEvaluator optionalHavingNode;
     private final OutputLimitSpec outputLimitSpec;
     private final ResultSetProcessorHelperFactory resultSetProcessorHelperFactory;
+    private final boolean isBatchWindowClear;
 
     public ResultSetProcessorRowForAllFactory(SelectExprProcessor selectExprProcessor,
                                               ExprEvaluator optionalHavingNode,
@@ -35,7 +36,8 @@ public class ResultSetProcessorRowForAllFactory implements ResultSetProcessorFac
                                               boolean isUnidirectional,
                                               boolean isHistoricalOnly,
                                               OutputLimitSpec outputLimitSpec,
-                                              ResultSetProcessorHelperFactory resultSetProcessorHelperFactory)
+                                              ResultSetProcessorHelperFactory resultSetProcessorHelperFactory,
+                                              boolean isBatchWindowClear)
     {
         this.selectExprProcessor = selectExprProcessor;
         this.optionalHavingNode = optionalHavingNode;
@@ -44,6 +46,7 @@ public class ResultSetProcessorRowForAllFactory implements ResultSetProcessorFac
         this.isHistoricalOnly = isHistoricalOnly;
         this.outputLimitSpec = outputLimitSpec;
         this.resultSetProcessorHelperFactory = resultSetProcessorHelperFactory;
+        this.isBatchWindowClear = isBatchWindowClear;
     }
 
     public ResultSetProcessor instantiate(OrderByProcessor orderByProcessor, AggregationService aggregationService, AgentInstanceContext agentInstanceContext) {
@@ -90,4 +93,13 @@ public class ResultSetProcessorRowForAllFactory implements ResultSetProcessorFac
     public ResultSetProcessorHelperFactory getResultSetProcessorHelperFactory() {
         return resultSetProcessorHelperFactory;
     }
+
+    /**
+     * Returns true when the single stream is a batch window and the aggregation can be cleared instead of
+     * leaving each event of the prior batch.
+     * @return indicator
+     */
+    public boolean isBatchWindowClear() {
+        return isBatchWindowClear;
+    }
 }
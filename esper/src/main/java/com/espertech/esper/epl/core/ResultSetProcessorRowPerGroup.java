@@ -40,6 +40,7 @@ public class ResultSetProcessorRowPerGroup implements ResultSetProcessor, Aggreg
     protected final OrderByProcessor orderByProcessor;
     protected final AggregationService aggregationService;
     protected AgentInstanceContext agentInstanceContext;
+    protected final ResultSetProcessorGroupedParallelSnapshot parallelSnapshot;
 
     // For output rate limiting, keep a representative event for each group for
     // representing each group in an output limit clause
@@ -55,6 +56,7 @@ public class ResultSetProcessorRowPerGroup implements ResultSetProcessor, Aggreg
         this.orderByProcessor = orderByProcessor;
         this.aggregationService = aggregationService;
         this.agentInstanceContext = agentInstanceContext;
+        this.parallelSnapshot = ResultSetProcessorGroupedParallelSnapshot.make(prototype.isEnableParallelSnapshot(), aggregationService, prototype.getGroupKeyNodes(), prototype.getOptionalHavingNode(), selectExprProcessor);
 
         aggregationService.setRemovedCallback(this);
 
@@ -549,6 +551,9 @@ public class ResultSetProcessorRowPerGroup implements ResultSetProcessor, Aggreg
     {
         if (orderByProcessor == null)
         {
+            if (parallelSnapshot != null) {
+                return parallelSnapshot.iteratorRowPerGroup(parent.iterator(), this, agentInstanceContext);
+            }
             return new ResultSetRowPerGroupIterator(parent.iterator(), this, aggregationService, agentInstanceContext);
         }
         return getIteratorSorted(parent.iterator());
@@ -39,6 +39,7 @@ public class ResultSetProcessorRowPerGroupFactory implements ResultSetProcessorF
     private final boolean enableOutputLimitOpt;
     private final int numStreams;
     private final OutputConditionPolledFactory optionalOutputFirstConditionFactory;
+    private final boolean enableParallelSnapshot;
 
     public ResultSetProcessorRowPerGroupFactory(SelectExprProcessor selectExprProcessor,
                                                 ExprNode[] groupKeyNodeExpressions,
@@ -54,7 +55,8 @@ public class ResultSetProcessorRowPerGroupFactory implements ResultSetProcessorF
                                                 ResultSetProcessorHelperFactory resultSetProcessorHelperFactory,
                                                 boolean enableOutputLimitOpt,
                                                 int numStreams,
-                                                OutputConditionPolledFactory optionalOutputFirstConditionFactory)
+                                                OutputConditionPolledFactory optionalOutputFirstConditionFactory,
+                                                boolean enableParallelSnapshot)
     {
         this.groupKeyNodeExpressions = groupKeyNodeExpressions;
         this.selectExprProcessor = selectExprProcessor;
@@ -76,6 +78,7 @@ public class ResultSetProcessorRowPerGroupFactory implements ResultSetProcessorF
         this.enableOutputLimitOpt = enableOutputLimitOpt;
         this.numStreams = numStreams;
         this.optionalOutputFirstConditionFactory = optionalOutputFirstConditionFactory;
+        this.enableParallelSnapshot = enableParallelSnapshot;
     }
 
     public ResultSetProcessor instantiate(OrderByProcessor orderByProcessor, AggregationService aggregationService, AgentInstanceContext agentInstanceContext) {
@@ -161,4 +164,8 @@ public class ResultSetProcessorRowPerGroupFactory implements ResultSetProcessorF
     public ResultSetProcessorHelperFactory getResultSetProcessorHelperFactory() {
         return resultSetProcessorHelperFactory;
     }
+
+    public boolean isEnableParallelSnapshot() {
+        return enableParallelSnapshot;
+    }
 }
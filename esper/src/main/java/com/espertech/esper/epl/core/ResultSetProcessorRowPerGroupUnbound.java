@@ -99,6 +99,9 @@ public class ResultSetProcessorRowPerGroupUnbound extends ResultSetProcessorRowP
         if (orderByProcessor == null)
         {
             Iterator<EventBean> it = groupReps.valueIterator();
+            if (parallelSnapshot != null) {
+                return parallelSnapshot.iteratorRowPerGroup(it, this, agentInstanceContext);
+            }
             return new ResultSetRowPerGroupIterator(it, this, aggregationService, agentInstanceContext);
         }
         return getIteratorSorted(groupReps.valueIterator());
@@ -41,6 +41,23 @@ public class ResultSetProcessorUtil
         }
     }
 
+    /**
+     * Applies the result of a batch window, for which the old data is the complete prior batch: clears the aggregation
+     * state instead of leaving each old event, for use when clearing is the same as leaving all values.
+     * @param aggregationService aggregations
+     * @param exprEvaluatorContext context
+     * @param newData new batch
+     * @param oldData prior batch
+     * @param eventsPerStream buffer
+     */
+    public static void applyAggViewResultBatchClear(AggregationService aggregationService, ExprEvaluatorContext exprEvaluatorContext, EventBean[] newData, EventBean[] oldData, EventBean[] eventsPerStream) {
+        if (oldData != null && oldData.length > 0)
+        {
+            aggregationService.clearResults(exprEvaluatorContext);
+        }
+        applyAggViewResult(aggregationService, exprEvaluatorContext, newData, null, eventsPerStream);
+    }
+
     public static void applyAggJoinResult(AggregationService aggregationService, ExprEvaluatorContext exprEvaluatorContext, Set<MultiKey<EventBean>> newEvents, Set<MultiKey<EventBean>> oldEvents) {
         if (!newEvents.isEmpty())
         {
@@ -0,0 +1,314 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.db;
+
+import com.espertech.esper.epl.join.table.EventTable;
+import com.espertech.esper.schedule.TimeProvider;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Query result data cache implementation that serves lookups without locking and that bounds the
+ * cache by size and, optionally, by the age of entries.
+ * <p>
+ * Eviction follows a segmented least-recently-used policy: new entries enter a probation segment
+ * and entries that are looked up again while in probation are promoted to a protected segment that
+ * holds up to 80% of the maximum size. Entries that are used only once, such as the results of a scan over
+ * many distinct keys, therefore do not displace the entries that are frequently used.
+ * <p>
+ * Lookups do not reorder entries and only mark an entry as referenced, so that concurrent lookups do not contend.
+ * Adding an entry takes a lock and applies the recorded references when it evicts.
+ * Entries older than the maximum age are not returned and are removed by a later addition.
+ */
+public class DataCacheConcurrentImpl implements DataCache
+{
+    private static final double PROTECTED_SHARE = 0.8;
+
+    private final long maxSize;
+    private final long maxProtectedWeight;
+    private final long maxAgeMSec;
+    private final boolean weighByRowCount;
+    private final TimeProvider timeProvider;
+    private final DataCacheStatistics statistics;
+    private final ConcurrentHashMap<Object, Entry> cache = new ConcurrentHashMap<Object, Entry>();
+
+    // guarded by this
+    private final Segment probation = new Segment();
+    private final Segment protectedSegment = new Segment();
+    private long lastPurgeTime;
+
+    /**
+     * Ctor.
+     * @param maxSize is the maximum cache size, as the number of entries or, when weighing by row count, as the number of rows
+     * @param maxAgeSeconds is the maximum age in seconds, or zero for entries not to expire
+     * @param weighByRowCount true to weigh each entry by the number of rows it holds
+     * @param timeProvider provides the current time for aging entries
+     * @param statistics counts hits, misses and evictions
+     */
+    public DataCacheConcurrentImpl(int maxSize, double maxAgeSeconds, boolean weighByRowCount, TimeProvider timeProvider, DataCacheStatistics statistics)
+    {
+        this.maxSize = maxSize;
+        this.maxProtectedWeight = (long) (maxSize * PROTECTED_SHARE);
+        this.maxAgeMSec = (long) (maxAgeSeconds * 1000d);
+        this.weighByRowCount = weighByRowCount;
+        this.timeProvider = timeProvider;
+        this.statistics = statistics;
+    }
+
+    public EventTable[] getCached(Object[] lookupKeys)
+    {
+        Object key = DataCacheUtil.getLookupKey(lookupKeys);
+        Entry entry = cache.get(key);
+        if (entry == null || isExpired(entry, currentTime())) {
+            statistics.miss();
+            return null;
+        }
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        statistics.hit();
+        return entry.value;
+    }
+
+    public synchronized void put(Object[] lookupKeys, EventTable[] value)
+    {
+        Object key = DataCacheUtil.getLookupKey(lookupKeys);
+        long now = currentTime();
+        if (maxAgeMSec > 0 && now - lastPurgeTime >= maxAgeMSec) {
+            purge(now);
+            lastPurgeTime = now;
+        }
+
+        long weight = weigh(value);
+        if (weight > maxSize) {
+            Entry previous = cache.remove(key);
+            if (previous != null) {
+                previous.segment.unlink(previous);
+            }
+            return;
+        }
+
+        Entry entry = new Entry(key, value, now, weight);
+        Entry previous = cache.put(key, entry);
+        if (previous != null) {
+            previous.segment.unlink(previous);
+        }
+        probation.addLast(entry);
+        evict(entry, now);
+    }
+
+    public boolean isActive()
+    {
+        return true;
+    }
+
+    public synchronized void destroy()
+    {
+        cache.clear();
+        probation.clear();
+        protectedSegment.clear();
+    }
+
+    /**
+     * Returns the number of entries in cache, including entries that aged but were not yet removed.
+     * @return number of entries
+     */
+    public int getSize()
+    {
+        return cache.size();
+    }
+
+    /**
+     * Returns the total weight of the entries in cache.
+     * @return weight
+     */
+    public synchronized long getWeight()
+    {
+        return probation.weight + protectedSegment.weight;
+    }
+
+    /**
+     * Returns the maximum cache size.
+     * @return maximum size
+     */
+    public long getMaxSize()
+    {
+        return maxSize;
+    }
+
+    /**
+     * Returns the counters for hits, misses and evictions.
+     * @return statistics
+     */
+    public DataCacheStatistics getStatistics()
+    {
+        return statistics;
+    }
+
+    private void evict(Entry inserted, long now)
+    {
+        // referenced entries get one promotion per entry, as lookups may keep marking entries while evicting
+        int promotionsLeft = cache.size();
+        while (probation.weight + protectedSegment.weight > maxSize) {
+            Entry candidate = probation.head;
+            if (candidate == null || (candidate == inserted && protectedSegment.head != null)) {
+                candidate = protectedSegment.head;
+            }
+            else if (candidate.referenced && promotionsLeft > 0 && !isExpired(candidate, now)) {
+                promotionsLeft--;
+                candidate.referenced = false;
+                probation.unlink(candidate);
+                protectedSegment.addLast(candidate);
+                demote(promotionsLeft);
+                continue;
+            }
+            remove(candidate);
+            statistics.eviction();
+        }
+    }
+
+    private void demote(int secondChancesLeft)
+    {
+        while (protectedSegment.weight > maxProtectedWeight) {
+            Entry candidate = protectedSegment.head;
+            protectedSegment.unlink(candidate);
+            if (candidate.referenced && secondChancesLeft-- > 0) {
+                candidate.referenced = false;
+                protectedSegment.addLast(candidate);
+            }
+            else {
+                probation.addLast(candidate);
+            }
+        }
+    }
+
+    private void purge(long now)
+    {
+        purge(probation, now);
+        purge(protectedSegment, now);
+    }
+
+    private void purge(Segment segment, long now)
+    {
+        Entry entry = segment.head;
+        while (entry != null) {
+            Entry next = entry.next;
+            if (isExpired(entry, now)) {
+                remove(entry);
+                statistics.eviction();
+            }
+            entry = next;
+        }
+    }
+
+    private void remove(Entry entry)
+    {
+        entry.segment.unlink(entry);
+        cache.remove(entry.key, entry);
+    }
+
+    private boolean isExpired(Entry entry, long now)
+    {
+        return maxAgeMSec > 0 && now - entry.timestamp > maxAgeMSec;
+    }
+
+    private long currentTime()
+    {
+        return maxAgeMSec > 0 ? timeProvider.getTime() : 0;
+    }
+
+    private long weigh(EventTable[] value)
+    {
+        if (!weighByRowCount) {
+            return 1;
+        }
+        long rows = 0;
+        for (EventTable table : value) {
+            Integer numEvents = table.getNumberOfEvents();
+            if (numEvents != null) {
+                rows += numEvents;
+            }
+        }
+        return Math.max(1, rows);
+    }
+
+    private static class Entry
+    {
+        private final Object key;
+        private final EventTable[] value;
+        private final long timestamp;
+        private final long weight;
+        private volatile boolean referenced;
+
+        // guarded by the cache
+        private Segment segment;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(Object key, EventTable[] value, long timestamp, long weight)
+        {
+            this.key = key;
+            this.value = value;
+            this.timestamp = timestamp;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Entries of a segment in least-recently-used order, the head being the least recently used.
+     */
+    private static class Segment
+    {
+        private Entry head;
+        private Entry tail;
+        private long weight;
+
+        private void addLast(Entry entry)
+        {
+            entry.segment = this;
+            entry.prev = tail;
+            entry.next = null;
+            if (tail == null) {
+                head = entry;
+            }
+            else {
+                tail.next = entry;
+            }
+            tail = entry;
+            weight += entry.weight;
+        }
+
+        private void unlink(Entry entry)
+        {
+            if (entry.prev == null) {
+                head = entry.next;
+            }
+            else {
+                entry.prev.next = entry.next;
+            }
+            if (entry.next == null) {
+                tail = entry.prev;
+            }
+            else {
+                entry.next.prev = entry.prev;
+            }
+            entry.prev = null;
+            entry.next = null;
+            entry.segment = null;
+            weight -= entry.weight;
+        }
+
+        private void clear()
+        {
+            head = null;
+            tail = null;
+            weight = 0;
+        }
+    }
+}
@@ -8,6 +8,7 @@
  **************************************************************************************/
 package com.espertech.esper.epl.db;
 
+import com.espertech.esper.client.ConfigurationConcurrentCache;
 import com.espertech.esper.client.ConfigurationDataCache;
 import com.espertech.esper.client.ConfigurationLRUCache;
 import com.espertech.esper.client.ConfigurationExpiryTimeCache;
@@ -21,6 +22,8 @@ import com.espertech.esper.schedule.SchedulingService;
  */
 public class DataCacheFactory
 {
+    private final DataCacheStatistics statistics = new DataCacheStatistics();
+
     /**
      * Creates a cache implementation for the strategy as defined by the cache descriptor.
      * @param cacheDesc cache descriptor
@@ -52,9 +55,22 @@ public class DataCacheFactory
             return makeTimeCache(expCache, statementContext, epStatementAgentInstanceHandle, schedulingService, scheduleBucket, streamNum);
         }
 
+        if (cacheDesc instanceof ConfigurationConcurrentCache) {
+            ConfigurationConcurrentCache concurrentCache = (ConfigurationConcurrentCache) cacheDesc;
+            return new DataCacheConcurrentImpl(concurrentCache.getMaxSize(), concurrentCache.getMaxAgeSeconds(), concurrentCache.isWeighByRowCount(), schedulingService, statistics);
+        }
+
         throw new IllegalStateException("Cache implementation class not configured");
     }
 
+    /**
+     * Returns the hit, miss and eviction counters of all concurrent caches created by this factory.
+     * @return statistics
+     */
+    public DataCacheStatistics getStatistics() {
+        return statistics;
+    }
+
     protected DataCache makeTimeCache(ConfigurationExpiryTimeCache expCache, StatementContext statementContext, EPStatementAgentInstanceHandle epStatementAgentInstanceHandle, SchedulingService schedulingService, ScheduleBucket scheduleBucket, int streamNum) {
         return new DataCacheExpiringImpl(expCache.getMaxAgeSeconds(), expCache.getPurgeIntervalSeconds(), expCache.getCacheReferenceType(),
                 schedulingService, scheduleBucket.allocateSlot(), epStatementAgentInstanceHandle);
@@ -0,0 +1,74 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.db;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts lookups that found an entry in cache, lookups that did not, and entries that a cache evicted.
+ * <p>
+ * Counters can be shared by any number of caches and updated by any number of threads.
+ */
+public class DataCacheStatistics
+{
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Count a lookup that found an entry.
+     */
+    public void hit()
+    {
+        hits.increment();
+    }
+
+    /**
+     * Count a lookup that did not find an entry.
+     */
+    public void miss()
+    {
+        misses.increment();
+    }
+
+    /**
+     * Count an evicted entry.
+     */
+    public void eviction()
+    {
+        evictions.increment();
+    }
+
+    /**
+     * Returns the number of lookups that found an entry.
+     * @return hit count
+     */
+    public long getHits()
+    {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that did not find an entry.
+     * @return miss count
+     */
+    public long getMisses()
+    {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of entries evicted for size or age.
+     * @return eviction count
+     */
+    public long getEvictions()
+    {
+        return evictions.sum();
+    }
+}
@@ -11,6 +11,8 @@ package com.espertech.esper.epl.db;
 import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
 import com.espertech.esper.core.service.StatementContext;
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * Service providing database connection factory and configuration information
  * for use with historical data polling.
@@ -53,4 +55,26 @@ public interface DatabaseConfigService
      * @throws DatabaseConfigException is thrown to indicate database configuration errors
      */
     public DataCache getDataCache(String databaseName, StatementContext statementContext, EPStatementAgentInstanceHandle epStatementAgentInstanceHandle, DataCacheFactory dataCacheFactory, int streamNumber) throws DatabaseConfigException;
+
+    /**
+     * Returns the number of threads for executing the queries of a join lookup in parallel.
+     * @param databaseName is the name of the database
+     * @return number of polling threads, or zero for polling on the thread processing the event
+     * @throws DatabaseConfigException is thrown to indicate database configuration errors
+     */
+    public int getParallelPollingThreads(String databaseName) throws DatabaseConfigException;
+
+    /**
+     * Returns the executor for executing the queries of join lookups in parallel, shared by all statements polling the database.
+     * @param databaseName is the name of the database
+     * @param engineURI engine URI for naming polling threads
+     * @return executor, or null for polling on the thread processing the event
+     * @throws DatabaseConfigException is thrown to indicate database configuration errors
+     */
+    public ExecutorService getParallelPollingExecutor(String databaseName, String engineURI) throws DatabaseConfigException;
+
+    /**
+     * Destroy the service, shutting down the parallel polling executors.
+     */
+    public void destroy();
 }
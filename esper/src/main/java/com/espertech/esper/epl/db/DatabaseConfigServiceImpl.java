@@ -12,11 +12,19 @@ import com.espertech.esper.client.ConfigurationDBRef;
 import com.espertech.esper.client.ConfigurationDataCache;
 import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
 import com.espertech.esper.core.service.StatementContext;
+import com.espertech.esper.core.thread.EngineThreadFactory;
 import com.espertech.esper.schedule.SchedulingService;
 import com.espertech.esper.schedule.ScheduleBucket;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.util.Map;
 import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementation provides database instance services such as connection factory and
@@ -24,10 +32,14 @@ import java.util.HashMap;
  */
 public class DatabaseConfigServiceImpl implements DatabaseConfigService
 {
+    private static final Logger log = LoggerFactory.getLogger(DatabaseConfigServiceImpl.class);
+    private static final long EXECUTOR_TERMINATION_WAIT_MSEC = 10000;
+
     private final Map<String, ConfigurationDBRef> mapDatabaseRef;
     private final Map<String, DatabaseConnectionFactory> connectionFactories;
     private final SchedulingService schedulingService;
     private final ScheduleBucket scheduleBucket;
+    private final Map<String, ThreadPoolExecutor> parallelPollingExecutors;
 
     /**
      * Ctor.
@@ -43,6 +55,7 @@ public class DatabaseConfigServiceImpl implements DatabaseConfigService
         this.connectionFactories = new HashMap<String, DatabaseConnectionFactory>();
         this.schedulingService = schedulingService;
         this.scheduleBucket = scheduleBucket;
+        this.parallelPollingExecutors = new HashMap<String, ThreadPoolExecutor>();
     }
 
     public ConnectionCache getConnectionCache(String databaseName, String preparedStatementText) throws DatabaseConfigException
@@ -66,7 +79,7 @@ public class DatabaseConfigServiceImpl implements DatabaseConfigService
         }
     }
 
-    public DatabaseConnectionFactory getConnectionFactory(String databaseName) throws DatabaseConfigException
+    public synchronized DatabaseConnectionFactory getConnectionFactory(String databaseName) throws DatabaseConfigException
     {
         // check if we already have a reference
         DatabaseConnectionFactory factory = connectionFactories.get(databaseName);
@@ -131,4 +144,60 @@ public class DatabaseConfigServiceImpl implements DatabaseConfigService
         }
         return new ColumnSettings(config.getMetadataRetrievalEnum(), config.getColumnChangeCase(), config.getSqlTypesMapping());
     }
+
+    public int getParallelPollingThreads(String databaseName) throws DatabaseConfigException
+    {
+        ConfigurationDBRef config = mapDatabaseRef.get(databaseName);
+        if (config == null)
+        {
+            throw new DatabaseConfigException("Cannot locate configuration information for database '" + databaseName + '\'');
+        }
+        return config.getParallelPollingThreads();
+    }
+
+    public synchronized ExecutorService getParallelPollingExecutor(String databaseName, String engineURI) throws DatabaseConfigException
+    {
+        ThreadPoolExecutor executor = parallelPollingExecutors.get(databaseName);
+        if (executor != null)
+        {
+            return executor;
+        }
+        int numThreads = getParallelPollingThreads(databaseName);
+        if (numThreads <= 0)
+        {
+            return null;
+        }
+
+        String name = "DatabasePolling-" + databaseName;
+        ThreadGroup threadGroup = new ThreadGroup("com.espertech.esper." + engineURI + "-" + name);
+        executor = new ThreadPoolExecutor(numThreads, numThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new EngineThreadFactory(engineURI, name, threadGroup, Thread.NORM_PRIORITY));
+        executor.allowCoreThreadTimeOut(true);
+        parallelPollingExecutors.put(databaseName, executor);
+        return executor;
+    }
+
+    public synchronized void destroy()
+    {
+        for (ThreadPoolExecutor executor : parallelPollingExecutors.values())
+        {
+            executor.shutdown();
+        }
+        for (Map.Entry<String, ThreadPoolExecutor> entry : parallelPollingExecutors.entrySet())
+        {
+            try
+            {
+                if (!entry.getValue().awaitTermination(EXECUTOR_TERMINATION_WAIT_MSEC, TimeUnit.MILLISECONDS))
+                {
+                    log.warn("Parallel polling threads for database '" + entry.getKey() + "' did not terminate within " + EXECUTOR_TERMINATION_WAIT_MSEC + " msec, interrupting");
+                    entry.getValue().shutdownNow();
+                }
+            }
+            catch (InterruptedException e)
+            {
+                entry.getValue().shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        parallelPollingExecutors.clear();
+    }
 }
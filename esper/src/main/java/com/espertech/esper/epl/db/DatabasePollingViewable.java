@@ -40,6 +40,7 @@ public class DatabasePollingViewable implements HistoricalEventViewable
 {
     private final int myStreamNumber;
     private final PollExecStrategy pollExecStrategy;
+    private final PollExecParallel pollExecParallel;
     private final List<String> inputParameters;
     private final DataCache dataCache;
     private final EventType eventType;
@@ -80,10 +81,30 @@ public class DatabasePollingViewable implements HistoricalEventViewable
                            PollExecStrategy pollExecStrategy,
                            DataCache dataCache,
                            EventType eventType)
+    {
+        this(myStreamNumber, inputParameters, pollExecStrategy, null, dataCache, eventType);
+    }
+
+    /**
+     * Ctor.
+     * @param myStreamNumber is the stream number of the view
+     * @param inputParameters are the event property names providing input parameter keys
+     * @param pollExecStrategy is the strategy to use for retrieving results
+     * @param pollExecParallel is the parallel execution of polls for multiple lookup keys, or null to poll on the calling thread
+     * @param dataCache is looked up before using the strategy
+     * @param eventType is the type of events generated by the view
+     */
+    public DatabasePollingViewable(int myStreamNumber,
+                           List<String> inputParameters,
+                           PollExecStrategy pollExecStrategy,
+                           PollExecParallel pollExecParallel,
+                           DataCache dataCache,
+                           EventType eventType)
     {
         this.myStreamNumber = myStreamNumber;
         this.inputParameters = inputParameters;
         this.pollExecStrategy = pollExecStrategy;
+        this.pollExecParallel = pollExecParallel;
         this.dataCache = dataCache;
         this.eventType = eventType;
     }
@@ -91,6 +112,9 @@ public class DatabasePollingViewable implements HistoricalEventViewable
     public void stop()
     {
         pollExecStrategy.destroy();
+        if (pollExecParallel != null) {
+            pollExecParallel.destroy();
+        }
         dataCache.destroy();
     }
 
@@ -140,6 +164,11 @@ public class DatabasePollingViewable implements HistoricalEventViewable
 
     public EventTable[][] poll(EventBean[][] lookupEventsPerStream, PollResultIndexingStrategy indexingStrategy, ExprEvaluatorContext exprEvaluatorContext)
     {
+        if (pollExecParallel != null && lookupEventsPerStream.length > 1)
+        {
+            return pollParallel(lookupEventsPerStream, indexingStrategy, exprEvaluatorContext);
+        }
+
         DataCache localDataCache = dataCacheThreadLocal.get();
         boolean strategyStarted = false;
 
@@ -231,6 +260,82 @@ public class DatabasePollingViewable implements HistoricalEventViewable
         return resultPerInputRow;
     }
 
+    private EventTable[][] pollParallel(EventBean[][] lookupEventsPerStream, PollResultIndexingStrategy indexingStrategy, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        DataCache localDataCache = dataCacheThreadLocal.get();
+        EventTable[][] resultPerInputRow = new EventTable[lookupEventsPerStream.length][];
+
+        // Use cached results and collect the distinct lookup keys not found in cache
+        Map<Object, Integer> pollNumPerKey = new HashMap<Object, Integer>();
+        List<Object[]> pollLookupValues = new ArrayList<Object[]>();
+        int[] pollNumPerRow = new int[lookupEventsPerStream.length];
+        for (int row = 0; row < lookupEventsPerStream.length; row++)
+        {
+            Object[] lookupValues = new Object[inputParameters.size()];
+            for (int valueNum = 0; valueNum < inputParameters.size(); valueNum++)
+            {
+                lookupValues[valueNum] = evaluators[valueNum].evaluate(lookupEventsPerStream[row], true, exprEvaluatorContext);
+            }
+
+            EventTable[] result = null;
+            if (localDataCache != null)
+            {
+                result = localDataCache.getCached(lookupValues);
+            }
+            if (result == null)
+            {
+                result = dataCache.getCached(lookupValues);
+                if (result != null && localDataCache != null) {
+                    localDataCache.put(lookupValues, result);
+                }
+            }
+            if (result != null)
+            {
+                resultPerInputRow[row] = result;
+                pollNumPerRow[row] = -1;
+                continue;
+            }
+
+            Object key = DataCacheUtil.getLookupKey(lookupValues);
+            Integer pollNum = pollNumPerKey.get(key);
+            if (pollNum == null)
+            {
+                pollNum = pollLookupValues.size();
+                pollNumPerKey.put(key, pollNum);
+                pollLookupValues.add(lookupValues);
+            }
+            pollNumPerRow[row] = pollNum;
+        }
+
+        if (pollLookupValues.isEmpty())
+        {
+            return resultPerInputRow;
+        }
+
+        // Poll for the distinct keys in parallel, then index and cache in key order
+        List<EventBean>[] pollResults = pollExecParallel.poll(pollLookupValues, exprEvaluatorContext);
+        EventTable[][] indexTables = new EventTable[pollResults.length][];
+        for (int i = 0; i < pollResults.length; i++)
+        {
+            indexTables[i] = indexingStrategy.index(pollResults[i], dataCache.isActive(), statementContext);
+            dataCache.put(pollLookupValues.get(i), indexTables[i]);
+            if (localDataCache != null)
+            {
+                localDataCache.put(pollLookupValues.get(i), indexTables[i]);
+            }
+        }
+
+        // Assign in event order
+        for (int row = 0; row < lookupEventsPerStream.length; row++)
+        {
+            if (pollNumPerRow[row] != -1)
+            {
+                resultPerInputRow[row] = indexTables[pollNumPerRow[row]];
+            }
+        }
+        return resultPerInputRow;
+    }
+
     public View addView(View view)
     {
         view.setParent(this);
@@ -35,6 +35,7 @@ import java.io.StringReader;
 import java.io.StringWriter;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Factory for a view onto historical data via SQL statement.
@@ -255,10 +256,14 @@ public class DatabasePollingViewableFactory
         // Get a proper connection and data cache
         ConnectionCache connectionCache;
         DataCache dataCache;
+        ExecutorService parallelPollingExecutor;
+        int parallelPollingThreads;
         try
         {
             connectionCache = databaseConfigService.getConnectionCache(databaseName, preparedStatementText);
             dataCache = databaseConfigService.getDataCache(databaseName, statementContext, epStatementAgentInstanceHandle, dataCacheFactory, streamNumber);
+            parallelPollingExecutor = databaseConfigService.getParallelPollingExecutor(databaseName, statementContext.getEngineURI());
+            parallelPollingThreads = databaseConfigService.getParallelPollingThreads(databaseName);
         }
         catch (DatabaseConfigException e)
         {
@@ -270,7 +275,15 @@ public class DatabasePollingViewableFactory
         PollExecStrategyDBQuery dbPollStrategy = new PollExecStrategyDBQuery(eventAdapterService,
                 eventType, connectionCache, preparedStatementText, queryMetaData.getOutputParameters(), columnTypeConversionHook, outputRowConversionHook, enableJDBCLogging);
 
-        return new DatabasePollingViewable(streamNumber, queryMetaData.getInputParameters(), dbPollStrategy, dataCache, eventType);
+        // Polls in parallel run on the executor shared by the statements polling the database, each with its own strategy and connection
+        PollExecParallel pollExecParallel = null;
+        if (parallelPollingExecutor != null) {
+            PollExecStrategyFactory strategyFactory = new PollExecStrategyDBQueryFactory(databaseConfigService, databaseName, eventAdapterService,
+                    eventType, preparedStatementText, queryMetaData.getOutputParameters(), columnTypeConversionHook, outputRowConversionHook, enableJDBCLogging);
+            pollExecParallel = new PollExecParallel(parallelPollingExecutor, parallelPollingThreads, strategyFactory);
+        }
+
+        return new DatabasePollingViewable(streamNumber, queryMetaData.getInputParameters(), dbPollStrategy, pollExecParallel, dataCache, eventType);
     }
 
     private static QueryMetaData getExampleQueryMetaData(Connection connection, String[] parameters, String sampleSQL, ColumnSettings metadataSetting, boolean isUsingMetadataSQL)
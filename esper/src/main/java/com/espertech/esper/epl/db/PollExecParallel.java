@@ -0,0 +1,202 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.db;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Executes the polls for multiple lookup keys in parallel.
+ * <p>
+ * Polls run on an executor that is shared by all statements polling the same database.
+ * Each poll uses one of the statement's polling execution strategies, which each hold their own resources such as a database connection.
+ * Strategies are made when first needed, up to the maximum number of strategies, and a strategy executes one poll at a time.
+ */
+public class PollExecParallel
+{
+    private static final Logger log = LoggerFactory.getLogger(PollExecParallel.class);
+    private static final long DESTROY_WAIT_MSEC = 10000;
+
+    private final ExecutorService executor;
+    private final int maxStrategies;
+    private final PollExecStrategyFactory strategyFactory;
+    private final ArrayDeque<PollExecStrategy> idleStrategies = new ArrayDeque<PollExecStrategy>();
+    private int numStrategies;
+    private int numInUse;
+    private boolean destroyed;
+
+    /**
+     * Ctor.
+     * @param executor executor for polls, shared by the statements polling the same database
+     * @param maxStrategies maximum number of polling execution strategies
+     * @param strategyFactory factory for polling execution strategies
+     */
+    public PollExecParallel(ExecutorService executor, int maxStrategies, PollExecStrategyFactory strategyFactory)
+    {
+        this.executor = executor;
+        this.maxStrategies = maxStrategies;
+        this.strategyFactory = strategyFactory;
+    }
+
+    /**
+     * Poll for each of the lookup keys, waiting for all polls to complete.
+     * @param lookupValues keys for each poll
+     * @param exprEvaluatorContext context
+     * @return poll result for each key, in the order of keys
+     */
+    public List<EventBean>[] poll(List<Object[]> lookupValues, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        List<EventBean>[] results = new List[lookupValues.size()];
+
+        // a single key does not need the hand-off to a polling thread
+        if (lookupValues.size() == 1) {
+            results[0] = pollWithStrategy(lookupValues.get(0), exprEvaluatorContext);
+            return results;
+        }
+
+        Future<List<EventBean>>[] futures = new Future[lookupValues.size()];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = executor.submit(new PollCallable(lookupValues.get(i), exprEvaluatorContext));
+        }
+
+        for (int i = 0; i < futures.length; i++) {
+            try {
+                results[i] = futures[i].get();
+            }
+            catch (InterruptedException ex) {
+                cancel(futures);
+                Thread.currentThread().interrupt();
+                throw new EPException("Interrupted while waiting for polling results", ex);
+            }
+            catch (ExecutionException ex) {
+                cancel(futures);
+                if (ex.getCause() instanceof EPException) {
+                    throw (EPException) ex.getCause();
+                }
+                throw new EPException("Error polling: " + ex.getCause().getMessage(), ex.getCause());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Destroy the strategies, waiting for polls in flight to complete before destroying the strategies they use.
+     * The executor is shared and is not shut down.
+     */
+    public synchronized void destroy()
+    {
+        destroyed = true;
+        for (PollExecStrategy strategy : idleStrategies) {
+            strategy.destroy();
+        }
+        idleStrategies.clear();
+        notifyAll();
+
+        long deadline = System.currentTimeMillis() + DESTROY_WAIT_MSEC;
+        while (numInUse > 0) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                log.warn("Polls still in flight after waiting " + DESTROY_WAIT_MSEC + " msec, their strategies are destroyed when the polls complete");
+                return;
+            }
+            try {
+                wait(remaining);
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private List<EventBean> pollWithStrategy(Object[] lookupValues, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        PollExecStrategy strategy = acquireStrategy();
+        try {
+            strategy.start();
+            try {
+                return strategy.poll(lookupValues, exprEvaluatorContext);
+            }
+            finally {
+                strategy.done();
+            }
+        }
+        finally {
+            releaseStrategy(strategy);
+        }
+    }
+
+    private synchronized PollExecStrategy acquireStrategy()
+    {
+        while (true) {
+            if (destroyed) {
+                throw new EPException("Polling strategies have been destroyed");
+            }
+            PollExecStrategy strategy = idleStrategies.poll();
+            if (strategy == null && numStrategies < maxStrategies) {
+                strategy = strategyFactory.make();
+                numStrategies++;
+            }
+            if (strategy != null) {
+                numInUse++;
+                return strategy;
+            }
+            try {
+                wait();
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new EPException("Interrupted while waiting for a polling strategy", ex);
+            }
+        }
+    }
+
+    private synchronized void releaseStrategy(PollExecStrategy strategy)
+    {
+        numInUse--;
+        if (destroyed) {
+            strategy.destroy();
+        }
+        else {
+            idleStrategies.add(strategy);
+        }
+        notifyAll();
+    }
+
+    private static void cancel(Future[] futures)
+    {
+        for (Future future : futures) {
+            future.cancel(false);
+        }
+    }
+
+    private class PollCallable implements Callable<List<EventBean>>
+    {
+        private final Object[] lookupValues;
+        private final ExprEvaluatorContext exprEvaluatorContext;
+
+        private PollCallable(Object[] lookupValues, ExprEvaluatorContext exprEvaluatorContext)
+        {
+            this.lookupValues = lookupValues;
+            this.exprEvaluatorContext = exprEvaluatorContext;
+        }
+
+        public List<EventBean> call()
+        {
+            return pollWithStrategy(lookupValues, exprEvaluatorContext);
+        }
+    }
+}
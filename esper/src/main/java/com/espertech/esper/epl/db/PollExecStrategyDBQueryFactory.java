@@ -0,0 +1,81 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.db;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.hook.SQLColumnTypeConversion;
+import com.espertech.esper.client.hook.SQLOutputRowConversion;
+import com.espertech.esper.event.EventAdapterService;
+
+import java.util.Map;
+
+/**
+ * Factory for database query polling execution strategies that each obtain their own connection cache.
+ */
+public class PollExecStrategyDBQueryFactory implements PollExecStrategyFactory
+{
+    private final DatabaseConfigService databaseConfigService;
+    private final String databaseName;
+    private final EventAdapterService eventAdapterService;
+    private final EventType eventType;
+    private final String preparedStatementText;
+    private final Map<String, DBOutputTypeDesc> outputTypes;
+    private final SQLColumnTypeConversion columnTypeConversionHook;
+    private final SQLOutputRowConversion outputRowConversionHook;
+    private final boolean enableJDBCLogging;
+
+    /**
+     * Ctor.
+     * @param databaseConfigService for obtaining connection caches
+     * @param databaseName is the name of the database
+     * @param eventAdapterService for generating event beans
+     * @param eventType is the event type that polls generate
+     * @param preparedStatementText is the SQL to use for polling
+     * @param outputTypes describe columns selected by the SQL
+     * @param columnTypeConversionHook hook to convert columns, if any hook is registered
+     * @param outputRowConversionHook hook to convert rows, if any hook is registered
+     * @param enableJDBCLogging jdbc logging flag
+     */
+    public PollExecStrategyDBQueryFactory(DatabaseConfigService databaseConfigService,
+                                          String databaseName,
+                                          EventAdapterService eventAdapterService,
+                                          EventType eventType,
+                                          String preparedStatementText,
+                                          Map<String, DBOutputTypeDesc> outputTypes,
+                                          SQLColumnTypeConversion columnTypeConversionHook,
+                                          SQLOutputRowConversion outputRowConversionHook,
+                                          boolean enableJDBCLogging)
+    {
+        this.databaseConfigService = databaseConfigService;
+        this.databaseName = databaseName;
+        this.eventAdapterService = eventAdapterService;
+        this.eventType = eventType;
+        this.preparedStatementText = preparedStatementText;
+        this.outputTypes = outputTypes;
+        this.columnTypeConversionHook = columnTypeConversionHook;
+        this.outputRowConversionHook = outputRowConversionHook;
+        this.enableJDBCLogging = enableJDBCLogging;
+    }
+
+    public PollExecStrategy make()
+    {
+        ConnectionCache connectionCache;
+        try
+        {
+            connectionCache = databaseConfigService.getConnectionCache(databaseName, preparedStatementText);
+        }
+        catch (DatabaseConfigException e)
+        {
+            throw new EPException("Error obtaining connection cache for database '" + databaseName + "': " + e.getMessage(), e);
+        }
+        return new PollExecStrategyDBQuery(eventAdapterService, eventType, connectionCache, preparedStatementText, outputTypes,
+                columnTypeConversionHook, outputRowConversionHook, enableJDBCLogging);
+    }
+}
@@ -6,23 +6,16 @@
  * The software in this package is published under the terms of the GPL license       *
  * a copy of which has been included with this distribution in the license.txt file.  *
  **************************************************************************************/
-package com.espertech.esper.collection;
+package com.espertech.esper.epl.db;
 
-import java.util.ArrayDeque;
-
-public final class TimeWindowIterator extends MixedEventBeanAndCollectionIteratorBase
+/**
+ * Factory for polling execution strategies that each hold their own resources, such as a database connection.
+ */
+public interface PollExecStrategyFactory
 {
     /**
-     * Ctor.
-     * @param window is the time-slotted collection
+     * Make a new polling execution strategy.
+     * @return strategy
      */
-    public TimeWindowIterator(ArrayDeque<TimeWindowPair> window)
-    {
-        super(window.iterator());
-        init();
-    }
-
-    protected Object getValue(Object iteratorKeyValue) {
-        return ((TimeWindowPair) iteratorKeyValue).getEventHolder();
-    }
+    public PollExecStrategy make();
 }
@@ -0,0 +1,45 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.core;
+
+import com.espertech.esper.client.EventBean;
+
+/**
+ * Evaluator that, in addition to returning a boxed result, can return its result as a primitive value without boxing.
+ * <p>
+ * The primitive methods may only be called when {@link #hasValue(EventBean[])} returns true, a null result
+ * can only be obtained from {@link #evaluate(EventBean[], boolean, ExprEvaluatorContext)}.
+ */
+public interface ExprEvaluatorPrimitive extends ExprEvaluator
+{
+    /**
+     * Returns false if the result would be null, in which case the primitive methods cannot be used.
+     * @param eventsPerStream - event tuple
+     * @return indicator whether a primitive value is available
+     */
+    public boolean hasValue(EventBean[] eventsPerStream);
+
+    /**
+     * Evaluate event tuple and return the result as a double.
+     * @param eventsPerStream - event tuple
+     * @param isNewData - indicates whether we are dealing with new data (istream) or old data (rstream)
+     * @param context context for expression evaluation
+     * @return result
+     */
+    public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context);
+
+    /**
+     * Evaluate event tuple and return the result as a long, for integral result types.
+     * @param eventsPerStream - event tuple
+     * @param isNewData - indicates whether we are dealing with new data (istream) or old data (rstream)
+     * @param context context for expression evaluation
+     * @return result
+     */
+    public long evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context);
+}
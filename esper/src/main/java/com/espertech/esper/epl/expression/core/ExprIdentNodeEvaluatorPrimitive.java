@@ -0,0 +1,128 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.core;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.event.bean.BeanEventType;
+import com.espertech.esper.event.bean.InternalEventPropDescriptor;
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Evaluator for a primitive numeric property of a Java object event that reads the property value without boxing.
+ * <p>
+ * The read method or public field is accessed through a method handle that is adapted to return a primitive double or long.
+ * The boxed evaluation is delegated to the regular identifier evaluator.
+ */
+public class ExprIdentNodeEvaluatorPrimitive implements ExprEvaluatorPrimitive
+{
+    private final ExprIdentNodeEvaluator evaluator;
+    private final int streamNum;
+    private final String propertyName;
+    private final MethodHandle doubleReader;
+    private final MethodHandle longReader;
+
+    private ExprIdentNodeEvaluatorPrimitive(ExprIdentNodeEvaluator evaluator, int streamNum, String propertyName, MethodHandle doubleReader, MethodHandle longReader) {
+        this.evaluator = evaluator;
+        this.streamNum = streamNum;
+        this.propertyName = propertyName;
+        this.doubleReader = doubleReader;
+        this.longReader = longReader;
+    }
+
+    /**
+     * Returns a primitive evaluator for the identifier node, or null if the node does not refer to a primitive numeric
+     * property of a Java object event type or if the property cannot be accessed through a method handle.
+     * @param identNode validated identifier node
+     * @param eventType event type of the stream the identifier refers to
+     * @return evaluator or null if not applicable
+     */
+    public static ExprEvaluatorPrimitive make(ExprIdentNode identNode, EventType eventType) {
+        ExprIdentNodeEvaluator evaluator = identNode.getExprEvaluatorIdent();
+        if (!(evaluator instanceof ExprIdentNodeEvaluatorImpl) || !(eventType instanceof BeanEventType)) {
+            return null;
+        }
+        InternalEventPropDescriptor desc = ((BeanEventType) eventType).getSimpleProperty(identNode.getResolvedPropertyName());
+        if (desc == null) {
+            return null;
+        }
+        Class type = desc.getReturnType();
+        if (!type.isPrimitive() || JavaClassHelper.getBoxedType(type) != JavaClassHelper.getBoxedType(evaluator.getType())) {
+            return null;
+        }
+        boolean integral = type == int.class || type == long.class || type == short.class || type == byte.class;
+        if (!integral && type != double.class && type != float.class) {
+            return null;
+        }
+
+        MethodHandle reader;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            if (desc.getReadMethod() != null) {
+                reader = lookup.unreflect(desc.getReadMethod());
+            }
+            else {
+                reader = lookup.unreflectGetter(desc.getAccessorField());
+            }
+        }
+        catch (IllegalAccessException ex) {
+            // the declaring class is not accessible, use the regular getter
+            return null;
+        }
+        reader = reader.asType(MethodType.methodType(type, Object.class));
+        MethodHandle doubleReader = reader.asType(MethodType.methodType(double.class, Object.class));
+        MethodHandle longReader = integral ? reader.asType(MethodType.methodType(long.class, Object.class)) : null;
+        return new ExprIdentNodeEvaluatorPrimitive(evaluator, evaluator.getStreamNum(), desc.getPropertyName(), doubleReader, longReader);
+    }
+
+    public Object evaluate(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return evaluator.evaluate(eventsPerStream, isNewData, context);
+    }
+
+    public Class getType() {
+        return evaluator.getType();
+    }
+
+    public boolean hasValue(EventBean[] eventsPerStream) {
+        return eventsPerStream[streamNum] != null;
+    }
+
+    public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        try {
+            return (double) doubleReader.invokeExact(eventsPerStream[streamNum].getUnderlying());
+        }
+        catch (Throwable t) {
+            throw handle(t);
+        }
+    }
+
+    public long evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        if (longReader == null) {
+            return (long) evaluateDouble(eventsPerStream, isNewData, context);
+        }
+        try {
+            return (long) longReader.invokeExact(eventsPerStream[streamNum].getUnderlying());
+        }
+        catch (Throwable t) {
+            throw handle(t);
+        }
+    }
+
+    private RuntimeException handle(Throwable t) {
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return new PropertyAccessException("Failed to obtain value for property '" + propertyName + "': " + t.getMessage(), t);
+    }
+}
@@ -0,0 +1,77 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.methodagg;
+
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.expression.core.ExprNodeUtility;
+import com.espertech.esper.epl.expression.core.ExprValidationContext;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+import com.espertech.esper.epl.expression.core.ExprWildcard;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNode;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+
+/**
+ * Represents the approxCountDistinct(...) aggregate function is an expression tree.
+ * <p>
+ * The function always counts distinct values, the distinct keyword is allowed and has no effect.
+ */
+public class ExprApproxCountDistinctNode extends ExprAggregateNodeBase
+{
+    private static final long serialVersionUID = -3467928412830473264L;
+
+    private boolean hasFilter;
+
+    /**
+     * Ctor.
+     * @param distinct - flag indicating unique or non-unique value aggregation
+     */
+    public ExprApproxCountDistinctNode(boolean distinct)
+    {
+        super(distinct);
+    }
+
+    public AggregationMethodFactory validateAggregationChild(ExprValidationContext validationContext) throws ExprValidationException
+    {
+        if (positionalParams.length > 2 || positionalParams.length == 0) {
+            throw makeExceptionExpectedParamNum(1, 2);
+        }
+        if (positionalParams[0] instanceof ExprWildcard) {
+            throw new ExprValidationException("Invalid use of wildcard with aggregation function '" + getAggregationFunctionName() + "'");
+        }
+        hasFilter = positionalParams.length == 2;
+        if (hasFilter) {
+            super.validateFilter(positionalParams[1].getExprEvaluator());
+        }
+        // the sketch cannot remove values, therefore the approximation is only for streams without a remove stream
+        if (ExprNodeUtility.hasRemoveStreamForAggregations(positionalParams[0], validationContext.getStreamTypeService(), validationContext.isResettingAggregations())) {
+            throw new ExprValidationException("The " + getAggregationFunctionName() + " aggregation function requires a stream without data window, values leaving a data window cannot be removed from the sketch, use count(distinct ...) instead");
+        }
+        Class childType = positionalParams[0].getExprEvaluator().getType();
+        return validationContext.getEngineImportService().getAggregationFactoryFactory().makeApproxCountDistinct(validationContext.getStatementExtensionSvcContext(), this, childType);
+    }
+
+    public String getAggregationFunctionName()
+    {
+        return "approxCountDistinct";
+    }
+
+    protected boolean equalsNodeAggregateMethodOnly(ExprAggregateNode node)
+    {
+        if (!(node instanceof ExprApproxCountDistinctNode))
+        {
+            return false;
+        }
+
+        return true;
+    }
+
+    public boolean isHasFilter() {
+        return hasFilter;
+    }
+}
@@ -30,6 +30,15 @@ public class ExprMethodAggUtil {
             else {
                 // Use the evaluation node under the aggregation node to obtain the aggregation value
                 evaluator = childNodes[0].getExprEvaluator();
+
+                // A primitive property of a single non-joined stream can be read without boxing
+                if (!join && typesPerStream != null && typesPerStream.length == 1 && childNodes[0] instanceof ExprIdentNode) {
+                    ExprIdentNode identNode = (ExprIdentNode) childNodes[0];
+                    ExprEvaluator primitive = identNode.getStreamId() == 0 ? ExprIdentNodeEvaluatorPrimitive.make(identNode, typesPerStream[0]) : null;
+                    if (primitive != null) {
+                        evaluator = primitive;
+                    }
+                }
             }
         }
         // For aggregation that doesn't evaluate any particular sub-expression, return null on evaluation
@@ -0,0 +1,102 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.methodagg;
+
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprNodeUtility;
+import com.espertech.esper.epl.expression.core.ExprValidationContext;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNode;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Represents the percentile(...) and approxPercentile(...) aggregate functions is an expression tree.
+ */
+public class ExprPercentileAggNode extends ExprAggregateNodeBase
+{
+    private static final long serialVersionUID = 4390719421596741502L;
+
+    private final boolean approximate;
+    private double percentile;
+
+    /**
+     * Ctor.
+     * @param distinct - flag indicating unique or non-unique value aggregation
+     * @param approximate - true for the approximate percentile computed from a digest
+     */
+    public ExprPercentileAggNode(boolean distinct, boolean approximate)
+    {
+        super(distinct);
+        this.approximate = approximate;
+    }
+
+    public AggregationMethodFactory validateAggregationChild(ExprValidationContext validationContext) throws ExprValidationException
+    {
+        String message = "The " + getAggregationFunctionName() + " aggregation function requires two parameters, an expression returning numeric values and a constant percentile between 0 and 1";
+        if (this.positionalParams.length != 2) {
+            throw new ExprValidationException(message);
+        }
+
+        ExprNode first = this.positionalParams[0];
+        ExprNode second = this.positionalParams[1];
+        Class childType = first.getExprEvaluator().getType();
+        if (!JavaClassHelper.isNumeric(childType)) {
+            throw new ExprValidationException("Implicit conversion from datatype '" +
+                    (childType == null ? "null" : childType.getSimpleName()) +
+                    "' to numeric is not allowed for aggregation function '" + getAggregationFunctionName() + "'");
+        }
+        if (!second.isConstantResult() || !JavaClassHelper.isNumeric(second.getExprEvaluator().getType())) {
+            throw new ExprValidationException(message);
+        }
+
+        Number num = (Number) second.getExprEvaluator().evaluate(null, true, validationContext.getExprEvaluatorContext());
+        if (num == null || !(num.doubleValue() >= 0 && num.doubleValue() <= 1)) {
+            throw new ExprValidationException(message);
+        }
+        percentile = num.doubleValue();
+
+        // the digest cannot remove values, therefore the approximation is only for streams without a remove stream
+        if (approximate && ExprNodeUtility.hasRemoveStreamForAggregations(first, validationContext.getStreamTypeService(), validationContext.isResettingAggregations())) {
+            throw new ExprValidationException("The " + getAggregationFunctionName() + " aggregation function requires a stream without data window, values leaving a data window cannot be removed from the digest, use the percentile aggregation function instead");
+        }
+
+        return validationContext.getEngineImportService().getAggregationFactoryFactory().makePercentile(validationContext.getStatementExtensionSvcContext(), this, childType, percentile);
+    }
+
+    public String getAggregationFunctionName()
+    {
+        return approximate ? "approxPercentile" : "percentile";
+    }
+
+    public final boolean equalsNodeAggregateMethodOnly(ExprAggregateNode node)
+    {
+        if (!(node instanceof ExprPercentileAggNode)) {
+            return false;
+        }
+        return ((ExprPercentileAggNode) node).approximate == approximate;
+    }
+
+    /**
+     * Returns true for the approximate percentile.
+     * @return indicator
+     */
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    /**
+     * Returns the percentile, available after validation.
+     * @return percentile between zero and one
+     */
+    public double getPercentile() {
+        return percentile;
+    }
+}
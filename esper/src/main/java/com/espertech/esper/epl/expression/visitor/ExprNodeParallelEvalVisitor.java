@@ -0,0 +1,91 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.visitor;
+
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNode;
+import com.espertech.esper.epl.expression.core.*;
+import com.espertech.esper.epl.expression.funcs.*;
+import com.espertech.esper.epl.expression.ops.*;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Visitor that determines whether an expression can be evaluated on multiple threads concurrently
+ * for different events and aggregation rows.
+ * <p>
+ * Accepts event properties, constants, context properties, operators, a set of built-in functions and aggregation functions,
+ * which read the event and aggregation state only. Rejects all other expressions, such as subqueries, table access,
+ * previous and prior, variables, enumeration methods, declared expressions, scripts and user-defined functions,
+ * that may use caches or other state of the statement.
+ * The parameter expressions of aggregation functions are not visited since they are not evaluated when reading aggregation state.
+ */
+public class ExprNodeParallelEvalVisitor implements ExprNodeVisitor
+{
+    private final Map<ExprNode, Object> aggregationParams = new IdentityHashMap<ExprNode, Object>();
+    private boolean parallelSafe = true;
+
+    public boolean isVisit(ExprNode exprNode)
+    {
+        return parallelSafe && !aggregationParams.containsKey(exprNode);
+    }
+
+    public void visit(ExprNode exprNode)
+    {
+        if (exprNode instanceof ExprAggregateNode) {
+            for (ExprNode param : exprNode.getChildNodes()) {
+                aggregationParams.put(param, null);
+            }
+            return;
+        }
+        if (!isParallelSafeNode(exprNode)) {
+            parallelSafe = false;
+        }
+    }
+
+    /**
+     * Returns true if all visited expressions can be evaluated concurrently.
+     * @return indicator
+     */
+    public boolean isParallelSafe()
+    {
+        return parallelSafe;
+    }
+
+    private static boolean isParallelSafeNode(ExprNode exprNode)
+    {
+        if (exprNode instanceof ExprIdentNode ||
+            exprNode instanceof ExprConstantNode ||
+            exprNode instanceof ExprContextPropertyNode ||
+            exprNode instanceof ExprStreamUnderlyingNode ||
+            exprNode instanceof ExprTypedNoEvalNode) {
+            return true;
+        }
+        if (exprNode instanceof ExprAndNode ||
+            exprNode instanceof ExprOrNode ||
+            exprNode instanceof ExprNotNode ||
+            exprNode instanceof ExprMathNode ||
+            exprNode instanceof ExprBitWiseNode ||
+            exprNode instanceof ExprConcatNode ||
+            exprNode instanceof ExprEqualsNode ||
+            exprNode instanceof ExprRelationalOpNode ||
+            exprNode instanceof ExprBetweenNode ||
+            exprNode instanceof ExprInNode ||
+            exprNode instanceof ExprArrayNode) {
+            return true;
+        }
+        return exprNode instanceof ExprCaseNode ||
+            exprNode instanceof ExprCastNode ||
+            exprNode instanceof ExprCoalesceNode ||
+            exprNode instanceof ExprMinMaxRowNode ||
+            exprNode instanceof ExprInstanceofNode ||
+            exprNode instanceof ExprTypeofNode ||
+            exprNode instanceof ExprPropertyExistsNode;
+    }
+}
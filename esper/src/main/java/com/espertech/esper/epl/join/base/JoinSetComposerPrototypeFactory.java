@@ -122,7 +122,8 @@ public class JoinSetComposerPrototypeFactory
 
         QueryPlan queryPlan = QueryPlanBuilder.getPlan(streamTypes, outerJoinDescList, queryGraph, streamNames,
                 historicalViewableDesc, historicalDependencyGraph, historicalStreamIndexLists,
-                streamJoinAnalysisResult, queryPlanLogging, statementContext.getAnnotations(), exprEvaluatorContext);
+                streamJoinAnalysisResult, queryPlanLogging, statementContext.getAnnotations(), exprEvaluatorContext,
+                statementContext.getConfigSnapshot().getEngineDefaults().getExecution().getAdaptiveJoinOrderInterval());
 
         // remove unused indexes - consider all streams or all unidirectional
         HashSet<TableLookupIndexReqKey> usedIndexes = new HashSet<TableLookupIndexReqKey>();
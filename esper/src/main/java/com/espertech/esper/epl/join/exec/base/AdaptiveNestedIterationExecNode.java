@@ -0,0 +1,173 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.join.exec.base;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.join.table.EventTable;
+import com.espertech.esper.util.AuditPath;
+import com.espertech.esper.util.IndentWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Execution node that performs a nested iteration following one of several lookup orders,
+ * and that periodically re-evaluates which order is the cheapest.
+ * <p>
+ * Every number of lookups the node estimates, for each order, the number of rows that the nested lookups produce.
+ * The estimate for a lookup is derived from the index it uses: a hash index returns the number of events
+ * divided by the number of keys, a sorted or composite index a third of the number of events
+ * and a full table scan all events. Lookups that do not use an event table, such as historical data,
+ * count as returning a single row.
+ * <p>
+ * The node switches to a different order only when that order is estimated to be at least twice as cheap,
+ * so that small fluctuations in the statistics do not cause the order to flip.
+ * Switching takes place before a lookup and never while a lookup is in progress.
+ */
+public class AdaptiveNestedIterationExecNode extends ExecNode
+{
+    private static final Logger queryPlanLog = LoggerFactory.getLogger(AuditPath.QUERYPLAN_LOG);
+    private static final double SWITCH_COST_RATIO = 2;
+    private static final double RANGE_SELECTIVITY = 1 / 3d;
+
+    private final String statementName;
+    private final int lookupStream;
+    private final int[][] nestingOrders;
+    private final ExecNode[] candidates;
+    private final EventTable[][] lookupTables;
+    private final int reorderInterval;
+    private final boolean queryPlanLogging;
+
+    private volatile int current;
+    private int lookupsSinceReorder;
+
+    /**
+     * Ctor.
+     * @param statementName statement name
+     * @param lookupStream stream that supplies the event to look up for
+     * @param nestingOrders order of streams in nested iteration, for each candidate
+     * @param candidates execution node for each order
+     * @param lookupTables for each candidate, the event table used by each lookup or null if none
+     * @param reorderInterval number of lookups between re-evaluations of the order
+     * @param queryPlanLogging whether to log changes of the order to the query plan log
+     */
+    public AdaptiveNestedIterationExecNode(String statementName, int lookupStream, int[][] nestingOrders, ExecNode[] candidates, EventTable[][] lookupTables, int reorderInterval, boolean queryPlanLogging)
+    {
+        this.statementName = statementName;
+        this.lookupStream = lookupStream;
+        this.nestingOrders = nestingOrders;
+        this.candidates = candidates;
+        this.lookupTables = lookupTables;
+        this.reorderInterval = reorderInterval;
+        this.queryPlanLogging = queryPlanLogging;
+    }
+
+    public void process(EventBean lookupEvent, EventBean[] prefillPath, Collection<EventBean[]> result, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        if (++lookupsSinceReorder >= reorderInterval) {
+            lookupsSinceReorder = 0;
+            reorder();
+        }
+        candidates[current].process(lookupEvent, prefillPath, result, exprEvaluatorContext);
+    }
+
+    /**
+     * Returns the nesting order currently in use.
+     * @return order of streams
+     */
+    public int[] getCurrentNestingOrder()
+    {
+        return nestingOrders[current];
+    }
+
+    /**
+     * Estimates the cost of each order and switches to the cheapest if it is much cheaper than the current order.
+     */
+    protected void reorder()
+    {
+        int currentIndex = current;
+        double currentCost = estimateCost(lookupTables[currentIndex]);
+        int best = currentIndex;
+        double bestCost = currentCost;
+        for (int i = 0; i < candidates.length; i++) {
+            double cost = estimateCost(lookupTables[i]);
+            if (cost < bestCost) {
+                best = i;
+                bestCost = cost;
+            }
+        }
+
+        if (best == currentIndex || bestCost * SWITCH_COST_RATIO > currentCost) {
+            return;
+        }
+        current = best;
+        if (queryPlanLogging && queryPlanLog.isInfoEnabled()) {
+            queryPlanLog.info("Statement '" + statementName + "' join order for stream " + lookupStream +
+                    " changed from " + Arrays.toString(nestingOrders[currentIndex]) + " to " + Arrays.toString(nestingOrders[best]) +
+                    " estimated rows " + currentCost + " to " + bestCost);
+        }
+    }
+
+    /**
+     * Estimates the number of rows produced by all levels of a nested iteration.
+     * @param tables the event table used by each lookup, in nesting order
+     * @return estimated rows
+     */
+    public static double estimateCost(EventTable[] tables)
+    {
+        double rows = 1;
+        double cost = 0;
+        for (EventTable table : tables) {
+            rows *= estimateRows(table);
+            cost += rows;
+        }
+        return cost;
+    }
+
+    /**
+     * Estimates the number of rows a single lookup returns.
+     * @param table event table used by the lookup, or null if none
+     * @return estimated rows
+     */
+    public static double estimateRows(EventTable table)
+    {
+        if (table == null || table.getOrganization() == null) {
+            return 1;
+        }
+        Integer numEvents = table.getNumberOfEvents();
+        if (numEvents == null) {
+            return 1;
+        }
+        switch (table.getOrganization().getType()) {
+            case HASH:
+                int numKeys = table.getNumKeys();
+                return numKeys == 0 ? 0 : numEvents / (double) numKeys;
+            case BTREE:
+            case COMPOSITE:
+                return numEvents * RANGE_SELECTIVITY;
+            case UNORGANIZED:
+                return numEvents;
+            default:
+                return 1;
+        }
+    }
+
+    public void print(IndentWriter writer)
+    {
+        writer.println("AdaptiveNestedIterationExecNode current nesting order " + Arrays.toString(nestingOrders[current]));
+        writer.incrIndent();
+        for (ExecNode candidate : candidates) {
+            candidate.print(writer);
+        }
+        writer.decrIndent();
+    }
+}
@@ -0,0 +1,104 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.join.plan;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.epl.join.exec.base.AdaptiveNestedIterationExecNode;
+import com.espertech.esper.epl.join.exec.base.ExecNode;
+import com.espertech.esper.epl.join.table.EventTable;
+import com.espertech.esper.epl.join.table.HistoricalStreamIndexList;
+import com.espertech.esper.epl.virtualdw.VirtualDWView;
+import com.espertech.esper.util.IndentWriter;
+import com.espertech.esper.view.Viewable;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Plan to perform a nested iteration following one of several lookup orders that all make use of indexes,
+ * choosing between the orders at runtime.
+ * <p>
+ * The first order is the order chosen by static analysis of the query graph and is used initially.
+ */
+public class AdaptiveNestedIterationNode extends QueryPlanNode
+{
+    private final int lookupStream;
+    private final int[][] nestingOrders;
+    private final NestedIterationNode[] candidates;
+    private final int reorderInterval;
+    private final boolean queryPlanLogging;
+
+    /**
+     * Ctor.
+     * @param lookupStream stream that supplies the event to look up for
+     * @param nestingOrders order of streams in nested iteration, for each candidate
+     * @param candidates nested iteration for each order
+     * @param reorderInterval number of lookups between re-evaluations of the order
+     * @param queryPlanLogging whether to log changes of the order to the query plan log
+     */
+    public AdaptiveNestedIterationNode(int lookupStream, int[][] nestingOrders, NestedIterationNode[] candidates, int reorderInterval, boolean queryPlanLogging)
+    {
+        this.lookupStream = lookupStream;
+        this.nestingOrders = nestingOrders;
+        this.candidates = candidates;
+        this.reorderInterval = reorderInterval;
+        this.queryPlanLogging = queryPlanLogging;
+    }
+
+    /**
+     * Returns the candidate nested iterations.
+     * @return candidates
+     */
+    public NestedIterationNode[] getCandidates()
+    {
+        return candidates;
+    }
+
+    public ExecNode makeExec(String statementName, int statementId, Annotation[] annotations, Map<TableLookupIndexReqKey, EventTable>[] indexesPerStream, EventType[] streamTypes, Viewable[] streamViews, HistoricalStreamIndexList[] historicalStreamIndexLists, VirtualDWView[] viewExternal, Lock[] tableSecondaryIndexLocks)
+    {
+        ExecNode[] execNodes = new ExecNode[candidates.length];
+        EventTable[][] lookupTables = new EventTable[candidates.length][];
+        for (int i = 0; i < candidates.length; i++) {
+            execNodes[i] = candidates[i].makeExec(statementName, statementId, annotations, indexesPerStream, streamTypes, streamViews, historicalStreamIndexLists, viewExternal, tableSecondaryIndexLocks);
+
+            // the index that each lookup uses provides the statistics for estimating the number of rows a lookup returns
+            lookupTables[i] = new EventTable[nestingOrders[i].length];
+            int level = 0;
+            for (QueryPlanNode child : candidates[i].getChildNodes()) {
+                if (child instanceof TableLookupNode) {
+                    TableLookupPlan lookupPlan = ((TableLookupNode) child).getTableLookupPlan();
+                    Map<TableLookupIndexReqKey, EventTable> indexes = indexesPerStream[lookupPlan.getIndexedStream()];
+                    lookupTables[i][level] = indexes == null ? null : indexes.get(lookupPlan.getIndexNum()[0]);
+                }
+                level++;
+            }
+        }
+        return new AdaptiveNestedIterationExecNode(statementName, lookupStream, nestingOrders, execNodes, lookupTables, reorderInterval, queryPlanLogging);
+    }
+
+    public void addIndexes(HashSet<TableLookupIndexReqKey> usedIndexes)
+    {
+        for (NestedIterationNode candidate : candidates) {
+            candidate.addIndexes(usedIndexes);
+        }
+    }
+
+    public void print(IndentWriter indentWriter)
+    {
+        indentWriter.println("AdaptiveNestedIterationNode with initial nesting order " + Arrays.toString(nestingOrders[0]) + " reorder interval " + reorderInterval);
+        indentWriter.incrIndent();
+        for (NestedIterationNode candidate : candidates) {
+            candidate.print(indentWriter);
+        }
+        indentWriter.decrIndent();
+    }
+}
@@ -105,6 +105,8 @@ import java.util.*;
  */
 public class NStreamQueryPlanBuilder
 {
+    private static final int MAX_ADAPTIVE_CANDIDATES = 24;
+
     protected static QueryPlan build(QueryGraph queryGraph,
                                      EventType[] typesPerStream,
                                      HistoricalViewableDesc historicalViewableDesc,
@@ -113,6 +115,34 @@ public class NStreamQueryPlanBuilder
                                      boolean hasForceNestedIter,
                                      String[][][] indexedStreamsUniqueProps,
                                      TableMetadata[] tablesPerStream)
+    {
+        return build(queryGraph, typesPerStream, historicalViewableDesc, dependencyGraph, historicalStreamIndexLists, hasForceNestedIter, indexedStreamsUniqueProps, tablesPerStream, 0, false);
+    }
+
+    /**
+     * Build the query plan.
+     * @param queryGraph navigability between streams
+     * @param typesPerStream event types for each stream
+     * @param historicalViewableDesc historicals
+     * @param dependencyGraph dependencies between historical streams
+     * @param historicalStreamIndexLists index management, populated for the query plan
+     * @param hasForceNestedIter whether nested iteration is forced
+     * @param indexedStreamsUniqueProps unique keys per stream
+     * @param tablesPerStream tables
+     * @param adaptiveJoinOrderInterval when positive, the number of lookups between re-evaluations of the lookup order
+     * @param isQueryPlanLogging whether query plan logging is enabled
+     * @return query plan or null if the merge/nested (outer) join algorithm is preferable
+     */
+    protected static QueryPlan build(QueryGraph queryGraph,
+                                     EventType[] typesPerStream,
+                                     HistoricalViewableDesc historicalViewableDesc,
+                                     DependencyGraph dependencyGraph,
+                                     HistoricalStreamIndexList[] historicalStreamIndexLists,
+                                     boolean hasForceNestedIter,
+                                     String[][][] indexedStreamsUniqueProps,
+                                     TableMetadata[] tablesPerStream,
+                                     int adaptiveJoinOrderInterval,
+                                     boolean isQueryPlanLogging)
     {
         if (log.isDebugEnabled())
         {
@@ -160,7 +190,23 @@ public class NStreamQueryPlanBuilder
                 worstDepth = bestChainResult.depth;
             }
 
-            planNodeSpecs[streamNo] = createStreamPlan(streamNo, bestChain, queryGraph, indexSpecs, typesPerStream, historicalViewableDesc.getHistorical(), historicalStreamIndexLists, tablesPerStream);
+            // with adaptive join order, keep all lookup orders that use indexes throughout so the order can change at runtime
+            List<int[]> adaptiveChains = null;
+            if (adaptiveJoinOrderInterval > 0 && !historicalViewableDesc.isHasHistorical() && bestChainResult.getDepth() == numStreams - 1) {
+                adaptiveChains = computeIndexedPaths(streamNo, queryGraph, dependencyGraph);
+            }
+
+            if (adaptiveChains != null && adaptiveChains.size() > 1) {
+                int[][] nestingOrders = adaptiveChains.toArray(new int[adaptiveChains.size()][]);
+                NestedIterationNode[] candidates = new NestedIterationNode[nestingOrders.length];
+                for (int i = 0; i < nestingOrders.length; i++) {
+                    candidates[i] = (NestedIterationNode) createStreamPlan(streamNo, nestingOrders[i], queryGraph, indexSpecs, typesPerStream, historicalViewableDesc.getHistorical(), historicalStreamIndexLists, tablesPerStream);
+                }
+                planNodeSpecs[streamNo] = new AdaptiveNestedIterationNode(streamNo, nestingOrders, candidates, adaptiveJoinOrderInterval, isQueryPlanLogging);
+            }
+            else {
+                planNodeSpecs[streamNo] = createStreamPlan(streamNo, bestChain, queryGraph, indexSpecs, typesPerStream, historicalViewableDesc.getHistorical(), historicalStreamIndexLists, tablesPerStream);
+            }
             if (log.isDebugEnabled())
             {
                 log.debug(".build spec=" + planNodeSpecs[streamNo]);
@@ -457,6 +503,41 @@ public class NStreamQueryPlanBuilder
         return new BestChainResult(bestDepth, bestPermutation);
     }
 
+    /**
+     * Compute all chains for the lookup stream passed in in which every stream can be accessed via an index,
+     * in the order that {@link #computeBestPath} considers them, up to a maximum number of chains.
+     * @param lookupStream - stream to start look up
+     * @param queryGraph - navigability between streams
+     * @param dependencyGraph - dependencies between historical streams
+     * @return chains, the first being the best chain
+     */
+    protected static List<int[]> computeIndexedPaths(int lookupStream, QueryGraph queryGraph, DependencyGraph dependencyGraph)
+    {
+        int[] defNestingorder = buildDefaultNestingOrder(queryGraph.getNumStreams(), lookupStream);
+        Enumeration<int[]> streamEnum;
+        if (defNestingorder.length < 6) {
+            streamEnum = new NumberSetPermutationEnumeration(defNestingorder);
+        }
+        else {
+            streamEnum = new NumberSetShiftGroupEnumeration(defNestingorder);
+        }
+
+        List<int[]> chains = new ArrayList<int[]>();
+        while (streamEnum.hasMoreElements() && chains.size() < MAX_ADAPTIVE_CANDIDATES)
+        {
+            int[] permutation = streamEnum.nextElement();
+            if (dependencyGraph != null && !isDependencySatisfied(lookupStream, permutation, dependencyGraph))
+            {
+                continue;
+            }
+            if (computeNavigableDepth(lookupStream, permutation, queryGraph) == queryGraph.getNumStreams() - 1)
+            {
+                chains.add(permutation);
+            }
+        }
+        return chains;
+    }
+
     /**
      * Determine if the proposed permutation of lookups passes dependencies
      * @param lookupStream stream to initiate
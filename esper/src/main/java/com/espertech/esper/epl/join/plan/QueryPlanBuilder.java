@@ -59,6 +59,41 @@ public class QueryPlanBuilder
                                     Annotation[] annotations,
                                     ExprEvaluatorContext exprEvaluatorContext)
             throws ExprValidationException
+    {
+        return getPlan(typesPerStream, outerJoinDescList, queryGraph, streamNames, historicalViewableDesc, dependencyGraph,
+                historicalStreamIndexLists, streamJoinAnalysisResult, isQueryPlanLogging, annotations, exprEvaluatorContext, 0);
+    }
+
+    /**
+     * Build query plan using the filter.
+     * @param typesPerStream - event types for each stream
+     * @param outerJoinDescList - list of outer join criteria, or null if there are no outer joins
+     * @param queryGraph - relationships between streams based on filter expressions and outer-join on-criteria
+     * @param streamNames - names of streams
+     * @param dependencyGraph - dependencies between historical streams
+     * @param historicalStreamIndexLists - index management, populated for the query plan
+     * @param streamJoinAnalysisResult stream join analysis metadata
+     * @param historicalViewableDesc historicals
+     * @param isQueryPlanLogging for logging
+     * @param exprEvaluatorContext context
+     * @param annotations annotations
+     * @param adaptiveJoinOrderInterval when positive, the number of lookups between re-evaluations of the lookup order for inner joins of three or more streams
+     * @return query plan
+     * @throws ExprValidationException if the query plan fails
+     */
+    public static QueryPlan getPlan(EventType[] typesPerStream,
+                                    OuterJoinDesc[] outerJoinDescList,
+                                    QueryGraph queryGraph,
+                                    String[] streamNames,
+                                    HistoricalViewableDesc historicalViewableDesc,
+                                    DependencyGraph dependencyGraph,
+                                    HistoricalStreamIndexList[] historicalStreamIndexLists,
+                                    StreamJoinAnalysisResult streamJoinAnalysisResult,
+                                    boolean isQueryPlanLogging,
+                                    Annotation[] annotations,
+                                    ExprEvaluatorContext exprEvaluatorContext,
+                                    int adaptiveJoinOrderInterval)
+            throws ExprValidationException
     {
         String methodName = ".getPlan ";
 
@@ -99,7 +134,7 @@ public class QueryPlanBuilder
             QueryPlan queryPlan = NStreamQueryPlanBuilder.build(queryGraph, typesPerStream,
                                     historicalViewableDesc, dependencyGraph, historicalStreamIndexLists,
                                     hasForceNestedIter, streamJoinAnalysisResult.getUniqueKeys(),
-                                    streamJoinAnalysisResult.getTablesPerStream());
+                                    streamJoinAnalysisResult.getTablesPerStream(), adaptiveJoinOrderInterval, isQueryPlanLogging);
 
             if (queryPlan != null) {
                 removeUnidirectionalAndTable(queryPlan, streamJoinAnalysisResult);
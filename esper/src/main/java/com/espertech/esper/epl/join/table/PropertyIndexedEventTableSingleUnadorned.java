@@ -10,16 +10,21 @@ package com.espertech.esper.epl.join.table;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.collection.CompactEventSet;
 
 import java.util.*;
 
 /**
  * Index that organizes events by the event property values into hash buckets. Based on a HashMap
  * with {@link com.espertech.esper.collection.MultiKeyUntyped} keys that store the property values.
+ * <p>
+ * Each bucket is a {@link CompactEventSet} that holds a single event inline, since most keys usually
+ * index a single event, and that is returned as-is by lookup.
  */
 public class PropertyIndexedEventTableSingleUnadorned extends PropertyIndexedEventTableSingle
 {
     protected final Map<Object, Set<EventBean>> propertyIndex;
+    private int numEvents;
 
     public PropertyIndexedEventTableSingleUnadorned(EventPropertyGetter propertyGetter, EventTableOrganization organization)
     {
@@ -44,11 +49,13 @@ public class PropertyIndexedEventTableSingleUnadorned extends PropertyIndexedEve
         Set<EventBean> events = propertyIndex.get(key);
         if (events == null)
         {
-            events = new LinkedHashSet<EventBean>();
+            events = new CompactEventSet();
             propertyIndex.put(key, events);
         }
 
-        events.add(theEvent);
+        if (events.add(theEvent)) {
+            numEvents++;
+        }
     }
 
     public void remove(EventBean theEvent)
@@ -67,6 +74,7 @@ public class PropertyIndexedEventTableSingleUnadorned extends PropertyIndexedEve
             // thus did not correspond to a new-data event raised earlier.
             return;
         }
+        numEvents--;
 
         if (events.isEmpty())
         {
@@ -87,6 +95,7 @@ public class PropertyIndexedEventTableSingleUnadorned extends PropertyIndexedEve
     public void clear()
     {
         propertyIndex.clear();
+        numEvents = 0;
     }
 
     public void destroy() {
@@ -94,7 +103,7 @@ public class PropertyIndexedEventTableSingleUnadorned extends PropertyIndexedEve
     }
 
     public Integer getNumberOfEvents() {
-        return null;
+        return numEvents;
     }
 
     public int getNumKeys() {
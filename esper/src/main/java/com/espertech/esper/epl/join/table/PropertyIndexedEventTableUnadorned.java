@@ -10,13 +10,19 @@ package com.espertech.esper.epl.join.table;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.collection.CompactEventSet;
 import com.espertech.esper.collection.MultiKeyUntyped;
 
 import java.util.*;
 
+/**
+ * Index that organizes events by multiple event property values into hash buckets, with each bucket a
+ * {@link CompactEventSet} that holds a single event inline and that is returned as-is by lookup.
+ */
 public class PropertyIndexedEventTableUnadorned extends PropertyIndexedEventTable
 {
     protected final Map<MultiKeyUntyped, Set<EventBean>> propertyIndex;
+    private int numEvents;
 
     public PropertyIndexedEventTableUnadorned(EventPropertyGetter[] propertyGetters, EventTableOrganization organization) {
         super(propertyGetters, organization);
@@ -41,11 +47,13 @@ public class PropertyIndexedEventTableUnadorned extends PropertyIndexedEventTabl
         Set<EventBean> events = propertyIndex.get(key);
         if (events == null)
         {
-            events = new LinkedHashSet<EventBean>();
+            events = new CompactEventSet();
             propertyIndex.put(key, events);
         }
 
-        events.add(theEvent);
+        if (events.add(theEvent)) {
+            numEvents++;
+        }
     }
 
     public void remove(EventBean theEvent)
@@ -64,6 +72,7 @@ public class PropertyIndexedEventTableUnadorned extends PropertyIndexedEventTabl
             // thus did not correspond to a new-data event raised earlier.
             return;
         }
+        numEvents--;
 
         if (events.isEmpty())
         {
@@ -84,6 +93,7 @@ public class PropertyIndexedEventTableUnadorned extends PropertyIndexedEventTabl
     public void clear()
     {
         propertyIndex.clear();
+        numEvents = 0;
     }
 
     public void destroy() {
@@ -91,7 +101,7 @@ public class PropertyIndexedEventTableUnadorned extends PropertyIndexedEventTabl
     }
 
     public Integer getNumberOfEvents() {
-        return null;
+        return numEvents;
     }
 
     public int getNumKeys() {
@@ -16,7 +16,7 @@ import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import java.util.*;
 
 /**
- * Index that organizes events by the event property values into a single TreeMap sortable non-nested index
+ * Index that organizes events by the event property values into a single sortable non-nested index
  * with Object keys that store the property values.
  */
 public abstract class PropertySortedEventTable implements EventTable
@@ -123,68 +123,6 @@ public abstract class PropertySortedEventTable implements EventTable
         return null;
     }
 
-    protected static Set<EventBean> normalize(SortedMap<Object,Set<EventBean>> submap) {
-        if (submap.size() == 0) {
-            return null;
-        }
-        if (submap.size() == 1) {
-            return submap.get(submap.firstKey());
-        }
-        Set<EventBean> result = new LinkedHashSet<EventBean>();
-        for (Map.Entry<Object,Set<EventBean>> entry : submap.entrySet()) {
-            result.addAll(entry.getValue());
-        }
-        return result;
-    }
-
-    protected static Collection<EventBean> normalizeCollection(SortedMap<Object,Set<EventBean>> submap) {
-        if (submap.size() == 0) {
-            return null;
-        }
-        if (submap.size() == 1) {
-            return submap.get(submap.firstKey());
-        }
-        Deque<EventBean> result = new ArrayDeque<EventBean>();
-        for (Map.Entry<Object,Set<EventBean>> entry : submap.entrySet()) {
-            result.addAll(entry.getValue());
-        }
-        return result;
-    }
-
-    protected static Collection<EventBean> normalizeCollection(SortedMap<Object,Set<EventBean>> submapOne, SortedMap<Object,Set<EventBean>> submapTwo) {
-        if (submapOne.size() == 0) {
-            return normalizeCollection(submapTwo);
-        }
-        if (submapTwo.size() == 0) {
-            return normalizeCollection(submapOne);
-        }
-        ArrayDeque<EventBean> result = new ArrayDeque<EventBean>();
-        for (Map.Entry<Object,Set<EventBean>> entry : submapOne.entrySet()) {
-            result.addAll(entry.getValue());
-        }
-        for (Map.Entry<Object,Set<EventBean>> entry : submapTwo.entrySet()) {
-            result.addAll(entry.getValue());
-        }
-        return result;
-    }
-
-    protected static Set<EventBean> normalize(SortedMap<Object,Set<EventBean>> submapOne, SortedMap<Object,Set<EventBean>> submapTwo) {
-        if (submapOne.size() == 0) {
-            return normalize(submapTwo);
-        }
-        if (submapTwo.size() == 0) {
-            return normalize(submapOne);
-        }
-        Set<EventBean> result = new LinkedHashSet<EventBean>();
-        for (Map.Entry<Object,Set<EventBean>> entry : submapOne.entrySet()) {
-            result.addAll(entry.getValue());
-        }
-        for (Map.Entry<Object,Set<EventBean>> entry : submapTwo.entrySet()) {
-            result.addAll(entry.getValue());
-        }
-        return result;
-    }
-
     public String toQueryPlan() {
         return this.getClass().getSimpleName() +
                 " streamNum=" + organization.getStreamNum() +
@@ -10,27 +10,38 @@ package com.espertech.esper.epl.join.table;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.collection.CompactEventSet;
+import com.espertech.esper.collection.OrderStatisticTree;
 import com.espertech.esper.collection.SuperIterator;
 import com.espertech.esper.epl.join.exec.base.RangeIndexLookupValue;
 import com.espertech.esper.epl.join.exec.base.RangeIndexLookupValueEquals;
 import com.espertech.esper.epl.join.exec.base.RangeIndexLookupValueRange;
 import com.espertech.esper.epl.join.plan.QueryGraphRangeEnum;
 import com.espertech.esper.filter.Range;
+import com.espertech.esper.util.ObjectComparator;
 
 import java.util.*;
 
 /**
- * Index that organizes events by the event property values into a single TreeMap sortable non-nested index
+ * Index that organizes events by the event property values into a single sortable non-nested index
  * with Object keys that store the property values.
+ * <p>
+ * The index is a B+-tree with linked leaves that holds one {@link CompactEventSet} per distinct key.
+ * Range lookups locate the first and last position by key and walk the leaves in between, returning the
+ * single matching set as-is. Otherwise set lookups collect the matching sets, and collection lookups return
+ * a view over the positions that walks the leaves when iterated, without copying events.
  */
 public class PropertySortedEventTableImpl extends PropertySortedEventTable
 {
+    private static final Comparator<Object> COMPARATOR = new ObjectComparator(false);
+
     /**
      * Index table.
      */
-    protected final TreeMap<Object, Set<EventBean>> propertyIndex;
+    protected final OrderStatisticTree<Set<EventBean>> propertyIndex;
 
     protected final HashSet<EventBean> nullKeyedValues;
+    private int numEvents;
 
     // override in a subclass
     protected Object coerce(Object value) {
@@ -40,7 +51,7 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable
     public PropertySortedEventTableImpl(EventPropertyGetter propertyGetter, EventTableOrganization organization)
     {
         super(propertyGetter, organization);
-        propertyIndex = new TreeMap<Object, Set<EventBean>>();
+        propertyIndex = new OrderStatisticTree<Set<EventBean>>(COMPARATOR);
         nullKeyedValues = new LinkedHashSet<EventBean>();
     }
 
@@ -57,19 +68,15 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable
         }
         keyStart = coerce(keyStart);
         keyEnd = coerce(keyEnd);
-        SortedMap<Object,Set<EventBean>> submap;
-        try {
-            submap = propertyIndex.subMap(keyStart, includeStart, keyEnd, includeEnd);
-        }
-        catch (IllegalArgumentException ex) {
-            if (allowRangeReversal) {
-                submap = propertyIndex.subMap(keyEnd, includeStart, keyStart, includeEnd);
-            }
-            else {
+        if (COMPARATOR.compare(keyStart, keyEnd) > 0) {
+            if (!allowRangeReversal) {
                 return Collections.emptySet();
             }
+            Object temp = keyStart;
+            keyStart = keyEnd;
+            keyEnd = temp;
         }
-        return normalize(submap);
+        return normalize(startPosition(keyStart, includeStart), endPosition(keyEnd, includeEnd));
     }
 
     public Collection<EventBean> lookupRangeColl(Object keyStart, boolean includeStart, Object keyEnd, boolean includeEnd, boolean allowRangeReversal) {
@@ -78,19 +85,15 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable
         }
         keyStart = coerce(keyStart);
         keyEnd = coerce(keyEnd);
-        SortedMap<Object,Set<EventBean>> submap;
-        try {
-            submap = propertyIndex.subMap(keyStart, includeStart, keyEnd, includeEnd);
-        }
-        catch (IllegalArgumentException ex) {
-            if (allowRangeReversal) {
-                submap = propertyIndex.subMap(keyEnd, includeStart, keyStart, includeEnd);
-            }
-            else {
+        if (COMPARATOR.compare(keyStart, keyEnd) > 0) {
+            if (!allowRangeReversal) {
                 return Collections.emptyList();
             }
+            Object temp = keyStart;
+            keyStart = keyEnd;
+            keyEnd = temp;
         }
-        return normalizeCollection(submap);
+        return normalizeCollection(startPosition(keyStart, includeStart), endPosition(keyEnd, includeEnd));
     }
 
     public Set<EventBean> lookupRangeInverted(Object keyStart, boolean includeStart, Object keyEnd, boolean includeEnd) {
@@ -99,9 +102,18 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable
         }
         keyStart = coerce(keyStart);
         keyEnd = coerce(keyEnd);
-        SortedMap<Object,Set<EventBean>> submapOne = propertyIndex.headMap(keyStart, !includeStart);
-        SortedMap<Object,Set<EventBean>> submapTwo = propertyIndex.tailMap(keyEnd, !includeEnd);
-        return normalize(submapOne, submapTwo);
+        int headEnd = endPosition(keyStart, !includeStart);
+        int tailStart = startPosition(keyEnd, !includeEnd);
+        if (headEnd <= 0) {
+            return normalize(tailStart, propertyIndex.size());
+        }
+        if (tailStart >= propertyIndex.size()) {
+            return normalize(0, headEnd);
+        }
+        Set<EventBean> result = new LinkedHashSet<EventBean>();
+        collect(result, 0, headEnd);
+        collect(result, tailStart, propertyIndex.size());
+        return result;
     }
 
     public Collection<EventBean> lookupRangeInvertedColl(Object keyStart, boolean includeStart, Object keyEnd, boolean includeEnd) {
@@ -110,9 +122,15 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable
         }
         keyStart = coerce(keyStart);
         keyEnd = coerce(keyEnd);
-        SortedMap<Object,Set<EventBean>> submapOne = propertyIndex.headMap(keyStart, !includeStart);
-        SortedMap<Object,Set<EventBean>> submapTwo = propertyIndex.tailMap(keyEnd, !includeEnd);
-        return normalizeCollection(submapOne, submapTwo);
+        int headEnd = endPosition(keyStart, !includeStart);
+        int tailStart = startPosition(keyEnd, !includeEnd);
+        if (headEnd <= 0) {
+            return normalizeCollection(tailStart, propertyIndex.size());
+        }
+        if (tailStart >= propertyIndex.size()) {
+            return normalizeCollection(0, headEnd);
+        }
+        return new PropertySortedEventTableRangeCollection(propertyIndex, 0, headEnd, tailStart, propertyIndex.size());
     }
 
     public Set<EventBean> lookupLess(Object keyStart) {
@@ -120,7 +138,7 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable
             return Collections.emptySet();
         }
         keyStart = coerce(keyStart);
-        return normalize(propertyIndex.headMap(keyStart));
+        return normalize(0, propertyIndex.lowerBound(keyStart));
     }
 
     public Collection<EventBean> lookupLessThenColl(Object keyStart) {
@@ -128,7 +146,7 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable
             return Collections.emptyList();
         }
         keyStart = coerce(keyStart);
-        return normalizeCollection(propertyIndex.headMap(keyStart));
+        return normalizeCollection(0, propertyIndex.lowerBound(keyStart));
     }
 
     public Set<EventBean> lookupLessEqual(Object keyStart) {
@@ -136,7 +154,7 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable
             return Collections.emptySet();
         }
         keyStart = coerce(keyStart);
-        return normalize(propertyIndex.headMap(keyStart, true));
+        return normalize(0, propertyIndex.upperBound(keyStart));
     }
 
     public Collection<EventBean> lookupLessEqualColl(Object keyStart) {
@@ -144,7 +162,7 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable
             return Collections.emptyList();
         }
         keyStart = coerce(keyStart);
-        return normalizeCollection(propertyIndex.headMap(keyStart, true));
+        return normalizeCollection(0, propertyIndex.upperBound(keyStart));
     }
 
     public Set<EventBean> lookupGreaterEqual(Object keyStart) {
@@ -152,7 +170,7 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable
             return Collections.emptySet();
         }
         keyStart = coerce(keyStart);
-        return normalize(propertyIndex.tailMap(keyStart));
+        return normalize(propertyIndex.lowerBound(keyStart), propertyIndex.size());
     }
 
     public Collection<EventBean> lookupGreaterEqualColl(Object keyStart) {
@@ -160,7 +178,7 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable
             return Collections.emptyList();
         }
         keyStart = coerce(keyStart);
-        return normalizeCollection(propertyIndex.tailMap(keyStart));
+        return normalizeCollection(propertyIndex.lowerBound(keyStart), propertyIndex.size());
     }
 
     public Set<EventBean> lookupGreater(Object keyStart) {
@@ -168,7 +186,7 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable
             return Collections.emptySet();
         }
         keyStart = coerce(keyStart);
-        return normalize(propertyIndex.tailMap(keyStart, false));
+        return normalize(propertyIndex.upperBound(keyStart), propertyIndex.size());
     }
 
     public Collection<EventBean> lookupGreaterColl(Object keyStart) {
@@ -176,11 +194,11 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable
             return Collections.emptyList();
         }
         keyStart = coerce(keyStart);
-        return normalizeCollection(propertyIndex.tailMap(keyStart, false));
+        return normalizeCollection(propertyIndex.upperBound(keyStart), propertyIndex.size());
     }
 
     public Integer getNumberOfEvents() {
-        return null;
+        return numEvents + nullKeyedValues.size();
     }
 
     public int getNumKeys() {
@@ -202,14 +220,18 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable
             return;
         }
 
-        Set<EventBean> events = propertyIndex.get(key);
-        if (events == null)
-        {
-            events = new LinkedHashSet<EventBean>();
-            propertyIndex.put(key, events);
+        int index = findKey(key);
+        if (index != -1) {
+            if (propertyIndex.get(index).add(theEvent)) {
+                numEvents++;
+            }
+            return;
         }
 
+        Set<EventBean> events = new CompactEventSet();
         events.add(theEvent);
+        propertyIndex.addLast(key, events);
+        numEvents++;
     }
 
     public void remove(EventBean theEvent)
@@ -223,41 +245,44 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable
 
         key = coerce(key);
 
-        Set<EventBean> events = propertyIndex.get(key);
-        if (events == null)
+        int index = findKey(key);
+        if (index == -1)
         {
             return;
         }
 
+        Set<EventBean> events = propertyIndex.get(index);
         if (!events.remove(theEvent))
         {
             // Not an error, its possible that an old-data event is artificial (such as for statistics) and
             // thus did not correspond to a new-data event raised earlier.
             return;
         }
+        numEvents--;
 
         if (events.isEmpty())
         {
-            propertyIndex.remove(key);
+            propertyIndex.removeAt(index);
         }
     }
 
     public boolean isEmpty()
     {
-        return propertyIndex.isEmpty();
+        return propertyIndex.size() == 0;
     }
 
     public Iterator<EventBean> iterator()
     {
         if (nullKeyedValues.isEmpty()) {
-            return new PropertySortedEventTableIterator(propertyIndex);
+            return new PropertySortedEventTableIterator(propertyIndex.iterator());
         }
-        return new SuperIterator<EventBean>(new PropertySortedEventTableIterator(propertyIndex), nullKeyedValues.iterator());
+        return new SuperIterator<EventBean>(new PropertySortedEventTableIterator(propertyIndex.iterator()), nullKeyedValues.iterator());
     }
 
     public void clear()
     {
         propertyIndex.clear();
+        numEvents = 0;
     }
 
     public void destroy() {
@@ -268,7 +293,12 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable
 
         if (lookupValueBase instanceof RangeIndexLookupValueEquals) {
             RangeIndexLookupValueEquals equals = (RangeIndexLookupValueEquals) lookupValueBase;
-            return propertyIndex.get(equals.getValue());    
+            Object key = equals.getValue();
+            if (key == null) {
+                return null;
+            }
+            int index = findKey(key);
+            return index == -1 ? null : propertyIndex.get(index);
         }
 
         RangeIndexLookupValueRange lookupValue = (RangeIndexLookupValueRange) lookupValueBase;
@@ -324,4 +354,51 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable
     public Class getProviderClass() {
         return PropertySortedEventTable.class;
     }
+
+    private int findKey(Object key) {
+        int index = propertyIndex.lowerBound(key);
+        if (index < propertyIndex.size() && COMPARATOR.compare(propertyIndex.getKey(index), key) == 0) {
+            return index;
+        }
+        return -1;
+    }
+
+    // position of the first key within a range starting at the key
+    private int startPosition(Object key, boolean inclusive) {
+        return inclusive ? propertyIndex.lowerBound(key) : propertyIndex.upperBound(key);
+    }
+
+    // position after the last key within a range ending at the key
+    private int endPosition(Object key, boolean inclusive) {
+        return inclusive ? propertyIndex.upperBound(key) : propertyIndex.lowerBound(key);
+    }
+
+    private Set<EventBean> normalize(int start, int end) {
+        if (end - start <= 0) {
+            return null;
+        }
+        if (end - start == 1) {
+            return propertyIndex.get(start);
+        }
+        Set<EventBean> result = new LinkedHashSet<EventBean>();
+        collect(result, start, end);
+        return result;
+    }
+
+    private Collection<EventBean> normalizeCollection(int start, int end) {
+        if (end - start <= 0) {
+            return null;
+        }
+        if (end - start == 1) {
+            return propertyIndex.get(start);
+        }
+        return new PropertySortedEventTableRangeCollection(propertyIndex, start, end);
+    }
+
+    private void collect(Collection<EventBean> result, int start, int end) {
+        Iterator<Set<EventBean>> it = propertyIndex.iterator(start);
+        for (int i = start; i < end; i++) {
+            result.addAll(it.next());
+        }
+    }
 }
@@ -9,10 +9,8 @@
 package com.espertech.esper.epl.join.table;
 
 import com.espertech.esper.client.EventBean;
-import com.espertech.esper.collection.MultiKeyUntyped;
 
 import java.util.Iterator;
-import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 
@@ -21,23 +19,19 @@ import java.util.Set;
  */
 public final class PropertySortedEventTableIterator implements Iterator<EventBean>
 {
-    private final Map<Object, Set<EventBean>> window;
-
-    private final Iterator<Object> keyIterator;
+    private final Iterator<Set<EventBean>> keyIterator;
     private Iterator<EventBean> currentListIterator;
 
     /**
      * Ctor.
-     * @param window - sorted map with events
+     * @param keyIterator - iterator over the events per key in key order
      */
-    public PropertySortedEventTableIterator(Map<Object, Set<EventBean>> window)
+    public PropertySortedEventTableIterator(Iterator<Set<EventBean>> keyIterator)
     {
-        this.window = window;
-        keyIterator = window.keySet().iterator();
+        this.keyIterator = keyIterator;
         if (keyIterator.hasNext())
         {
-            Object initialKey = keyIterator.next();
-            currentListIterator = window.get(initialKey).iterator();
+            currentListIterator = keyIterator.next().iterator();
         }
     }
 
@@ -55,8 +49,7 @@ public final class PropertySortedEventTableIterator implements Iterator<EventBea
             currentListIterator = null;
             if (keyIterator.hasNext())
             {
-                Object nextKey = keyIterator.next();
-                currentListIterator = window.get(nextKey).iterator();
+                currentListIterator = keyIterator.next().iterator();
             }
         }
 
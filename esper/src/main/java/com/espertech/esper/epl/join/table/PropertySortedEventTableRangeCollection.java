@@ -0,0 +1,122 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.join.table;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.OrderStatisticTree;
+import com.espertech.esper.collection.SuperIterator;
+
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only collection view over the events of one or two position ranges of a sorted index,
+ * for use by {@link com.espertech.esper.epl.join.table.PropertySortedEventTableImpl}.
+ * <p>
+ * The view walks the linked leaves between the start and end positions when iterated and does not copy events,
+ * therefore it is valid only until the index is next modified, same as the per-key set returned for a single key.
+ */
+public final class PropertySortedEventTableRangeCollection extends AbstractCollection<EventBean>
+{
+    private final OrderStatisticTree<Set<EventBean>> propertyIndex;
+    private final int startOne;
+    private final int endOne;
+    private final int startTwo;
+    private final int endTwo;
+
+    /**
+     * Ctor.
+     * @param propertyIndex index
+     * @param start position of the first key
+     * @param end position after the last key
+     */
+    public PropertySortedEventTableRangeCollection(OrderStatisticTree<Set<EventBean>> propertyIndex, int start, int end)
+    {
+        this(propertyIndex, start, end, 0, 0);
+    }
+
+    /**
+     * Ctor.
+     * @param propertyIndex index
+     * @param startOne position of the first key of the first range
+     * @param endOne position after the last key of the first range
+     * @param startTwo position of the first key of the second range
+     * @param endTwo position after the last key of the second range
+     */
+    public PropertySortedEventTableRangeCollection(OrderStatisticTree<Set<EventBean>> propertyIndex, int startOne, int endOne, int startTwo, int endTwo)
+    {
+        this.propertyIndex = propertyIndex;
+        this.startOne = startOne;
+        this.endOne = endOne;
+        this.startTwo = startTwo;
+        this.endTwo = endTwo;
+    }
+
+    public Iterator<EventBean> iterator()
+    {
+        Iterator<EventBean> first = new PropertySortedEventTableIterator(new RangeIterator(startOne, endOne));
+        if (endTwo <= startTwo) {
+            return first;
+        }
+        return new SuperIterator<EventBean>(first, new PropertySortedEventTableIterator(new RangeIterator(startTwo, endTwo)));
+    }
+
+    public int size()
+    {
+        int size = 0;
+        Iterator<Set<EventBean>> it = new RangeIterator(startOne, endOne);
+        while (it.hasNext()) {
+            size += it.next().size();
+        }
+        it = new RangeIterator(startTwo, endTwo);
+        while (it.hasNext()) {
+            size += it.next().size();
+        }
+        return size;
+    }
+
+    public boolean isEmpty()
+    {
+        // each key in the index holds at least one event
+        return endOne <= startOne && endTwo <= startTwo;
+    }
+
+    private class RangeIterator implements Iterator<Set<EventBean>>
+    {
+        private final Iterator<Set<EventBean>> leafIterator;
+        private int remaining;
+
+        private RangeIterator(int start, int end)
+        {
+            this.remaining = end - start;
+            this.leafIterator = remaining > 0 ? propertyIndex.iterator(start) : null;
+        }
+
+        public boolean hasNext()
+        {
+            return remaining > 0;
+        }
+
+        public Set<EventBean> next()
+        {
+            if (remaining <= 0) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+            return leafIterator.next();
+        }
+
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.metric;
+
+import com.espertech.esper.metrics.codahale_metrics.metrics.stats.Sample;
+import com.espertech.esper.metrics.codahale_metrics.metrics.stats.Snapshot;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A sample that counts all values in fixed log-linear buckets, similar to an HDR histogram.
+ * <p>
+ * Values below 64 are counted exactly. Larger values fall into one of 32 equal-width buckets per power of two,
+ * so that quantiles are reported within about 3% of the recorded value, across the whole range of {@code long}.
+ * Negative values are counted as zero.
+ * <p>
+ * Each bucket is a {@link LongAdder} that is allocated when the first value falls into it, so that threads
+ * recording latencies concurrently do not contend on a shared counter.
+ * Once the buckets for the recorded range exist, updating does not allocate.
+ * Updates may occur concurrently with each other and with {@link #drainTo(LogLinearSample)}.
+ */
+public class LogLinearSample implements Sample {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int EXACT_COUNT = SUB_BUCKET_COUNT << 1;
+    private static final int BUCKET_COUNT = EXACT_COUNT + (63 - SUB_BUCKET_BITS - 1) * SUB_BUCKET_COUNT;
+    private static final int SNAPSHOT_SIZE = 1000;
+
+    private final AtomicReferenceArray<LongAdder> counts = new AtomicReferenceArray<LongAdder>(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            LongAdder bucket = counts.get(i);
+            if (bucket != null) {
+                bucket.reset();
+            }
+        }
+        count.reset();
+        max.set(0);
+    }
+
+    @Override
+    public int size() {
+        long c = count.sum();
+        return c > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) c;
+    }
+
+    @Override
+    public void update(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        getAddBucket(bucketIndex(value)).increment();
+        count.increment();
+        // the maximum rarely changes, so that this mostly only reads the shared value
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Returns the number of values recorded.
+     *
+     * @return count
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the largest value recorded, or zero if none.
+     *
+     * @return maximum
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the value at the given quantile, or zero if no values were recorded.
+     * <p>
+     * The value returned is the midpoint of the bucket containing the quantile, or the maximum for the highest bucket.
+     *
+     * @param quantile a quantile between 0 and 1
+     * @return value at quantile
+     */
+    public long getValueAtQuantile(double quantile) {
+        if (quantile < 0.0 || quantile > 1.0 || Double.isNaN(quantile)) {
+            throw new IllegalArgumentException(quantile + " is not in [0..1]");
+        }
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            LongAdder bucket = counts.get(i);
+            if (bucket != null) {
+                snapshot[i] = bucket.sum();
+                total += snapshot[i];
+            }
+        }
+        if (total == 0) {
+            return 0;
+        }
+        // rank of the value, tolerating the rounding error of the multiplication
+        long rank = Math.max(1, (long) Math.ceil(quantile * total - 1e-9));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                if (seen >= total) {
+                    return max.get();   // the highest bucket holds the maximum
+                }
+                return Math.min(bucketMidpoint(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Moves all recorded values to the target sample, leaving this sample empty.
+     * <p>
+     * Values recorded concurrently end up either in the target or remain in this sample, none are lost.
+     *
+     * @param target sample to add the values to
+     */
+    public void drainTo(LogLinearSample target) {
+        long moved = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            LongAdder bucket = counts.get(i);
+            if (bucket == null) {
+                continue;
+            }
+            // subtract what was read rather than resetting, so that concurrent increments remain
+            long value = bucket.sum();
+            if (value != 0) {
+                bucket.add(-value);
+                target.getAddBucket(i).add(value);
+                moved += value;
+            }
+        }
+        count.add(-moved);
+        target.count.add(moved);
+        long drainedMax = max.getAndSet(0);
+        long current = target.max.get();
+        while (drainedMax > current && !target.max.compareAndSet(current, drainedMax)) {
+            current = target.max.get();
+        }
+    }
+
+    /**
+     * Returns a snapshot of 1000 values at equally spaced quantiles, or an empty snapshot if no values were recorded.
+     *
+     * @return snapshot
+     */
+    @Override
+    public Snapshot getSnapshot() {
+        if (count.sum() == 0) {
+            return new Snapshot(new double[0]);
+        }
+        double[] values = new double[SNAPSHOT_SIZE];
+        for (int i = 0; i < SNAPSHOT_SIZE; i++) {
+            values[i] = getValueAtQuantile((i + 1) / (double) SNAPSHOT_SIZE);
+        }
+        return new Snapshot(values);
+    }
+
+    private LongAdder getAddBucket(int index) {
+        LongAdder bucket = counts.get(index);
+        if (bucket != null) {
+            return bucket;
+        }
+        counts.compareAndSet(index, null, new LongAdder());
+        return counts.get(index);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < EXACT_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return EXACT_COUNT + (shift - 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long bucketMidpoint(int index) {
+        if (index < EXACT_COUNT) {
+            return index;
+        }
+        int shift = (index - EXACT_COUNT) / SUB_BUCKET_COUNT + 1;
+        long subBucket = (index - EXACT_COUNT) % SUB_BUCKET_COUNT;
+        long lower = (SUB_BUCKET_COUNT + subBucket) << shift;
+        return lower + ((1L << shift) >>> 1);
+    }
+}
@@ -19,6 +19,7 @@ public class MetricExecEngine implements MetricExec
     private final String engineURI;
     private final MetricScheduleService metricScheduleService;
     private final long interval;
+    private final LogLinearSample latencies = new LogLinearSample();
     private EngineMetric lastMetric;
 
     /**
@@ -41,7 +42,12 @@ public class MetricExecEngine implements MetricExec
         long inputCount = context.getServices().getFilterService().getNumEventsEvaluated();
         long schedDepth = context.getServices().getSchedulingService().getScheduleHandleCount();
         long deltaInputCount = lastMetric == null ? inputCount : inputCount - lastMetric.getInputCount();
-        EngineMetric metric = new EngineMetric(engineURI, metricScheduleService.getCurrentTime(), inputCount, deltaInputCount, schedDepth);
+
+        // take the latencies since the last report
+        context.getStatementMetricRepository().getEngineLatency().drainTo(latencies);
+        EngineMetric metric = new EngineMetric(engineURI, metricScheduleService.getCurrentTime(), inputCount, deltaInputCount, schedDepth,
+                latencies.getCount(), latencies.getValueAtQuantile(0.5), latencies.getValueAtQuantile(0.99), latencies.getValueAtQuantile(0.999), latencies.getMax());
+        latencies.clear();
         lastMetric = metric;
         metricEventRouter.route(metric);
         metricScheduleService.add(interval, this);        
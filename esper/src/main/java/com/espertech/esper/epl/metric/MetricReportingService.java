@@ -51,6 +51,19 @@ public interface MetricReportingService
      */
     public void accountOutput(StatementMetricHandle handle, int numIStream, int numRStream);
 
+    /**
+     * Indicates that the current thread starts processing an event or time advance, for measuring the latency
+     * of the statement output that results.
+     */
+    public void accountLatencyStart();
+
+    /**
+     * Account for the latency of statement output delivered by the current thread, measured from the start
+     * of processing of the event or time advance.
+     * @param handle statement handle
+     */
+    public void accountLatency(StatementMetricHandle handle);
+
     /**
      * Returns for a new statement a handle for later accounting.
      * @param statementId statement id
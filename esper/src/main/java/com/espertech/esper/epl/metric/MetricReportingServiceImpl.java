@@ -50,6 +50,14 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
 
     private CopyOnWriteArraySet<StatementResultListener> statementOutputHooks;
 
+    private final ThreadLocal<long[]> latencyStart = new ThreadLocal<long[]>()
+    {
+        protected synchronized long[] initialValue()
+        {
+            return new long[1];
+        }
+    };
+
     /**
      * Ctor.
      * @param specification configuration
@@ -183,6 +191,26 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
         stmtMetricRepository.accountOutput(handle, numIStream, numRStream);
     }
 
+    public void accountLatencyStart()
+    {
+        latencyStart.get()[0] = MetricUtil.getWall();
+    }
+
+    public void accountLatency(StatementMetricHandle handle)
+    {
+        long start = latencyStart.get()[0];
+        if (start == 0)
+        {
+            return;     // not started by this thread, such as an outbound thread
+        }
+        stmtMetricRepository.accountLatency(handle, MetricUtil.getWall() - start);
+    }
+
+    public LogLinearSample getEngineLatency()
+    {
+        return stmtMetricRepository.getEngineLatencyTotal();
+    }
+
     public StatementMetricHandle getStatementHandle(int statementId, String statementName)
     {
         if (!MetricReportingPath.isMetricsEnabled)
@@ -34,4 +34,10 @@ public interface MetricReportingServiceSPI extends MetricReportingService
      * @return hooks.
      */
     public Set<StatementResultListener> getStatementOutputHooks();
+
+    /**
+     * Returns the engine latencies since engine initialization.
+     * @return engine latencies
+     */
+    public LogLinearSample getEngineLatency();
 }
\ No newline at end of file
@@ -31,6 +31,9 @@ getRwLock.readLock.unlock()
  * maintains an element number of last used element.
  * <p>
  * The flush operaton copies the complete array, thereby keeping array size. Statement names are only removed on the next flush.
+ * <p>
+ * Latencies are recorded into a sample per statement that is kept across flushes. The flush summarizes each sample
+ * into the flushed statement metric and clears the sample.
  */
 public class StatementMetricArray
 {
@@ -51,6 +54,9 @@ public class StatementMetricArray
     // Flushed metric per statement
     private volatile StatementMetric[] metrics;
 
+    // Latency sample per statement, allocated when the first latency gets recorded
+    private volatile LogLinearSample[] latencies;
+
     // Statements ids to remove with the next flush
     private Set<String> removedStatementNames;
 
@@ -67,6 +73,7 @@ public class StatementMetricArray
         this.isReportInactive = isReportInactive;
         
         metrics = new StatementMetric[initialSize];
+        latencies = new LogLinearSample[initialSize];
         statementNames = new String[initialSize];
         currentLastElement = -1;
         rwLock = new ManagedReadWriteLock("StatementMetricArray-" + name, true);
@@ -129,6 +136,7 @@ public class StatementMetricArray
                 if (statementNames[i] == null)
                 {
                     statementNames[i] = statementName;
+                    latencies[i] = null;
                     if ((i + 1) > currentLastElement)
                     {
                         currentLastElement = i;
@@ -141,11 +149,14 @@ public class StatementMetricArray
             int newSize = (int) (metrics.length * 1.5);
             String[] newStatementNames = new String[newSize];
             StatementMetric[] newMetrics = new StatementMetric[newSize];
+            LogLinearSample[] newLatencies = new LogLinearSample[newSize];
             System.arraycopy(statementNames, 0, newStatementNames, 0, statementNames.length);
             System.arraycopy(metrics, 0, newMetrics, 0, metrics.length);
+            System.arraycopy(latencies, 0, newLatencies, 0, latencies.length);
 
             statementNames = newStatementNames;
             metrics = newMetrics;
+            latencies = newLatencies;
 
             currentLastElement++;
             statementNames[currentLastElement] = statementName;
@@ -189,6 +200,25 @@ public class StatementMetricArray
                 }
             }
 
+            // summarize latencies of the interval
+            for (int i = 0; i <= currentLastElement; i++)
+            {
+                LogLinearSample latency = latencies[i];
+                if (latency == null || latency.getCount() == 0 || statementNames[i] == null)
+                {
+                    continue;
+                }
+                StatementMetric metric = metrics[i];
+                if (metric == null)
+                {
+                    metric = new StatementMetric(engineURI, statementNames[i]);
+                    metrics[i] = metric;
+                }
+                metric.setLatency(latency.getCount(), latency.getValueAtQuantile(0.5), latency.getValueAtQuantile(0.99),
+                        latency.getValueAtQuantile(0.999), latency.getMax());
+                latency.clear();
+            }
+
             // remove statement ids that disappeared during the interval
             if ((currentLastElement > -1) && (!removedStatementNames.isEmpty()))
             {
@@ -197,6 +227,7 @@ public class StatementMetricArray
                     if (removedStatementNames.contains(statementNames[i]))
                     {
                         statementNames[i] = null;
+                        latencies[i] = null;
                     }
                 }
             }
@@ -249,6 +280,29 @@ public class StatementMetricArray
         return metric;
     }
 
+    /**
+     * Returns an existing or creates a new latency sample for the index.
+     * @param index of statement
+     * @return sample to record to under read lock
+     */
+    public LogLinearSample getAddLatency(int index)
+    {
+        LogLinearSample latency = latencies[index];
+        if (latency == null)
+        {
+            synchronized (this)
+            {
+                latency = latencies[index];
+                if (latency == null)
+                {
+                    latency = new LogLinearSample();
+                    latencies[index] = latency;
+                }
+            }
+        }
+        return latency;
+    }
+
     /**
      * Returns maximum collection size (last used element), which may not truely reflect the number
      * of actual statements held as some slots may empty up when statements are removed.
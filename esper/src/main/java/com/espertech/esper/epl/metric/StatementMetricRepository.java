@@ -28,6 +28,8 @@ public class StatementMetricRepository
     private final ConfigurationMetricsReporting specification;
     private final StatementMetricArray[] groupMetrics;
     private final Map<String, Integer> statementGroups;
+    private final LogLinearSample engineLatency;
+    private final LogLinearSample engineLatencyTotal;
 
     /**
      * Ctor.
@@ -59,6 +61,8 @@ public class StatementMetricRepository
         }
 
         statementGroups = new HashMap<String, Integer>();
+        engineLatency = new LogLinearSample();
+        engineLatencyTotal = new LogLinearSample();
     }
 
     /**
@@ -156,6 +160,45 @@ public class StatementMetricRepository
         }
     }
 
+    /**
+     * Account the latency of statement output, for the statement and the engine.
+     * @param handle statement handle
+     * @param latency nanoseconds
+     */
+    public void accountLatency(StatementMetricHandle handle, long latency)
+    {
+        StatementMetricArray array = groupMetrics[handle.getGroupNum()];
+        array.getRwLock().acquireReadLock();
+        try
+        {
+            array.getAddLatency(handle.getIndex()).update(latency);
+        }
+        finally
+        {
+            array.getRwLock().releaseReadLock();
+        }
+        engineLatency.update(latency);
+        engineLatencyTotal.update(latency);
+    }
+
+    /**
+     * Returns the engine latencies since the last engine report, for draining by the engine report.
+     * @return engine latencies
+     */
+    public LogLinearSample getEngineLatency()
+    {
+        return engineLatency;
+    }
+
+    /**
+     * Returns the engine latencies since engine initialization.
+     * @return engine latencies
+     */
+    public LogLinearSample getEngineLatencyTotal()
+    {
+        return engineLatencyTotal;
+    }
+
     /**
      * Report for a given statement group.
      * @param group to report
@@ -36,6 +36,12 @@ public interface NamedWindowDispatchService
      */
     boolean dispatch();
 
+    /**
+     * Returns true if the current thread has no named window results to dispatch to consuming views.
+     * @return indicator whether there is nothing to dispatch
+     */
+    boolean isEmpty();
+
     /**
      * For use to add a result of a named window that must be dispatched to consuming views.
      * @param delta is the result to dispatch
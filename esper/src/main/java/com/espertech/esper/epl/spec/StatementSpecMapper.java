@@ -2625,6 +2625,15 @@ public class StatementSpecMapper
         {
             return new PlugInProjectionExpression("leaving", false);
         }
+        else if (expr instanceof ExprPercentileAggNode)
+        {
+            ExprPercentileAggNode percentileNode = (ExprPercentileAggNode) expr;
+            return new PlugInProjectionExpression(percentileNode.getAggregationFunctionName(), percentileNode.isDistinct());
+        }
+        else if (expr instanceof ExprApproxCountDistinctNode)
+        {
+            return new PlugInProjectionExpression("approxCountDistinct", ((ExprApproxCountDistinctNode) expr).isDistinct());
+        }
         else if (expr instanceof ExprAggCountMinSketchNode)
         {
             ExprAggCountMinSketchNode cmsNode = (ExprAggCountMinSketchNode) expr;
@@ -21,6 +21,7 @@ import com.espertech.esper.core.thread.ThreadingOption;
 import com.espertech.esper.core.thread.InboundUnitSendWrapped;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.slf4j.Logger;
@@ -77,7 +78,7 @@ public class EventSenderBean implements EventSender
         // Process event
         if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading()))
         {
-            threadingService.submitInbound(new InboundUnitSendWrapped(eventBean, runtime));
+            threadingService.submitInbound(new InboundUnitSendWrapped(eventBean, runtime), eventBean);
         }
         else
         {
@@ -85,6 +86,29 @@ public class EventSenderBean implements EventSender
         }
     }
 
+    public void sendEventBatch(List<?> events)
+    {
+        EventBean[] eventBeans = new EventBean[events.size()];
+        int count = 0;
+        for (Object theEvent : events)
+        {
+            if (theEvent == null)
+            {
+                throw new NullPointerException("No event object provided to sendEventBatch method");
+            }
+            eventBeans[count++] = getEventBean(theEvent);
+        }
+
+        if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading()))
+        {
+            threadingService.submitInboundBatch(eventBeans, runtime);
+        }
+        else
+        {
+            runtime.processWrappedEvents(eventBeans);
+        }
+    }
+
     public void route(Object theEvent) throws EPException
     {
         EventBean eventBean = getEventBean(theEvent);
@@ -18,6 +18,7 @@ import com.espertech.esper.core.thread.ThreadingService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -57,7 +58,59 @@ public class EventSenderImpl implements EventSender
         sendIn(theEvent, true);
     }
 
+    public void sendEventBatch(List<?> events) throws EPException
+    {
+        EventBean[] eventBeans = new EventBean[events.size()];
+        int count = 0;
+        for (Object theEvent : events)
+        {
+            EventBean eventBean = getEventBean(theEvent);
+            if (eventBean != null)
+            {
+                eventBeans[count++] = eventBean;
+            }
+        }
+        if (count < eventBeans.length)
+        {
+            eventBeans = Arrays.copyOf(eventBeans, count);
+        }
+
+        if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading()))
+        {
+            threadingService.submitInboundBatch(eventBeans, epRuntime);
+        }
+        else
+        {
+            epRuntime.processWrappedEvents(eventBeans);
+        }
+    }
+
     private void sendIn(Object theEvent, boolean isRoute) throws EPException
+    {
+        EventBean eventBean = getEventBean(theEvent);
+        if (eventBean == null)
+        {
+            return;
+        }
+
+        if (isRoute)
+        {
+            epRuntime.routeEventBean(eventBean);
+        }
+        else
+        {
+            if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading()))
+            {
+                threadingService.submitInbound(new InboundUnitSendWrapped(eventBean, epRuntime), eventBean);
+            }
+            else
+            {
+                epRuntime.processWrappedEvent(eventBean);
+            }
+        }
+    }
+
+    private EventBean getEventBean(Object theEvent)
     {
         // Ask each factory in turn to take care of it
         for (EventSenderURIDesc entry : handlingFactories)
@@ -75,23 +128,9 @@ public class EventSenderImpl implements EventSender
 
             if (eventBean != null)
             {
-                if (isRoute)
-                {
-                    epRuntime.routeEventBean(eventBean);
-                }
-                else
-                {
-                    if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading()))
-                    {
-                        threadingService.submitInbound(new InboundUnitSendWrapped(eventBean, epRuntime));
-                    }
-                    else
-                    {
-                        epRuntime.processWrappedEvent(eventBean);
-                    }
-                }
-                return;
+                return eventBean;
             }
         }
+        return null;
     }
 }
@@ -17,6 +17,7 @@ import com.espertech.esper.core.thread.ThreadingOption;
 import com.espertech.esper.core.thread.ThreadingService;
 import com.espertech.esper.event.map.MapEventType;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -48,32 +49,50 @@ public class EventSenderMap implements EventSender
 
     public void sendEvent(Object theEvent)
     {
-        if (!(theEvent instanceof Map))
+        EventBean mapEvent = getEventBean(theEvent);
+
+        if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading()))
         {
-            throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected " + Map.class.getName());
+            threadingService.submitInbound(new InboundUnitSendWrapped(mapEvent, runtimeEventSender), mapEvent);
+        }
+        else
+        {
+            runtimeEventSender.processWrappedEvent(mapEvent);
+        }
+    }
+
+    public void sendEventBatch(List<?> events)
+    {
+        EventBean[] eventBeans = new EventBean[events.size()];
+        int count = 0;
+        for (Object theEvent : events)
+        {
+            eventBeans[count++] = getEventBean(theEvent);
         }
-        
-        Map<String, Object> map = (Map<String, Object>) theEvent;
-        EventBean mapEvent = eventAdapterService.adapterForTypedMap(map, mapEventType);
 
         if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading()))
         {
-            threadingService.submitInbound(new InboundUnitSendWrapped(mapEvent, runtimeEventSender));
+            threadingService.submitInboundBatch(eventBeans, runtimeEventSender);
         }
         else
         {
-            runtimeEventSender.processWrappedEvent(mapEvent);
+            runtimeEventSender.processWrappedEvents(eventBeans);
         }
     }
 
     public void route(Object theEvent)
+    {
+        EventBean mapEvent = getEventBean(theEvent);
+        runtimeEventSender.routeEventBean(mapEvent);
+    }
+
+    private EventBean getEventBean(Object theEvent)
     {
         if (!(theEvent instanceof Map))
         {
             throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected " + Map.class.getName());
         }
         Map<String, Object> map = (Map<String, Object>) theEvent;
-        EventBean mapEvent = eventAdapterService.adapterForTypedMap(map, mapEventType);
-        runtimeEventSender.routeEventBean(mapEvent);
+        return eventAdapterService.adapterForTypedMap(map, mapEventType);
     }
 }
@@ -17,6 +17,8 @@ import com.espertech.esper.core.thread.ThreadingOption;
 import com.espertech.esper.core.thread.ThreadingService;
 import com.espertech.esper.event.arr.ObjectArrayEventType;
 
+import java.util.List;
+
 /**
  * Event sender for map-backed events.
  * <p>
@@ -46,32 +48,50 @@ public class EventSenderObjectArray implements EventSender
 
     public void sendEvent(Object theEvent)
     {
-        if (!(theEvent.getClass().isArray()))
+        EventBean objectArrayEvent = getEventBean(theEvent);
+
+        if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading()))
         {
-            throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected Object[]");
+            threadingService.submitInbound(new InboundUnitSendWrapped(objectArrayEvent, runtimeEventSender), objectArrayEvent);
+        }
+        else
+        {
+            runtimeEventSender.processWrappedEvent(objectArrayEvent);
+        }
+    }
+
+    public void sendEventBatch(List<?> events)
+    {
+        EventBean[] eventBeans = new EventBean[events.size()];
+        int count = 0;
+        for (Object theEvent : events)
+        {
+            eventBeans[count++] = getEventBean(theEvent);
         }
-        
-        Object[] arr = (Object[]) theEvent;
-        EventBean objectArrayEvent = eventAdapterService.adapterForTypedObjectArray(arr, objectArrayEventType);
 
         if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading()))
         {
-            threadingService.submitInbound(new InboundUnitSendWrapped(objectArrayEvent, runtimeEventSender));
+            threadingService.submitInboundBatch(eventBeans, runtimeEventSender);
         }
         else
         {
-            runtimeEventSender.processWrappedEvent(objectArrayEvent);
+            runtimeEventSender.processWrappedEvents(eventBeans);
         }
     }
 
     public void route(Object theEvent)
+    {
+        EventBean objectArrayEvent = getEventBean(theEvent);
+        runtimeEventSender.routeEventBean(objectArrayEvent);
+    }
+
+    private EventBean getEventBean(Object theEvent)
     {
         if (!(theEvent.getClass().isArray()))
         {
             throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected Object[]");
         }
         Object[] arr = (Object[]) theEvent;
-        EventBean objectArrayEvent = eventAdapterService.adapterForTypedObjectArray(arr, objectArrayEventType);
-        runtimeEventSender.routeEventBean(objectArrayEvent);
+        return eventAdapterService.adapterForTypedObjectArray(arr, objectArrayEventType);
     }
 }
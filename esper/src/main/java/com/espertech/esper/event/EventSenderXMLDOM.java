@@ -20,6 +20,8 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 
+import java.util.List;
+
 /**
  * Event sender for XML DOM-backed events.
  * <p>
@@ -60,7 +62,46 @@ public class EventSenderXMLDOM implements EventSender
         sendEvent(theEvent, true);
     }
 
+    public void sendEventBatch(List<?> events) throws EPException
+    {
+        EventBean[] eventBeans = new EventBean[events.size()];
+        int count = 0;
+        for (Object node : events)
+        {
+            eventBeans[count++] = getEventBean(node);
+        }
+
+        if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading()))
+        {
+            threadingService.submitInboundBatch(eventBeans, runtimeEventSender);
+        }
+        else
+        {
+            runtimeEventSender.processWrappedEvents(eventBeans);
+        }
+    }
+
     private void sendEvent(Object node, boolean isRoute) throws EPException
+    {
+        EventBean theEvent = getEventBean(node);
+        if (isRoute)
+        {
+            runtimeEventSender.routeEventBean(theEvent);
+        }
+        else
+        {
+            if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading()))
+            {
+                threadingService.submitInbound(new InboundUnitSendWrapped(theEvent, runtimeEventSender), theEvent);
+            }
+            else
+            {
+                runtimeEventSender.processWrappedEvent(theEvent);
+            }
+        }
+    }
+
+    private EventBean getEventBean(Object node) throws EPException
     {
         Node namedNode;
         if (node instanceof Document)
@@ -90,21 +131,6 @@ public class EventSenderXMLDOM implements EventSender
             }
         }
 
-        EventBean theEvent = eventAdapterService.adapterForTypedDOM(namedNode, baseXMLEventType);
-        if (isRoute)
-        {
-            runtimeEventSender.routeEventBean(theEvent);
-        }
-        else
-        {
-            if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading()))
-            {
-                threadingService.submitInbound(new InboundUnitSendWrapped(theEvent, runtimeEventSender));
-            }
-            else
-            {
-                runtimeEventSender.processWrappedEvent(theEvent);
-            }
-        }
+        return eventAdapterService.adapterForTypedDOM(namedNode, baseXMLEventType);
     }
 }
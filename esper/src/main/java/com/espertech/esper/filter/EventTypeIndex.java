@@ -30,13 +30,15 @@ import java.util.concurrent.locks.ReadWriteLock;
  */
 public class EventTypeIndex implements EventEvaluator
 {
-    private Map<EventType, FilterHandleSetNode> eventTypes;
+    private volatile Map<EventType, FilterHandleSetNode> eventTypes;
     private ReadWriteLock eventTypesRWLock;
+    private final boolean copyOnWrite;
 
     public EventTypeIndex(FilterServiceGranularLockFactory lockFactory)
     {
         eventTypes = new HashMap<EventType, FilterHandleSetNode>();
         eventTypesRWLock = lockFactory.obtainNew();
+        copyOnWrite = lockFactory.isCopyOnWrite();
     }
 
     /**
@@ -62,7 +64,14 @@ public class EventTypeIndex implements EventEvaluator
             {
                 throw new IllegalStateException("Event type already in index, add not performed, type=" + eventType);
             }
-            eventTypes.put(eventType, rootNode);
+            if (copyOnWrite) {
+                Map<EventType, FilterHandleSetNode> copy = new HashMap<EventType, FilterHandleSetNode>(eventTypes);
+                copy.put(eventType, rootNode);
+                eventTypes = copy;
+            }
+            else {
+                eventTypes.put(eventType, rootNode);
+            }
         }
         finally
         {
@@ -75,7 +84,14 @@ public class EventTypeIndex implements EventEvaluator
         eventTypesRWLock.writeLock().lock();
         try
         {
-            eventTypes.remove(type);
+            if (copyOnWrite) {
+                Map<EventType, FilterHandleSetNode> copy = new HashMap<EventType, FilterHandleSetNode>(eventTypes);
+                copy.remove(type);
+                eventTypes = copy;
+            }
+            else {
+                eventTypes.remove(type);
+            }
         }
         finally
         {
@@ -21,17 +21,35 @@ import java.util.concurrent.locks.ReadWriteLock;
  * but can also be non-leaf (some indizes exist) in a filter evaluation tree.
  * Events are evaluated by asking each of the indizes to evaluate the event and by
  * adding any filter callbacks in this node to the "matches" list of callbacks.
+ * <p>
+ * When copy-on-write, changes to the filter callbacks or indizes replace the respective collection by a modified copy,
+ * so that the collections seen by evaluation are never changed.
+ * <p>
+ * Evaluation iterates array snapshots of the callbacks and indizes. Each change replaces the respective snapshot
+ * by a copy of the prior snapshot with the element added or removed, so that matching an event does not allocate iterators.
  */
 public final class FilterHandleSetNode implements EventEvaluator
 {
     private final ReadWriteLock nodeRWLock;
-    private final Set<FilterHandle> callbackSet;
-    private final List<FilterParamIndexBase> indizes;
+    private final boolean copyOnWrite;
+    private volatile Set<FilterHandle> callbackSet;
+    private volatile List<FilterParamIndexBase> indizes;
+    private volatile FilterHandle[] callbackArray = EMPTY_CALLBACKS;
+    private volatile FilterParamIndexBase[] indizesArray = EMPTY_INDIZES;
 
-    public FilterHandleSetNode(ReadWriteLock nodeRWLock) {
+    private final static FilterHandle[] EMPTY_CALLBACKS = new FilterHandle[0];
+    private final static FilterParamIndexBase[] EMPTY_INDIZES = new FilterParamIndexBase[0];
+
+    public FilterHandleSetNode(ReadWriteLock nodeRWLock, boolean copyOnWrite) {
         this.nodeRWLock = nodeRWLock;
+        this.copyOnWrite = copyOnWrite;
         callbackSet = new LinkedHashSet<FilterHandle>();
-        indizes = new LinkedList<FilterParamIndexBase>();
+        if (copyOnWrite) {
+            indizes = new ArrayList<FilterParamIndexBase>(0);
+        }
+        else {
+            indizes = new LinkedList<FilterParamIndexBase>();
+        }
     }
 
     /**
@@ -85,33 +103,37 @@ public final class FilterHandleSetNode implements EventEvaluator
     {
         nodeRWLock.readLock().lock();
         try {
+            // Read each snapshot once, a copy-on-write node may replace the snapshot meanwhile
+            FilterParamIndexBase[] currentIndizes = indizesArray;
+            FilterHandle[] currentCallbacks = callbackArray;
+
             if (InstrumentationHelper.ENABLED) {
-                if (!indizes.isEmpty()) {
-                    InstrumentationHelper.get().qFilterHandleSetIndexes(indizes);
+                if (currentIndizes.length != 0) {
+                    InstrumentationHelper.get().qFilterHandleSetIndexes(Arrays.asList(currentIndizes));
                 }
             }
 
             // Ask each of the indizes to match against the attribute values
-            for (FilterParamIndexBase index : indizes) {
-                index.matchEvent(theEvent, matches);
+            for (int i = 0; i < currentIndizes.length; i++) {
+                currentIndizes[i].matchEvent(theEvent, matches);
             }
 
             if (InstrumentationHelper.ENABLED) {
-                if (!indizes.isEmpty()) {
+                if (currentIndizes.length != 0) {
                     InstrumentationHelper.get().aFilterHandleSetIndexes();
                 }
             }
 
             if (InstrumentationHelper.ENABLED) {
-                if (!callbackSet.isEmpty()) {
-                    InstrumentationHelper.get().qaFilterHandleSetCallbacks(callbackSet);
+                if (currentCallbacks.length != 0) {
+                    InstrumentationHelper.get().qaFilterHandleSetCallbacks(new LinkedHashSet<FilterHandle>(Arrays.asList(currentCallbacks)));
                 }
             }
 
             // Add each filter callback stored in this node to the matching list
-            for (FilterHandle filterCallback : callbackSet)
+            for (int i = 0; i < currentCallbacks.length; i++)
             {
-                matches.add(filterCallback);
+                matches.add(currentCallbacks[i]);
             }
         }
         finally {
@@ -139,7 +161,16 @@ public final class FilterHandleSetNode implements EventEvaluator
      */
     public final void add(FilterParamIndexBase index)
     {
-        indizes.add(index);
+        if (copyOnWrite) {
+            List<FilterParamIndexBase> copy = new ArrayList<FilterParamIndexBase>(indizes.size() + 1);
+            copy.addAll(indizes);
+            copy.add(index);
+            indizes = copy;
+        }
+        else {
+            indizes.add(index);
+        }
+        indizesArray = appendElement(indizesArray, index);
     }
 
     /**
@@ -151,7 +182,18 @@ public final class FilterHandleSetNode implements EventEvaluator
      */
     public final boolean remove(FilterParamIndexBase index)
     {
-        return indizes.remove(index);
+        if (copyOnWrite) {
+            List<FilterParamIndexBase> copy = new ArrayList<FilterParamIndexBase>(indizes);
+            if (!copy.remove(index)) {
+                return false;
+            }
+            indizes = copy;
+        }
+        else if (!indizes.remove(index)) {
+            return false;
+        }
+        indizesArray = indizes.isEmpty() ? EMPTY_INDIZES : removeElement(indizesArray, index);
+        return true;
     }
 
     /**
@@ -163,7 +205,18 @@ public final class FilterHandleSetNode implements EventEvaluator
      */
     public final void add(FilterHandle filterCallback)
     {
-        callbackSet.add(filterCallback);
+        if (copyOnWrite) {
+            if (callbackSet.contains(filterCallback)) {
+                return;
+            }
+            Set<FilterHandle> copy = new LinkedHashSet<FilterHandle>(callbackSet);
+            copy.add(filterCallback);
+            callbackSet = copy;
+        }
+        else if (!callbackSet.add(filterCallback)) {
+            return;
+        }
+        callbackArray = appendElement(callbackArray, filterCallback);
     }
 
     /**
@@ -175,10 +228,39 @@ public final class FilterHandleSetNode implements EventEvaluator
      */
     public final boolean remove(FilterHandle filterCallback)
     {
-        return callbackSet.remove(filterCallback);
+        if (copyOnWrite) {
+            if (!callbackSet.contains(filterCallback)) {
+                return false;
+            }
+            Set<FilterHandle> copy = new LinkedHashSet<FilterHandle>(callbackSet);
+            copy.remove(filterCallback);
+            callbackSet = copy;
+        }
+        else if (!callbackSet.remove(filterCallback)) {
+            return false;
+        }
+        callbackArray = callbackSet.isEmpty() ? EMPTY_CALLBACKS : removeElement(callbackArray, filterCallback);
+        return true;
     }
 
     public Set<FilterHandle> getCallbackSet() {
         return callbackSet;
     }
+
+    private static <T> T[] appendElement(T[] array, T element) {
+        T[] copy = Arrays.copyOf(array, array.length + 1);
+        copy[array.length] = element;
+        return copy;
+    }
+
+    // removes the first element that is equal, the same as the list and set removal
+    private static <T> T[] removeElement(T[] array, T element) {
+        int index = 0;
+        while (!array[index].equals(element)) {
+            index++;
+        }
+        T[] copy = Arrays.copyOf(array, array.length - 1);
+        System.arraycopy(array, index + 1, copy, index, array.length - index - 1);
+        return copy;
+    }
 }
@@ -21,15 +21,17 @@ import java.util.concurrent.locks.ReadWriteLock;
  */
 public final class FilterParamIndexBooleanExpr extends FilterParamIndexBase
 {
-    private final Map<ExprNodeAdapterBase, EventEvaluator> evaluatorsMap;
+    private volatile Map<ExprNodeAdapterBase, EventEvaluator> evaluatorsMap;
     private final ReadWriteLock constantsMapRWLock;
+    private final boolean copyOnWrite;
 
-    public FilterParamIndexBooleanExpr(ReadWriteLock readWriteLock)
+    public FilterParamIndexBooleanExpr(ReadWriteLock readWriteLock, boolean copyOnWrite)
     {
         super(FilterOperator.BOOLEAN_EXPRESSION);
 
         evaluatorsMap = new LinkedHashMap<ExprNodeAdapterBase, EventEvaluator>();
         constantsMapRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
     }
 
     public final EventEvaluator get(Object filterConstant)
@@ -41,12 +43,27 @@ public final class FilterParamIndexBooleanExpr extends FilterParamIndexBase
     public final void put(Object filterConstant, EventEvaluator evaluator)
     {
         ExprNodeAdapterBase keys = (ExprNodeAdapterBase) filterConstant;
+        if (copyOnWrite) {
+            Map<ExprNodeAdapterBase, EventEvaluator> copy = new LinkedHashMap<ExprNodeAdapterBase, EventEvaluator>(evaluatorsMap);
+            copy.put(keys, evaluator);
+            evaluatorsMap = copy;
+            return;
+        }
         evaluatorsMap.put(keys, evaluator);
     }
 
     public final boolean remove(Object filterConstant)
     {
         ExprNodeAdapterBase keys = (ExprNodeAdapterBase) filterConstant;
+        if (copyOnWrite) {
+            if (!evaluatorsMap.containsKey(keys)) {
+                return false;
+            }
+            Map<ExprNodeAdapterBase, EventEvaluator> copy = new LinkedHashMap<ExprNodeAdapterBase, EventEvaluator>(evaluatorsMap);
+            copy.remove(keys);
+            evaluatorsMap = copy;
+            return true;
+        }
         return evaluatorsMap.remove(keys) != null;
     }
 
@@ -65,6 +82,8 @@ public final class FilterParamIndexBooleanExpr extends FilterParamIndexBase
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qFilterBoolean(this);}
         constantsMapRWLock.readLock().lock();
         try {
+            // Read the map once, a copy-on-write index may replace it meanwhile
+            Map<ExprNodeAdapterBase, EventEvaluator> evaluatorsMap = this.evaluatorsMap;
 
             if (InstrumentationHelper.ENABLED) {
                 int i = -1;
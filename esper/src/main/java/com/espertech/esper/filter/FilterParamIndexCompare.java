@@ -26,17 +26,19 @@ import java.util.concurrent.locks.ReadWriteLock;
  */
 public final class FilterParamIndexCompare extends FilterParamIndexLookupableBase
 {
-    private final TreeMap<Object, EventEvaluator> constantsMap;
+    private volatile TreeMap<Object, EventEvaluator> constantsMap;
     private final ReadWriteLock constantsMapRWLock;
+    private final boolean copyOnWrite;
 
-    private Double lowerBounds;
-    private Double upperBounds;
+    private volatile Double lowerBounds;
+    private volatile Double upperBounds;
 
-    public FilterParamIndexCompare(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
+    public FilterParamIndexCompare(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite, FilterOperator filterOperator) {
         super(filterOperator, lookupable);
 
         constantsMap = new TreeMap<Object, EventEvaluator>();
         constantsMapRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
 
         if ((filterOperator != FilterOperator.GREATER) &&
             (filterOperator != FilterOperator.GREATER_OR_EQUAL) &&
@@ -54,7 +56,14 @@ public final class FilterParamIndexCompare extends FilterParamIndexLookupableBas
 
     public final void put(Object filterConstant, EventEvaluator matcher)
     {
-        constantsMap.put(filterConstant, matcher);
+        if (copyOnWrite) {
+            TreeMap<Object, EventEvaluator> copy = new TreeMap<Object, EventEvaluator>(constantsMap);
+            copy.put(filterConstant, matcher);
+            constantsMap = copy;
+        }
+        else {
+            constantsMap.put(filterConstant, matcher);
+        }
 
         // Update bounds
         Double constant = ((Number) filterConstant).doubleValue();
@@ -70,7 +79,15 @@ public final class FilterParamIndexCompare extends FilterParamIndexLookupableBas
 
     public final boolean remove(Object filterConstant)
     {
-        if (constantsMap.remove(filterConstant) == null)
+        if (copyOnWrite) {
+            if (!constantsMap.containsKey(filterConstant)) {
+                return false;
+            }
+            TreeMap<Object, EventEvaluator> copy = new TreeMap<Object, EventEvaluator>(constantsMap);
+            copy.remove(filterConstant);
+            constantsMap = copy;
+        }
+        else if (constantsMap.remove(filterConstant) == null)
         {
             return false;
         }
@@ -101,8 +118,13 @@ public final class FilterParamIndexCompare extends FilterParamIndexLookupableBas
             return;
         }
 
+        // Read the map and bounds once, a copy-on-write index may replace them meanwhile
+        TreeMap<Object, EventEvaluator> constantsMap = this.constantsMap;
+        Double lowerBounds = this.lowerBounds;
+        Double upperBounds = this.upperBounds;
+
         // A undefine lower bound indicates an empty index
-        if (lowerBounds == null)
+        if ((lowerBounds == null) || (upperBounds == null))
         {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(false);}
             return;
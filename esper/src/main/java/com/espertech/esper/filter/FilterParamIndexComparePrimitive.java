@@ -0,0 +1,223 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Index for filter parameter constants for the comparison operators (less, greater, etc), for lookupables
+ * that return int, long or double values.
+ * <p>
+ * The implementation is based on a sorted array of primitive long keys and a parallel array of evaluators:
+ * int and long constants are keyed by their value and double constants are keyed by their bits
+ * transformed such that the key order is the order of {@link Double#compare}.
+ * Matching performs a binary search and does not allocate.
+ * <p>
+ * The index replaces the arrays upon any change, therefore matching does not need to lock.
+ */
+public final class FilterParamIndexComparePrimitive extends FilterParamIndexLookupableBase
+{
+    private final boolean floatingPoint;
+    private final ReadWriteLock constantsRWLock;
+
+    private volatile SortedConstants constants;
+
+    public FilterParamIndexComparePrimitive(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
+        super(filterOperator, lookupable);
+
+        if ((filterOperator != FilterOperator.GREATER) &&
+            (filterOperator != FilterOperator.GREATER_OR_EQUAL) &&
+            (filterOperator != FilterOperator.LESS) &&
+            (filterOperator != FilterOperator.LESS_OR_EQUAL))
+        {
+            throw new IllegalArgumentException("Invalid filter operator for index of " + filterOperator);
+        }
+
+        Class keyType = JavaClassHelper.getBoxedType(lookupable.getReturnType());
+        if ((keyType != Integer.class) && (keyType != Long.class) && (keyType != Double.class))
+        {
+            throw new IllegalArgumentException("Invalid lookupable type for index of " + keyType);
+        }
+        floatingPoint = keyType == Double.class;
+        constants = new SortedConstants(new long[0], new EventEvaluator[0]);
+        constantsRWLock = readWriteLock;
+    }
+
+    public final EventEvaluator get(Object filterConstant)
+    {
+        SortedConstants current = constants;
+        int index = current.indexOf(keyOf(filterConstant));
+        return index < 0 ? null : current.evaluators[index];
+    }
+
+    public final void put(Object filterConstant, EventEvaluator matcher)
+    {
+        long key = keyOf(filterConstant);
+        SortedConstants current = constants;
+        int index = current.indexOf(key);
+        if (index >= 0) {
+            EventEvaluator[] evaluators = current.evaluators.clone();
+            evaluators[index] = matcher;
+            constants = new SortedConstants(current.keys, evaluators);
+            return;
+        }
+
+        int insert = -(index + 1);
+        int size = current.keys.length;
+        long[] keys = new long[size + 1];
+        EventEvaluator[] evaluators = new EventEvaluator[size + 1];
+        System.arraycopy(current.keys, 0, keys, 0, insert);
+        System.arraycopy(current.evaluators, 0, evaluators, 0, insert);
+        keys[insert] = key;
+        evaluators[insert] = matcher;
+        System.arraycopy(current.keys, insert, keys, insert + 1, size - insert);
+        System.arraycopy(current.evaluators, insert, evaluators, insert + 1, size - insert);
+        constants = new SortedConstants(keys, evaluators);
+    }
+
+    public final boolean remove(Object filterConstant)
+    {
+        SortedConstants current = constants;
+        int index = current.indexOf(keyOf(filterConstant));
+        if (index < 0) {
+            return false;
+        }
+
+        int size = current.keys.length;
+        long[] keys = new long[size - 1];
+        EventEvaluator[] evaluators = new EventEvaluator[size - 1];
+        System.arraycopy(current.keys, 0, keys, 0, index);
+        System.arraycopy(current.evaluators, 0, evaluators, 0, index);
+        System.arraycopy(current.keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(current.evaluators, index + 1, evaluators, index, size - index - 1);
+        constants = new SortedConstants(keys, evaluators);
+        return true;
+    }
+
+    public final int size()
+    {
+        return constants.keys.length;
+    }
+
+    public final ReadWriteLock getReadWriteLock()
+    {
+        return constantsRWLock;
+    }
+
+    public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
+    {
+        Object propertyValue = lookupable.getGetter().get(theEvent);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qFilterReverseIndex(this, propertyValue);}
+
+        if (propertyValue == null)
+        {
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(false);}
+            return;
+        }
+
+        SortedConstants current = constants;
+        long key = keyOf(propertyValue);
+
+        // The constants that the value is greater than are at the head, the constants that the value is less than are at the tail
+        int start;
+        int end;
+        FilterOperator filterOperator = this.getFilterOperator();
+        if (filterOperator == FilterOperator.GREATER) {
+            start = 0;
+            end = current.lowerBound(key);
+        }
+        else if (filterOperator == FilterOperator.GREATER_OR_EQUAL) {
+            start = 0;
+            end = current.upperBound(key);
+        }
+        else if (filterOperator == FilterOperator.LESS) {
+            start = current.upperBound(key);
+            end = current.keys.length;
+        }
+        else {
+            start = current.lowerBound(key);
+            end = current.keys.length;
+        }
+
+        if (start >= end)
+        {
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(false);}
+            return;
+        }
+
+        EventEvaluator[] evaluators = current.evaluators;
+        for (int i = start; i < end; i++)
+        {
+            evaluators[i].matchEvent(theEvent, matches);
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(null);}
+    }
+
+    private long keyOf(Object value)
+    {
+        if (floatingPoint) {
+            long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+            return bits ^ ((bits >> 63) & 0x7fffffffffffffffL);
+        }
+        return ((Number) value).longValue();
+    }
+
+    private static class SortedConstants
+    {
+        private final long[] keys;
+        private final EventEvaluator[] evaluators;
+
+        private SortedConstants(long[] keys, EventEvaluator[] evaluators) {
+            this.keys = keys;
+            this.evaluators = evaluators;
+        }
+
+        private int indexOf(long key) {
+            return Arrays.binarySearch(keys, key);
+        }
+
+        // first index of a key greater or equal to the key
+        private int lowerBound(long key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] < key) {
+                    low = mid + 1;
+                }
+                else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // first index of a key greater than the key
+        private int upperBound(long key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] <= key) {
+                    low = mid + 1;
+                }
+                else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
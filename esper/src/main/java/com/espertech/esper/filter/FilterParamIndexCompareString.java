@@ -26,14 +26,16 @@ import java.util.concurrent.locks.ReadWriteLock;
  */
 public final class FilterParamIndexCompareString extends FilterParamIndexLookupableBase
 {
-    private final TreeMap<Object, EventEvaluator> constantsMap;
+    private volatile TreeMap<Object, EventEvaluator> constantsMap;
     private final ReadWriteLock constantsMapRWLock;
+    private final boolean copyOnWrite;
 
-    public FilterParamIndexCompareString(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
+    public FilterParamIndexCompareString(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite, FilterOperator filterOperator) {
         super(filterOperator, lookupable);
 
         constantsMap = new TreeMap<Object, EventEvaluator>();
         constantsMapRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
 
         if ((filterOperator != FilterOperator.GREATER) &&
             (filterOperator != FilterOperator.GREATER_OR_EQUAL) &&
@@ -51,11 +53,26 @@ public final class FilterParamIndexCompareString extends FilterParamIndexLookupa
 
     public final void put(Object filterConstant, EventEvaluator matcher)
     {
+        if (copyOnWrite) {
+            TreeMap<Object, EventEvaluator> copy = new TreeMap<Object, EventEvaluator>(constantsMap);
+            copy.put(filterConstant, matcher);
+            constantsMap = copy;
+            return;
+        }
         constantsMap.put(filterConstant, matcher);
     }
 
     public final boolean remove(Object filterConstant)
     {
+        if (copyOnWrite) {
+            if (!constantsMap.containsKey(filterConstant)) {
+                return false;
+            }
+            TreeMap<Object, EventEvaluator> copy = new TreeMap<Object, EventEvaluator>(constantsMap);
+            copy.remove(filterConstant);
+            constantsMap = copy;
+            return true;
+        }
         if (constantsMap.remove(filterConstant) == null)
         {
             return false;
@@ -87,6 +104,9 @@ public final class FilterParamIndexCompareString extends FilterParamIndexLookupa
 
         FilterOperator filterOperator = this.getFilterOperator();
 
+        // Read the map once, a copy-on-write index may replace it meanwhile
+        TreeMap<Object, EventEvaluator> constantsMap = this.constantsMap;
+
         // Look up in table
         constantsMapRWLock.readLock().lock();
         try {
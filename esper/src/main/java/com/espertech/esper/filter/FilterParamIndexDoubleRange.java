@@ -25,8 +25,8 @@ import java.util.concurrent.locks.ReadWriteLock;
  */
 public final class FilterParamIndexDoubleRange extends FilterParamIndexDoubleRangeBase
 {
-    public FilterParamIndexDoubleRange(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
-        super(lookupable, readWriteLock, filterOperator);
+    public FilterParamIndexDoubleRange(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite, FilterOperator filterOperator) {
+        super(lookupable, readWriteLock, copyOnWrite, filterOperator);
         if (!(filterOperator.isRangeOperator()))
         {
             throw new IllegalArgumentException("Invalid filter operator " + filterOperator);
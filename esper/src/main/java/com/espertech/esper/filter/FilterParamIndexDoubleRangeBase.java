@@ -22,18 +22,20 @@ import java.util.concurrent.locks.ReadWriteLock;
  */
 public abstract class FilterParamIndexDoubleRangeBase extends FilterParamIndexLookupableBase
 {
-    protected final TreeMap<DoubleRange, EventEvaluator> ranges;
+    protected volatile TreeMap<DoubleRange, EventEvaluator> ranges;
     private final IdentityHashMap<DoubleRange, EventEvaluator> rangesNullEndpoints;
     private final ReadWriteLock rangesRWLock;
+    private final boolean copyOnWrite;
 
     protected double largestRangeValueDouble = Double.MIN_VALUE;
 
-    protected FilterParamIndexDoubleRangeBase(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
+    protected FilterParamIndexDoubleRangeBase(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite, FilterOperator filterOperator) {
         super(filterOperator, lookupable);
 
         ranges = new TreeMap<DoubleRange, EventEvaluator>(new DoubleRangeComparator());
         rangesNullEndpoints = new IdentityHashMap<DoubleRange, EventEvaluator>();
         rangesRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
     }
 
     public final EventEvaluator get(Object expressionValue)
@@ -71,6 +73,12 @@ public abstract class FilterParamIndexDoubleRangeBase extends FilterParamIndexLo
             largestRangeValueDouble = Math.abs(range.getMax() - range.getMin());
         }
 
+        if (copyOnWrite) {
+            TreeMap<DoubleRange, EventEvaluator> copy = new TreeMap<DoubleRange, EventEvaluator>(ranges);
+            copy.put(range, matcher);
+            ranges = copy;
+            return;
+        }
         ranges.put(range, matcher);
     }
 
@@ -83,6 +91,15 @@ public abstract class FilterParamIndexDoubleRangeBase extends FilterParamIndexLo
             return rangesNullEndpoints.remove(range) != null;
         }
 
+        if (copyOnWrite) {
+            if (!ranges.containsKey(range)) {
+                return false;
+            }
+            TreeMap<DoubleRange, EventEvaluator> copy = new TreeMap<DoubleRange, EventEvaluator>(ranges);
+            copy.remove(range);
+            ranges = copy;
+            return true;
+        }
         return ranges.remove(range) != null;
     }
 
@@ -0,0 +1,264 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Index for filter parameter constants for the range operators (range open/closed/half), for lookupables
+ * that return int, long or double values.
+ * <p>
+ * The implementation is based on primitive arrays of range endpoints sorted by minimum ascending and maximum
+ * ascending, and a parallel array of evaluators. Matching performs a binary search for the first range
+ * that may contain the value, based on the largest range width, and does not allocate.
+ * <p>
+ * The index replaces the arrays upon any change, therefore matching does not need to lock.
+ */
+public final class FilterParamIndexDoubleRangePrimitive extends FilterParamIndexLookupableBase
+{
+    private final IdentityHashMap<DoubleRange, EventEvaluator> rangesNullEndpoints;
+    private final ReadWriteLock rangesRWLock;
+
+    private volatile SortedRanges ranges;
+
+    public FilterParamIndexDoubleRangePrimitive(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
+        super(filterOperator, lookupable);
+        if (!(filterOperator.isRangeOperator()))
+        {
+            throw new IllegalArgumentException("Invalid filter operator " + filterOperator);
+        }
+
+        rangesNullEndpoints = new IdentityHashMap<DoubleRange, EventEvaluator>();
+        rangesRWLock = readWriteLock;
+        ranges = new SortedRanges(new double[0], new double[0], new EventEvaluator[0]);
+    }
+
+    public final EventEvaluator get(Object expressionValue)
+    {
+        DoubleRange range = asRange(expressionValue);
+        if ((range.getMax() == null) || (range.getMin() == null))
+        {
+            return rangesNullEndpoints.get(range);
+        }
+
+        SortedRanges current = ranges;
+        int index = current.indexOf(range.getMin(), range.getMax());
+        return index < 0 ? null : current.evaluators[index];
+    }
+
+    public final void put(Object expressionValue, EventEvaluator matcher)
+    {
+        DoubleRange range = asRange(expressionValue);
+        if ((range.getMax() == null) || (range.getMin() == null))
+        {
+            rangesNullEndpoints.put(range, matcher);     // endpoints null - we don't enter
+            return;
+        }
+
+        double min = range.getMin();
+        double max = range.getMax();
+        SortedRanges current = ranges;
+        int index = current.indexOf(min, max);
+        if (index >= 0) {
+            EventEvaluator[] evaluators = current.evaluators.clone();
+            evaluators[index] = matcher;
+            ranges = new SortedRanges(current.mins, current.maxs, evaluators);
+            return;
+        }
+
+        int insert = -(index + 1);
+        int size = current.mins.length;
+        double[] mins = new double[size + 1];
+        double[] maxs = new double[size + 1];
+        EventEvaluator[] evaluators = new EventEvaluator[size + 1];
+        System.arraycopy(current.mins, 0, mins, 0, insert);
+        System.arraycopy(current.maxs, 0, maxs, 0, insert);
+        System.arraycopy(current.evaluators, 0, evaluators, 0, insert);
+        mins[insert] = min;
+        maxs[insert] = max;
+        evaluators[insert] = matcher;
+        System.arraycopy(current.mins, insert, mins, insert + 1, size - insert);
+        System.arraycopy(current.maxs, insert, maxs, insert + 1, size - insert);
+        System.arraycopy(current.evaluators, insert, evaluators, insert + 1, size - insert);
+        ranges = new SortedRanges(mins, maxs, evaluators);
+    }
+
+    public final boolean remove(Object filterConstant)
+    {
+        DoubleRange range = (DoubleRange) filterConstant;
+        if ((range.getMax() == null) || (range.getMin() == null))
+        {
+            return rangesNullEndpoints.remove(range) != null;
+        }
+
+        SortedRanges current = ranges;
+        int index = current.indexOf(range.getMin(), range.getMax());
+        if (index < 0) {
+            return false;
+        }
+
+        int size = current.mins.length;
+        double[] mins = new double[size - 1];
+        double[] maxs = new double[size - 1];
+        EventEvaluator[] evaluators = new EventEvaluator[size - 1];
+        System.arraycopy(current.mins, 0, mins, 0, index);
+        System.arraycopy(current.maxs, 0, maxs, 0, index);
+        System.arraycopy(current.evaluators, 0, evaluators, 0, index);
+        System.arraycopy(current.mins, index + 1, mins, index, size - index - 1);
+        System.arraycopy(current.maxs, index + 1, maxs, index, size - index - 1);
+        System.arraycopy(current.evaluators, index + 1, evaluators, index, size - index - 1);
+        ranges = new SortedRanges(mins, maxs, evaluators);
+        return true;
+    }
+
+    public final int size()
+    {
+        return ranges.mins.length;
+    }
+
+    public final ReadWriteLock getReadWriteLock()
+    {
+        return rangesRWLock;
+    }
+
+    public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
+    {
+        Object objAttributeValue = lookupable.getGetter().get(theEvent);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qFilterReverseIndex(this, objAttributeValue);}
+
+        if (objAttributeValue == null)
+        {
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(false);}
+            return;
+        }
+
+        double attributeValue = ((Number) objAttributeValue).doubleValue();
+        SortedRanges current = ranges;
+        double[] mins = current.mins;
+        double[] maxs = current.maxs;
+        EventEvaluator[] evaluators = current.evaluators;
+
+        // Ranges that contain the value start at or after the value minus the largest range width, and start at or before the value
+        int index = current.firstMinAtOrAbove(attributeValue - current.largestRange);
+        FilterOperator filterOperator = this.getFilterOperator();
+        if (filterOperator == FilterOperator.RANGE_OPEN)  // include neither endpoint
+        {
+            for (; index < mins.length && mins[index] <= attributeValue; index++)
+            {
+                if ((attributeValue > mins[index]) && (attributeValue < maxs[index]))
+                {
+                    evaluators[index].matchEvent(theEvent, matches);
+                }
+            }
+        }
+        else if (filterOperator == FilterOperator.RANGE_CLOSED)   // include all endpoints
+        {
+            for (; index < mins.length && mins[index] <= attributeValue; index++)
+            {
+                if (attributeValue <= maxs[index])
+                {
+                    evaluators[index].matchEvent(theEvent, matches);
+                }
+            }
+        }
+        else if (filterOperator == FilterOperator.RANGE_HALF_CLOSED) // include high endpoint not low endpoint
+        {
+            for (; index < mins.length && mins[index] <= attributeValue; index++)
+            {
+                if ((attributeValue > mins[index]) && (attributeValue <= maxs[index]))
+                {
+                    evaluators[index].matchEvent(theEvent, matches);
+                }
+            }
+        }
+        else if (filterOperator == FilterOperator.RANGE_HALF_OPEN) // include low endpoint not high endpoint
+        {
+            for (; index < mins.length && mins[index] <= attributeValue; index++)
+            {
+                if (attributeValue < maxs[index])
+                {
+                    evaluators[index].matchEvent(theEvent, matches);
+                }
+            }
+        }
+        else
+        {
+            throw new IllegalStateException("Invalid filter operator " + filterOperator);
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(null);}
+    }
+
+    private static DoubleRange asRange(Object expressionValue)
+    {
+        if (!(expressionValue instanceof DoubleRange))
+        {
+            throw new IllegalArgumentException("Supplied expressionValue must be of type DoubleRange");
+        }
+        return (DoubleRange) expressionValue;
+    }
+
+    private static class SortedRanges
+    {
+        private final double[] mins;
+        private final double[] maxs;
+        private final EventEvaluator[] evaluators;
+        private final double largestRange;
+
+        private SortedRanges(double[] mins, double[] maxs, EventEvaluator[] evaluators) {
+            this.mins = mins;
+            this.maxs = maxs;
+            this.evaluators = evaluators;
+
+            double largest = 0;
+            for (int i = 0; i < mins.length; i++) {
+                largest = Math.max(largest, maxs[i] - mins[i]);
+            }
+            this.largestRange = largest;
+        }
+
+        // binary search by minimum and maximum, same ordering as the DoubleRangeComparator
+        private int indexOf(double min, double max) {
+            int low = 0;
+            int high = mins.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if ((mins[mid] < min) || ((mins[mid] == min) && (maxs[mid] < max))) {
+                    low = mid + 1;
+                }
+                else if ((mins[mid] > min) || (maxs[mid] > max)) {
+                    high = mid - 1;
+                }
+                else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private int firstMinAtOrAbove(double value) {
+            int low = 0;
+            int high = mins.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (mins[mid] < value) {
+                    low = mid + 1;
+                }
+                else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -20,8 +20,8 @@ import java.util.concurrent.locks.ReadWriteLock;
  */
 public final class FilterParamIndexEquals extends FilterParamIndexEqualsBase
 {
-    public FilterParamIndexEquals(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
-        super(lookupable, readWriteLock, FilterOperator.EQUAL);
+    public FilterParamIndexEquals(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
+        super(lookupable, readWriteLock, copyOnWrite, FilterOperator.EQUAL);
     }
 
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
@@ -20,8 +20,8 @@ import java.util.concurrent.locks.ReadWriteLock;
  */
 public final class FilterParamIndexEqualsIs extends FilterParamIndexEqualsBase
 {
-    public FilterParamIndexEqualsIs(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
-        super(lookupable, readWriteLock, FilterOperator.IS);
+    public FilterParamIndexEqualsIs(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
+        super(lookupable, readWriteLock, copyOnWrite, FilterOperator.IS);
     }
 
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
@@ -0,0 +1,171 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.LongObjectHashMap;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Index for filter parameter constants to match using the equals (=) operator, for lookupables
+ * that return int, long or double values.
+ * <p>
+ * The implementation is based on an open-addressing hash map keyed by primitive long: int and long values are
+ * keyed by their value and double values are keyed by their bits, following the semantics of {@link Double#equals}.
+ * Looking up a value therefore does not allocate.
+ * Constants that are not of the lookupable's type, such as a null constant, are kept in a regular HashMap.
+ */
+public final class FilterParamIndexEqualsPrimitive extends FilterParamIndexLookupableBase
+{
+    private final Class keyType;
+    private final boolean floatingPoint;
+    private final ReadWriteLock constantsMapRWLock;
+    private final boolean copyOnWrite;
+
+    private volatile LongObjectHashMap<EventEvaluator> constantsMap;
+    private volatile Map<Object, EventEvaluator> otherConstantsMap;
+
+    public FilterParamIndexEqualsPrimitive(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
+        super(FilterOperator.EQUAL, lookupable);
+
+        keyType = JavaClassHelper.getBoxedType(lookupable.getReturnType());
+        if ((keyType != Integer.class) && (keyType != Long.class) && (keyType != Double.class))
+        {
+            throw new IllegalArgumentException("Invalid lookupable type for index of " + keyType);
+        }
+        floatingPoint = keyType == Double.class;
+        constantsMap = new LongObjectHashMap<EventEvaluator>();
+        otherConstantsMap = new HashMap<Object, EventEvaluator>();
+        constantsMapRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
+    }
+
+    public final EventEvaluator get(Object filterConstant)
+    {
+        if (isKeyType(filterConstant)) {
+            return constantsMap.get(keyOf(filterConstant));
+        }
+        return otherConstantsMap.get(filterConstant);
+    }
+
+    public final void put(Object filterConstant, EventEvaluator evaluator)
+    {
+        if (isKeyType(filterConstant)) {
+            if (copyOnWrite) {
+                LongObjectHashMap<EventEvaluator> copy = new LongObjectHashMap<EventEvaluator>(constantsMap);
+                copy.put(keyOf(filterConstant), evaluator);
+                constantsMap = copy;
+                return;
+            }
+            constantsMap.put(keyOf(filterConstant), evaluator);
+            return;
+        }
+
+        if (copyOnWrite) {
+            Map<Object, EventEvaluator> copy = new HashMap<Object, EventEvaluator>(otherConstantsMap);
+            copy.put(filterConstant, evaluator);
+            otherConstantsMap = copy;
+            return;
+        }
+        otherConstantsMap.put(filterConstant, evaluator);
+    }
+
+    public final boolean remove(Object filterConstant)
+    {
+        if (isKeyType(filterConstant)) {
+            long key = keyOf(filterConstant);
+            if (copyOnWrite) {
+                if (!constantsMap.containsKey(key)) {
+                    return false;
+                }
+                LongObjectHashMap<EventEvaluator> copy = new LongObjectHashMap<EventEvaluator>(constantsMap);
+                copy.remove(key);
+                constantsMap = copy;
+                return true;
+            }
+            return constantsMap.remove(key) != null;
+        }
+
+        if (copyOnWrite) {
+            if (!otherConstantsMap.containsKey(filterConstant)) {
+                return false;
+            }
+            Map<Object, EventEvaluator> copy = new HashMap<Object, EventEvaluator>(otherConstantsMap);
+            copy.remove(filterConstant);
+            otherConstantsMap = copy;
+            return true;
+        }
+        return otherConstantsMap.remove(filterConstant) != null;
+    }
+
+    public final int size()
+    {
+        return constantsMap.size() + otherConstantsMap.size();
+    }
+
+    public final ReadWriteLock getReadWriteLock()
+    {
+        return constantsMapRWLock;
+    }
+
+    public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
+    {
+        Object attributeValue = lookupable.getGetter().get(theEvent);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qFilterReverseIndex(this, attributeValue);}
+
+        if (attributeValue == null) {   //  null cannot match, not even null: requires use of "is"
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(false);}
+            return;
+        }
+
+        // Look up in hashtable
+        EventEvaluator evaluator;
+        constantsMapRWLock.readLock().lock();
+        try {
+            if (attributeValue.getClass() == keyType) {
+                evaluator = constantsMap.get(keyOf(attributeValue));
+            }
+            else {
+                evaluator = otherConstantsMap.get(attributeValue);
+            }
+        }
+        finally {
+            constantsMapRWLock.readLock().unlock();
+        }
+
+        // No listener found for the value, return
+        if (evaluator == null)
+        {
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(false);}
+            return;
+        }
+
+        evaluator.matchEvent(theEvent, matches);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(true);}
+    }
+
+    private boolean isKeyType(Object filterConstant)
+    {
+        return filterConstant != null && filterConstant.getClass() == keyType;
+    }
+
+    private long keyOf(Object value)
+    {
+        if (floatingPoint) {
+            return Double.doubleToLongBits((Double) value);
+        }
+        return ((Number) value).longValue();
+    }
+}
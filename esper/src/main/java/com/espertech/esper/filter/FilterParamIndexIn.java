@@ -24,16 +24,18 @@ import java.util.concurrent.locks.ReadWriteLock;
  */
 public final class FilterParamIndexIn extends FilterParamIndexLookupableBase
 {
-    private final Map<Object, List<EventEvaluator>> constantsMap;
+    private volatile Map<Object, List<EventEvaluator>> constantsMap;
     private final Map<MultiKeyUntyped, EventEvaluator> evaluatorsMap;
     private final ReadWriteLock constantsMapRWLock;
+    private final boolean copyOnWrite;
 
-    public FilterParamIndexIn(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
+    public FilterParamIndexIn(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
         super(FilterOperator.IN_LIST_OF_VALUES, lookupable);
 
         constantsMap = new HashMap<Object, List<EventEvaluator>>();
         evaluatorsMap = new HashMap<MultiKeyUntyped, EventEvaluator>();
         constantsMapRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
     }
 
     public final EventEvaluator get(Object filterConstant)
@@ -52,6 +54,31 @@ public final class FilterParamIndexIn extends FilterParamIndexLookupableBase
 
         // Store each value to match against in Map with it's evaluator as a list
         Object[] keyValues = keys.getKeys();
+        if (copyOnWrite) {
+            Map<Object, List<EventEvaluator>> copy = new HashMap<Object, List<EventEvaluator>>(constantsMap);
+            for (int i = 0; i < keyValues.length; i++)
+            {
+                List<EventEvaluator> existing = copy.get(keyValues[i]);
+                List<EventEvaluator> evaluators;
+                if (existing == null)
+                {
+                    evaluators = new ArrayList<EventEvaluator>(1);
+                }
+                else
+                {
+                    evaluators = new ArrayList<EventEvaluator>(existing);
+                    if (oldEvaluator != null)
+                    {
+                        evaluators.remove(oldEvaluator);
+                    }
+                }
+                evaluators.add(evaluator);
+                copy.put(keyValues[i], evaluators);
+            }
+            constantsMap = copy;
+            return;
+        }
+
         for (int i = 0; i < keyValues.length; i++)
         {
             List<EventEvaluator> evaluators = constantsMap.get(keyValues[i]);
@@ -84,6 +111,29 @@ public final class FilterParamIndexIn extends FilterParamIndexLookupableBase
         }
 
         Object[] keyValues = keys.getKeys();
+        if (copyOnWrite) {
+            Map<Object, List<EventEvaluator>> copy = new HashMap<Object, List<EventEvaluator>>(constantsMap);
+            for (int i = 0; i < keyValues.length; i++)
+            {
+                List<EventEvaluator> existing = copy.get(keyValues[i]);
+                if (existing != null) // could be removed already as same-value constants existed
+                {
+                    List<EventEvaluator> evaluators = new ArrayList<EventEvaluator>(existing);
+                    evaluators.remove(eval);
+                    if (evaluators.isEmpty())
+                    {
+                        copy.remove(keyValues[i]);
+                    }
+                    else
+                    {
+                        copy.put(keyValues[i], evaluators);
+                    }
+                }
+            }
+            constantsMap = copy;
+            return isRemoved;
+        }
+
         for (int i = 0; i < keyValues.length; i++)
         {
             List<EventEvaluator> evaluators = constantsMap.get(keyValues[i]);
@@ -23,8 +23,8 @@ import java.util.concurrent.locks.ReadWriteLock;
  */
 public final class FilterParamIndexNotEquals extends FilterParamIndexNotEqualsBase
 {
-    public FilterParamIndexNotEquals(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
-        super(lookupable, readWriteLock, FilterOperator.NOT_EQUAL);
+    public FilterParamIndexNotEquals(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
+        super(lookupable, readWriteLock, copyOnWrite, FilterOperator.NOT_EQUAL);
     }
 
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
@@ -23,8 +23,8 @@ import java.util.concurrent.locks.ReadWriteLock;
  */
 public final class FilterParamIndexNotEqualsIs extends FilterParamIndexNotEqualsBase
 {
-    public FilterParamIndexNotEqualsIs(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
-        super(lookupable, readWriteLock, FilterOperator.IS_NOT);
+    public FilterParamIndexNotEqualsIs(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
+        super(lookupable, readWriteLock, copyOnWrite, FilterOperator.IS_NOT);
     }
 
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
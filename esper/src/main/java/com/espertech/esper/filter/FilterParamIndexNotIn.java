@@ -23,19 +23,19 @@ import java.util.concurrent.locks.ReadWriteLock;
  */
 public final class FilterParamIndexNotIn extends FilterParamIndexLookupableBase
 {
-    private final Map<Object, Set<EventEvaluator>> constantsMap;
+    private volatile NotInEvaluators notInEvaluators;
     private final Map<MultiKeyUntyped, EventEvaluator> filterValueEvaluators;
-    private final Set<EventEvaluator> evaluatorsSet;
     private final ReadWriteLock constantsMapRWLock;
+    private final boolean copyOnWrite;
 
-    public FilterParamIndexNotIn(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock)
+    public FilterParamIndexNotIn(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite)
     {
         super(FilterOperator.NOT_IN_LIST_OF_VALUES, lookupable);
 
-        constantsMap = new HashMap<Object, Set<EventEvaluator>>();
+        notInEvaluators = new NotInEvaluators(new HashMap<Object, Set<EventEvaluator>>(), new HashSet<EventEvaluator>());
         filterValueEvaluators = new HashMap<MultiKeyUntyped, EventEvaluator>();
-        evaluatorsSet = new HashSet<EventEvaluator>();
         constantsMapRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
     }
 
     public final EventEvaluator get(Object filterConstant)
@@ -48,21 +48,22 @@ public final class FilterParamIndexNotIn extends FilterParamIndexLookupableBase
     {
         // Store evaluator keyed to set of values
         MultiKeyUntyped keys = (MultiKeyUntyped) filterConstant;
-        filterValueEvaluators.put(keys, evaluator);
-        evaluatorsSet.add(evaluator);
+        EventEvaluator oldEvaluator = filterValueEvaluators.put(keys, evaluator);
 
-        // Store each value to match against in Map with it's evaluator as a list
-        Object[] keyValues = keys.getKeys();
-        for (Object keyValue : keyValues)
+        // Copy-on-write replaces the evaluator for the same constant and changes a copy,
+        // the copy replaces the current evaluators after the change
+        if (copyOnWrite)
         {
-            Set<EventEvaluator> evaluators = constantsMap.get(keyValue);
-            if (evaluators == null)
+            NotInEvaluators copy = notInEvaluators.copy();
+            if (oldEvaluator != null)
             {
-                evaluators = new HashSet<EventEvaluator>();
-                constantsMap.put(keyValue, evaluators);
+                copy.remove(keys, oldEvaluator);
             }
-            evaluators.add(evaluator);
+            copy.add(keys, evaluator);
+            notInEvaluators = copy;
+            return;
         }
+        notInEvaluators.add(keys, evaluator);
     }
 
     public final boolean remove(Object filterConstant)
@@ -71,32 +72,20 @@ public final class FilterParamIndexNotIn extends FilterParamIndexLookupableBase
 
         // remove the mapping of value set to evaluator
         EventEvaluator eval = filterValueEvaluators.remove(keys);
-        evaluatorsSet.remove(eval);
-        boolean isRemoved = false;
-        if (eval != null)
+        if (eval == null)
         {
-            isRemoved = true;
+            return false;
         }
 
-        Object[] keyValues = keys.getKeys();
-        for (Object keyValue : keyValues)
-        {
-            Set<EventEvaluator> evaluators = constantsMap.get(keyValue);
-            if (evaluators != null) // could already be removed as constants may be the same
-            {
-                evaluators.remove(eval);
-                if (evaluators.isEmpty())
-                {
-                    constantsMap.remove(keyValue);
-                }
-            }
-        }
-        return isRemoved;
+        NotInEvaluators target = copyOnWrite ? notInEvaluators.copy() : notInEvaluators;
+        target.remove(keys, eval);
+        notInEvaluators = target;
+        return true;
     }
 
     public final int size()
     {
-        return constantsMap.size();
+        return notInEvaluators.constantsMap.size();
     }
 
     public final ReadWriteLock getReadWriteLock()
@@ -117,7 +106,9 @@ public final class FilterParamIndexNotIn extends FilterParamIndexLookupableBase
 
         // Look up in hashtable the set of not-in evaluators
         constantsMapRWLock.readLock().lock();
-        Set<EventEvaluator> evalNotMatching = constantsMap.get(attributeValue);
+        NotInEvaluators current = notInEvaluators;
+        Set<EventEvaluator> evaluatorsSet = current.evaluatorsSet;
+        Set<EventEvaluator> evalNotMatching = current.constantsMap.get(attributeValue);
 
         // if all known evaluators are matching, invoke all
         if (evalNotMatching == null)
@@ -159,5 +150,66 @@ public final class FilterParamIndexNotIn extends FilterParamIndexLookupableBase
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(null);}
     }
 
+    /**
+     * Holds the evaluators per value not to match and the set of all evaluators, both are replaced together
+     * for copy-on-write.
+     */
+    private static class NotInEvaluators
+    {
+        private final Map<Object, Set<EventEvaluator>> constantsMap;
+        private final Set<EventEvaluator> evaluatorsSet;
+
+        private NotInEvaluators(Map<Object, Set<EventEvaluator>> constantsMap, Set<EventEvaluator> evaluatorsSet)
+        {
+            this.constantsMap = constantsMap;
+            this.evaluatorsSet = evaluatorsSet;
+        }
+
+        private void add(MultiKeyUntyped keys, EventEvaluator evaluator)
+        {
+            evaluatorsSet.add(evaluator);
+
+            // Store each value to match against in Map with it's evaluator as a list
+            for (Object keyValue : keys.getKeys())
+            {
+                Set<EventEvaluator> evaluators = constantsMap.get(keyValue);
+                if (evaluators == null)
+                {
+                    evaluators = new HashSet<EventEvaluator>();
+                    constantsMap.put(keyValue, evaluators);
+                }
+                evaluators.add(evaluator);
+            }
+        }
+
+        private void remove(MultiKeyUntyped keys, EventEvaluator evaluator)
+        {
+            evaluatorsSet.remove(evaluator);
+
+            for (Object keyValue : keys.getKeys())
+            {
+                Set<EventEvaluator> evaluators = constantsMap.get(keyValue);
+                if (evaluators != null) // could already be removed as constants may be the same
+                {
+                    evaluators.remove(evaluator);
+                    if (evaluators.isEmpty())
+                    {
+                        constantsMap.remove(keyValue);
+                    }
+                }
+            }
+        }
+
+        private NotInEvaluators copy()
+        {
+            Map<Object, Set<EventEvaluator>> constantsMapCopy = new HashMap<Object, Set<EventEvaluator>>(constantsMap);
+            for (Map.Entry<Object, Set<EventEvaluator>> entry : constantsMapCopy.entrySet())
+            {
+                entry.setValue(new HashSet<EventEvaluator>(entry.getValue()));
+            }
+            return new NotInEvaluators(constantsMapCopy, new HashSet<EventEvaluator>(evaluatorsSet));
+        }
+    }
+
     private static final Logger log = LoggerFactory.getLogger(FilterParamIndexNotIn.class);
 }
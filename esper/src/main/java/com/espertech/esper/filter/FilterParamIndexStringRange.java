@@ -29,8 +29,8 @@ import java.util.concurrent.locks.ReadWriteLock;
  */
 public final class FilterParamIndexStringRange extends FilterParamIndexStringRangeBase
 {
-    public FilterParamIndexStringRange(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
-        super(lookupable, readWriteLock, filterOperator);
+    public FilterParamIndexStringRange(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite, FilterOperator filterOperator) {
+        super(lookupable, readWriteLock, copyOnWrite, filterOperator);
 
         if (!(filterOperator.isRangeOperator()))
         {
@@ -21,16 +21,18 @@ import java.util.concurrent.locks.ReadWriteLock;
 
 public abstract class FilterParamIndexStringRangeBase extends FilterParamIndexLookupableBase
 {
-    protected final TreeMap<StringRange, EventEvaluator> ranges;
+    protected volatile TreeMap<StringRange, EventEvaluator> ranges;
     private final IdentityHashMap<StringRange, EventEvaluator> rangesNullEndpoints;
     private final ReadWriteLock rangesRWLock;
+    private final boolean copyOnWrite;
 
-    protected FilterParamIndexStringRangeBase(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
+    protected FilterParamIndexStringRangeBase(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite, FilterOperator filterOperator) {
         super(filterOperator, lookupable);
 
         ranges = new TreeMap<StringRange, EventEvaluator>(new StringRangeComparator());
         rangesNullEndpoints = new IdentityHashMap<StringRange, EventEvaluator>();
         rangesRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
     }
 
     public final EventEvaluator get(Object expressionValue)
@@ -64,6 +66,12 @@ public abstract class FilterParamIndexStringRangeBase extends FilterParamIndexLo
             return;
         }
 
+        if (copyOnWrite) {
+            TreeMap<StringRange, EventEvaluator> copy = new TreeMap<StringRange, EventEvaluator>(ranges);
+            copy.put(range, matcher);
+            ranges = copy;
+            return;
+        }
         ranges.put(range, matcher);
     }
 
@@ -76,6 +84,15 @@ public abstract class FilterParamIndexStringRangeBase extends FilterParamIndexLo
             return rangesNullEndpoints.remove(range) != null;
         }
 
+        if (copyOnWrite) {
+            if (!ranges.containsKey(range)) {
+                return false;
+            }
+            TreeMap<StringRange, EventEvaluator> copy = new TreeMap<StringRange, EventEvaluator>(ranges);
+            copy.remove(range);
+            ranges = copy;
+            return true;
+        }
         return ranges.remove(range) != null;
     }
 
@@ -24,8 +24,8 @@ import java.util.concurrent.locks.ReadWriteLock;
  */
 public final class FilterParamIndexStringRangeInverted extends FilterParamIndexStringRangeBase
 {
-    public FilterParamIndexStringRangeInverted(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
-        super(lookupable, readWriteLock, filterOperator);
+    public FilterParamIndexStringRangeInverted(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite, FilterOperator filterOperator) {
+        super(lookupable, readWriteLock, copyOnWrite, filterOperator);
         if (!(filterOperator.isInvertedRangeOperator()))
         {
             throw new IllegalArgumentException("Invalid filter operator " + filterOperator);
@@ -78,27 +78,44 @@ public abstract class FilterServiceBase implements FilterServiceSPI
     {
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qFilter(theEvent);}
 
+        long version = matchInternal(theEvent, matches);
+        evaluatedInternal(theEvent, matches);
+        return version;
+    }
+
+    protected long evaluateInternal(EventBean theEvent, Collection<FilterHandle> matches, int statementId)
+    {
+        long version = matchInternal(theEvent, matches, statementId);
+        evaluatedInternal(theEvent, matches, statementId);
+        return version;
+    }
+
+    /**
+     * Finds all matching filters and adds their callbacks, without counting the event or notifying listeners.
+     * @param theEvent event to match
+     * @param matches collection to add matching callbacks to
+     * @return filter version the matching was performed against
+     */
+    protected long matchInternal(EventBean theEvent, Collection<FilterHandle> matches)
+    {
         long version = filtersVersion;
-        numEventsEvaluated.incrementAndGet();
 
         // Finds all matching filters and return their callbacks.
         retryableMatchEvent(theEvent, matches);
 
-        if ((AuditPath.isAuditEnabled) && (!filterServiceListeners.isEmpty())) {
-            for (FilterServiceListener listener : filterServiceListeners) {
-                listener.filtering(theEvent, matches, null);
-            }
-        }
-
-        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilter(matches);}
-
         return version;
     }
 
-    protected long evaluateInternal(EventBean theEvent, Collection<FilterHandle> matches, int statementId)
+    /**
+     * Finds all matching filters of a statement and adds their callbacks, without counting the event or notifying listeners.
+     * @param theEvent event to match
+     * @param matches collection to add matching callbacks to
+     * @param statementId statement to match filters for
+     * @return filter version the matching was performed against
+     */
+    protected long matchInternal(EventBean theEvent, Collection<FilterHandle> matches, int statementId)
     {
         long version = filtersVersion;
-        numEventsEvaluated.incrementAndGet();
 
         ArrayDeque<FilterHandle> allMatches = new ArrayDeque<FilterHandle>();
 
@@ -112,13 +129,42 @@ public abstract class FilterServiceBase implements FilterServiceSPI
             }
         }
 
+        return version;
+    }
+
+    /**
+     * Counts the evaluated event and reports the final matches to audit listeners and instrumentation.
+     * @param theEvent event evaluated
+     * @param matches matching callbacks
+     */
+    protected void evaluatedInternal(EventBean theEvent, Collection<FilterHandle> matches)
+    {
+        numEventsEvaluated.incrementAndGet();
+
         if ((AuditPath.isAuditEnabled) && (!filterServiceListeners.isEmpty())) {
             for (FilterServiceListener listener : filterServiceListeners) {
-                listener.filtering(theEvent, matches, statementId);
+                listener.filtering(theEvent, matches, null);
             }
         }
 
-        return version;
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilter(matches);}
+    }
+
+    /**
+     * Counts the evaluated event and reports the final statement matches to audit listeners.
+     * @param theEvent event evaluated
+     * @param matches matching callbacks
+     * @param statementId statement matched
+     */
+    protected void evaluatedInternal(EventBean theEvent, Collection<FilterHandle> matches, int statementId)
+    {
+        numEventsEvaluated.incrementAndGet();
+
+        if ((AuditPath.isAuditEnabled) && (!filterServiceListeners.isEmpty())) {
+            for (FilterServiceListener listener : filterServiceListeners) {
+                listener.filtering(theEvent, matches, statementId);
+            }
+        }
     }
 
     @JmxGetter(name="NumEventsEvaluated", description = "Number of events evaluated (main)")
@@ -13,4 +13,11 @@ import java.util.concurrent.locks.ReadWriteLock;
 public interface FilterServiceGranularLockFactory
 {
     public ReadWriteLock obtainNew();
+
+    /**
+     * Returns indicator whether index nodes publish a modified copy of their state upon change,
+     * allowing event evaluation to read the index tree without locking.
+     * @return copy-on-write indicator
+     */
+    public boolean isCopyOnWrite();
 }
@@ -0,0 +1,31 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Lock factory for index trees that are changed by a single writer at a time and that are read without locking:
+ * index nodes do not lock and instead publish a modified copy of their state upon change.
+ */
+public class FilterServiceGranularLockFactoryCopyOnWrite implements FilterServiceGranularLockFactory
+{
+    public static final FilterServiceGranularLockFactoryCopyOnWrite INSTANCE = new FilterServiceGranularLockFactoryCopyOnWrite();
+
+    private FilterServiceGranularLockFactoryCopyOnWrite() {
+    }
+
+    public ReadWriteLock obtainNew() {
+        return FilterServiceGranularLockFactoryNone.INSTANCE.obtainNew();
+    }
+
+    public boolean isCopyOnWrite() {
+        return true;
+    }
+}
@@ -16,4 +16,8 @@ public class FilterServiceGranularLockFactoryReentrant implements FilterServiceG
     public ReadWriteLock obtainNew() {
         return new ReentrantReadWriteLock();
     }
+
+    public boolean isCopyOnWrite() {
+        return false;
+    }
 }
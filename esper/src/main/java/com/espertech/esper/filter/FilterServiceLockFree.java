@@ -0,0 +1,162 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Filter service that evaluates events without locking, for filters that change rarely.
+ * <p>
+ * Changes to filters are serialized by a write lock and the index nodes publish a modified copy
+ * of their state upon change, therefore evaluation reads the index tree without taking any lock.
+ * <p>
+ * Changes made while the write lock is explicitly held via {@link #acquireWriteLock()} must appear atomic to evaluation.
+ * Evaluation therefore takes an optimistic read stamp of the explicit lock and validates the stamp after matching.
+ * If the explicit lock was acquired in the meantime, evaluation discards the matches and evaluates again under the read lock,
+ * which waits until the explicit lock is released.
+ */
+public final class FilterServiceLockFree extends FilterServiceBase
+{
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final StampedLock explicitLock = new StampedLock();
+    private int explicitWriteLockCount;
+    private long explicitStamp;
+
+    public FilterServiceLockFree(boolean allowIsolation) {
+        super(FilterServiceGranularLockFactoryCopyOnWrite.INSTANCE, allowIsolation);
+    }
+
+    public void acquireWriteLock() {
+        lock.writeLock().lock();
+        if (explicitWriteLockCount++ == 0) {
+            explicitStamp = explicitLock.writeLock();
+        }
+    }
+
+    public void releaseWriteLock() {
+        if (--explicitWriteLockCount == 0) {
+            explicitLock.unlockWrite(explicitStamp);
+        }
+        lock.writeLock().unlock();
+    }
+
+    public FilterSet take(Set<Integer> statementId) {
+        lock.writeLock().lock();
+        try {
+            return super.takeInternal(statementId);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void apply(FilterSet filterSet) {
+        lock.writeLock().lock();
+        try {
+            super.applyInternal(filterSet);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long evaluate(EventBean theEvent, Collection<FilterHandle> matches) {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qFilter(theEvent);}
+
+        long version = match(theEvent, matches);
+        super.evaluatedInternal(theEvent, matches);
+        return version;
+    }
+
+    public long evaluate(EventBean theEvent, Collection<FilterHandle> matches, int statementId) {
+        long version = match(theEvent, matches, statementId);
+        super.evaluatedInternal(theEvent, matches, statementId);
+        return version;
+    }
+
+    private long match(EventBean theEvent, Collection<FilterHandle> matches) {
+        long stamp = explicitLock.tryOptimisticRead();
+        if (stamp != 0) {
+            long version = super.matchInternal(theEvent, matches);
+            if (explicitLock.validate(stamp)) {
+                return version;
+            }
+            matches.clear();
+        }
+        // the thread holding the explicit lock evaluates without waiting for itself
+        if (lock.isWriteLockedByCurrentThread()) {
+            return super.matchInternal(theEvent, matches);
+        }
+        stamp = explicitLock.readLock();
+        try {
+            return super.matchInternal(theEvent, matches);
+        }
+        finally {
+            explicitLock.unlockRead(stamp);
+        }
+    }
+
+    private long match(EventBean theEvent, Collection<FilterHandle> matches, int statementId) {
+        long stamp = explicitLock.tryOptimisticRead();
+        if (stamp != 0) {
+            long version = super.matchInternal(theEvent, matches, statementId);
+            if (explicitLock.validate(stamp)) {
+                return version;
+            }
+            matches.clear();
+        }
+        if (lock.isWriteLockedByCurrentThread()) {
+            return super.matchInternal(theEvent, matches, statementId);
+        }
+        stamp = explicitLock.readLock();
+        try {
+            return super.matchInternal(theEvent, matches, statementId);
+        }
+        finally {
+            explicitLock.unlockRead(stamp);
+        }
+    }
+
+    public FilterServiceEntry add(FilterValueSet filterValueSet, FilterHandle callback) {
+        lock.writeLock().lock();
+        try {
+            return super.addInternal(filterValueSet, callback);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(FilterHandle callback, FilterServiceEntry filterServiceEntry) {
+        lock.writeLock().lock();
+        try {
+            super.removeInternal(callback, filterServiceEntry);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeType(EventType type) {
+        lock.writeLock().lock();
+        try {
+            super.removeTypeInternal(type);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
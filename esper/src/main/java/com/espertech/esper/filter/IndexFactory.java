@@ -8,6 +8,8 @@
  **************************************************************************************/
 package com.espertech.esper.filter;
 
+import com.espertech.esper.util.JavaClassHelper;
+
 /**
  * Factory for {@link FilterParamIndexBase} instances based on event property name and filter operator type.
  */
@@ -17,6 +19,8 @@ public class IndexFactory
      * Factory for indexes that store filter parameter constants for a given event property and filter
      * operator.
      * <p>Does not perform any check of validity of property name.
+     * <p>For lookupables returning int, long or double values the equals, comparison and range operators
+     * use indexes that are keyed by primitive values.
      *
      * @param filterOperator is the type of index to use
      * @param lockFactory lock factory
@@ -31,26 +35,29 @@ public class IndexFactory
         // Handle all EQUAL comparisons
         if (filterOperator == FilterOperator.EQUAL)
         {
-            index = new FilterParamIndexEquals(lookupable, lockFactory.obtainNew());
+            if (isPrimitiveKeyed(returnValueType)) {
+                return new FilterParamIndexEqualsPrimitive(lookupable, lockFactory.obtainNew(), lockFactory.isCopyOnWrite());
+            }
+            index = new FilterParamIndexEquals(lookupable, lockFactory.obtainNew(), lockFactory.isCopyOnWrite());
             return index;
         }
 
         // Handle all NOT-EQUAL comparisons
         if (filterOperator == FilterOperator.NOT_EQUAL)
         {
-            index = new FilterParamIndexNotEquals(lookupable, lockFactory.obtainNew());
+            index = new FilterParamIndexNotEquals(lookupable, lockFactory.obtainNew(), lockFactory.isCopyOnWrite());
             return index;
         }
 
         if (filterOperator == FilterOperator.IS)
         {
-            index = new FilterParamIndexEqualsIs(lookupable, lockFactory.obtainNew());
+            index = new FilterParamIndexEqualsIs(lookupable, lockFactory.obtainNew(), lockFactory.isCopyOnWrite());
             return index;
         }
 
         if (filterOperator == FilterOperator.IS_NOT)
         {
-            index = new FilterParamIndexNotEqualsIs(lookupable, lockFactory.obtainNew());
+            index = new FilterParamIndexNotEqualsIs(lookupable, lockFactory.obtainNew(), lockFactory.isCopyOnWrite());
             return index;
         }
 
@@ -60,11 +67,14 @@ public class IndexFactory
             (filterOperator == FilterOperator.LESS) ||
             (filterOperator == FilterOperator.LESS_OR_EQUAL))
         {
-            if (returnValueType != String.class) {
-                index = new FilterParamIndexCompare(lookupable, lockFactory.obtainNew(), filterOperator);
+            if (isPrimitiveKeyed(returnValueType)) {
+                index = new FilterParamIndexComparePrimitive(lookupable, lockFactory.obtainNew(), filterOperator);
+            }
+            else if (returnValueType != String.class) {
+                index = new FilterParamIndexCompare(lookupable, lockFactory.obtainNew(), lockFactory.isCopyOnWrite(), filterOperator);
             }
             else {
-                index = new FilterParamIndexCompareString(lookupable, lockFactory.obtainNew(), filterOperator);
+                index = new FilterParamIndexCompareString(lookupable, lockFactory.obtainNew(), lockFactory.isCopyOnWrite(), filterOperator);
             }
             return index;
         }
@@ -72,40 +82,48 @@ public class IndexFactory
         // Handle all normal and inverted RANGE comparisons
         if (filterOperator.isRangeOperator())
         {
-            if (returnValueType != String.class) {
-                index = new FilterParamIndexDoubleRange(lookupable, lockFactory.obtainNew(), filterOperator);
+            if (isPrimitiveKeyed(returnValueType)) {
+                index = new FilterParamIndexDoubleRangePrimitive(lookupable, lockFactory.obtainNew(), filterOperator);
+            }
+            else if (returnValueType != String.class) {
+                index = new FilterParamIndexDoubleRange(lookupable, lockFactory.obtainNew(), lockFactory.isCopyOnWrite(), filterOperator);
             }
             else {
-                index = new FilterParamIndexStringRange(lookupable, lockFactory.obtainNew(), filterOperator);
+                index = new FilterParamIndexStringRange(lookupable, lockFactory.obtainNew(), lockFactory.isCopyOnWrite(), filterOperator);
             }
             return index;
         }
         if (filterOperator.isInvertedRangeOperator())
         {
             if (returnValueType != String.class) {
-                return new FilterParamIndexDoubleRangeInverted(lookupable, lockFactory.obtainNew(), filterOperator);
+                return new FilterParamIndexDoubleRangeInverted(lookupable, lockFactory.obtainNew(), lockFactory.isCopyOnWrite(), filterOperator);
             }
             else {
-                return new FilterParamIndexStringRangeInverted(lookupable, lockFactory.obtainNew(), filterOperator);
+                return new FilterParamIndexStringRangeInverted(lookupable, lockFactory.obtainNew(), lockFactory.isCopyOnWrite(), filterOperator);
             }
         }
 
         // Handle all IN and NOT IN comparisons
         if (filterOperator == FilterOperator.IN_LIST_OF_VALUES)
         {
-            return new FilterParamIndexIn(lookupable, lockFactory.obtainNew());
+            return new FilterParamIndexIn(lookupable, lockFactory.obtainNew(), lockFactory.isCopyOnWrite());
         }
         if (filterOperator == FilterOperator.NOT_IN_LIST_OF_VALUES)
         {
-            return new FilterParamIndexNotIn(lookupable, lockFactory.obtainNew());
+            return new FilterParamIndexNotIn(lookupable, lockFactory.obtainNew(), lockFactory.isCopyOnWrite());
         }
 
         // Handle all boolean expression
         if (filterOperator == FilterOperator.BOOLEAN_EXPRESSION)
         {
-            return new FilterParamIndexBooleanExpr(lockFactory.obtainNew());
+            return new FilterParamIndexBooleanExpr(lockFactory.obtainNew(), lockFactory.isCopyOnWrite());
         }
         throw new IllegalArgumentException("Cannot create filter index instance for filter operator " + filterOperator);
     }
-}
 
+    private static boolean isPrimitiveKeyed(Class returnValueType)
+    {
+        Class boxed = JavaClassHelper.getBoxedType(returnValueType);
+        return (boxed == Integer.class) || (boxed == Long.class) || (boxed == Double.class);
+    }
+}
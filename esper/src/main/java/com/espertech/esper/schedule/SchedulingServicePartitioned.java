@@ -0,0 +1,189 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.schedule;
+
+import com.espertech.esper.metrics.jmx.JmxGetter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implements the schedule service by partitioning handles by statement and agent instance
+ * across a fixed number of partition scheduling services.
+ * <p>
+ * Each partition has its own lock, so that adding and removing handles for different statements
+ * does not contend, and each partition can be evaluated independently of the others.
+ * All handles of a given agent instance are always kept by the same partition, therefore
+ * the schedule slot ordering for the handles of an agent instance is the same as for a single
+ * scheduling service. Handles of different partitions are returned by {@link #evaluate} ordered by partition.
+ */
+public final class SchedulingServicePartitioned implements SchedulingServiceSPI
+{
+    private final SchedulingServiceSPI[] partitions;
+
+    // Current time - used for evaluation as well as for adding new handles
+    private volatile long currentTime;
+
+    /**
+     * Constructor.
+     * @param partitions partition scheduling services
+     */
+    public SchedulingServicePartitioned(SchedulingServiceSPI[] partitions)
+    {
+        this.partitions = partitions;
+        this.currentTime = partitions[0].getTime();
+    }
+
+    /**
+     * Returns the number of partitions.
+     * @return partition count
+     */
+    public int getNumPartitions()
+    {
+        return partitions.length;
+    }
+
+    /**
+     * Evaluate the current time for a single partition and add to the collection any handles of the partition scheduled for execution.
+     * @param partition partition number
+     * @param handles is a collection of handles populated by the service with any callbacks due
+     */
+    public void evaluatePartition(int partition, Collection<ScheduleHandle> handles)
+    {
+        partitions[partition].evaluate(handles);
+    }
+
+    public void destroy()
+    {
+        log.debug("Destroying scheduling service");
+        for (SchedulingServiceSPI partition : partitions) {
+            partition.destroy();
+        }
+    }
+
+    public long getTime()
+    {
+        // note that this.currentTime is volatile
+        return this.currentTime;
+    }
+
+    public synchronized final void setTime(long currentTime)
+    {
+        this.currentTime = currentTime;
+        for (SchedulingServiceSPI partition : partitions) {
+            partition.setTime(currentTime);
+        }
+    }
+
+    public final void add(long afterMSec, ScheduleHandle handle, long slot)
+            throws ScheduleServiceException
+    {
+        partitionFor(handle).add(afterMSec, handle, slot);
+    }
+
+    public final void remove(ScheduleHandle handle, long slot)
+    {
+        partitionFor(handle).remove(handle, slot);
+    }
+
+    public final void evaluate(Collection<ScheduleHandle> handles)
+    {
+        for (SchedulingServiceSPI partition : partitions) {
+            partition.evaluate(handles);
+        }
+    }
+
+    public ScheduleSet take(Set<Integer> statementIds)
+    {
+        List<ScheduleSetEntry> list = new ArrayList<ScheduleSetEntry>();
+        for (SchedulingServiceSPI partition : partitions) {
+            list.addAll(partition.take(statementIds).getList());
+        }
+        return new ScheduleSet(list);
+    }
+
+    public void apply(ScheduleSet scheduleSet)
+    {
+        for (ScheduleSetEntry entry : scheduleSet.getList())
+        {
+            add(entry.getTime(), entry.getHandle(), entry.getScheduleSlot());
+        }
+    }
+
+    public void init() {
+        for (SchedulingServiceSPI partition : partitions) {
+            partition.init();
+        }
+    }
+
+    @JmxGetter(name = "TimeHandleCount", description = "Number of outstanding time evaluations")
+    public int getTimeHandleCount()
+    {
+        int count = 0;
+        for (SchedulingServiceSPI partition : partitions) {
+            count += partition.getTimeHandleCount();
+        }
+        return count;
+    }
+
+    public Long getFurthestTimeHandle()
+    {
+        Long furthest = null;
+        for (SchedulingServiceSPI partition : partitions) {
+            Long handle = partition.getFurthestTimeHandle();
+            if (handle != null && (furthest == null || handle > furthest)) {
+                furthest = handle;
+            }
+        }
+        return furthest;
+    }
+
+    public Long getNearestTimeHandle() {
+        Long nearest = null;
+        for (SchedulingServiceSPI partition : partitions) {
+            Long handle = partition.getNearestTimeHandle();
+            if (handle != null && (nearest == null || handle < nearest)) {
+                nearest = handle;
+            }
+        }
+        return nearest;
+    }
+
+    public int getScheduleHandleCount()
+    {
+        int count = 0;
+        for (SchedulingServiceSPI partition : partitions) {
+            count += partition.getScheduleHandleCount();
+        }
+        return count;
+    }
+
+    public boolean isScheduled(ScheduleHandle handle)
+    {
+        return partitionFor(handle).isScheduled(handle);
+    }
+
+    public void visitSchedules(ScheduleVisitor visitor) {
+        for (SchedulingServiceSPI partition : partitions) {
+            partition.visitSchedules(visitor);
+        }
+    }
+
+    private SchedulingServiceSPI partitionFor(ScheduleHandle handle) {
+        int hash = handle.getStatementId() * 31 + handle.getAgentInstanceId();
+        hash ^= (hash >>> 16);
+        return partitions[(hash & 0x7fffffff) % partitions.length];
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulingServicePartitioned.class);
+}
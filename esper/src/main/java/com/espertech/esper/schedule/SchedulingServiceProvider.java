@@ -8,6 +8,7 @@
  **************************************************************************************/
 package com.espertech.esper.schedule;
 
+import com.espertech.esper.client.ConfigurationEngineDefaults;
 import com.espertech.esper.timer.TimeSourceService;
 
 /**
@@ -24,4 +25,37 @@ public final class SchedulingServiceProvider
     {
         return new SchedulingServiceImpl(timeSourceService);
     }
+
+    /**
+     * Creates an implementation of the SchedulingService interface.
+     * @param schedulingServiceProfile config
+     * @param numPartitions number of partitions, or 1 for no partitioning
+     * @param timeSourceService time source provider
+     * @return implementation
+     */
+    public static SchedulingServiceSPI newService(ConfigurationEngineDefaults.SchedulingServiceProfile schedulingServiceProfile, int numPartitions, TimeSourceService timeSourceService)
+    {
+        if (numPartitions <= 1) {
+            return newService(schedulingServiceProfile, timeSourceService);
+        }
+        SchedulingServiceSPI[] partitions = new SchedulingServiceSPI[numPartitions];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = newService(schedulingServiceProfile, timeSourceService);
+        }
+        return new SchedulingServicePartitioned(partitions);
+    }
+
+    /**
+     * Creates an implementation of the SchedulingService interface.
+     * @param schedulingServiceProfile config
+     * @param timeSourceService time source provider
+     * @return implementation
+     */
+    public static SchedulingServiceSPI newService(ConfigurationEngineDefaults.SchedulingServiceProfile schedulingServiceProfile, TimeSourceService timeSourceService)
+    {
+        if (schedulingServiceProfile == ConfigurationEngineDefaults.SchedulingServiceProfile.TIMINGWHEEL) {
+            return new SchedulingServiceTimingWheelImpl(timeSourceService);
+        }
+        return new SchedulingServiceImpl(timeSourceService);
+    }
 }
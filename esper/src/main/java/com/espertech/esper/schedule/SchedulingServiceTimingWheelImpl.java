@@ -0,0 +1,443 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.schedule;
+
+import com.espertech.esper.client.util.DateTime;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.metrics.jmx.JmxGetter;
+import com.espertech.esper.timer.TimeSourceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Implements the schedule service as a hierarchical timing wheel.
+ * <p>
+ * The wheel has 8 levels of 256 buckets each, one level per byte of the millisecond time.
+ * A handle is placed into the level of the highest byte in which its trigger time differs from
+ * the wheel cursor, which is the time of the last evaluation. Level-zero buckets therefore hold
+ * handles for a single millisecond and higher-level buckets are cascaded down when the cursor
+ * enters their span. Adding and removing a handle is constant-time, and evaluation uses per-level
+ * occupancy bitmaps to skip empty buckets so that large time jumps remain cheap.
+ * <p>
+ * Handles that are due for the same time are returned ordered by schedule slot, same as for
+ * {@link SchedulingServiceImpl}.
+ * <p>
+ * Synchronized since statement creation and event evaluation by multiple (event send) threads
+ * can lead to callbacks added/removed asynchronously.
+ */
+public final class SchedulingServiceTimingWheelImpl implements SchedulingServiceSPI
+{
+    private static final int NUM_LEVELS = 8;
+    private static final int NUM_BUCKETS = 256;
+    private static final int BITMAP_WORDS = NUM_BUCKETS / 64;
+
+    private static final Comparator<Entry> ENTRY_COMPARATOR = new Comparator<Entry>() {
+        public int compare(Entry o1, Entry o2) {
+            if (o1.time != o2.time) {
+                return o1.time < o2.time ? -1 : 1;
+            }
+            if (o1.slot != o2.slot) {
+                return o1.slot < o2.slot ? -1 : 1;
+            }
+            return 0;
+        }
+    };
+
+    // Bucket list heads, indexed by level times number of buckets plus bucket index
+    private final Entry[] buckets = new Entry[NUM_LEVELS * NUM_BUCKETS];
+
+    // Occupancy bitmap per level for skipping empty buckets
+    private final long[] occupancy = new long[NUM_LEVELS * BITMAP_WORDS];
+
+    // Map of handle and wheel entry for faster removal
+    private final Map<ScheduleHandle, Entry> handleEntryMap;
+
+    // Reused for ordering entries of a due bucket
+    private final ArrayList<Entry> dueEntries = new ArrayList<Entry>();
+
+    // Wheel position as an unsigned key, all handles in the wheel are placed relative to the cursor
+    private long cursor;
+
+    // Current time - used for evaluation as well as for adding new handles
+    private volatile long currentTime;
+
+    /**
+     * Constructor.
+     * @param timeSourceService time source provider
+     */
+    public SchedulingServiceTimingWheelImpl(TimeSourceService timeSourceService)
+    {
+        this.handleEntryMap = new HashMap<ScheduleHandle, Entry>();
+        // initialize time to just before now as there is a check for duplicate external time events
+        this.currentTime = timeSourceService.getTimeMillis() - 1;
+        this.cursor = toKey(currentTime);
+    }
+
+    public synchronized void destroy()
+    {
+        log.debug("Destroying scheduling service");
+        handleEntryMap.clear();
+        Arrays.fill(buckets, null);
+        Arrays.fill(occupancy, 0);
+    }
+
+    public long getTime()
+    {
+        // note that this.currentTime is volatile
+        return this.currentTime;
+    }
+
+    public synchronized final void setTime(long currentTime)
+    {
+        this.currentTime = currentTime;
+    }
+
+    public synchronized final void add(long afterMSec, ScheduleHandle handle, long slot)
+            throws ScheduleServiceException
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qScheduleAdd(currentTime, afterMSec, handle, slot);}
+        Entry existing = handleEntryMap.remove(handle);
+        if (existing != null) {
+            unlink(existing);
+        }
+
+        Entry entry = new Entry(handle, slot, currentTime + afterMSec);
+        handleEntryMap.put(handle, entry);
+        place(entry);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleAdd();}
+    }
+
+    public synchronized final void remove(ScheduleHandle handle, long slot)
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qScheduleRemove(handle, slot);}
+        Entry entry = handleEntryMap.remove(handle);
+        if (entry != null) {
+            // If it already has been removed then that's fine;
+            // Such could be the case when 2 timers fireStatementStopped at the same time, and one stops the other
+            unlink(entry);
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleRemove();}
+    }
+
+    public synchronized final void evaluate(Collection<ScheduleHandle> handles)
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qScheduleEval(currentTime);}
+        long target = toKey(currentTime);
+
+        // time moved backwards, re-position all handles relative to the new time
+        if (Long.compareUnsigned(target, cursor) < 0) {
+            rebuild(target);
+        }
+
+        while (true) {
+            int position = findEarliestBucket();
+            if (position == -1) {
+                moveCursor(target);
+                break;
+            }
+            int level = position / NUM_BUCKETS;
+            long bucketStart = bucketStart(level, position % NUM_BUCKETS);
+            if (Long.compareUnsigned(bucketStart, target) > 0) {
+                moveCursor(target);
+                break;
+            }
+
+            if (level > 0) {
+                // entering the span of a higher-level bucket cascades it down
+                moveCursor(bucketStart);
+                continue;
+            }
+
+            fireBucket(position, handles);
+            if (Long.compareUnsigned(bucketStart, cursor) > 0) {
+                cursor = bucketStart;
+            }
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleEval(handles);}
+    }
+
+    public synchronized ScheduleSet take(Set<Integer> statementIds)
+    {
+        List<ScheduleSetEntry> list = new ArrayList<ScheduleSetEntry>();
+        long currentTime = getTime();
+        for (Entry head : buckets) {
+            for (Entry entry = head; entry != null; entry = entry.next) {
+                if (statementIds.contains(entry.handle.getStatementId())) {
+                    list.add(new ScheduleSetEntry(entry.time - currentTime, entry.slot, entry.handle));
+                }
+            }
+        }
+
+        for (ScheduleSetEntry entry : list)
+        {
+            remove(entry.getHandle(), entry.getScheduleSlot());
+        }
+
+        return new ScheduleSet(list);
+    }
+
+    public synchronized void apply(ScheduleSet scheduleSet)
+    {
+        for (ScheduleSetEntry entry : scheduleSet.getList())
+        {
+            add(entry.getTime(), entry.getHandle(), entry.getScheduleSlot());
+        }
+    }
+
+    public void init() {
+        // no action required
+    }
+
+    @JmxGetter(name = "TimeHandleCount", description = "Number of outstanding time evaluations")
+    public synchronized int getTimeHandleCount()
+    {
+        Set<Long> times = new HashSet<Long>();
+        for (Entry entry : handleEntryMap.values()) {
+            times.add(entry.time);
+        }
+        return times.size();
+    }
+
+    @JmxGetter(name = "FurthestTimeHandle", description = "Furthest outstanding time evaluation")
+    public String getFurthestTimeHandleDate()
+    {
+        Long handle = getFurthestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    @JmxGetter(name = "NearestTimeHandle", description = "Nearest outstanding time evaluation")
+    public String getNearestTimeHandleDate()
+    {
+        Long handle = getNearestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    public synchronized Long getFurthestTimeHandle()
+    {
+        for (int position = buckets.length - 1; position >= 0; position--) {
+            if (buckets[position] == null) {
+                continue;
+            }
+            long furthest = Long.MIN_VALUE;
+            for (Entry entry = buckets[position]; entry != null; entry = entry.next) {
+                furthest = Math.max(furthest, entry.time);
+            }
+            return furthest;
+        }
+        return null;
+    }
+
+    public int getScheduleHandleCount()
+    {
+        return handleEntryMap.size();
+    }
+
+    public boolean isScheduled(ScheduleHandle handle)
+    {
+        return handleEntryMap.containsKey(handle);
+    }
+
+    public synchronized Long getNearestTimeHandle() {
+        int position = findEarliestBucket();
+        if (position == -1) {
+            return null;
+        }
+        long nearest = Long.MAX_VALUE;
+        for (Entry entry = buckets[position]; entry != null; entry = entry.next) {
+            nearest = Math.min(nearest, entry.time);
+        }
+        return nearest;
+    }
+
+    public synchronized void visitSchedules(ScheduleVisitor visitor) {
+        ScheduleVisit visit = new ScheduleVisit();
+        for (Entry head : buckets) {
+            for (Entry entry = head; entry != null; entry = entry.next) {
+                visit.setTimestamp(entry.time);
+                visit.setStatementId(entry.handle.getStatementId());
+                visit.setAgentInstanceId(entry.handle.getAgentInstanceId());
+                visitor.visit(visit);
+            }
+        }
+    }
+
+    private void fireBucket(int position, Collection<ScheduleHandle> handles) {
+        for (Entry entry = buckets[position]; entry != null; entry = entry.next) {
+            dueEntries.add(entry);
+            handleEntryMap.remove(entry.handle);
+        }
+        buckets[position] = null;
+        clearOccupied(position);
+
+        if (dueEntries.size() > 1) {
+            Collections.sort(dueEntries, ENTRY_COMPARATOR);
+        }
+        for (Entry entry : dueEntries) {
+            handles.add(entry.handle);
+        }
+        dueEntries.clear();
+    }
+
+    /**
+     * Moves the cursor forward, cascading the one higher-level bucket whose span the cursor enters.
+     * Requires that no handles are due before the new cursor position.
+     */
+    private void moveCursor(long target) {
+        long previous = cursor;
+        cursor = target;
+        long diff = previous ^ target;
+        if (diff == 0) {
+            return;
+        }
+        int level = levelOf(diff);
+        if (level == 0) {
+            return;
+        }
+        int position = level * NUM_BUCKETS + bucketIndex(target, level);
+        Entry entry = buckets[position];
+        if (entry == null) {
+            return;
+        }
+        buckets[position] = null;
+        clearOccupied(position);
+        while (entry != null) {
+            Entry next = entry.next;
+            place(entry);
+            entry = next;
+        }
+    }
+
+    private void rebuild(long target) {
+        cursor = target;
+        Arrays.fill(buckets, null);
+        Arrays.fill(occupancy, 0);
+        for (Entry entry : handleEntryMap.values()) {
+            place(entry);
+        }
+    }
+
+    private void place(Entry entry) {
+        long key = toKey(entry.time);
+        int position;
+        if (Long.compareUnsigned(key, cursor) <= 0) {
+            // due or overdue, goes into the bucket at the cursor
+            position = bucketIndex(cursor, 0);
+        }
+        else {
+            int level = levelOf(key ^ cursor);
+            position = level * NUM_BUCKETS + bucketIndex(key, level);
+        }
+
+        entry.position = position;
+        entry.prev = null;
+        entry.next = buckets[position];
+        if (entry.next != null) {
+            entry.next.prev = entry;
+        }
+        buckets[position] = entry;
+        occupancy[position >>> 6] |= 1L << (position & 63);
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        }
+        else {
+            buckets[entry.position] = entry.next;
+            if (entry.next == null) {
+                clearOccupied(entry.position);
+            }
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    /**
+     * Returns the position of the bucket holding the earliest handles, or -1 if there are none.
+     * Lower levels always hold earlier handles than higher levels.
+     */
+    private int findEarliestBucket() {
+        for (int level = 0; level < NUM_LEVELS; level++) {
+            int from = bucketIndex(cursor, level) + (level == 0 ? 0 : 1);
+            int index = nextOccupied(level, from);
+            if (index != -1) {
+                return level * NUM_BUCKETS + index;
+            }
+        }
+        return -1;
+    }
+
+    private int nextOccupied(int level, int from) {
+        if (from >= NUM_BUCKETS) {
+            return -1;
+        }
+        int word = from >>> 6;
+        long bits = occupancy[level * BITMAP_WORDS + word] & (-1L << (from & 63));
+        while (true) {
+            if (bits != 0) {
+                return word * 64 + Long.numberOfTrailingZeros(bits);
+            }
+            word++;
+            if (word == BITMAP_WORDS) {
+                return -1;
+            }
+            bits = occupancy[level * BITMAP_WORDS + word];
+        }
+    }
+
+    private void clearOccupied(int position) {
+        occupancy[position >>> 6] &= ~(1L << (position & 63));
+    }
+
+    private long bucketStart(int level, int index) {
+        long prefix = level == NUM_LEVELS - 1 ? 0 : cursor & (-1L << (8 * (level + 1)));
+        return prefix | ((long) index << (8 * level));
+    }
+
+    private static int bucketIndex(long key, int level) {
+        return (int) (key >>> (8 * level)) & (NUM_BUCKETS - 1);
+    }
+
+    private static int levelOf(long diff) {
+        return (63 - Long.numberOfLeadingZeros(diff)) >>> 3;
+    }
+
+    // maps signed time to an unsigned key that preserves ordering
+    private static long toKey(long time) {
+        return time ^ Long.MIN_VALUE;
+    }
+
+    private static class Entry {
+        private final ScheduleHandle handle;
+        private final long slot;
+        private final long time;
+        private int position;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(ScheduleHandle handle, long slot, long time) {
+            this.handle = handle;
+            this.slot = slot;
+            this.time = time;
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulingServiceTimingWheelImpl.class);
+}
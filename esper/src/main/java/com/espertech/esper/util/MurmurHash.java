@@ -94,4 +94,53 @@ public class MurmurHash {
 
         return h;
     }
-}
\ No newline at end of file
+
+    /**
+     * Hash of an array of objects based on the hash codes of the objects, with null elements hashing as zero.
+     * <p>
+     * Each element hash code is mixed in turn as a 4-byte block of MurmurHash3 (x86, 32-bit), followed by the
+     * MurmurHash3 finalization. Unlike combining hash codes by multiplication and exclusive-or, the result depends on the
+     * position of each element and small or similar element hash codes spread over all bits, so that for example
+     * the keys (1, 2) and (2, 1) or (0, 31) and (1, 0) do not collide.
+     * @param objects to hash
+     * @return hash
+     */
+    public static int hashObjects(Object[] objects) {
+        int h = 0;
+        for (Object object : objects) {
+            h = mix(h, object == null ? 0 : object.hashCode());
+        }
+        return finish(h, objects.length);
+    }
+
+    /**
+     * Mixes a 32-bit value into a running MurmurHash3 hash.
+     * @param h running hash
+     * @param value to mix in
+     * @return running hash
+     */
+    public static int mix(int h, int value) {
+        int k = value * 0xcc9e2d51;
+        k = Integer.rotateLeft(k, 15);
+        k *= 0x1b873593;
+        h ^= k;
+        h = Integer.rotateLeft(h, 13);
+        return h * 5 + 0xe6546b64;
+    }
+
+    /**
+     * Finalizes a running MurmurHash3 hash, forcing all bits to avalanche.
+     * @param h running hash
+     * @param count number of values mixed in
+     * @return hash
+     */
+    public static int finish(int h, int count) {
+        h ^= count;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -8,6 +8,8 @@
  **************************************************************************************/
 package com.espertech.esper.view.ext;
 
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.OrderStatisticTree;
 import com.espertech.esper.view.window.RandomAccessByIndex;
 
 import java.util.TreeMap;
@@ -18,4 +20,12 @@ import java.util.TreeMap;
 public interface IStreamSortRankRandomAccess extends RandomAccessByIndex
 {
     void refresh(TreeMap<Object, Object> sortedEvents, int currentSize, int maxSize);
+
+    /**
+     * Refreshes the random access data with the updated information, for windows that keep events in rank order.
+     * @param sortedEvents is the sorted window contents, providing access by rank
+     * @param currentSize is the current size of the window
+     * @param maxSize is the maximum size of the window
+     */
+    void refresh(OrderStatisticTree<EventBean> sortedEvents, int currentSize, int maxSize);
 }
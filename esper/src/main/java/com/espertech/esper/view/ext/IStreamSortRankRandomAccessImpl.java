@@ -11,6 +11,7 @@ package com.espertech.esper.view.ext;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.collection.ArrayMaxEventCollectionRO;
 import com.espertech.esper.collection.ArrayMaxEventIterator;
+import com.espertech.esper.collection.OrderStatisticTree;
 import com.espertech.esper.view.window.RandomAccessByIndex;
 import com.espertech.esper.view.window.RandomAccessByIndexObserver;
 
@@ -27,6 +28,7 @@ public class IStreamSortRankRandomAccessImpl implements RandomAccessByIndex, ISt
     private final RandomAccessByIndexObserver updateObserver;
 
     private TreeMap<Object, Object> sortedEvents;
+    private OrderStatisticTree<EventBean> rankedEvents;
     private int currentSize;
 
     private Iterator<Object> iterator;
@@ -52,6 +54,7 @@ public class IStreamSortRankRandomAccessImpl implements RandomAccessByIndex, ISt
     {
         updateObserver.updated(this);
         this.sortedEvents = sortedEvents;
+        this.rankedEvents = null;
         this.currentSize = currentSize;
 
         this.iterator = null;
@@ -62,8 +65,29 @@ public class IStreamSortRankRandomAccessImpl implements RandomAccessByIndex, ISt
         }
     }
 
+    /**
+     * Refreshes the random access data with the updated information, for windows that keep events in rank order.
+     * Events are accessed by rank directly and are not cached.
+     * @param rankedEvents is the sorted window contents
+     * @param currentSize is the current size of the window
+     * @param maxSize is the maximum size of the window
+     */
+    public void refresh(OrderStatisticTree<EventBean> rankedEvents, int currentSize, int maxSize)
+    {
+        updateObserver.updated(this);
+        this.rankedEvents = rankedEvents;
+        this.sortedEvents = null;
+        this.currentSize = currentSize;
+        this.iterator = null;
+        this.cacheFilledTo = 0;
+    }
+
     public EventBean getNewData(int index)
     {
+        if (rankedEvents != null)
+        {
+            return index >= 0 && index < currentSize ? rankedEvents.get(index) : null;
+        }
         if (iterator == null)
         {
             iterator = sortedEvents.values().iterator();
@@ -129,6 +153,10 @@ public class IStreamSortRankRandomAccessImpl implements RandomAccessByIndex, ISt
 
     public EventBean getNewDataTail(int index)
     {
+        if (rankedEvents != null)
+        {
+            return index >= 0 && index < currentSize ? rankedEvents.get(currentSize - index - 1) : null;
+        }
         initCache();
 
         if ((index < cacheFilledTo) && (index >= 0))
@@ -141,11 +169,18 @@ public class IStreamSortRankRandomAccessImpl implements RandomAccessByIndex, ISt
 
     public Iterator<EventBean> getWindowIterator()
     {
+        if (rankedEvents != null)
+        {
+            return rankedEvents.iterator();
+        }
         initCache();
         return new ArrayMaxEventIterator(cache, cacheFilledTo);
     }
 
     public Collection<EventBean> getWindowCollectionReadOnly() {
+        if (rankedEvents != null) {
+            return rankedEvents;
+        }
         initCache();
         return new ArrayMaxEventCollectionRO(cache, cacheFilledTo);
     }
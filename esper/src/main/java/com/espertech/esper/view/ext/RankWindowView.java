@@ -12,6 +12,7 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.collection.OneEventCollection;
+import com.espertech.esper.collection.OrderStatisticTree;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
@@ -50,7 +51,7 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
 
     private final Comparator<Object> comparator;
 
-    protected TreeMap<Object, Object> sortedEvents;   // key is computed sort-key, value is either List<EventBean> or EventBean
+    protected OrderStatisticTree<EventBean> sortedEvents;   // events ordered by computed sort-key, ties in arrival order
     protected Map<Object, Object> uniqueKeySortKeys;  // key is computed unique-key, value is computed sort-key
     protected int numberOfEvents;
 
@@ -76,7 +77,7 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
         this.agentInstanceViewFactoryContext = agentInstanceViewFactoryContext;
 
         comparator = CollectionUtil.getComparator(sortCriteriaEvaluators, isSortUsingCollator, isDescendingValues);
-        sortedEvents = new TreeMap<Object, Object>(comparator);
+        sortedEvents = new OrderStatisticTree<EventBean>(comparator);
         uniqueKeySortKeys = new HashMap<Object, Object>();
     }
 
@@ -160,31 +161,14 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
         if (numberOfEvents > sortWindowSize)
         {
             while(numberOfEvents > sortWindowSize) {
-                Object lastKey = sortedEvents.lastKey();
-                Object existing = sortedEvents.get(lastKey);
-                if (existing instanceof List) {
-                    List<EventBean> existingList = (List<EventBean>) existing;
-                    while(numberOfEvents > sortWindowSize && !existingList.isEmpty()) {
-                        EventBean newestEvent = existingList.remove(0);
-                        Object uniqueKey = getUniqueValues(newestEvent);
-                        uniqueKeySortKeys.remove(uniqueKey);
-                        numberOfEvents--;
-                        removedEvents.add(newestEvent);
-                        internalHandleRemovedKey(existing, newestEvent);
-                    }
-                    if (existingList.isEmpty()) {
-                        sortedEvents.remove(lastKey);
-                    }
-                }
-                else {
-                    EventBean lastSortedEvent = (EventBean) existing;
-                    Object uniqueKey = getUniqueValues(lastSortedEvent);
-                    uniqueKeySortKeys.remove(uniqueKey);
-                    numberOfEvents--;
-                    removedEvents.add(lastSortedEvent);
-                    sortedEvents.remove(lastKey);
-                    internalHandleRemovedKey(lastKey, lastSortedEvent);
-                }
+                // remove the oldest event among those sharing the last sort key
+                Object lastKey = sortedEvents.getKey(sortedEvents.size() - 1);
+                EventBean lastSortedEvent = sortedEvents.removeAt(sortedEvents.lowerBound(lastKey));
+                Object uniqueKey = getUniqueValues(lastSortedEvent);
+                uniqueKeySortKeys.remove(uniqueKey);
+                numberOfEvents--;
+                removedEvents.add(lastSortedEvent);
+                internalHandleRemovedKey(lastKey, lastSortedEvent);
             }
         }
 
@@ -224,7 +208,7 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
     private void compareAndAddOrPassthru(EventBean eventBean, Object uniqueKey, Object newSortKey, OneEventCollection removedEvents) {
         // determine full or not
         if (numberOfEvents >= sortWindowSize) {
-            int compared = comparator.compare(sortedEvents.lastKey(), newSortKey);
+            int compared = comparator.compare(sortedEvents.getKey(sortedEvents.size() - 1), newSortKey);
 
             // this new event will fall outside of the ranks or coincides with the last entry, so its an old event already
             if (compared < 0) {
@@ -234,7 +218,7 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
             else {
                 uniqueKeySortKeys.put(uniqueKey, newSortKey);
                 numberOfEvents++;
-                CollectionUtil.addEventByKeyLazyListMapBack(newSortKey, eventBean, sortedEvents);
+                sortedEvents.addLast(newSortKey, eventBean);
                 internalHandleAddedKey(newSortKey, eventBean);
             }
         }
@@ -242,69 +226,55 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
         else {
             uniqueKeySortKeys.put(uniqueKey, newSortKey);
             numberOfEvents++;
-            CollectionUtil.addEventByKeyLazyListMapBack(newSortKey, eventBean, sortedEvents);
+            sortedEvents.addLast(newSortKey, eventBean);
             internalHandleAddedKey(newSortKey, eventBean);
         }
     }
 
     private EventBean removeFromSortedEvents(Object sortKey, Object uniqueKeyToRemove) {
-        Object existing = sortedEvents.get(sortKey);
-
-        EventBean removedOldEvent = null;
-        if (existing != null) {
-            if (existing instanceof List) {
-                List<EventBean> existingList = (List<EventBean>) existing;
-                Iterator<EventBean> it = existingList.iterator();
-                for (;it.hasNext();) {
-                    EventBean eventForRank = it.next();
-                    if (getUniqueValues(eventForRank).equals(uniqueKeyToRemove)) {
-                        it.remove();
-                        removedOldEvent = eventForRank;
-                        break;
-                    }
-                }
-
-                if (existingList.isEmpty()) {
-                    sortedEvents.remove(sortKey);
-                }
-            }
-            else {
-                removedOldEvent = (EventBean) existing;
-                sortedEvents.remove(sortKey);
-            }
+        int index = findSortedEvent(sortKey, uniqueKeyToRemove);
+        if (index == -1) {
+            return null;
         }
-        return removedOldEvent;
+        return sortedEvents.removeAt(index);
     }
 
     private EventBean inplaceReplaceSortedEvents(Object sortKey, Object uniqueKeyToReplace, EventBean newData) {
-        Object existing = sortedEvents.get(sortKey);
+        int lower = sortedEvents.lowerBound(sortKey);
+        int upper = sortedEvents.upperBound(sortKey);
+        if (lower == upper) {
+            return null;
+        }
+        if (upper - lower == 1) {
+            return sortedEvents.set(lower, newData);
+        }
 
         EventBean replaced = null;
-        if (existing != null) {
-            if (existing instanceof List) {
-                List<EventBean> existingList = (List<EventBean>) existing;
-                Iterator<EventBean> it = existingList.iterator();
-                for (;it.hasNext();) {
-                    EventBean eventForRank = it.next();
-                    if (getUniqueValues(eventForRank).equals(uniqueKeyToReplace)) {
-                        it.remove();
-                        replaced = eventForRank;
-                        break;
-                    }
-                }
-                existingList.add(newData);  // add to back as this is now the newest event
-            }
-            else {
-                replaced = (EventBean) existing;
-                sortedEvents.put(sortKey, newData);
-            }
+        int index = findSortedEvent(sortKey, uniqueKeyToReplace);
+        if (index != -1) {
+            replaced = sortedEvents.removeAt(index);
         }
+        sortedEvents.addLast(sortKey, newData);  // add to back as this is now the newest event
         return replaced;
     }
 
+    private int findSortedEvent(Object sortKey, Object uniqueKey) {
+        int lower = sortedEvents.lowerBound(sortKey);
+        int upper = sortedEvents.upperBound(sortKey);
+        if (upper - lower == 1) {
+            return lower;
+        }
+        for (int i = lower; i < upper; i++) {
+            if (getUniqueValues(sortedEvents.get(i)).equals(uniqueKey)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     public final Iterator<EventBean> iterator()
     {
-        return new RankWindowIterator(sortedEvents);
+        return sortedEvents.iterator();
     }
 
     public final String toString()
@@ -360,7 +330,7 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
     }
 
     public void visitView(ViewDataVisitor viewDataVisitor) {
-        viewDataVisitor.visitPrimary(sortedEvents, false, rankWindowViewFactory.getViewName(), numberOfEvents, sortedEvents.size());
+        viewDataVisitor.visitPrimary(sortedEvents, true, rankWindowViewFactory.getViewName(), numberOfEvents);
     }
 
     public ViewFactory getViewFactory() {
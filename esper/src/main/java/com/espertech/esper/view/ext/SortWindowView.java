@@ -12,6 +12,7 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.collection.OneEventCollection;
+import com.espertech.esper.collection.OrderStatisticTree;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprNode;
@@ -46,7 +47,7 @@ public class SortWindowView extends ViewSupport implements DataWindowView, Clone
     private final IStreamSortRankRandomAccess optionalSortedRandomAccess;
     protected final AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext;
 
-    protected TreeMap<Object, Object> sortedEvents;
+    protected OrderStatisticTree<EventBean> sortedEvents;
     protected int eventCount;
 
     public SortWindowView(SortWindowViewFactory sortWindowViewFactory,
@@ -67,7 +68,7 @@ public class SortWindowView extends ViewSupport implements DataWindowView, Clone
         this.agentInstanceViewFactoryContext = agentInstanceViewFactoryContext;
 
         Comparator<Object> comparator = CollectionUtil.getComparator(sortCriteriaEvaluators, isSortUsingCollator, isDescendingValues);
-        sortedEvents = new TreeMap<Object, Object>(comparator);
+        sortedEvents = new OrderStatisticTree<EventBean>(comparator);
     }
 
     /**
@@ -121,7 +122,7 @@ public class SortWindowView extends ViewSupport implements DataWindowView, Clone
             {
                 EventBean oldDataItem = oldData[i];
                 Object sortValues = getSortValues(oldDataItem);
-                boolean result = CollectionUtil.removeEventByKeyLazyListMap(sortValues, oldDataItem, sortedEvents);
+                boolean result = sortedEvents.remove(sortValues, oldDataItem);
                 if (result)
                 {
                     eventCount--;
@@ -141,7 +142,7 @@ public class SortWindowView extends ViewSupport implements DataWindowView, Clone
             {
                 EventBean newDataItem = newData[i];
                 Object sortValues = getSortValues(newDataItem);
-                CollectionUtil.addEventByKeyLazyListMapFront(sortValues, newDataItem, sortedEvents);
+                sortedEvents.addFirst(sortValues, newDataItem);
                 eventCount++;
                 internalHandleAdd(sortValues, newDataItem);
             }
@@ -153,32 +154,16 @@ public class SortWindowView extends ViewSupport implements DataWindowView, Clone
             int removeCount = eventCount - sortWindowSize;
             for (int i = 0; i < removeCount; i++)
             {
-                // Remove the last element of the last key - sort order is key and then natural order of arrival
-                Object lastKey = sortedEvents.lastKey();
-                Object lastEntry = sortedEvents.get(lastKey);
-                if (lastEntry instanceof List) {
-                    List<EventBean> events = (List<EventBean>) lastEntry;
-                    EventBean theEvent = events.remove(events.size() - 1);  // remove oldest event, newest events are first in list
-                    eventCount--;
-                    if (events.isEmpty()) {
-                        sortedEvents.remove(lastKey);
-                    }
-                    if (removedEvents == null) {
-                        removedEvents = new OneEventCollection();
-                    }
-                    removedEvents.add(theEvent);
-                    internalHandleRemoved(lastKey, theEvent);
-                }
-                else {
-                    EventBean theEvent = (EventBean) lastEntry;
-                    eventCount--;
-                    sortedEvents.remove(lastKey);
-                    if (removedEvents == null) {
-                        removedEvents = new OneEventCollection();
-                    }
-                    removedEvents.add(theEvent);
-                    internalHandleRemoved(lastKey, theEvent);
+                // Remove the last element - sort order is key and then natural order of arrival, newest events with the same key are first
+                int last = sortedEvents.size() - 1;
+                Object lastKey = sortedEvents.getKey(last);
+                EventBean theEvent = sortedEvents.removeAt(last);
+                eventCount--;
+                if (removedEvents == null) {
+                    removedEvents = new OneEventCollection();
                 }
+                removedEvents.add(theEvent);
+                internalHandleRemoved(lastKey, theEvent);
             }
         }
 
@@ -214,7 +199,7 @@ public class SortWindowView extends ViewSupport implements DataWindowView, Clone
 
     public final Iterator<EventBean> iterator()
     {
-        return new SortWindowIterator(sortedEvents);
+        return sortedEvents.iterator();
     }
 
     public final String toString()
@@ -255,7 +240,7 @@ public class SortWindowView extends ViewSupport implements DataWindowView, Clone
     }
 
     public void visitView(ViewDataVisitor viewDataVisitor) {
-        viewDataVisitor.visitPrimary(sortedEvents, false, sortWindowViewFactory.getViewName(), eventCount, null);
+        viewDataVisitor.visitPrimary(sortedEvents, true, sortWindowViewFactory.getViewName(), eventCount);
     }
 
     public ViewFactory getViewFactory() {
@@ -0,0 +1,295 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.view.std;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.collection.ObjectIntHashMap;
+import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.view.DataWindowView;
+import com.espertech.esper.view.ViewDataVisitor;
+import com.espertech.esper.view.ViewSupport;
+
+import java.util.*;
+
+/**
+ * Grouped length window, equivalent to a group-by view with a length window or last-event view per group
+ * followed by the merge view, for use with a parent that does not post a remove stream.
+ * <p>
+ * Instead of a copy of the child views per group, the view keeps the window of each group as a ring of
+ * fixed size in arrays shared by all groups, and assigns each group key a slot in an open-addressing hash map.
+ * A shared array holds up to a fixed number of events. When the window size exceeds it, each group has its own
+ * array that grows as the window of the group fills.
+ * Groups are never removed, same as for the group-by view.
+ * <p>
+ * Events posted by each group are posted to child views as the merge view would, and
+ * iteration returns the events of each group, oldest first, in the order groups were created.
+ */
+public class GroupByViewCompact extends ViewSupport implements DataWindowView
+{
+    private final static int CHUNK_CAPACITY = 4096;
+    private final static int INITIAL_RING_CAPACITY = 16;
+    private final static Object NULL_KEY = new Object();
+
+    private final AgentInstanceViewFactoryChainContext agentInstanceContext;
+    private final GroupByViewCompactFactory viewFactory;
+    private final ExprEvaluator[] criteriaEvaluators;
+    private final int size;
+    private final int groupsPerChunk;
+    private final EventBean[] eventsPerStream = new EventBean[1];
+
+    private final ObjectIntHashMap<Object> slotPerKey = new ObjectIntHashMap<Object>();
+    private int numGroups;
+    private int numEvents;
+
+    // the window of group slot s starts at offset (s % groupsPerChunk) * size of chunk s / groupsPerChunk
+    private EventBean[][] chunks = new EventBean[0][];
+    private int[] heads = new int[0];
+    private int[] counts = new int[0];
+
+    /**
+     * Ctor.
+     * @param agentInstanceContext context
+     * @param viewFactory factory
+     * @param criteriaEvaluators group-by criteria
+     */
+    public GroupByViewCompact(AgentInstanceViewFactoryChainContext agentInstanceContext, GroupByViewCompactFactory viewFactory, ExprEvaluator[] criteriaEvaluators)
+    {
+        this.agentInstanceContext = agentInstanceContext;
+        this.viewFactory = viewFactory;
+        this.criteriaEvaluators = criteriaEvaluators;
+        this.size = viewFactory.getSize();
+        this.groupsPerChunk = Math.max(1, CHUNK_CAPACITY / size);
+    }
+
+    public EventType getEventType()
+    {
+        // The schema is the parent view's schema
+        return parent.getEventType();
+    }
+
+    public void update(EventBean[] newData, EventBean[] oldData)
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qViewProcessIRStream(this, viewFactory.getViewName(), newData, oldData);}
+
+        // we don't care about removed data from a prior view, the same as the length window
+        if (newData != null && newData.length == 1)
+        {
+            EventBean theEvent = newData[0];
+            EventBean expired = add(getSlot(theEvent), theEvent);
+            post(new EventBean[] {theEvent}, expired == null ? null : new EventBean[] {expired});
+        }
+        else if (newData != null && newData.length > 1)
+        {
+            // post per group, in the order of the first event of each group
+            Map<Integer, List<EventBean>> eventsPerSlot = new LinkedHashMap<Integer, List<EventBean>>();
+            for (EventBean theEvent : newData) {
+                int slot = getSlot(theEvent);
+                List<EventBean> events = eventsPerSlot.get(slot);
+                if (events == null) {
+                    events = new ArrayList<EventBean>(2);
+                    eventsPerSlot.put(slot, events);
+                }
+                events.add(theEvent);
+            }
+            for (Map.Entry<Integer, List<EventBean>> entry : eventsPerSlot.entrySet()) {
+                List<EventBean> events = entry.getValue();
+                List<EventBean> expired = null;
+                for (EventBean theEvent : events) {
+                    EventBean expiredEvent = add(entry.getKey(), theEvent);
+                    if (expiredEvent != null) {
+                        if (expired == null) {
+                            expired = new ArrayList<EventBean>(events.size());
+                        }
+                        expired.add(expiredEvent);
+                    }
+                }
+                post(events.toArray(new EventBean[events.size()]), expired == null ? null : expired.toArray(new EventBean[expired.size()]));
+            }
+        }
+
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aViewProcessIRStream();}
+    }
+
+    public Iterator<EventBean> iterator()
+    {
+        return new GroupByViewCompactIterator();
+    }
+
+    /**
+     * Returns true if the view holds no events.
+     * @return indicator
+     */
+    public boolean isEmpty()
+    {
+        return numEvents == 0;
+    }
+
+    public GroupByViewCompactFactory getViewFactory() {
+        return viewFactory;
+    }
+
+    public void visitView(ViewDataVisitor viewDataVisitor) {
+        Collection<EventBean> events = new AbstractCollection<EventBean>() {
+            public Iterator<EventBean> iterator() {
+                return GroupByViewCompact.this.iterator();
+            }
+
+            public int size() {
+                return numEvents;
+            }
+        };
+        viewDataVisitor.visitPrimary(events, true, viewFactory.getViewName(), numEvents);
+    }
+
+    /**
+     * Returns the number of groups.
+     * @return groups
+     */
+    protected int getNumGroups() {
+        return numGroups;
+    }
+
+    /**
+     * Returns the number of event slots allocated in chunks, retained or not.
+     * @return slots
+     */
+    protected int getNumSlotsAllocated() {
+        int slots = 0;
+        for (EventBean[] chunk : chunks) {
+            if (chunk != null) {
+                slots += chunk.length;
+            }
+        }
+        return slots;
+    }
+
+    public String toString()
+    {
+        return this.getClass().getName() + " size=" + size + " groups=" + numGroups;
+    }
+
+    private void post(EventBean[] newData, EventBean[] expired)
+    {
+        if (this.hasViews())
+        {
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qViewIndicate(this, viewFactory.getViewName(), newData, expired);}
+            updateChildren(newData, expired);
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aViewIndicate();}
+        }
+    }
+
+    private EventBean add(int slot, EventBean theEvent)
+    {
+        EventBean[] chunk = chunks[slot / groupsPerChunk];
+        int offset = (slot % groupsPerChunk) * size;
+        int count = counts[slot];
+        if (count < size) {
+            // a chunk of a single group grows until the window is full, the ring does not wrap before that
+            if (count == chunk.length) {
+                chunk = Arrays.copyOf(chunk, (int) Math.min(size, chunk.length * 2L));
+                chunks[slot] = chunk;
+            }
+            chunk[offset + (heads[slot] + count) % size] = theEvent;
+            counts[slot] = count + 1;
+            numEvents++;
+            return null;
+        }
+
+        // replace the oldest event
+        int head = heads[slot];
+        EventBean expired = chunk[offset + head];
+        chunk[offset + head] = theEvent;
+        heads[slot] = head + 1 == size ? 0 : head + 1;
+        return expired;
+    }
+
+    private int getSlot(EventBean theEvent)
+    {
+        Object key = getGroupKey(theEvent);
+        int slot = slotPerKey.get(key);
+        if (slot != -1) {
+            return slot;
+        }
+
+        slot = numGroups++;
+        if (slot == counts.length) {
+            int capacity = Math.max(16, counts.length * 2);
+            counts = Arrays.copyOf(counts, capacity);
+            heads = Arrays.copyOf(heads, capacity);
+        }
+        int chunkIndex = slot / groupsPerChunk;
+        if (chunkIndex == chunks.length) {
+            chunks = Arrays.copyOf(chunks, Math.max(4, chunks.length * 2));
+        }
+        if (chunks[chunkIndex] == null) {
+            chunks[chunkIndex] = groupsPerChunk == 1 ? new EventBean[Math.min(size, INITIAL_RING_CAPACITY)] : new EventBean[groupsPerChunk * size];
+        }
+        slotPerKey.put(key, slot);
+        return slot;
+    }
+
+    private Object getGroupKey(EventBean theEvent)
+    {
+        eventsPerStream[0] = theEvent;
+        if (criteriaEvaluators.length == 1) {
+            Object value = criteriaEvaluators[0].evaluate(eventsPerStream, true, agentInstanceContext);
+            return value == null ? NULL_KEY : value;
+        }
+
+        Object[] values = new Object[criteriaEvaluators.length];
+        for (int i = 0; i < criteriaEvaluators.length; i++)
+        {
+            values[i] = criteriaEvaluators[i].evaluate(eventsPerStream, true, agentInstanceContext);
+        }
+        return new MultiKeyUntyped(values);
+    }
+
+    private class GroupByViewCompactIterator implements Iterator<EventBean>
+    {
+        private int slot;
+        private int position;
+
+        private GroupByViewCompactIterator() {
+            skipEmpty();
+        }
+
+        public boolean hasNext() {
+            return slot < numGroups;
+        }
+
+        public EventBean next() {
+            if (slot >= numGroups) {
+                throw new NoSuchElementException();
+            }
+            EventBean[] chunk = chunks[slot / groupsPerChunk];
+            EventBean theEvent = chunk[(slot % groupsPerChunk) * size + (heads[slot] + position) % size];
+            position++;
+            if (position == counts[slot]) {
+                slot++;
+                position = 0;
+                skipEmpty();
+            }
+            return theEvent;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void skipEmpty() {
+            while (slot < numGroups && counts[slot] == 0) {
+                slot++;
+            }
+        }
+    }
+}
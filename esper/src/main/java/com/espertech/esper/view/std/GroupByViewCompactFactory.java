@@ -0,0 +1,137 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.view.std;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
+import com.espertech.esper.core.service.StatementContext;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprNodeUtility;
+import com.espertech.esper.view.*;
+import com.espertech.esper.view.window.LengthWindowViewFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Factory for {@link GroupByViewCompact} instances, which replace a group-by view with a single child length window
+ * or last-event view and the merge view.
+ */
+public class GroupByViewCompactFactory implements DataWindowViewFactory
+{
+    private final ExprNode[] criteriaExpressions;
+    private final int size;
+    private final EventType eventType;
+
+    /**
+     * Ctor.
+     * @param criteriaExpressions group-by criteria
+     * @param size number of events retained per group
+     * @param eventType event type
+     */
+    public GroupByViewCompactFactory(ExprNode[] criteriaExpressions, int size, EventType eventType) {
+        this.criteriaExpressions = criteriaExpressions;
+        this.size = size;
+        this.eventType = eventType;
+    }
+
+    /**
+     * Returns a view factory chain with a compact grouped window replacing the group-by, length window or
+     * last-event and merge view factories, or null if the chain consists of other views.
+     * @param chain view factory chain of a stream that does not post a remove stream
+     * @return compact view factory chain or null
+     */
+    public static ViewFactoryChain compact(ViewFactoryChain chain) {
+        List<ViewFactory> factories = chain.getViewFactoryChain();
+        if (factories.size() != 3 || factories.get(0).getClass() != GroupByViewFactory.class || !(factories.get(2) instanceof MergeViewFactory)) {
+            return null;
+        }
+        GroupByViewFactory groupByFactory = (GroupByViewFactory) factories.get(0);
+        if (groupByFactory.isReclaimAged()) {
+            return null;
+        }
+
+        // the merge view must not add the group-by values to the event
+        MergeViewFactory mergeFactory = (MergeViewFactory) factories.get(2);
+        if (mergeFactory.getEventType() != groupByFactory.getEventType()) {
+            return null;
+        }
+
+        int size;
+        ViewFactory windowFactory = factories.get(1);
+        if (windowFactory.getClass() == LengthWindowViewFactory.class) {
+            size = ((LengthWindowViewFactory) windowFactory).getSize();
+        }
+        else if (windowFactory.getClass() == LastElementViewFactory.class) {
+            size = 1;
+        }
+        else {
+            return null;
+        }
+
+        List<ViewFactory> compactFactories = new ArrayList<ViewFactory>(1);
+        compactFactories.add(new GroupByViewCompactFactory(groupByFactory.getCriteriaExpressions(), size, chain.getEventType()));
+        return new ViewFactoryChain(chain.getEventType(), compactFactories);
+    }
+
+    public void setViewParameters(ViewFactoryContext viewFactoryContext, List<ExprNode> expressionParameters) throws ViewParameterException
+    {
+        // parameters are provided by the constructor
+    }
+
+    public void attach(EventType parentEventType, StatementContext statementContext, ViewFactory optionalParentFactory, List<ViewFactory> parentViewFactories) throws ViewParameterException
+    {
+        // the replaced factories are already attached
+    }
+
+    public View makeView(AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext)
+    {
+        return new GroupByViewCompact(agentInstanceViewFactoryContext, this, ExprNodeUtility.getEvaluators(criteriaExpressions));
+    }
+
+    public EventType getEventType()
+    {
+        return eventType;
+    }
+
+    public boolean canReuse(View view)
+    {
+        if (!(view instanceof GroupByViewCompact))
+        {
+            return false;
+        }
+
+        GroupByViewCompact myView = (GroupByViewCompact) view;
+        if (myView.getViewFactory().size != size || !ExprNodeUtility.deepEquals(myView.getViewFactory().criteriaExpressions, criteriaExpressions))
+        {
+            return false;
+        }
+        return myView.isEmpty();
+    }
+
+    public String getViewName() {
+        return "Group-By";
+    }
+
+    /**
+     * Returns the group-by criteria.
+     * @return criteria
+     */
+    public ExprNode[] getCriteriaExpressions() {
+        return criteriaExpressions;
+    }
+
+    /**
+     * Returns the number of events retained per group.
+     * @return size
+     */
+    public int getSize() {
+        return size;
+    }
+}
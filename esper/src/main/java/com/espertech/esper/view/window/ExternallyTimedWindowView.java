@@ -20,7 +20,6 @@ import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.util.CollectionUtil;
 import com.espertech.esper.view.*;
 
-import java.util.ArrayDeque;
 import java.util.Iterator;
 
 /**
@@ -122,16 +121,10 @@ public class ExternallyTimedWindowView extends ViewSupport implements DataWindow
         }
 
         // Remove from the window any events that have an older timestamp then the last event's timestamp
-        ArrayDeque<EventBean> expired = null;
-        if (timestamp != -1)
-        {
-            expired = timeWindow.expireEvents(timestamp - timeDeltaComputation.deltaMillisecondsSubtract(timestamp) + 1);
-        }
-
         EventBean[] oldDataUpdate = null;
-        if ((expired != null) && (!expired.isEmpty()))
+        if (timestamp != -1)
         {
-            oldDataUpdate = expired.toArray(new EventBean[expired.size()]);
+            oldDataUpdate = timeWindow.expireEvents(timestamp - timeDeltaComputation.deltaMillisecondsSubtract(timestamp) + 1);
         }
 
         if ((oldData != null) && (agentInstanceViewFactoryContext.isRemoveStream()))
@@ -53,7 +53,7 @@ public class TimeLengthBatchView extends ViewSupport implements CloneableView, S
     protected ArrayList<EventBean> lastBatch = null;
     protected ArrayList<EventBean> currentBatch = new ArrayList<EventBean>();
     protected Long callbackScheduledTime;
-    protected EPStatementHandleCallback handle;
+    protected final EPStatementHandleCallback handle;
 
     /**
      * Constructor.
@@ -83,6 +83,16 @@ public class TimeLengthBatchView extends ViewSupport implements CloneableView, S
 
         this.scheduleSlot = agentInstanceContext.getStatementContext().getScheduleBucket().allocateSlot();
 
+        ScheduleHandleCallback callback = new ScheduleHandleCallback() {
+            public void scheduledTrigger(EngineLevelExtensionServicesContext extensionServicesContext)
+            {
+                if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qViewScheduledEval(TimeLengthBatchView.this, timeLengthBatchViewFactory.getViewName());}
+                TimeLengthBatchView.this.sendBatch(true);
+                if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aViewScheduledEval();}
+            }
+        };
+        handle = new EPStatementHandleCallback(agentInstanceContext.getEpStatementAgentInstanceHandle(), callback);
+
         // schedule the first callback
         if (isStartEager) {
             scheduleCallback(0);
@@ -245,9 +255,16 @@ public class TimeLengthBatchView extends ViewSupport implements CloneableView, S
             scheduleCallback(0);
         }
 
-        // Flush and roll
+        // Flush and roll, reusing the list of the prior batch as its events have been posted as old data
+        ArrayList<EventBean> recycled = lastBatch;
         lastBatch = currentBatch;
-        currentBatch = new ArrayList<EventBean>();
+        if (recycled != null) {
+            recycled.clear();
+            currentBatch = recycled;
+        }
+        else {
+            currentBatch = new ArrayList<EventBean>();
+        }
     }
 
     /**
@@ -279,15 +296,6 @@ public class TimeLengthBatchView extends ViewSupport implements CloneableView, S
 
     protected void scheduleCallback(long delta)
     {
-        ScheduleHandleCallback callback = new ScheduleHandleCallback() {
-            public void scheduledTrigger(EngineLevelExtensionServicesContext extensionServicesContext)
-            {
-                if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qViewScheduledEval(TimeLengthBatchView.this, timeLengthBatchViewFactory.getViewName());}
-                TimeLengthBatchView.this.sendBatch(true);
-                if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aViewScheduledEval();}
-            }
-        };
-        handle = new EPStatementHandleCallback(agentInstanceContext.getEpStatementAgentInstanceHandle(), callback);
         long currentTime = agentInstanceContext.getStatementContext().getSchedulingService().getTime();
         long scheduled = timeDeltaComputation.deltaMillisecondsAdd(currentTime) - delta;
         agentInstanceContext.getStatementContext().getSchedulingService().add(scheduled, handle, scheduleSlot);
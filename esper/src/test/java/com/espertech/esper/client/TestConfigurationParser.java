@@ -65,6 +65,12 @@ public class TestConfigurationParser extends TestCase
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolOutboundCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolRouteExecCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolTimerExecCapacity());
+        assertFalse(config.getEngineDefaults().getThreading().isThreadPoolInboundKeyAffinity());
+        assertFalse(config.getEngineDefaults().getThreading().isThreadPoolOutboundVirtualThreads());
+        assertFalse(config.getEngineDefaults().getThreading().isThreadPoolRouteExecVirtualThreads());
+        assertTrue(config.getEngineDefaults().getThreading().getThreadPoolInboundPartitionKeys().isEmpty());
+        assertEquals(ConfigurationEngineDefaults.Threading.ThreadPoolQueueType.BLOCKINGQUEUE, config.getEngineDefaults().getThreading().getThreadPoolQueueType());
+        assertEquals(ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy.PARK, config.getEngineDefaults().getThreading().getThreadPoolWaitStrategy());
         assertFalse(config.getEngineDefaults().getThreading().isEngineFairlock());
         assertFalse(config.getEngineDefaults().getMetricsReporting().isJmxEngineMetrics());
         assertTrue(config.getEngineDefaults().getThreading().isNamedWindowConsumerDispatchPreserveOrder());
@@ -97,6 +103,9 @@ public class TestConfigurationParser extends TestCase
         assertEquals(ConfigurationEngineDefaults.FilterServiceProfile.READMOSTLY, config.getEngineDefaults().getExecution().getFilterServiceProfile());
         assertEquals(16, config.getEngineDefaults().getExecution().getFilterServiceMaxFilterWidth());
         assertEquals(1, config.getEngineDefaults().getExecution().getDeclaredExprValueCacheSize());
+        assertEquals(ConfigurationEngineDefaults.SchedulingServiceProfile.SORTEDMAP, config.getEngineDefaults().getExecution().getSchedulingServiceProfile());
+        assertEquals(1, config.getEngineDefaults().getExecution().getSchedulingServicePartitions());
+        assertEquals(0, config.getEngineDefaults().getExecution().getAdaptiveJoinOrderInterval());
 
         assertEquals(StreamSelector.ISTREAM_ONLY, config.getEngineDefaults().getStreamSelection().getDefaultStreamSelector());
         assertFalse(config.getEngineDefaults().getLanguage().isSortUsingCollator());
@@ -240,6 +249,7 @@ public class TestConfigurationParser extends TestCase
         assertEquals(10, lruCache.getSize());
         assertEquals(ConfigurationDBRef.ColumnChangeCaseEnum.LOWERCASE, configDBRef.getColumnChangeCase());
         assertEquals(ConfigurationDBRef.MetadataOriginEnum.SAMPLE, configDBRef.getMetadataRetrievalEnum());
+        assertEquals(0, configDBRef.getParallelPollingThreads());
         assertEquals(2, configDBRef.getSqlTypesMapping().size());
         assertEquals("int", configDBRef.getSqlTypesMapping().get(2));
         assertEquals("float", configDBRef.getSqlTypesMapping().get(6));
@@ -265,6 +275,7 @@ public class TestConfigurationParser extends TestCase
         assertEquals(ConfigurationDBRef.MetadataOriginEnum.METADATA, configDBRef.getMetadataRetrievalEnum());
         assertEquals(1, configDBRef.getSqlTypesMapping().size());
         assertEquals("java.lang.String", configDBRef.getSqlTypesMapping().get(99));
+        assertEquals(4, configDBRef.getParallelPollingThreads());
 
         // assert database reference - data source factory and DBCP config
         configDBRef = config.getDatabaseReferences().get("mydb3");
@@ -397,6 +408,13 @@ public class TestConfigurationParser extends TestCase
         assertEquals(1500, (int) config.getEngineDefaults().getThreading().getThreadPoolOutboundCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolTimerExecCapacity());
         assertEquals(2000, (int) config.getEngineDefaults().getThreading().getThreadPoolRouteExecCapacity());
+        assertTrue(config.getEngineDefaults().getThreading().isThreadPoolInboundKeyAffinity());
+        assertTrue(config.getEngineDefaults().getThreading().isThreadPoolOutboundVirtualThreads());
+        assertFalse(config.getEngineDefaults().getThreading().isThreadPoolRouteExecVirtualThreads());
+        assertEquals(1, config.getEngineDefaults().getThreading().getThreadPoolInboundPartitionKeys().size());
+        assertEquals("myString", config.getEngineDefaults().getThreading().getThreadPoolInboundPartitionKeys().get("MyMapEvent"));
+        assertEquals(ConfigurationEngineDefaults.Threading.ThreadPoolQueueType.RINGBUFFER, config.getEngineDefaults().getThreading().getThreadPoolQueueType());
+        assertEquals(ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy.YIELD, config.getEngineDefaults().getThreading().getThreadPoolWaitStrategy());
 
         assertFalse(config.getEngineDefaults().getThreading().isInternalTimerEnabled());
         assertEquals(1234567, config.getEngineDefaults().getThreading().getInternalTimerMsecResolution());
@@ -428,6 +446,9 @@ public class TestConfigurationParser extends TestCase
         assertEquals(ConfigurationEngineDefaults.FilterServiceProfile.READWRITE, config.getEngineDefaults().getExecution().getFilterServiceProfile());
         assertEquals(100, config.getEngineDefaults().getExecution().getFilterServiceMaxFilterWidth());
         assertEquals(101, config.getEngineDefaults().getExecution().getDeclaredExprValueCacheSize());
+        assertEquals(ConfigurationEngineDefaults.SchedulingServiceProfile.TIMINGWHEEL, config.getEngineDefaults().getExecution().getSchedulingServiceProfile());
+        assertEquals(4, config.getEngineDefaults().getExecution().getSchedulingServicePartitions());
+        assertEquals(1000, config.getEngineDefaults().getExecution().getAdaptiveJoinOrderInterval());
 
         ConfigurationMetricsReporting metrics = config.getEngineDefaults().getMetricsReporting();
         assertTrue(metrics.isEnableMetricsReporting());
@@ -486,7 +507,7 @@ public class TestConfigurationParser extends TestCase
         assertTrue(variable.isConstant());
 
         // method references
-        assertEquals(2, config.getMethodInvocationReferences().size());
+        assertEquals(3, config.getMethodInvocationReferences().size());
         ConfigurationMethodRef methodRef = config.getMethodInvocationReferences().get("abc");
         expCache = (ConfigurationExpiryTimeCache) methodRef.getDataCacheDesc();
         assertEquals(91.0, expCache.getMaxAgeSeconds());
@@ -497,6 +518,12 @@ public class TestConfigurationParser extends TestCase
         lruCache = (ConfigurationLRUCache) methodRef.getDataCacheDesc();
         assertEquals(20, lruCache.getSize());
 
+        methodRef = config.getMethodInvocationReferences().get("ghi");
+        ConfigurationConcurrentCache concurrentCache = (ConfigurationConcurrentCache) methodRef.getDataCacheDesc();
+        assertEquals(1000, concurrentCache.getMaxSize());
+        assertEquals(30.5, concurrentCache.getMaxAgeSeconds());
+        assertTrue(concurrentCache.isWeighByRowCount());
+
         // plug-in event representations
         assertEquals(2, config.getPlugInEventRepresentation().size());
         ConfigurationPlugInEventRepresentation rep = config.getPlugInEventRepresentation().get(new URI("type://format/rep/name"));
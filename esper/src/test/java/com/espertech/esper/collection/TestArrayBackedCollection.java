@@ -56,4 +56,22 @@ public class TestArrayBackedCollection extends TestCase
         coll.clear();
         assertEquals(0, coll.size());
     }
+
+    public void testIsEmptyContains()
+    {
+        assertTrue(coll.isEmpty());
+        assertFalse(coll.contains(5));
+
+        coll.add(5);
+        coll.add(null);
+        assertFalse(coll.isEmpty());
+        assertTrue(coll.contains(5));
+        assertTrue(coll.contains(null));
+        assertFalse(coll.contains(4));
+
+        // old elements past the current size are not contained
+        coll.clear();
+        assertTrue(coll.isEmpty());
+        assertFalse(coll.contains(5));
+    }
 }
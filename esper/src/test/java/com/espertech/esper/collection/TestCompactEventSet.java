@@ -0,0 +1,95 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestCompactEventSet extends TestCase
+{
+    public void testAddRemove()
+    {
+        EventBean[] events = makeEvents(3);
+        CompactEventSet set = new CompactEventSet();
+        assertTrue(set.isEmpty());
+        assertFalse(set.iterator().hasNext());
+
+        assertTrue(set.add(events[0]));
+        assertFalse(set.add(events[0]));
+        assertTrue(set.contains(events[0]));
+        assertFalse(set.contains(events[1]));
+        assertValues(set, events[0]);
+
+        assertTrue(set.add(events[1]));
+        assertTrue(set.add(events[2]));
+        assertValues(set, events[0], events[1], events[2]);
+
+        assertTrue(set.remove(events[1]));
+        assertFalse(set.remove(events[1]));
+        assertValues(set, events[0], events[2]);
+
+        assertTrue(set.remove(events[0]));
+        assertValues(set, events[2]);
+        assertTrue(set.remove(events[2]));
+        assertTrue(set.isEmpty());
+        assertFalse(set.iterator().hasNext());
+
+        try {
+            set.add(null);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    public void testCompareLinkedHashSet()
+    {
+        // sizes cross the threshold between the array and the linked hash set representation in both directions
+        EventBean[] events = makeEvents(50);
+        Random random = new Random(1234);
+        CompactEventSet set = new CompactEventSet();
+        Set<EventBean> reference = new LinkedHashSet<EventBean>();
+        for (int i = 0; i < 20000; i++) {
+            EventBean theEvent = events[random.nextInt(events.length)];
+            if (random.nextInt(10) < (i % 4000 < 2000 ? 6 : 3)) {
+                assertEquals(reference.add(theEvent), set.add(theEvent));
+            }
+            else {
+                assertEquals(reference.remove(theEvent), set.remove(theEvent));
+            }
+            assertEquals(reference.size(), set.size());
+            assertEquals(reference.contains(events[0]), set.contains(events[0]));
+            if (i % 100 == 0) {
+                assertEquals(new ArrayList<EventBean>(reference), new ArrayList<EventBean>(set));
+            }
+        }
+    }
+
+    private void assertValues(CompactEventSet set, EventBean... expected)
+    {
+        assertEquals(expected.length, set.size());
+        assertEquals(Arrays.asList(expected), new ArrayList<EventBean>(set));
+    }
+
+    private EventBean[] makeEvents(int count)
+    {
+        EventBean[] events = new EventBean[count];
+        for (int i = 0; i < count; i++) {
+            events[i] = SupportEventBeanFactory.createObject(i);
+        }
+        return events;
+    }
+}
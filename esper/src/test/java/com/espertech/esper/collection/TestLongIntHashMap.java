@@ -0,0 +1,86 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class TestLongIntHashMap extends TestCase
+{
+    public void testPutGetRemove()
+    {
+        LongIntHashMap map = new LongIntHashMap();
+        assertTrue(map.isEmpty());
+        assertEquals(-1, map.get(0));
+
+        assertEquals(-1, map.put(0, 10));
+        assertEquals(-1, map.put(-1, 11));
+        assertEquals(-1, map.put(Long.MAX_VALUE, 12));
+        assertEquals(10, map.put(0, 0));
+        assertEquals(3, map.size());
+        assertEquals(0, map.get(0));
+        assertEquals(11, map.get(-1));
+        assertEquals(12, map.get(Long.MAX_VALUE));
+        assertEquals(-1, map.get(1));
+
+        assertEquals(11, map.remove(-1));
+        assertEquals(-1, map.remove(-1));
+        assertEquals(2, map.size());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(-1, map.get(0));
+
+        try
+        {
+            map.put(1, -1);
+            fail();
+        }
+        catch (IllegalArgumentException ex)
+        {
+            // expected
+        }
+    }
+
+    public void testCompareHashMap()
+    {
+        Random random = new Random(1234);
+        LongIntHashMap map = new LongIntHashMap();
+        Map<Long, Integer> expected = new HashMap<Long, Integer>();
+
+        for (int i = 0; i < 100000; i++) {
+            // few distinct keys to exercise collisions and removal within probe sequences
+            long key = random.nextBoolean() ? random.nextInt(500) : random.nextInt(500) * 1024L;
+            int action = random.nextInt(3);
+            if (action == 0) {
+                Integer prior = expected.put(key, i);
+                assertEquals(prior == null ? -1 : prior, map.put(key, i));
+            }
+            else if (action == 1) {
+                Integer prior = expected.remove(key);
+                assertEquals(prior == null ? -1 : prior, map.remove(key));
+            }
+            else {
+                Integer value = expected.get(key);
+                assertEquals(value == null ? -1 : value, map.get(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue().intValue(), map.get(entry.getKey()));
+        }
+    }
+}
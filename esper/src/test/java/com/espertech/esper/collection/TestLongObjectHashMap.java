@@ -0,0 +1,86 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class TestLongObjectHashMap extends TestCase
+{
+    public void testPutGetRemove()
+    {
+        LongObjectHashMap<String> map = new LongObjectHashMap<String>();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(0));
+
+        assertNull(map.put(0, "a"));
+        assertNull(map.put(-1, "b"));
+        assertNull(map.put(Long.MAX_VALUE, "c"));
+        assertEquals("a", map.put(0, "d"));
+        assertEquals(3, map.size());
+        assertEquals("d", map.get(0));
+        assertEquals("b", map.get(-1));
+        assertTrue(map.containsKey(Long.MAX_VALUE));
+        assertFalse(map.containsKey(1));
+
+        LongObjectHashMap<String> copy = new LongObjectHashMap<String>(map);
+        assertEquals("b", map.remove(-1));
+        assertNull(map.remove(-1));
+        assertEquals(2, map.size());
+        assertEquals(3, copy.size());
+        assertEquals("b", copy.get(-1));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(0));
+
+        try
+        {
+            map.put(1, null);
+            fail();
+        }
+        catch (IllegalArgumentException ex)
+        {
+            // expected
+        }
+    }
+
+    public void testCompareHashMap()
+    {
+        Random random = new Random(1234);
+        LongObjectHashMap<Integer> map = new LongObjectHashMap<Integer>();
+        Map<Long, Integer> expected = new HashMap<Long, Integer>();
+
+        for (int i = 0; i < 100000; i++) {
+            // few distinct keys to exercise collisions and removal within probe sequences
+            long key = random.nextBoolean() ? random.nextInt(500) : random.nextInt(500) * 1024L;
+            int action = random.nextInt(3);
+            if (action == 0) {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+            else if (action == 1) {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+            else {
+                assertEquals(expected.get(key), map.get(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+}
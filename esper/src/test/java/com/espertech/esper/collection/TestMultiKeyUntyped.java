@@ -11,6 +11,7 @@
 
 package com.espertech.esper.collection;
 
+import com.espertech.esper.util.MurmurHash;
 import junit.framework.TestCase;
 
 import java.util.Set;
@@ -34,12 +35,11 @@ public class TestMultiKeyUntyped extends TestCase
 
     public void testHashCode()
     {
-        assertTrue(keys1.hashCode() == ("a".hashCode()*31 ^ "b".hashCode()));
-        assertTrue(keys3.hashCode() == "a".hashCode());
-        assertTrue(keys4.hashCode() == "b".hashCode());
-        assertTrue(keys5.hashCode() == 0);
+        assertTrue(keys1.hashCode() == MurmurHash.hashObjects(new Object[] {"a", "b"}));
+        assertTrue(keys3.hashCode() != keys4.hashCode());
+        assertTrue(keys4.hashCode() != keys5.hashCode());
 
-        assertTrue(keys8.hashCode() == keys1.hashCode());
+        assertTrue(keys8.hashCode() != keys1.hashCode());
         assertTrue(keys1.hashCode() == keys2.hashCode());
         assertTrue(keys1.hashCode() != keys3.hashCode());
         assertTrue(keys1.hashCode() != keys4.hashCode());
@@ -49,6 +49,28 @@ public class TestMultiKeyUntyped extends TestCase
         assertTrue(keys9.hashCode() == keys10.hashCode());
     }
 
+    public void testHashDistribution()
+    {
+        // pairs of small integers and their permutations, such as typical for multi-column group-by keys, must not collide
+        Set<Integer> hashCodes = new HashSet<Integer>();
+        for (int i = 0; i < 100; i++) {
+            for (int j = 0; j < 100; j++) {
+                hashCodes.add(new MultiKeyUntyped(i, j).hashCode());
+            }
+        }
+        assertEquals(10000, hashCodes.size());
+
+        hashCodes.clear();
+        for (int i = 0; i < 20; i++) {
+            for (int j = 0; j < 20; j++) {
+                for (int k = 0; k < 20; k++) {
+                    hashCodes.add(new MultiKeyUntyped("E" + i, j, (long) k).hashCode());
+                }
+            }
+        }
+        assertEquals(8000, hashCodes.size());
+    }
+
     public void testEquals()
     {
         assertEquals(keys2, keys1);
@@ -0,0 +1,106 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class TestObjectIntHashMap extends TestCase
+{
+    public void testPutGetRemove()
+    {
+        ObjectIntHashMap<String> map = new ObjectIntHashMap<String>();
+        assertTrue(map.isEmpty());
+        assertEquals(-1, map.get("a"));
+
+        assertEquals(-1, map.put("a", 10));
+        assertEquals(-1, map.put("", 11));
+        assertEquals(-1, map.put("Aa", 12));
+        assertEquals(10, map.put("a", 0));
+        assertEquals(3, map.size());
+        assertEquals(0, map.get("a"));
+        assertEquals(11, map.get(""));
+        assertEquals(12, map.get("Aa"));
+        assertEquals(-1, map.get("BB"));
+
+        assertEquals(11, map.remove(""));
+        assertEquals(-1, map.remove(""));
+        assertEquals(2, map.size());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(-1, map.get("a"));
+
+        try
+        {
+            map.put("BB", -1);
+            fail();
+        }
+        catch (IllegalArgumentException ex)
+        {
+            // expected
+        }
+    }
+
+    public void testIdentity()
+    {
+        ObjectIntHashMap<String> map = new ObjectIntHashMap<String>(true);
+        String a = new String("a");
+        String otherA = new String("a");
+
+        assertEquals(-1, map.put(a, 10));
+        assertEquals(-1, map.put(otherA, 11));
+        assertEquals(10, map.put(a, 0));
+        assertEquals(2, map.size());
+        assertEquals(0, map.get(a));
+        assertEquals(11, map.get(otherA));
+        assertEquals(-1, map.get("a"));
+
+        assertEquals(11, map.remove(otherA));
+        assertEquals(-1, map.remove(otherA));
+        assertEquals(1, map.size());
+        assertEquals(0, map.get(a));
+    }
+
+    public void testCompareHashMap()
+    {
+        Random random = new Random(1234);
+        ObjectIntHashMap<String> map = new ObjectIntHashMap<String>();
+        Map<String, Integer> expected = new HashMap<String, Integer>();
+
+        for (int i = 0; i < 100000; i++) {
+            // few distinct keys, some with colliding hash codes
+            String key = random.nextBoolean() ? "K" + random.nextInt(500) : (random.nextBoolean() ? "Aa" : "BB") + random.nextInt(250);
+            int action = random.nextInt(3);
+            if (action == 0) {
+                Integer prior = expected.put(key, i);
+                assertEquals(prior == null ? -1 : prior, map.put(key, i));
+            }
+            else if (action == 1) {
+                Integer prior = expected.remove(key);
+                assertEquals(prior == null ? -1 : prior, map.remove(key));
+            }
+            else {
+                Integer value = expected.get(key);
+                assertEquals(value == null ? -1 : value, map.get(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue().intValue(), map.get(entry.getKey()));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestOrderStatisticTree extends TestCase
+{
+    private static final Comparator<Object> COMPARATOR = new Comparator<Object>() {
+        public int compare(Object o1, Object o2) {
+            return ((Integer) o1).compareTo((Integer) o2);
+        }
+    };
+
+    public void testAddRemove()
+    {
+        OrderStatisticTree<String> tree = new OrderStatisticTree<String>(COMPARATOR);
+        assertTrue(tree.isEmpty());
+        assertFalse(tree.iterator().hasNext());
+        assertFalse(tree.descendingIterator().hasNext());
+
+        tree.addLast(2, "A");
+        tree.addLast(1, "B");
+        tree.addLast(2, "C");
+        tree.addFirst(2, "D");
+        assertValues(tree, "B", "D", "A", "C");
+        assertEquals(1, tree.getKey(0));
+        assertEquals(2, tree.getKey(3));
+        assertEquals(1, tree.lowerBound(2));
+        assertEquals(4, tree.upperBound(2));
+        assertEquals(0, tree.lowerBound(0));
+        assertEquals(4, tree.lowerBound(3));
+        assertEquals(2, tree.indexOf(2, "A"));
+        assertEquals(-1, tree.indexOf(1, "A"));
+
+        assertTrue(tree.remove(2, "A"));
+        assertFalse(tree.remove(2, "A"));
+        assertEquals("D", tree.set(1, "E"));
+        assertValues(tree, "B", "E", "C");
+        assertEquals("B", tree.removeAt(0));
+        assertEquals("C", tree.removeAt(1));
+        assertValues(tree, "E");
+
+        tree.clear();
+        assertEquals(0, tree.size());
+        try {
+            tree.get(0);
+            fail();
+        }
+        catch (IndexOutOfBoundsException ex) {
+            // expected
+        }
+    }
+
+    public void testCompareList()
+    {
+        // reference list of key-value pairs, kept sorted by key with the same placement of ties
+        Random random = new Random(1234);
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<Integer>(COMPARATOR);
+        List<int[]> reference = new ArrayList<int[]>();
+        int nextValue = 0;
+        for (int i = 0; i < 60000; i++) {
+            int operation = random.nextInt(10);
+            int targetSize = i < 30000 ? 5000 : 100;
+            if (reference.size() < targetSize ? operation < 6 : operation < 3) {
+                int key = random.nextInt(1000);
+                int value = nextValue++;
+                boolean first = random.nextBoolean();
+                int pos = 0;
+                while (pos < reference.size() && (first ? reference.get(pos)[0] < key : reference.get(pos)[0] <= key)) {
+                    pos++;
+                }
+                reference.add(pos, new int[] {key, value});
+                if (first) {
+                    tree.addFirst(key, value);
+                }
+                else {
+                    tree.addLast(key, value);
+                }
+            }
+            else if (!reference.isEmpty()) {
+                int pos = random.nextInt(reference.size());
+                int[] entry = reference.remove(pos);
+                if (random.nextBoolean()) {
+                    assertEquals(entry[1], (int) tree.removeAt(pos));
+                }
+                else {
+                    assertTrue(tree.remove(entry[0], entry[1]));
+                }
+            }
+
+            assertEquals(reference.size(), tree.size());
+            if (!reference.isEmpty()) {
+                int pos = random.nextInt(reference.size());
+                assertEquals(reference.get(pos)[1], (int) tree.get(pos));
+                assertEquals(reference.get(pos)[0], tree.getKey(pos));
+                assertEquals(pos, tree.indexOf(reference.get(pos)[0], reference.get(pos)[1]));
+                int lower = tree.lowerBound(reference.get(pos)[0]);
+                assertTrue(lower <= pos && (lower == 0 || reference.get(lower - 1)[0] < reference.get(pos)[0]));
+            }
+            if (i % 10000 == 0) {
+                assertContents(reference, tree);
+            }
+        }
+
+        while (!reference.isEmpty()) {
+            assertEquals(reference.remove(reference.size() - 1)[1], (int) tree.removeAt(tree.size() - 1));
+        }
+        assertTrue(tree.isEmpty());
+    }
+
+    private void assertContents(List<int[]> reference, OrderStatisticTree<Integer> tree)
+    {
+        Iterator<Integer> it = tree.iterator();
+        for (int[] entry : reference) {
+            assertEquals(entry[1], (int) it.next());
+        }
+        assertFalse(it.hasNext());
+
+        Iterator<Integer> descending = tree.descendingIterator();
+        for (int i = reference.size() - 1; i >= 0; i--) {
+            assertEquals(reference.get(i)[1], (int) descending.next());
+        }
+        assertFalse(descending.hasNext());
+
+        if (!reference.isEmpty()) {
+            int from = reference.size() / 2;
+            assertEquals(reference.get(from)[1], (int) tree.iterator(from).next());
+        }
+    }
+
+    private void assertValues(OrderStatisticTree<String> tree, String... expected)
+    {
+        assertEquals(expected.length, tree.size());
+        List<String> values = new ArrayList<String>(tree);
+        assertEquals(Arrays.asList(expected), values);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], tree.get(i));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class TestSortedDoubleTree extends TestCase
+{
+    public void testAddRemove()
+    {
+        SortedDoubleTree tree = new SortedDoubleTree();
+        assertEquals(0, tree.size());
+
+        tree.add(10);
+        tree.add(0);
+        tree.add(5);
+        tree.add(5);
+        tree.add(Double.NaN);
+        assertValues(tree, 0, 5, 5, 10);
+
+        tree.remove(5);
+        tree.remove(Double.NaN);
+        tree.remove(-0.0);
+        assertValues(tree, 5, 10);
+
+        try {
+            tree.remove(99);
+            fail();
+        }
+        catch (IllegalStateException ex) {
+            // expected
+        }
+
+        tree.clear();
+        assertEquals(0, tree.size());
+        try {
+            tree.getValue(0);
+            fail();
+        }
+        catch (IndexOutOfBoundsException ex) {
+            // expected
+        }
+    }
+
+    public void testCompareSortedList()
+    {
+        Random random = new Random(1234);
+        SortedDoubleTree tree = new SortedDoubleTree();
+        List<Double> reference = new ArrayList<Double>();
+
+        for (int i = 0; i < 60000; i++) {
+            int targetSize = i < 30000 ? 5000 : 100;
+            if (reference.size() < targetSize ? random.nextInt(10) < 6 : random.nextInt(10) < 3) {
+                // few distinct values so that duplicates span leaves
+                double value = random.nextInt(500) / 4d;
+                int pos = Collections.binarySearch(reference, value);
+                reference.add(pos < 0 ? -(pos + 1) : pos, value);
+                tree.add(value);
+            }
+            else if (!reference.isEmpty()) {
+                double value = reference.remove(random.nextInt(reference.size()));
+                tree.remove(value);
+            }
+
+            assertEquals(reference.size(), tree.size());
+            if (!reference.isEmpty()) {
+                int pos = random.nextInt(reference.size());
+                assertEquals(reference.get(pos), tree.getValue(pos));
+            }
+            if (i % 10000 == 0) {
+                for (int j = 0; j < reference.size(); j++) {
+                    assertEquals(reference.get(j), tree.getValue(j));
+                }
+            }
+        }
+
+        while (!reference.isEmpty()) {
+            tree.remove(reference.remove(0));
+        }
+        assertEquals(0, tree.size());
+    }
+
+    private void assertValues(SortedDoubleTree tree, double... expected)
+    {
+        assertEquals(expected.length, tree.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], tree.getValue(i));
+        }
+    }
+}
@@ -18,7 +18,10 @@ import junit.framework.TestCase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
 
 public class TestTimeWindow extends TestCase
 {
@@ -51,30 +54,30 @@ public class TestTimeWindow extends TestCase
         window.add(22, beans[5]);
         assertTrue(window.getOldestTimestamp() == 19L);
 
-        ArrayDeque<EventBean> beanList = window.expireEvents(19);
+        EventBean[] beanList = window.expireEvents(19);
         assertTrue(beanList == null);
 
         beanList = window.expireEvents(20);
-        assertTrue(beanList.size() == 2);
-        assertTrue(beanList.poll() == beans[0]);
-        assertTrue(beanList.poll() == beans[1]);
+        assertTrue(beanList.length == 2);
+        assertTrue(beanList[0] == beans[0]);
+        assertTrue(beanList[1] == beans[1]);
 
         beanList = window.expireEvents(21);
-        assertTrue(beanList.size() == 2);
-        assertTrue(beanList.poll() == beans[2]);
-        assertTrue(beanList.poll() == beans[3]);
+        assertTrue(beanList.length == 2);
+        assertTrue(beanList[0] == beans[2]);
+        assertTrue(beanList[1] == beans[3]);
         assertFalse(window.isEmpty());
         assertTrue(window.getOldestTimestamp() == 21);
 
         beanList = window.expireEvents(22);
-        assertTrue(beanList.size() == 1);
-        assertTrue(beanList.poll() == beans[4]);
+        assertTrue(beanList.length == 1);
+        assertTrue(beanList[0] == beans[4]);
         assertFalse(window.isEmpty());
         assertTrue(window.getOldestTimestamp() == 22);
 
         beanList = window.expireEvents(23);
-        assertTrue(beanList.size() == 1);
-        assertTrue(beanList.poll() == beans[5]);
+        assertTrue(beanList.length == 1);
+        assertTrue(beanList[0] == beans[5]);
         assertTrue(window.isEmpty());
         assertTrue(window.getOldestTimestamp() == null);
 
@@ -105,25 +108,25 @@ public class TestTimeWindow extends TestCase
         windowRemovable.remove(beans[0]);
         windowRemovable.remove(beans[3]);
 
-        ArrayDeque<EventBean> beanList = windowRemovable.expireEvents(19);
+        EventBean[] beanList = windowRemovable.expireEvents(19);
         assertTrue(beanList == null);
 
         beanList = windowRemovable.expireEvents(20);
-        assertTrue(beanList.size() == 1);
-        assertTrue(beanList.getFirst() == beans[1]);
+        assertTrue(beanList.length == 1);
+        assertTrue(beanList[0] == beans[1]);
 
         beanList = windowRemovable.expireEvents(21);
-        assertTrue(beanList.size() == 1);
-        assertTrue(beanList.getFirst() == beans[2]);
+        assertTrue(beanList.length == 1);
+        assertTrue(beanList[0] == beans[2]);
         assertFalse(windowRemovable.isEmpty());
         assertTrue(windowRemovable.getOldestTimestamp() == 22);
 
         beanList = windowRemovable.expireEvents(22);
-        assertTrue(beanList.size() == 0);
+        assertTrue(beanList == null);
 
         beanList = windowRemovable.expireEvents(23);
-        assertTrue(beanList.size() == 1);
-        assertTrue(beanList.getFirst() == beans[5]);
+        assertTrue(beanList.length == 1);
+        assertTrue(beanList[0] == beans[5]);
         assertTrue(windowRemovable.isEmpty());
         assertTrue(windowRemovable.getOldestTimestamp() == null);
 
@@ -135,6 +138,60 @@ public class TestTimeWindow extends TestCase
         assertEquals(0, windowRemovable.getReverseIndex().size());
     }
 
+    public void testRingGrowAndReclaim()
+    {
+        Random random = new Random(1234);
+        TimeWindow window = new TimeWindow(true);
+        List<EventBean> expected = new ArrayList<EventBean>();
+        List<Long> expectedTimestamps = new ArrayList<Long>();
+        long time = 0;
+
+        for (int i = 0; i < 20000; i++) {
+            int action = random.nextInt(10);
+            if (action < 5) {
+                EventBean theEvent = createBean();
+                window.add(time, theEvent);
+                expected.add(theEvent);
+                expectedTimestamps.add(time);
+            }
+            else if (action < 8) {
+                if (!expected.isEmpty()) {
+                    int index = random.nextInt(expected.size());
+                    window.remove(expected.remove(index));
+                    expectedTimestamps.remove(index);
+                }
+            }
+            else if (action == 8) {
+                time++;
+            }
+            else {
+                long expireBefore = time - random.nextInt(20);
+                int expireCount = 0;
+                while (expireCount < expectedTimestamps.size() && expectedTimestamps.get(expireCount) < expireBefore) {
+                    expireCount++;
+                }
+                EventBean[] expired = window.expireEvents(expireBefore);
+                assertEquals(expireCount, expired == null ? 0 : expired.length);
+                for (int j = 0; j < expireCount; j++) {
+                    assertSame(expected.remove(0), expired[j]);
+                    expectedTimestamps.remove(0);
+                }
+            }
+
+            assertEquals(expected.size(), window.size());
+            assertEquals(expected.isEmpty(), window.isEmpty());
+            assertEquals(expected.isEmpty() ? null : expectedTimestamps.get(0), window.getOldestTimestamp());
+            if (i % 100 == 0) {
+                Iterator<EventBean> it = window.iterator();
+                for (EventBean theEvent : expected) {
+                    assertSame(theEvent, it.next());
+                }
+                assertFalse(it.hasNext());
+            }
+        }
+        assertEquals(expected.size(), window.getReverseIndex().size());
+    }
+
     public void testTimeWindowPerformance()
     {
         log.info(".testTimeWindowPerformance Starting");
@@ -0,0 +1,145 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TestRingBufferBlockingQueue extends TestCase
+{
+    public void testOfferPoll() throws Exception
+    {
+        RingBufferBlockingQueue queue = new RingBufferBlockingQueue(3, ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy.PARK);
+        assertEquals(4, queue.getCapacity());
+        assertNull(queue.poll());
+        assertNull(queue.peek());
+
+        List<Runnable> units = new ArrayList<Runnable>();
+        for (int i = 0; i < 4; i++) {
+            units.add(new MyRunnable());
+            assertTrue(queue.offer(units.get(i)));
+        }
+        assertFalse(queue.offer(new MyRunnable()));
+        assertFalse(queue.offer(new MyRunnable(), 1, TimeUnit.MILLISECONDS));
+        assertEquals(4, queue.size());
+        assertEquals(0, queue.remainingCapacity());
+        assertSame(units.get(0), queue.peek());
+
+        List<Runnable> iterated = new ArrayList<Runnable>();
+        for (Runnable runnable : queue) {
+            iterated.add(runnable);
+        }
+        assertEquals(units, iterated);
+
+        // wraps around
+        assertSame(units.get(0), queue.take());
+        assertSame(units.get(1), queue.poll());
+        Runnable wrapped = new MyRunnable();
+        queue.put(wrapped);
+        assertEquals(3, queue.size());
+
+        List<Runnable> drained = new ArrayList<Runnable>();
+        assertEquals(3, queue.drainTo(drained));
+        assertSame(units.get(2), drained.get(0));
+        assertSame(units.get(3), drained.get(1));
+        assertSame(wrapped, drained.get(2));
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll(1, TimeUnit.MILLISECONDS));
+    }
+
+    public void testMultithreaded() throws Exception
+    {
+        for (ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy waitStrategy : ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy.values()) {
+            tryMultithreaded(waitStrategy, 3, 3, 20000);
+        }
+    }
+
+    private void tryMultithreaded(ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy waitStrategy, int numProducers, int numConsumers, final int numPerProducer) throws Exception
+    {
+        final RingBufferBlockingQueue queue = new RingBufferBlockingQueue(16, waitStrategy);
+        final AtomicLong count = new AtomicLong();
+
+        Thread[] producers = new Thread[numProducers];
+        for (int i = 0; i < producers.length; i++) {
+            producers[i] = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        for (int j = 0; j < numPerProducer; j++) {
+                            queue.put(new MyRunnable(count));
+                        }
+                    }
+                    catch (InterruptedException e) {
+                        fail();
+                    }
+                }
+            });
+        }
+
+        Thread[] consumers = new Thread[numConsumers];
+        for (int i = 0; i < consumers.length; i++) {
+            consumers[i] = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        while (true) {
+                            queue.take().run();
+                        }
+                    }
+                    catch (InterruptedException e) {
+                        // done
+                    }
+                }
+            });
+        }
+
+        for (Thread consumer : consumers) {
+            consumer.start();
+        }
+        for (Thread producer : producers) {
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (count.get() < numProducers * numPerProducer && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        for (Thread consumer : consumers) {
+            consumer.interrupt();
+            consumer.join();
+        }
+        assertEquals(numProducers * numPerProducer, count.get());
+        assertTrue(queue.isEmpty());
+    }
+
+    private static class MyRunnable implements Runnable {
+        private final AtomicLong count;
+
+        private MyRunnable() {
+            this(null);
+        }
+
+        private MyRunnable(AtomicLong count) {
+            this.count = count;
+        }
+
+        public void run() {
+            count.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.bean.SupportBean_S0;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import com.espertech.esper.support.event.SupportEventTypeFactory;
+import junit.framework.TestCase;
+
+public class TestThreadingServiceImpl extends TestCase
+{
+    public void testPartitionKeyGetterRegistration() throws Exception
+    {
+        ConfigurationEngineDefaults.Threading config = new ConfigurationEngineDefaults.Threading();
+        config.setThreadPoolInbound(true);
+        config.setThreadPoolInboundKeyAffinity(true);
+        ThreadingOption.setThreadingEnabled(true);
+        ThreadingServiceImpl service = new ThreadingServiceImpl(config);
+        EventType type = SupportEventTypeFactory.createBeanType(SupportBean.class);
+        EventPropertyGetter getterOne = type.getGetter("theString");
+        EventPropertyGetter getterTwo = type.getGetter("intPrimitive");
+
+        // resolved without partition key before any context exists
+        assertNull(service.getInboundPartitionKeyGetter(type));
+
+        // a context created later replaces the resolved no-key entry
+        service.addInboundPartitionKeyGetter("CtxOne", type, getterOne);
+        assertSame(getterOne, service.getInboundPartitionKeyGetter(type));
+
+        // the context registered first provides the partition key
+        service.addInboundPartitionKeyGetter("CtxTwo", type, getterTwo);
+        assertSame(getterOne, service.getInboundPartitionKeyGetter(type));
+        service.removeInboundPartitionKeyGetters("CtxOne");
+        assertSame(getterTwo, service.getInboundPartitionKeyGetter(type));
+        service.removeInboundPartitionKeyGetters("CtxTwo");
+        assertNull(service.getInboundPartitionKeyGetter(type));
+
+        // configured partition key takes precedence, the shared adapter service may have registered the type under another name
+        EventType typeS0 = SupportEventTypeFactory.createBeanType(SupportBean_S0.class);
+        config.addThreadPoolInboundPartitionKey(typeS0.getName(), "p00");
+        service.addInboundPartitionKeyGetter("CtxOne", typeS0, typeS0.getGetter("id"));
+        EventBean eventS0 = SupportEventBeanFactory.createObject(new SupportBean_S0(1, "A"));
+        assertEquals("A", service.getInboundPartitionKeyGetter(typeS0).get(eventS0));
+    }
+}
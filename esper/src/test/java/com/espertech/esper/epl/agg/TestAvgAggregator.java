@@ -29,4 +29,19 @@ public class TestAvgAggregator extends TestCase
         assertEquals(175d, agg.getValue());
     }
 
+    public void testPrimitive()
+    {
+        AggregatorAvg agg = new AggregatorAvg();
+        assertTrue(Double.isNaN(agg.getDouble()));
+        agg.enterLong(100);
+        agg.enterDouble(150d);
+        agg.enter(200);
+        assertEquals(150d, agg.getDouble());
+        agg.leaveLong(100);
+        assertEquals(175d, agg.getValue());
+        agg.leaveDouble(150d);
+        agg.leave(200);
+        assertEquals(null, agg.getValue());
+        assertTrue(Double.isNaN(agg.getDouble()));
+    }
 }
@@ -11,10 +11,16 @@
 
 package com.espertech.esper.epl.agg;
 
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
 import com.espertech.esper.epl.agg.aggregator.AggregatorMinMax;
+import com.espertech.esper.epl.agg.aggregator.AggregatorMinMaxDeque;
+import com.espertech.esper.epl.agg.aggregator.AggregatorMinMaxDequeFilter;
 import com.espertech.esper.type.MinMaxTypeEnum;
 import junit.framework.TestCase;
 
+import java.util.LinkedList;
+import java.util.Random;
+
 public class TestMinMaxAggregator extends TestCase
 {
     public void testAggregatorMax()
@@ -52,4 +58,88 @@ public class TestMinMaxAggregator extends TestCase
         agg.leave(10);
         assertEquals(null, agg.getValue());
     }
+
+    public void testDequeMax()
+    {
+        AggregatorMinMaxDeque agg = new AggregatorMinMaxDeque(MinMaxTypeEnum.MAX);
+        assertEquals(null, agg.getValue());
+        agg.enter(10);
+        assertEquals(10, agg.getValue());
+        agg.enter(20);
+        agg.enter(null);
+        assertEquals(20, agg.getValue());
+        agg.enter(20);
+        agg.enter(5);
+        assertEquals(20, agg.getValue());
+        agg.leave(10);
+        agg.leave(null);
+        assertEquals(20, agg.getValue());
+        agg.leave(20);
+        assertEquals(20, agg.getValue());
+        agg.leave(20);
+        assertEquals(5, agg.getValue());
+        agg.leave(5);
+        assertEquals(null, agg.getValue());
+    }
+
+    public void testDequeNonFifoLeave()
+    {
+        AggregatorMinMaxDeque agg = new AggregatorMinMaxDeque(MinMaxTypeEnum.MIN);
+        agg.enter(30);
+        agg.enter(10);
+        agg.enter(20);
+        assertEquals(10, agg.getValue());
+        agg.leave(10);
+        assertEquals(20, agg.getValue());
+        agg.enter(5);
+        assertEquals(5, agg.getValue());
+        agg.leave(30);
+        agg.leave(20);
+        agg.leave(5);
+        assertEquals(null, agg.getValue());
+
+        // back to entering order
+        agg.enter(7);
+        agg.enter(8);
+        agg.leave(7);
+        assertEquals(8, agg.getValue());
+        agg.clear();
+        assertEquals(null, agg.getValue());
+    }
+
+    public void testDequeFilter()
+    {
+        AggregatorMinMaxDeque agg = new AggregatorMinMaxDequeFilter(MinMaxTypeEnum.MAX);
+        agg.enter(new Object[] {10, true});
+        agg.enter(new Object[] {30, false});
+        agg.enter(new Object[] {20, true});
+        assertEquals(20, agg.getValue());
+        agg.leave(new Object[] {20, true});
+        assertEquals(10, agg.getValue());
+        agg.leave(new Object[] {10, true});
+        assertEquals(null, agg.getValue());
+    }
+
+    public void testDequeCompareSortedSet()
+    {
+        Random random = new Random(1234);
+        for (MinMaxTypeEnum type : MinMaxTypeEnum.values()) {
+            AggregationMethod expected = new AggregatorMinMax(type);
+            AggregationMethod actual = new AggregatorMinMaxDeque(type);
+            LinkedList<Integer> window = new LinkedList<Integer>();
+            for (int i = 0; i < 10000; i++) {
+                int value = random.nextInt(100);
+                expected.enter(value);
+                actual.enter(value);
+                window.add(value);
+                // grow and shrink the window, leaving out of order now and then
+                if (window.size() > 50 || (window.size() > 0 && random.nextInt(3) == 0)) {
+                    Integer leaving = random.nextInt(20) == 0 ? window.remove(random.nextInt(window.size())) : window.removeFirst();
+                    expected.leave(leaving);
+                    actual.leave(leaving);
+                }
+                assertEquals(expected.getValue(), actual.getValue());
+            }
+        }
+    }
 }
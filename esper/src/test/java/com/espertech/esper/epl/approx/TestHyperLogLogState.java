@@ -0,0 +1,82 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.approx;
+
+import junit.framework.TestCase;
+
+public class TestHyperLogLogState extends TestCase {
+
+    public void testEstimate() {
+        HyperLogLogState state = new HyperLogLogState();
+        assertEquals(4096, state.getRegisters().length);
+        assertEquals(0, state.estimate());
+
+        state.add(null);
+        assertEquals(0, state.estimate());
+
+        for (int i = 0; i < 10; i++) {
+            state.add("E" + (i % 5));
+        }
+        assertEquals(5, state.estimate());
+
+        state.clear();
+        assertEquals(0, state.estimate());
+
+        for (int count : new int[] {100, 1000, 10000, 100000, 1000000}) {
+            state.clear();
+            for (int i = 0; i < count; i++) {
+                state.add("user" + i);
+            }
+            assertEquals("count " + count, count, state.estimate(), count * 0.05);
+
+            state.clear();
+            for (long i = 0; i < count; i++) {
+                state.add(i * 1000);
+                state.add(i * 1000);
+            }
+            assertEquals("count " + count, count, state.estimate(), count * 0.05);
+        }
+    }
+
+    public void testMerge() {
+        HyperLogLogState one = new HyperLogLogState();
+        HyperLogLogState two = new HyperLogLogState();
+        HyperLogLogState union = new HyperLogLogState();
+        for (int i = 0; i < 30000; i++) {
+            one.add(i);
+            union.add(i);
+        }
+        for (int i = 20000; i < 50000; i++) {
+            two.add(i);
+            union.add(i);
+        }
+
+        one.merge(two);
+        assertEquals(union.estimate(), one.estimate());
+        assertEquals(50000, one.estimate(), 50000 * 0.05);
+
+        try {
+            one.merge(new HyperLogLogState(10));
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            // expected
+        }
+        try {
+            new HyperLogLogState(3);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.approx;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class TestTDigestState extends TestCase {
+
+    public void testExactSmall() {
+        TDigestState state = new TDigestState();
+        assertTrue(Double.isNaN(state.quantile(0.5)));
+
+        for (int i = 1; i <= 5; i++) {
+            state.add(i * 10);
+        }
+        state.add(Double.NaN);
+        assertEquals(5, state.size());
+        assertEquals(10d, state.quantile(0));
+        assertEquals(30d, state.quantile(0.5));
+        assertEquals(50d, state.quantile(1));
+
+        state.clear();
+        assertEquals(0, state.size());
+        assertTrue(Double.isNaN(state.quantile(0.5)));
+
+        try {
+            state.quantile(1.5);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            // expected
+        }
+        try {
+            new TDigestState(1);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    public void testAccuracy() {
+        Random random = new Random(1234);
+        TDigestState state = new TDigestState();
+        int count = 100000;
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = random.nextGaussian() * 100;
+            state.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertEquals(count, state.size());
+        assertTrue(state.getCentroidCount() <= 2 * TDigestState.DEFAULT_COMPRESSION);
+        assertEquals(values[0], state.quantile(0));
+        assertEquals(values[count - 1], state.quantile(1));
+
+        for (double q : new double[] {0.001, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999}) {
+            double estimate = state.quantile(q);
+            int rank = Arrays.binarySearch(values, estimate);
+            if (rank < 0) {
+                rank = -(rank + 1);
+            }
+            double estimatedQ = rank / (double) count;
+            assertEquals("quantile " + q, q, estimatedQ, Math.max(0.002, q * (1 - q) * 0.02));
+        }
+    }
+}
@@ -21,6 +21,7 @@ import java.util.Map;
 public class SupportPollingStrategy implements PollExecStrategy
 {
     private Map<MultiKey<Object>, List<EventBean>> results;
+    private boolean destroyed;
 
     public SupportPollingStrategy(Map<MultiKey<Object>, List<EventBean>> results)
     {
@@ -44,6 +45,11 @@ public class SupportPollingStrategy implements PollExecStrategy
 
     public void destroy()
     {
+        destroyed = true;
+    }
 
+    public boolean isDestroyed()
+    {
+        return destroyed;
     }
 }
@@ -0,0 +1,167 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.db;
+
+import com.espertech.esper.core.support.SupportSchedulingServiceImpl;
+import com.espertech.esper.epl.join.table.EventTable;
+import com.espertech.esper.epl.join.table.UnindexedEventTableImpl;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+public class TestDataCacheConcurrentImpl extends TestCase
+{
+    private SupportSchedulingServiceImpl scheduler;
+    private DataCacheStatistics statistics;
+    private EventTable[] lists = new EventTable[10];
+
+    public void setUp()
+    {
+        scheduler = new SupportSchedulingServiceImpl();
+        statistics = new DataCacheStatistics();
+        for (int i = 0; i < lists.length; i++)
+        {
+            lists[i] = new UnindexedEventTableImpl(0);
+        }
+    }
+
+    public void testGet()
+    {
+        DataCacheConcurrentImpl cache = new DataCacheConcurrentImpl(5, 0, false, scheduler, statistics);
+        assertNull(cache.getCached(make("a")));
+        assertTrue(cache.isActive());
+
+        for (int i = 0; i < 5; i++) {
+            cache.put(make("k" + i), new EventTable[] {lists[i]});
+        }
+        assertSame(lists[0], cache.getCached(make("k0"))[0]);
+        assertSame(lists[1], cache.getCached(make("k1"))[0]);
+
+        // k0 and k1 were used again and move to the protected segment, k2 is evicted
+        cache.put(make("k5"), new EventTable[] {lists[5]});
+        assertEquals(5, cache.getSize());
+        assertNull(cache.getCached(make("k2")));
+
+        // a scan over keys that are not used again does not displace k0 and k1
+        for (int i = 0; i < 20; i++) {
+            cache.put(make("scan" + i), new EventTable[] {lists[9]});
+        }
+        assertEquals(5, cache.getSize());
+        assertSame(lists[0], cache.getCached(make("k0"))[0]);
+        assertSame(lists[1], cache.getCached(make("k1"))[0]);
+        assertNull(cache.getCached(make("k3")));
+        assertSame(lists[9], cache.getCached(make("scan19"))[0]);
+
+        assertEquals(5, statistics.getHits());
+        assertEquals(3, statistics.getMisses());
+        assertEquals(21, statistics.getEvictions());
+
+        // replacing an entry does not grow the cache
+        cache.put(make("k0"), new EventTable[] {lists[8]});
+        assertEquals(5, cache.getSize());
+        assertSame(lists[8], cache.getCached(make("k0"))[0]);
+
+        cache.destroy();
+        assertEquals(0, cache.getSize());
+        assertNull(cache.getCached(make("k0")));
+    }
+
+    public void testMaxAge()
+    {
+        DataCacheConcurrentImpl cache = new DataCacheConcurrentImpl(100, 10, false, scheduler, statistics);
+
+        scheduler.setTime(5000);
+        cache.put(make("a"), new EventTable[] {lists[0]}); // a at 5 sec
+        assertSame(lists[0], cache.getCached(make("a"))[0]);
+
+        scheduler.setTime(11000);
+        cache.put(make("b"), new EventTable[] {lists[1]}); // b at 11 sec
+
+        scheduler.setTime(15000);
+        assertSame(lists[0], cache.getCached(make("a"))[0]);
+
+        scheduler.setTime(15001);
+        assertNull(cache.getCached(make("a")));
+        assertSame(lists[1], cache.getCached(make("b"))[0]);
+        assertEquals(2, cache.getSize());
+
+        // adding removes aged entries
+        scheduler.setTime(22000);
+        cache.put(make("c"), new EventTable[] {lists[2]});
+        assertEquals(1, cache.getSize());
+        assertEquals(2, statistics.getEvictions());
+        assertSame(lists[2], cache.getCached(make("c"))[0]);
+    }
+
+    public void testWeighByRowCount()
+    {
+        DataCacheConcurrentImpl cache = new DataCacheConcurrentImpl(10, 0, true, scheduler, statistics);
+
+        cache.put(make("a"), new EventTable[] {makeTable(4)});
+        cache.put(make("b"), new EventTable[] {makeTable(0)});
+        cache.put(make("c"), new EventTable[] {makeTable(3), makeTable(2)});
+        assertEquals(10, cache.getWeight());
+        assertEquals(3, cache.getSize());
+
+        cache.put(make("d"), new EventTable[] {makeTable(3)});
+        assertEquals(9, cache.getWeight());
+        assertNull(cache.getCached(make("a")));
+        assertNotNull(cache.getCached(make("b")));
+
+        // an entry heavier than the cache is not kept
+        cache.put(make("b"), new EventTable[] {makeTable(11)});
+        assertNull(cache.getCached(make("b")));
+        assertEquals(8, cache.getWeight());
+    }
+
+    public void testConcurrentLookup() throws Exception
+    {
+        final DataCacheConcurrentImpl cache = new DataCacheConcurrentImpl(50, 0, false, scheduler, statistics);
+        final int numThreads = 4;
+        final int numLoops = 10000;
+        Thread[] threads = new Thread[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int loop = 0; loop < numLoops; loop++) {
+                        Object[] key = make("k" + (loop % 100));
+                        if (cache.getCached(key) == null) {
+                            cache.put(key, new EventTable[] {lists[loop % lists.length]});
+                        }
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(numThreads * numLoops, statistics.getHits() + statistics.getMisses());
+        assertEquals(50, cache.getSize());
+        assertEquals(50, cache.getWeight());
+    }
+
+    private EventTable makeTable(int numRows)
+    {
+        UnindexedEventTableImpl table = new UnindexedEventTableImpl(0);
+        for (int i = 0; i < numRows; i++) {
+            table.add(SupportEventBeanFactory.createObject(new SupportBean("E" + i, i)));
+        }
+        return table;
+    }
+
+    private Object[] make(String key)
+    {
+        return new Object[] {key};
+    }
+}
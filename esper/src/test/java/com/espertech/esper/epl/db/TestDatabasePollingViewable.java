@@ -15,6 +15,7 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.collection.MultiKey;
 import com.espertech.esper.core.service.StatementContext;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.epl.expression.core.ExprIdentNodeImpl;
 import com.espertech.esper.epl.expression.core.ExprNode;
 import com.espertech.esper.epl.join.pollindex.PollResultIndexingStrategy;
@@ -27,6 +28,11 @@ import com.espertech.esper.core.support.SupportStatementContextFactory;
 import junit.framework.TestCase;
 
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class TestDatabasePollingViewable extends TestCase
 {
@@ -80,6 +86,122 @@ public class TestDatabasePollingViewable extends TestCase
         assertTrue(resultRows[1][0].isEmpty());
     }
 
+    public void testPollParallel() throws Exception
+    {
+        List<String> inputProperties = Arrays.asList(new String[] {"s0.intPrimitive"});
+        Map<String, Object> resultProperties = new HashMap<String, Object>();
+        resultProperties.put("myvarchar", String.class);
+        EventType resultEventType = SupportEventAdapterService.getService().createAnonymousMapType("testParallel", resultProperties, true);
+
+        Map<MultiKey<Object>, List<EventBean>> pollResults = new HashMap<MultiKey<Object>, List<EventBean>>();
+        for (int key = 0; key < 10; key++) {
+            EventBean result = SupportEventAdapterService.getService().adapterForTypedMap(Collections.<String, Object>singletonMap("myvarchar", "V" + key), resultEventType);
+            pollResults.put(new MultiKey<Object>(new Object[] {key}), Collections.singletonList(result));
+        }
+        final Map<MultiKey<Object>, List<EventBean>> pollResultsFinal = pollResults;
+        final List<SupportPollingStrategy> strategies = Collections.synchronizedList(new ArrayList<SupportPollingStrategy>());
+        PollExecStrategyFactory factory = new PollExecStrategyFactory() {
+            public PollExecStrategy make() {
+                SupportPollingStrategy strategy = new SupportPollingStrategy(pollResultsFinal);
+                strategies.add(strategy);
+                return strategy;
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        PollExecParallel parallel = new PollExecParallel(executor, 2, factory);
+
+        DatabasePollingViewable viewable = new DatabasePollingViewable(1, inputProperties, new SupportPollingStrategy(pollResults), parallel, new DataCacheNullImpl(), resultEventType);
+        Map<Integer, List<ExprNode>> sqlParameters = new HashMap<Integer, List<ExprNode>>();
+        sqlParameters.put(1, Collections.singletonList((ExprNode) new ExprIdentNodeImpl("intPrimitive", "s0")));
+        viewable.validate(null, new SupportStreamTypeSvc3Stream(), null, null, null, null, null, null, null, sqlParameters, null, SupportStatementContextFactory.makeContext());
+
+        int[] keys = new int[] {3, 1, 3, 9, 0, 1, 5};
+        EventBean[][] input = new EventBean[keys.length][];
+        for (int i = 0; i < keys.length; i++) {
+            input[i] = new EventBean[] {makeEvent(keys[i]), null};
+        }
+        EventTable[][] resultRows = viewable.poll(input, indexingStrategy, null);
+
+        // results are in event order and rows with the same key share the result
+        assertEquals(keys.length, resultRows.length);
+        for (int i = 0; i < keys.length; i++) {
+            EventBean result = resultRows[i][0].iterator().next();
+            assertEquals("V" + keys[i], result.get("myvarchar"));
+        }
+        assertSame(resultRows[0], resultRows[2]);
+        assertSame(resultRows[1], resultRows[5]);
+
+        // strategies are bounded and destroyed with the viewable, the shared executor keeps running
+        assertTrue(strategies.size() >= 1 && strategies.size() <= 2);
+        viewable.stop();
+        for (SupportPollingStrategy strategy : strategies) {
+            assertTrue(strategy.isDestroyed());
+        }
+        assertFalse(executor.isShutdown());
+        executor.shutdown();
+    }
+
+    public void testPollParallelDestroyWaitsForPoll() throws Exception
+    {
+        final CountDownLatch pollStarted = new CountDownLatch(1);
+        final CountDownLatch pollRelease = new CountDownLatch(1);
+        final AtomicBoolean destroyedDuringPoll = new AtomicBoolean();
+        final AtomicBoolean destroyed = new AtomicBoolean();
+        final PollExecStrategy strategy = new PollExecStrategy() {
+            public void start() {
+            }
+
+            public List<EventBean> poll(Object[] lookupValues, ExprEvaluatorContext exprEvaluatorContext) {
+                pollStarted.countDown();
+                try {
+                    pollRelease.await();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                destroyedDuringPoll.set(destroyed.get());
+                return Collections.emptyList();
+            }
+
+            public void done() {
+            }
+
+            public void destroy() {
+                destroyed.set(true);
+            }
+        };
+        final PollExecParallel parallel = new PollExecParallel(Executors.newSingleThreadExecutor(), 1, new PollExecStrategyFactory() {
+            public PollExecStrategy make() {
+                return strategy;
+            }
+        });
+
+        Thread pollThread = new Thread(new Runnable() {
+            public void run() {
+                parallel.poll(Collections.singletonList(new Object[] {1}), null);
+            }
+        });
+        pollThread.start();
+        assertTrue(pollStarted.await(10, TimeUnit.SECONDS));
+
+        Thread destroyThread = new Thread(new Runnable() {
+            public void run() {
+                parallel.destroy();
+            }
+        });
+        destroyThread.start();
+        destroyThread.join(200);
+        assertTrue(destroyThread.isAlive());
+        assertFalse(destroyed.get());
+
+        pollRelease.countDown();
+        destroyThread.join(10000);
+        pollThread.join(10000);
+        assertFalse(destroyThread.isAlive());
+        assertFalse(destroyedDuringPoll.get());
+        assertTrue(destroyed.get());
+    }
+
     private EventBean makeEvent(int intPrimitive)
     {
         SupportBean bean = new SupportBean();
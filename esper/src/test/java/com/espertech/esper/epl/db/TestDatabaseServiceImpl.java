@@ -47,6 +47,11 @@ public class TestDatabaseServiceImpl extends TestCase
         config.setExpiryTimeCache(1, 3);
         configs.put("name3", config);
 
+        config = new ConfigurationDBRef();
+        config.setDataSourceConnection("context", new Properties());
+        config.setConcurrentCache(500, 2, true);
+        configs.put("name4", config);
+
         SchedulingService schedulingService = new SchedulingServiceImpl(new TimeSourceServiceImpl());
         databaseServiceImpl = new DatabaseConfigServiceImpl(configs, schedulingService, new ScheduleBucket(1));
     }
@@ -71,6 +76,10 @@ public class TestDatabaseServiceImpl extends TestCase
         DataCacheExpiringImpl exp = (DataCacheExpiringImpl) databaseServiceImpl.getDataCache("name3", null, null, dataCacheFactory, 0);
         assertEquals(1000, exp.getMaxAgeMSec());
         assertEquals(3000, exp.getPurgeIntervalMSec());
+
+        DataCacheConcurrentImpl concurrent = (DataCacheConcurrentImpl) databaseServiceImpl.getDataCache("name4", null, null, dataCacheFactory, 0);
+        assertEquals(500, concurrent.getMaxSize());
+        assertSame(dataCacheFactory.getStatistics(), concurrent.getStatistics());
     }
 
     public void testInvalid()
@@ -0,0 +1,104 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+package com.espertech.esper.epl.join.exec;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.join.exec.base.AdaptiveNestedIterationExecNode;
+import com.espertech.esper.epl.join.exec.base.ExecNode;
+import com.espertech.esper.epl.join.exec.base.FullTableScanLookupStrategy;
+import com.espertech.esper.epl.join.exec.base.NestedIterationExecNode;
+import com.espertech.esper.epl.join.exec.base.TableLookupExecNode;
+import com.espertech.esper.epl.join.table.EventTable;
+import com.espertech.esper.epl.join.table.UnindexedEventTable;
+import com.espertech.esper.epl.join.table.UnindexedEventTableImpl;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+public class TestAdaptiveNestedIterationExecNode extends TestCase
+{
+    private UnindexedEventTable[] indexes;
+    private AdaptiveNestedIterationExecNode exec;
+
+    public void setUp()
+    {
+        indexes = new UnindexedEventTable[3];
+        for (int i = 0; i < indexes.length; i++)
+        {
+            indexes[i] = new UnindexedEventTableImpl(i);
+        }
+
+        int[][] nestingOrders = new int[][] {{1, 2}, {2, 1}};
+        ExecNode[] candidates = new ExecNode[nestingOrders.length];
+        EventTable[][] lookupTables = new EventTable[nestingOrders.length][];
+        for (int i = 0; i < nestingOrders.length; i++) {
+            NestedIterationExecNode nested = new NestedIterationExecNode(nestingOrders[i]);
+            lookupTables[i] = new EventTable[nestingOrders[i].length];
+            for (int j = 0; j < nestingOrders[i].length; j++) {
+                int stream = nestingOrders[i][j];
+                nested.addChildNode(new TableLookupExecNode(stream, new FullTableScanLookupStrategy(indexes[stream])));
+                lookupTables[i][j] = indexes[stream];
+            }
+            candidates[i] = nested;
+        }
+        exec = new AdaptiveNestedIterationExecNode("s0", 0, nestingOrders, candidates, lookupTables, 1, false);
+    }
+
+    public void testReorder()
+    {
+        EventBean lookupEvent = SupportEventBeanFactory.makeEvents_A(new String[] {"a1"})[0];
+        indexes[1].add(SupportEventBeanFactory.makeEvents_B(makeIds("b", 100)));
+
+        // stream 2 is empty and is looked up first
+        assertEquals(0, process(lookupEvent));
+        assertTrue(Arrays.equals(new int[] {2, 1}, exec.getCurrentNestingOrder()));
+
+        // the initial order is not estimated to be twice as cheap, the order remains
+        indexes[2].add(SupportEventBeanFactory.makeEvents_C(makeIds("c", 10)));
+        assertEquals(1000, process(lookupEvent));
+        assertTrue(Arrays.equals(new int[] {2, 1}, exec.getCurrentNestingOrder()));
+
+        // stream 1 is empty and is looked up first
+        indexes[1].clear();
+        assertEquals(0, process(lookupEvent));
+        assertTrue(Arrays.equals(new int[] {1, 2}, exec.getCurrentNestingOrder()));
+    }
+
+    public void testEstimateCost()
+    {
+        assertEquals(1d, AdaptiveNestedIterationExecNode.estimateCost(new EventTable[] {null}));
+        indexes[1].add(SupportEventBeanFactory.makeEvents_B(makeIds("b", 4)));
+        indexes[2].add(SupportEventBeanFactory.makeEvents_C(makeIds("c", 3)));
+        assertEquals(4d + 12d, AdaptiveNestedIterationExecNode.estimateCost(new EventTable[] {indexes[1], indexes[2]}));
+        assertEquals(3d + 12d, AdaptiveNestedIterationExecNode.estimateCost(new EventTable[] {indexes[2], indexes[1]}));
+    }
+
+    private int process(EventBean lookupEvent)
+    {
+        List<EventBean[]> result = new LinkedList<EventBean[]>();
+        EventBean[] prefill = new EventBean[3];
+        prefill[0] = lookupEvent;
+        exec.process(lookupEvent, prefill, result, null);
+        return result.size();
+    }
+
+    private static String[] makeIds(String prefix, int count)
+    {
+        String[] ids = new String[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = prefix + i;
+        }
+        return ids;
+    }
+}
@@ -24,6 +24,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
+import java.util.List;
 
 public class TestNStreamQueryPlanBuilder extends TestCase
 {
@@ -106,6 +107,33 @@ public class TestNStreamQueryPlanBuilder extends TestCase
         assertTrue(Arrays.equals(bestChain.getChain(), new int[] {0, 1, 2, 3, 4}));
     }
 
+    public void testBuildAdaptive()
+    {
+        // streams 0 to 3 joined on the same key, so that any order of lookups can use indexes
+        QueryGraph graph = new QueryGraph(4, null, false);
+        graph.addStrictEquals(0, "p00", make(0, "p00"), 1, "p10", make(1, "p10"));
+        graph.addStrictEquals(1, "p10", make(1, "p10"), 2, "p20", make(2, "p20"));
+        graph.addStrictEquals(2, "p20", make(2, "p20"), 3, "p30", make(3, "p30"));
+        EventType[] types = Arrays.copyOf(typesPerStream, 4);
+        QueryGraph.fillEquivalentNav(types, graph);
+
+        List<int[]> chains = NStreamQueryPlanBuilder.computeIndexedPaths(0, graph, dependencyGraph);
+        assertEquals(6, chains.size());
+        assertTrue(Arrays.equals(new int[] {1, 2, 3}, chains.get(0)));
+        assertTrue(Arrays.equals(NStreamQueryPlanBuilder.computeBestPath(0, graph, dependencyGraph).getChain(), chains.get(0)));
+
+        QueryPlan plan = NStreamQueryPlanBuilder.build(graph, types, new HistoricalViewableDesc(4), dependencyGraph, null, false, new String[4][][], new TableMetadata[4], 100, false);
+        for (QueryPlanNode node : plan.getExecNodeSpecs()) {
+            AdaptiveNestedIterationNode adaptive = (AdaptiveNestedIterationNode) node;
+            assertEquals(6, adaptive.getCandidates().length);
+        }
+
+        plan = NStreamQueryPlanBuilder.build(graph, types, new HistoricalViewableDesc(4), dependencyGraph, null, false, new String[4][][], new TableMetadata[4]);
+        for (QueryPlanNode node : plan.getExecNodeSpecs()) {
+            assertTrue(node instanceof NestedIterationNode);
+        }
+    }
+
     public void testComputeNavigableDepth()
     {
         queryGraph.addStrictEquals(3, "p30", null, 2, "p20", null);
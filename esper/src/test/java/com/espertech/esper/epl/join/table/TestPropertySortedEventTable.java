@@ -0,0 +1,145 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.join.table;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import com.espertech.esper.support.event.SupportEventTypeFactory;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestPropertySortedEventTable extends TestCase
+{
+    private PropertySortedEventTable index;
+
+    public void setUp()
+    {
+        EventType eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+        PropertySortedEventTableFactory factory = new PropertySortedEventTableFactory(0, eventType, "intPrimitive");
+        index = (PropertySortedEventTable) factory.makeEventTables(null)[0];
+    }
+
+    public void testLookup()
+    {
+        EventBean[] events = new EventBean[] {makeBean(10), makeBean(20), makeBean(20), makeBean(30), makeBean(40)};
+        index.add(events);
+
+        assertNull(index.lookupRange(50, true, 60, true, false));
+        assertSame(index.lookupRange(20, true, 20, true, false), index.lookupRange(15, true, 25, true, false));
+        assertEvents(index.lookupRange(20, true, 20, true, false), events[1], events[2]);
+        assertEvents(index.lookupRange(10, false, 30, true, false), events[1], events[2], events[3]);
+        assertEvents(index.lookupRange(30, true, 10, true, false));
+        assertEvents(index.lookupRange(30, true, 10, true, true), events[0], events[1], events[2], events[3]);
+        assertEvents(index.lookupRangeColl(10, true, 30, false, false), events[0], events[1], events[2]);
+        assertEvents(index.lookupRangeInverted(20, true, 30, true), events[0], events[4]);
+        assertEvents(index.lookupRangeInvertedColl(20, false, 30, false), events[0], events[1], events[2], events[3], events[4]);
+        assertEvents(index.lookupLess(20), events[0]);
+        assertEvents(index.lookupLessEqual(20), events[0], events[1], events[2]);
+        assertEvents(index.lookupGreater(30), events[4]);
+        assertEvents(index.lookupGreaterEqualColl(30), events[3], events[4]);
+
+        // collection lookups over multiple keys are views over the index
+        Collection<EventBean> view = index.lookupRangeInvertedColl(20, true, 30, true);
+        assertTrue(view instanceof PropertySortedEventTableRangeCollection);
+        assertEquals(2, view.size());
+        assertFalse(view.isEmpty());
+        assertEvents(view, events[0], events[4]);
+        assertEquals(3, index.lookupLessEqualColl(20).size());
+
+        index.remove(new EventBean[] {events[1], events[3]});
+        assertEvents(index.lookupRange(10, true, 40, true, false), events[0], events[2], events[4]);
+        index.remove(events[2]);
+        assertEvents(index.lookupGreaterEqual(0), events[0], events[4]);
+        assertEquals(Arrays.asList(events[0], events[4]), toList(index.iterator()));
+    }
+
+    public void testCompareTreeMap()
+    {
+        Random random = new Random(1234);
+        TreeMap<Integer, Set<EventBean>> reference = new TreeMap<Integer, Set<EventBean>>();
+        List<EventBean> added = new ArrayList<EventBean>();
+        for (int i = 0; i < 5000; i++) {
+            if (added.isEmpty() || random.nextInt(10) < 6) {
+                EventBean theEvent = makeBean(random.nextInt(500));
+                index.add(theEvent);
+                added.add(theEvent);
+                Integer key = ((SupportBean) theEvent.getUnderlying()).getIntPrimitive();
+                Set<EventBean> events = reference.get(key);
+                if (events == null) {
+                    events = new LinkedHashSet<EventBean>();
+                    reference.put(key, events);
+                }
+                events.add(theEvent);
+            }
+            else {
+                EventBean theEvent = added.remove(random.nextInt(added.size()));
+                index.remove(theEvent);
+                Integer key = ((SupportBean) theEvent.getUnderlying()).getIntPrimitive();
+                reference.get(key).remove(theEvent);
+                if (reference.get(key).isEmpty()) {
+                    reference.remove(key);
+                }
+            }
+
+            int start = random.nextInt(520) - 10;
+            int end = start + random.nextInt(50);
+            boolean includeStart = random.nextBoolean();
+            boolean includeEnd = random.nextBoolean();
+            assertEquals(flatten(reference.subMap(start, includeStart, end, includeEnd)), toList(index.lookupRangeColl(start, includeStart, end, includeEnd, false)));
+            assertEquals(flatten(reference.headMap(start, false)), toList(index.lookupLessThenColl(start)));
+            assertEquals(flatten(reference.tailMap(end, true)), toList(index.lookupGreaterEqualColl(end)));
+            Collection<EventBean> inverted = index.lookupRangeInvertedColl(start, includeStart, end, includeEnd);
+            List<EventBean> expectedInverted = flatten(reference.headMap(start, !includeStart));
+            expectedInverted.addAll(flatten(reference.tailMap(end, !includeEnd)));
+            assertEquals(expectedInverted, toList(inverted));
+            assertEquals(expectedInverted.size(), inverted == null ? 0 : inverted.size());
+        }
+        assertEquals(flatten(reference), toList(index.iterator()));
+    }
+
+    private void assertEvents(Collection<EventBean> result, EventBean... expected)
+    {
+        assertEquals(Arrays.asList(expected), toList(result));
+    }
+
+    private static List<EventBean> flatten(SortedMap<Integer, Set<EventBean>> map)
+    {
+        List<EventBean> result = new ArrayList<EventBean>();
+        for (Set<EventBean> events : map.values()) {
+            result.addAll(events);
+        }
+        return result;
+    }
+
+    private static List<EventBean> toList(Collection<EventBean> events)
+    {
+        return events == null ? Collections.<EventBean>emptyList() : toList(events.iterator());
+    }
+
+    private static List<EventBean> toList(Iterator<EventBean> it)
+    {
+        List<EventBean> result = new ArrayList<EventBean>();
+        while (it.hasNext()) {
+            result.add(it.next());
+        }
+        return result;
+    }
+
+    private static EventBean makeBean(int intPrimitive)
+    {
+        SupportBean bean = new SupportBean("E" + intPrimitive, intPrimitive);
+        return SupportEventBeanFactory.createObject(bean);
+    }
+}
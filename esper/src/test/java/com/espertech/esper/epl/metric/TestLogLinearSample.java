@@ -0,0 +1,118 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+package com.espertech.esper.epl.metric;
+
+import com.espertech.esper.metrics.codahale_metrics.metrics.stats.Snapshot;
+import junit.framework.TestCase;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Random;
+
+public class TestLogLinearSample extends TestCase {
+
+    public void testEmpty() {
+        LogLinearSample sample = new LogLinearSample();
+        assertEquals(0, sample.getCount());
+        assertEquals(0, sample.getMax());
+        assertEquals(0, sample.getValueAtQuantile(0.99));
+        assertEquals(0, sample.getSnapshot().size());
+    }
+
+    public void testSmallValuesExact() {
+        LogLinearSample sample = new LogLinearSample();
+        for (int i = 0; i < 64; i++) {
+            sample.update(i);
+        }
+        sample.update(-5);  // counts as zero
+        assertEquals(65, sample.size());
+        assertEquals(63, sample.getMax());
+        assertEquals(0, sample.getValueAtQuantile(0));
+        assertEquals(31, sample.getValueAtQuantile(0.5));
+        assertEquals(63, sample.getValueAtQuantile(1));
+    }
+
+    public void testQuantilesAgainstSorted() {
+        Random random = new Random(1234);
+        LogLinearSample sample = new LogLinearSample();
+        long[] values = new long[100000];
+        for (int i = 0; i < values.length; i++) {
+            // log-normal-like spread from nanoseconds to seconds
+            values[i] = (long) Math.exp(random.nextGaussian() * 3 + 12);
+            sample.update(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double quantile : new double[] {0.01, 0.5, 0.9, 0.99, 0.999, 1.0}) {
+            long expected = values[(int) Math.ceil(quantile * values.length) - 1];
+            long actual = sample.getValueAtQuantile(quantile);
+            assertEquals("quantile " + quantile, expected, actual, Math.max(1, expected * 0.032));
+        }
+        assertEquals(values[values.length - 1], sample.getMax());
+
+        Snapshot snapshot = sample.getSnapshot();
+        assertEquals(1000, snapshot.size());
+        assertTrue(snapshot.get99thPercentile() >= sample.getValueAtQuantile(0.99));
+        assertTrue(snapshot.get99thPercentile() <= sample.getValueAtQuantile(0.992));
+    }
+
+    public void testLargeValues() {
+        LogLinearSample sample = new LogLinearSample();
+        sample.update(Long.MAX_VALUE);
+        sample.update(1L << 40);
+        assertEquals(Long.MAX_VALUE, sample.getValueAtQuantile(1));
+        assertEquals(1L << 40, sample.getValueAtQuantile(0.5), (1L << 40) * 0.032);
+    }
+
+    public void testDrainTo() {
+        LogLinearSample sample = new LogLinearSample();
+        LogLinearSample target = new LogLinearSample();
+        sample.update(100);
+        sample.update(200);
+        target.update(300);
+
+        sample.drainTo(target);
+        assertEquals(0, sample.getCount());
+        assertEquals(0, sample.getMax());
+        assertEquals(0, sample.getValueAtQuantile(1));
+        assertEquals(3, target.getCount());
+        assertEquals(300, target.getMax());
+        assertEquals(200, target.getValueAtQuantile(0.5), 200 * 0.032);
+
+        target.clear();
+        assertEquals(0, target.getCount());
+        assertEquals(0, target.getValueAtQuantile(1));
+    }
+
+    public void testUpdateNoAllocation() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+            return;
+        }
+        com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        if (!allocationMXBean.isThreadAllocatedMemorySupported() || !allocationMXBean.isThreadAllocatedMemoryEnabled()) {
+            return;
+        }
+        LogLinearSample sample = new LogLinearSample();
+        long threadId = Thread.currentThread().getId();
+        for (int round = 0; round < 3; round++) {
+            long before = allocationMXBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < 100000; i++) {
+                sample.update(i * 1000L);
+            }
+            long after = allocationMXBean.getThreadAllocatedBytes(threadId);
+            if (round == 2) {
+                assertTrue("Allocated " + (after - before) + " bytes", after - before < 1000);
+            }
+        }
+    }
+}
@@ -17,6 +17,40 @@ import com.espertech.esper.client.metric.StatementMetric;
 
 public class TestStatementMetricArray extends TestCase
 {
+    public void testLatency()
+    {
+        StatementMetricArray rep = new StatementMetricArray("uri", "name", 3, false);
+        assertEquals(0, rep.addStatementGetIndex("001"));
+        assertEquals(1, rep.addStatementGetIndex("002"));
+
+        for (int i = 1; i <= 100; i++)
+        {
+            rep.getAddLatency(0).update(i * 1000);
+        }
+
+        // latencies alone produce a metric
+        StatementMetric[] flushed = rep.flushMetrics();
+        assertNull(flushed[1]);
+        assertEquals("001", flushed[0].getStatementName());
+        assertEquals(100, flushed[0].getLatencyCount());
+        assertEquals(100000, flushed[0].getLatencyMax());
+        assertEquals(50000, flushed[0].getLatencyP50(), 50000 * 0.02);
+        assertEquals(99000, flushed[0].getLatencyP99(), 99000 * 0.02);
+        assertEquals(100000, flushed[0].getLatencyP999(), 100000 * 0.02);
+
+        // latencies are cleared by the flush
+        rep.getAddMetric(0);
+        flushed = rep.flushMetrics();
+        assertEquals(0, flushed[0].getLatencyCount());
+
+        // a removed statement's slot starts with no latencies
+        rep.getAddLatency(1).update(5);
+        rep.removeStatement("002");
+        rep.flushMetrics();
+        assertEquals(1, rep.addStatementGetIndex("003"));
+        assertEquals(0, rep.getAddLatency(1).getCount());
+    }
+
     public void testFlowReportActive()
     {
         StatementMetricArray rep = new StatementMetricArray("uri", "name", 3, false);
@@ -39,7 +39,7 @@ public class TestEventTypeIndex extends TestCase
         testEventBean = SupportEventBeanFactory.createObject(testBean);
         testEventType = testEventBean.getEventType();
 
-        handleSetNode = new FilterHandleSetNode(new ReentrantReadWriteLock());
+        handleSetNode = new FilterHandleSetNode(new ReentrantReadWriteLock(), false);
         filterCallback = new SupportFilterHandle();
         handleSetNode.add(filterCallback);
 
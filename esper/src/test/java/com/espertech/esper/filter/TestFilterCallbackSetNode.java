@@ -34,7 +34,7 @@ public class TestFilterCallbackSetNode extends TestCase
     public void setUp()
     {
         testEvaluator = new SupportEventEvaluator();
-        testNode = new FilterHandleSetNode(new ReentrantReadWriteLock());
+        testNode = new FilterHandleSetNode(new ReentrantReadWriteLock(), false);
     }
 
     public void testNodeGetSet()
@@ -90,7 +90,7 @@ public class TestFilterCallbackSetNode extends TestCase
         matches.clear();
 
         // Create, add and populate an index node
-        FilterParamIndexBase index = new FilterParamIndexEquals(makeLookupable("myString", eventBean.getEventType()), new ReentrantReadWriteLock());
+        FilterParamIndexBase index = new FilterParamIndexEquals(makeLookupable("myString", eventBean.getEventType()), new ReentrantReadWriteLock(), false);
         testNode.add(index);
         index.put("DepositEvent_1", testEvaluator);
 
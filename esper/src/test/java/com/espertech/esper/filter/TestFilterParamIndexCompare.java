@@ -139,7 +139,7 @@ public class TestFilterParamIndexCompare extends TestCase
     }
 
     private FilterParamIndexCompare makeOne(String field, FilterOperator op) {
-        return new FilterParamIndexCompare(makeLookupable(field), new ReentrantReadWriteLock(), op);
+        return new FilterParamIndexCompare(makeLookupable(field), new ReentrantReadWriteLock(), false, op);
     }
 
     private void verifyDoublePrimitive(FilterParamIndexBase index, double testValue, int numExpected)
@@ -121,7 +121,7 @@ public class TestFilterParamIndexEquals extends TestCase
     }
 
     private FilterParamIndexEquals makeOne(String property, EventType testEventType) {
-        return new FilterParamIndexEquals(makeLookupable(property), new ReentrantReadWriteLock());
+        return new FilterParamIndexEquals(makeLookupable(property), new ReentrantReadWriteLock(), false);
     }
 
     private FilterSpecLookupable makeLookupable(String fieldName) {
@@ -42,7 +42,7 @@ public class TestFilterParamIndexIn extends TestCase
 
     public void testIndex()
     {
-        FilterParamIndexIn index = new FilterParamIndexIn(makeLookupable("longBoxed"), new ReentrantReadWriteLock());
+        FilterParamIndexIn index = new FilterParamIndexIn(makeLookupable("longBoxed"), new ReentrantReadWriteLock(), false);
         assertEquals(FilterOperator.IN_LIST_OF_VALUES, index.getFilterOperator());
 
         MultiKeyUntyped inList = new MultiKeyUntyped(new Object[] {2L, 5L});
@@ -41,7 +41,7 @@ public class TestFilterParamIndexNotEquals extends TestCase
 
     public void testBoolean()
     {
-        FilterParamIndexNotEquals index = new FilterParamIndexNotEquals(makeLookupable("boolPrimitive"), lockFactory.obtainNew());
+        FilterParamIndexNotEquals index = new FilterParamIndexNotEquals(makeLookupable("boolPrimitive"), lockFactory.obtainNew(), false);
         assertEquals(FilterOperator.NOT_EQUAL, index.getFilterOperator());
         assertEquals("boolPrimitive", index.getLookupable().getExpression());
 
@@ -53,7 +53,7 @@ public class TestFilterParamIndexNotEquals extends TestCase
 
     public void testString()
     {
-        FilterParamIndexNotEquals index = new FilterParamIndexNotEquals(makeLookupable("theString"), lockFactory.obtainNew());
+        FilterParamIndexNotEquals index = new FilterParamIndexNotEquals(makeLookupable("theString"), lockFactory.obtainNew(), false);
 
         index.put("hello", testEvaluator);
         index.put("test", testEvaluator);
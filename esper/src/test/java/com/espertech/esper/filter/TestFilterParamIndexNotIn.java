@@ -47,7 +47,7 @@ public class TestFilterParamIndexNotIn extends TestCase
 
     public void testIndex()
     {
-        FilterParamIndexNotIn index = new FilterParamIndexNotIn(makeLookupable("longBoxed"), new ReentrantReadWriteLock());
+        FilterParamIndexNotIn index = new FilterParamIndexNotIn(makeLookupable("longBoxed"), new ReentrantReadWriteLock(), false);
         assertEquals(FilterOperator.NOT_IN_LIST_OF_VALUES, index.getFilterOperator());
 
         index.put(new MultiKeyUntyped(new Object[] {2L, 5L}), testEvaluators[0]);
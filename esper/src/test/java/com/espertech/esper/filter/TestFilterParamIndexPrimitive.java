@@ -0,0 +1,189 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import com.espertech.esper.support.filter.SupportEventEvaluator;
+import junit.framework.TestCase;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class TestFilterParamIndexPrimitive extends TestCase
+{
+    private SupportEventEvaluator testEvaluator;
+    private SupportBean testBean;
+    private EventBean testEventBean;
+    private EventType testEventType;
+    private List<FilterHandle> matchesList;
+
+    public void setUp()
+    {
+        testEvaluator = new SupportEventEvaluator();
+        testBean = new SupportBean();
+        testEventBean = SupportEventBeanFactory.createObject(testBean);
+        testEventType = testEventBean.getEventType();
+        matchesList = new LinkedList<FilterHandle>();
+    }
+
+    public void testEquals()
+    {
+        for (boolean copyOnWrite : new boolean[] {false, true}) {
+            FilterParamIndexEqualsPrimitive index = new FilterParamIndexEqualsPrimitive(makeLookupable("intBoxed"), new ReentrantReadWriteLock(), copyOnWrite);
+
+            index.put(1, testEvaluator);
+            index.put(-5, testEvaluator);
+            index.put(null, testEvaluator);
+            assertEquals(3, index.size());
+            assertEquals(testEvaluator, index.get(-5));
+            assertEquals(testEvaluator, index.get(null));
+            assertNull(index.get(1L));
+
+            verifyIntBoxed(index, 1, 1);
+            verifyIntBoxed(index, -5, 1);
+            verifyIntBoxed(index, 2, 0);
+            verifyIntBoxed(index, null, 0);
+
+            assertTrue(index.remove(1));
+            assertFalse(index.remove(1));
+            assertTrue(index.remove(null));
+            assertEquals(1, index.size());
+            verifyIntBoxed(index, 1, 0);
+        }
+
+        // doubles are equal following Double.equals
+        FilterParamIndexEqualsPrimitive index = new FilterParamIndexEqualsPrimitive(makeLookupable("doublePrimitive"), new ReentrantReadWriteLock(), false);
+        index.put(0d, testEvaluator);
+        index.put(Double.NaN, testEvaluator);
+        verifyDoublePrimitive(index, 0d, 1);
+        verifyDoublePrimitive(index, -0d, 0);
+        verifyDoublePrimitive(index, Double.NaN, 1);
+
+        try
+        {
+            new FilterParamIndexEqualsPrimitive(makeLookupable("theString"), new ReentrantReadWriteLock(), false);
+            fail();
+        }
+        catch (IllegalArgumentException ex)
+        {
+            // Expected
+        }
+    }
+
+    public void testCompareSameAsIndexCompare()
+    {
+        Random random = new Random(1234);
+        FilterOperator[] operators = {FilterOperator.GREATER, FilterOperator.GREATER_OR_EQUAL, FilterOperator.LESS, FilterOperator.LESS_OR_EQUAL};
+        for (FilterOperator operator : operators) {
+            for (String field : new String[] {"longPrimitive", "doublePrimitive"}) {
+                FilterParamIndexCompare expected = new FilterParamIndexCompare(makeLookupable(field), new ReentrantReadWriteLock(), false, operator);
+                FilterParamIndexComparePrimitive actual = new FilterParamIndexComparePrimitive(makeLookupable(field), new ReentrantReadWriteLock(), operator);
+                SupportEventEvaluator expectedEvaluator = new SupportEventEvaluator();
+                SupportEventEvaluator actualEvaluator = new SupportEventEvaluator();
+
+                for (int i = 0; i < 2000; i++) {
+                    int value = random.nextInt(100) - 50;
+                    Object constant = field.equals("longPrimitive") ? (Object) (long) value : (Object) (value / 4d);
+                    int action = random.nextInt(3);
+                    if (action == 0) {
+                        expected.put(constant, expectedEvaluator);
+                        actual.put(constant, actualEvaluator);
+                    }
+                    else if (action == 1) {
+                        assertEquals(expected.remove(constant), actual.remove(constant));
+                    }
+                    else {
+                        testBean.setLongPrimitive(value);
+                        testBean.setDoublePrimitive(value / 4d);
+                        expected.matchEvent(testEventBean, matchesList);
+                        actual.matchEvent(testEventBean, matchesList);
+                        assertEquals(expectedEvaluator.getAndResetCountInvoked(), actualEvaluator.getAndResetCountInvoked());
+                    }
+                    assertEquals(expected.size(), actual.size());
+                    assertEquals(expected.get(constant) != null, actual.get(constant) != null);
+                }
+            }
+        }
+    }
+
+    public void testRangeSameAsIndexDoubleRange()
+    {
+        Random random = new Random(1234);
+        FilterOperator[] operators = {FilterOperator.RANGE_OPEN, FilterOperator.RANGE_CLOSED, FilterOperator.RANGE_HALF_OPEN, FilterOperator.RANGE_HALF_CLOSED};
+        for (FilterOperator operator : operators) {
+            FilterParamIndexDoubleRange expected = new FilterParamIndexDoubleRange(makeLookupable("intPrimitive"), new ReentrantReadWriteLock(), false, operator);
+            FilterParamIndexDoubleRangePrimitive actual = new FilterParamIndexDoubleRangePrimitive(makeLookupable("intPrimitive"), new ReentrantReadWriteLock(), operator);
+            SupportEventEvaluator expectedEvaluator = new SupportEventEvaluator();
+            SupportEventEvaluator actualEvaluator = new SupportEventEvaluator();
+
+            for (int i = 0; i < 2000; i++) {
+                double min = random.nextInt(100);
+                DoubleRange range = new DoubleRange(min, min + random.nextInt(random.nextInt(10) == 0 ? 50 : 5));
+                int action = random.nextInt(3);
+                if (action == 0) {
+                    expected.put(range, expectedEvaluator);
+                    actual.put(range, actualEvaluator);
+                }
+                else if (action == 1) {
+                    assertEquals(expected.remove(range), actual.remove(range));
+                }
+                else {
+                    testBean.setIntPrimitive(random.nextInt(160) - 5);
+                    expected.matchEvent(testEventBean, matchesList);
+                    actual.matchEvent(testEventBean, matchesList);
+                    assertEquals(expectedEvaluator.getAndResetCountInvoked(), actualEvaluator.getAndResetCountInvoked());
+                }
+                assertEquals(expected.size(), actual.size());
+                assertEquals(expected.get(range) != null, actual.get(range) != null);
+            }
+        }
+
+        FilterParamIndexDoubleRangePrimitive index = new FilterParamIndexDoubleRangePrimitive(makeLookupable("intPrimitive"), new ReentrantReadWriteLock(), FilterOperator.RANGE_CLOSED);
+        DoubleRange nullRange = new DoubleRange(null, 10d);
+        index.put(nullRange, testEvaluator);
+        assertEquals(testEvaluator, index.get(nullRange));
+        assertTrue(index.remove(nullRange));
+
+        try
+        {
+            index.put("a", testEvaluator);
+            fail();
+        }
+        catch (IllegalArgumentException ex)
+        {
+            // Expected
+        }
+    }
+
+    private void verifyIntBoxed(FilterParamIndexBase index, Integer testValue, int numExpected)
+    {
+        testBean.setIntBoxed(testValue);
+        index.matchEvent(testEventBean, matchesList);
+        assertEquals(numExpected, testEvaluator.getAndResetCountInvoked());
+    }
+
+    private void verifyDoublePrimitive(FilterParamIndexBase index, double testValue, int numExpected)
+    {
+        testBean.setDoublePrimitive(testValue);
+        index.matchEvent(testEventBean, matchesList);
+        assertEquals(numExpected, testEvaluator.getAndResetCountInvoked());
+    }
+
+    private FilterSpecLookupable makeLookupable(String fieldName) {
+        return new FilterSpecLookupable(fieldName, testEventType.getGetter(fieldName), testEventType.getPropertyType(fieldName), false);
+    }
+}
@@ -223,7 +223,7 @@ public class TestFilterParamIndexRange extends TestCase
     }
 
     private FilterParamIndexDoubleRange makeOne(String fieldName, FilterOperator operatorType, EventType testEventType) {
-        return new FilterParamIndexDoubleRange(makeLookupable(fieldName), new ReentrantReadWriteLock(), operatorType);
+        return new FilterParamIndexDoubleRange(makeLookupable(fieldName), new ReentrantReadWriteLock(), false, operatorType);
     }
 
     private void verifyDoublePrimitive(FilterParamIndexBase index, double testValue, int numExpected)
@@ -33,9 +33,10 @@ public class TestFilterServiceImpl extends TestCase
 {
     private EventType eventTypeOne;
     private EventType eventTypeTwo;
-    private FilterServiceLockCoarse filterService;
+    private FilterServiceSPI filterService;
     private Vector<FilterValueSet> filterSpecs;
     private Vector<SupportFilterHandle> filterCallbacks;
+    private Vector<FilterServiceEntry> entries;
     private Vector<EventBean> events;
     private Vector<int[]> matchesExpected;
 
@@ -63,8 +64,8 @@ public class TestFilterServiceImpl extends TestCase
         for (int i = 0; i < filterSpecs.size(); i++)
         {
             filterCallbacks.add(new SupportFilterHandle());
-            filterService.add(filterSpecs.get(i), filterCallbacks.get(i));
         }
+        addFilters();
 
         // Create events
         matchesExpected = new Vector<int[]>();
@@ -105,6 +106,36 @@ public class TestFilterServiceImpl extends TestCase
     }
 
     public void testEvalEvents()
+    {
+        assertEvalEvents();
+    }
+
+    public void testEvalEventsCopyOnWrite()
+    {
+        filterService = new FilterServiceLockFree(false);
+        addFilters();
+        assertEvalEvents();
+
+        // remove and add again, evaluation must see the same filters
+        for (int i = 0; i < filterSpecs.size(); i++)
+        {
+            filterService.remove(filterCallbacks.get(i), entries.get(i));
+        }
+        assertEquals(0, filterService.getFilterCountApprox());
+        addFilters();
+        assertEvalEvents();
+    }
+
+    private void addFilters()
+    {
+        entries = new Vector<FilterServiceEntry>();
+        for (int i = 0; i < filterSpecs.size(); i++)
+        {
+            entries.add(filterService.add(filterSpecs.get(i), filterCallbacks.get(i)));
+        }
+    }
+
+    private void assertEvalEvents()
     {
         for (int i = 0; i < events.size(); i++)
         {
@@ -11,14 +11,18 @@
 
 package com.espertech.esper.filter;
 
+import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.client.scopetest.EPAssertionUtil;
 import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
 import com.espertech.esper.support.event.SupportEventTypeFactory;
 import com.espertech.esper.support.filter.SupportFilterHandle;
 import com.espertech.esper.support.filter.SupportFilterSpecBuilder;
 import junit.framework.TestCase;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.*;
 
 /**
@@ -29,6 +33,162 @@ public class TestFilterServiceMT extends TestCase
     public void testFilterService() throws Exception {
         runAssertionAddRemoveFilter(new FilterServiceLockCoarse(false));
         runAssertionAddRemoveFilter(new FilterServiceLockFine(false));
+        runAssertionAddRemoveFilter(new FilterServiceLockFree(false));
+    }
+
+    public void testEvaluateWhileChanging() throws Exception {
+        runAssertionEvaluateWhileChanging(new FilterServiceLockCoarse(false));
+        runAssertionEvaluateWhileChanging(new FilterServiceLockFine(false));
+        runAssertionEvaluateWhileChanging(new FilterServiceLockFree(false));
+    }
+
+    public void testExplicitWriteLockAtomic() throws Exception {
+        runAssertionExplicitWriteLockAtomic(new FilterServiceLockCoarse(false));
+        runAssertionExplicitWriteLockAtomic(new FilterServiceLockFine(false));
+        runAssertionExplicitWriteLockAtomic(new FilterServiceLockFree(false));
+    }
+
+    private void runAssertionExplicitWriteLockAtomic(final FilterServiceSPI service) throws Exception
+    {
+        EventType eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+        final FilterValueSet valuesOne = SupportFilterSpecBuilder.build(eventType, new Object[] {"theString", FilterOperator.EQUAL, "E1"}).getValueSet(null, null, null);
+        final FilterValueSet valuesTwo = SupportFilterSpecBuilder.build(eventType, new Object[] {"intPrimitive", FilterOperator.GREATER, 5}).getValueSet(null, null, null);
+        final EventBean theEvent = SupportEventBeanFactory.createObject(new SupportBean("E1", 10));
+        final SupportFilterHandle handleOne = new SupportFilterHandle();
+        final SupportFilterHandle handleTwo = new SupportFilterHandle();
+
+        Callable callables[] = new Callable[4];
+        callables[0] = new Callable()
+        {
+            public Object call() throws Exception
+            {
+                // add and remove both filters while explicitly holding the write lock, evaluation must see both or neither
+                for (int i = 0; i < 2000; i++)
+                {
+                    service.acquireWriteLock();
+                    FilterServiceEntry entryOne;
+                    FilterServiceEntry entryTwo;
+                    try {
+                        entryOne = service.add(valuesOne, handleOne);
+                        entryTwo = service.add(valuesTwo, handleTwo);
+                    }
+                    finally {
+                        service.releaseWriteLock();
+                    }
+                    service.acquireWriteLock();
+                    try {
+                        service.remove(handleOne, entryOne);
+                        service.remove(handleTwo, entryTwo);
+                    }
+                    finally {
+                        service.releaseWriteLock();
+                    }
+                }
+                return true;
+            }
+        };
+        for (int i = 1; i < callables.length; i++)
+        {
+            callables[i] = new Callable()
+            {
+                public Object call() throws Exception
+                {
+                    List<FilterHandle> matches = new ArrayList<FilterHandle>();
+                    for (int i = 0; i < 20000; i++)
+                    {
+                        matches.clear();
+                        service.evaluate(theEvent, matches);
+                        if (matches.contains(handleOne) != matches.contains(handleTwo)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+            };
+        }
+
+        Object[] result = tryMT(callables);
+        EPAssertionUtil.assertAllBooleanTrue(result);
+
+        // each evaluation is counted once, including evaluations retried due to a concurrent write
+        assertEquals((callables.length - 1) * 20000, service.getNumEventsEvaluated());
+    }
+
+    private void runAssertionEvaluateWhileChanging(final FilterService service) throws Exception
+    {
+        EventType eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+
+        // filters that remain registered and that must match the event at any time
+        Object[][] fixedSpecs = new Object[][] {
+                {"theString", FilterOperator.EQUAL, "E1"},
+                {"theString", FilterOperator.EQUAL, "E1", "intPrimitive", FilterOperator.GREATER, 5},
+                {"intPrimitive", FilterOperator.RANGE_CLOSED, 1, 20},
+                {"theString", FilterOperator.NOT_EQUAL, "E2", "intPrimitive", FilterOperator.LESS, 100},
+        };
+        final List<FilterHandle> fixedHandles = new ArrayList<FilterHandle>();
+        for (Object[] fixedSpec : fixedSpecs) {
+            SupportFilterHandle handle = new SupportFilterHandle();
+            service.add(SupportFilterSpecBuilder.build(eventType, fixedSpec).getValueSet(null, null, null), handle);
+            fixedHandles.add(handle);
+        }
+
+        // filters that come and go, sharing index nodes with the fixed filters
+        Object[][] changingSpecs = new Object[][] {
+                {"theString", FilterOperator.EQUAL, "E1", "intPrimitive", FilterOperator.EQUAL, 10},
+                {"intPrimitive", FilterOperator.GREATER, 9},
+                {"intPrimitive", FilterOperator.RANGE_OPEN, 0, 50, "theString", FilterOperator.EQUAL, "E1"},
+                {"theString", FilterOperator.NOT_EQUAL, "E3"},
+                {"theString", FilterOperator.EQUAL, "E1", "intPrimitive", FilterOperator.LESS, 20},
+        };
+        final FilterValueSet[] changingValues = new FilterValueSet[changingSpecs.length];
+        for (int i = 0; i < changingSpecs.length; i++) {
+            changingValues[i] = SupportFilterSpecBuilder.build(eventType, changingSpecs[i]).getValueSet(null, null, null);
+        }
+
+        SupportBean bean = new SupportBean("E1", 10);
+        final EventBean theEvent = SupportEventBeanFactory.createObject(bean);
+
+        Callable callables[] = new Callable[6];
+        for (int i = 0; i < callables.length; i++)
+        {
+            if (i % 2 == 0) {
+                callables[i] = new Callable()
+                {
+                    public Object call() throws Exception
+                    {
+                        for (int i = 0; i < 2000; i++)
+                        {
+                            FilterValueSet values = changingValues[i % changingValues.length];
+                            SupportFilterHandle handle = new SupportFilterHandle();
+                            FilterServiceEntry entry = service.add(values, handle);
+                            service.remove(handle, entry);
+                        }
+                        return true;
+                    }
+                };
+            }
+            else {
+                callables[i] = new Callable()
+                {
+                    public Object call() throws Exception
+                    {
+                        List<FilterHandle> matches = new ArrayList<FilterHandle>();
+                        for (int i = 0; i < 20000; i++)
+                        {
+                            matches.clear();
+                            service.evaluate(theEvent, matches);
+                            if (!matches.containsAll(fixedHandles)) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                };
+            }
+        }
+
+        Object[] result = tryMT(callables);
+        EPAssertionUtil.assertAllBooleanTrue(result);
     }
 
     private void runAssertionAddRemoveFilter(final FilterService service) throws Exception
@@ -32,10 +32,13 @@ public class TestIndexFactory extends TestCase
         FilterParamIndexBase index = IndexFactory.createIndex(makeLookupable("intPrimitive"), lockFactory, FilterOperator.GREATER);
 
         assertTrue(index != null);
-        assertTrue(index instanceof FilterParamIndexCompare);
+        assertTrue(index instanceof FilterParamIndexComparePrimitive);
         assertTrue(getPropName(index).equals("intPrimitive"));
         assertTrue(index.getFilterOperator() == FilterOperator.GREATER);
 
+        index = IndexFactory.createIndex(makeLookupable("bigDecimal"), lockFactory, FilterOperator.GREATER);
+        assertTrue(index instanceof FilterParamIndexCompare);
+
         // Create an "equals" index
         index = IndexFactory.createIndex(makeLookupable("string"), lockFactory, FilterOperator.EQUAL);
 
@@ -44,6 +47,9 @@ public class TestIndexFactory extends TestCase
         assertTrue(getPropName(index).equals("string"));
         assertTrue(index.getFilterOperator() == FilterOperator.EQUAL);
 
+        index = IndexFactory.createIndex(makeLookupable("longBoxed"), lockFactory, FilterOperator.EQUAL);
+        assertTrue(index instanceof FilterParamIndexEqualsPrimitive);
+
         // Create an "not equals" index
         index = IndexFactory.createIndex(makeLookupable("string"), lockFactory, FilterOperator.NOT_EQUAL);
 
@@ -54,6 +60,8 @@ public class TestIndexFactory extends TestCase
 
         // Create a range index
         index = IndexFactory.createIndex(makeLookupable("doubleBoxed"), lockFactory, FilterOperator.RANGE_CLOSED);
+        assertTrue(index instanceof FilterParamIndexDoubleRangePrimitive);
+        index = IndexFactory.createIndex(makeLookupable("floatBoxed"), lockFactory, FilterOperator.RANGE_CLOSED);
         assertTrue(index instanceof FilterParamIndexDoubleRange);
         index = IndexFactory.createIndex(makeLookupable("doubleBoxed"), lockFactory, FilterOperator.NOT_RANGE_CLOSED);
         assertTrue(index instanceof FilterParamIndexDoubleRangeInverted);
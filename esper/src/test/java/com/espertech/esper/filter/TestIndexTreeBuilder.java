@@ -56,7 +56,7 @@ public class TestIndexTreeBuilder extends TestCase
 
     public void testBuildWithMatch()
     {
-        FilterHandleSetNode topNode = new FilterHandleSetNode(new ReentrantReadWriteLock());
+        FilterHandleSetNode topNode = new FilterHandleSetNode(new ReentrantReadWriteLock(), false);
 
         // Add some parameter-less expression
         FilterValueSet filterSpec = makeFilterValues();
@@ -177,7 +177,7 @@ public class TestIndexTreeBuilder extends TestCase
 
     public void testBuildMatchRemove()
     {
-        FilterHandleSetNode top = new FilterHandleSetNode(new ReentrantReadWriteLock());
+        FilterHandleSetNode top = new FilterHandleSetNode(new ReentrantReadWriteLock(), false);
 
         // Add a parameter-less filter
         FilterValueSet filterSpecNoParams = makeFilterValues();
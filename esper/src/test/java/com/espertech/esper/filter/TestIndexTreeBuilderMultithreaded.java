@@ -48,7 +48,7 @@ public class TestIndexTreeBuilderMultithreaded extends TestCase
     public void setUp()
     {
         eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
-        topNode = new FilterHandleSetNode(new ReentrantReadWriteLock());
+        topNode = new FilterHandleSetNode(new ReentrantReadWriteLock(), false);
         filterCallbacks = new LinkedList<FilterHandle>();
         pathsAddedTo = new LinkedList<ArrayDeque<EventTypeIndexBuilderIndexLookupablePair>>();
 
@@ -146,15 +146,15 @@ public class TestIndexTreeBuilderMultithreaded extends TestCase
 
     public void testMultithreaded() throws Exception
     {
-        FilterHandleSetNode topNode = new FilterHandleSetNode(new ReentrantReadWriteLock());
+        FilterHandleSetNode topNode = new FilterHandleSetNode(new ReentrantReadWriteLock(), false);
 
         performMultithreadedTest(topNode, 2, 1000, 1);
         performMultithreadedTest(topNode, 3, 1000, 1);
         performMultithreadedTest(topNode, 4, 1000, 1);
 
-        performMultithreadedTest(new FilterHandleSetNode(new ReentrantReadWriteLock()), 2, 1000, 1);
-        performMultithreadedTest(new FilterHandleSetNode(new ReentrantReadWriteLock()), 3, 1000, 1);
-        performMultithreadedTest(new FilterHandleSetNode(new ReentrantReadWriteLock()), 4, 1000, 1);
+        performMultithreadedTest(new FilterHandleSetNode(new ReentrantReadWriteLock(), false), 2, 1000, 1);
+        performMultithreadedTest(new FilterHandleSetNode(new ReentrantReadWriteLock(), false), 3, 1000, 1);
+        performMultithreadedTest(new FilterHandleSetNode(new ReentrantReadWriteLock(), false), 4, 1000, 1);
     }
 
     private void performMultithreadedTest(FilterHandleSetNode topNode,
@@ -20,6 +20,7 @@ public class TestMTContextMultiStmtStartEnd extends TestCase {
     public void testContextMultistmt() throws Exception {
         runAssertion(ConfigurationEngineDefaults.FilterServiceProfile.READMOSTLY);
         runAssertion(ConfigurationEngineDefaults.FilterServiceProfile.READWRITE);
+        runAssertion(ConfigurationEngineDefaults.FilterServiceProfile.COPYONWRITE);
     }
 
     private void runAssertion(ConfigurationEngineDefaults.FilterServiceProfile profile) throws Exception
@@ -22,6 +22,7 @@ public class TestMTStmtPatternFollowedBy extends TestCase {
     public void testPatternFollowedBy() throws Exception {
         runAssertionPatternFollowedBy(ConfigurationEngineDefaults.FilterServiceProfile.READMOSTLY);
         runAssertionPatternFollowedBy(ConfigurationEngineDefaults.FilterServiceProfile.READWRITE);
+        runAssertionPatternFollowedBy(ConfigurationEngineDefaults.FilterServiceProfile.COPYONWRITE);
     }
 
     private void runAssertionPatternFollowedBy(ConfigurationEngineDefaults.FilterServiceProfile profile) throws InterruptedException {
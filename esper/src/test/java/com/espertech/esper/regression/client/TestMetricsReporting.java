@@ -295,6 +295,43 @@ public class TestMetricsReporting extends TestCase
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
     }
 
+    public void testLatency()
+    {
+        epService = EPServiceProviderManager.getProvider("MyURI", getConfig(10000, 10000, true));
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+
+        sendTimer(1000);
+        epService.getEPAdministrator().createEPL("select * from " + StatementMetric.class.getName() + "(statementName = 'wallStmt')").addListener(listenerStmtMetric);
+        epService.getEPAdministrator().createEPL("select * from " + EngineMetric.class.getName()).addListener(listenerEngineMetric);
+        epService.getEPAdministrator().createEPL("select * from SupportBean where MyMetricFunctions.takeWallTime(longPrimitive)", "wallStmt").addListener(listenerTwo);
+
+        // nine fast events and one slow event
+        for (int i = 0; i < 10; i++) {
+            sendEvent("E" + i, 0, i == 9 ? 100 : 1);
+        }
+        assertEquals(10, listenerTwo.getNewDataListFlattened().length);
+
+        sendTimer(11000);
+        StatementMetric stmtMetric = (StatementMetric) listenerStmtMetric.assertOneGetNewAndReset().getUnderlying();
+        assertEquals(10, stmtMetric.getLatencyCount());
+        assertTrue(stmtMetric.getLatencyP50() >= 1000000L && stmtMetric.getLatencyP50() < 100000000L);
+        assertTrue(stmtMetric.getLatencyP999() >= 97000000L);
+        assertTrue(stmtMetric.getLatencyMax() >= 100000000L);
+        assertTrue(stmtMetric.getLatencyP99() <= stmtMetric.getLatencyP999() && stmtMetric.getLatencyP999() <= stmtMetric.getLatencyMax());
+
+        EngineMetric engineMetric = (EngineMetric) listenerEngineMetric.assertOneGetNewAndReset().getUnderlying();
+        assertTrue(engineMetric.getLatencyCount() >= 10);
+        assertTrue(engineMetric.getLatencyMax() >= 100000000L);
+
+        // latencies are reported once
+        sendTimer(21000);
+        assertFalse(listenerStmtMetric.isInvoked());
+        engineMetric = (EngineMetric) listenerEngineMetric.assertOneGetNewAndReset().getUnderlying();
+        assertTrue(engineMetric.getLatencyMax() < 100000000L);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+    }
+
     public void testEnabledDisableRuntime()
     {
         EPStatement[] statements = new EPStatement[5];
@@ -0,0 +1,164 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+
+public class TestSendEventAllocation extends TestCase
+{
+    private static final Logger log = LoggerFactory.getLogger(TestSendEventAllocation.class);
+
+    private static final int NUM_EVENTS = 1000;
+    private static final int NUM_REPEATS = 100;
+
+    private EPServiceProvider epService;
+    private MyCountingListener listener;
+
+    public void setUp()
+    {
+        Configuration configuration = SupportConfigFactory.getConfiguration();
+        configuration.addEventType("MyOA", new String[] {"p0", "p1"}, new Object[] {String.class, int.class});
+        Map<String, Object> mapType = new HashMap<String, Object>();
+        mapType.put("p0", String.class);
+        mapType.put("p1", int.class);
+        configuration.addEventType("MyMap", mapType);
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        epService = EPServiceProviderManager.getDefaultProvider(configuration);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        listener = new MyCountingListener();
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+    }
+
+    public void testFilterPathObjectArray()
+    {
+        createFilterStatements("MyOA");
+        EventSender sender = epService.getEPRuntime().getEventSender("MyOA");
+        Object[][] events = new Object[NUM_EVENTS][];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new Object[] {"E" + (i % 10), i};
+        }
+
+        double bytesPerEvent = measure(sender, events);
+        assertEquals(NUM_EVENTS / 10, listener.getAndResetCount() / (NUM_REPEATS * 3));
+
+        // the event bean itself and the listener result arrays remain; filter evaluation and dispatch to statements must not allocate
+        assertAllocation(bytesPerEvent, 48);
+    }
+
+    public void testFilterPathMap()
+    {
+        createFilterStatements("MyMap");
+        EventSender sender = epService.getEPRuntime().getEventSender("MyMap");
+        Map[] events = new Map[NUM_EVENTS];
+        for (int i = 0; i < events.length; i++) {
+            Map<String, Object> event = new HashMap<String, Object>();
+            event.put("p0", "E" + (i % 10));
+            event.put("p1", i);
+            events[i] = event;
+        }
+
+        double bytesPerEvent = measure(sender, events);
+        assertEquals(NUM_EVENTS / 10, listener.getAndResetCount() / (NUM_REPEATS * 3));
+        assertAllocation(bytesPerEvent, 48);
+    }
+
+    public void testSelfJoinReusedCallbackHolders()
+    {
+        // both streams of the self-join match each event, therefore each event requires a callback holder
+        epService.getEPAdministrator().createEPL("select * from MyOA(p0 = 'E1')#lastevent as a, MyOA(p1 >= 0)#lastevent as b").addListener(listener);
+        EventSender sender = epService.getEPRuntime().getEventSender("MyOA");
+        for (int i = 0; i < 100; i++) {
+            sender.sendEvent(new Object[] {"E1", i});
+            assertEquals(1, listener.getAndResetCount());
+            sender.sendEvent(new Object[] {"E2", i});
+            assertEquals(1, listener.getAndResetCount());
+        }
+    }
+
+    private void createFilterStatements(String typeName)
+    {
+        // non-matching statements on the same stream share the filter index tree
+        for (int i = 0; i < 10; i++) {
+            epService.getEPAdministrator().createEPL("select * from " + typeName + "(p0 = 'X" + i + "')");
+            epService.getEPAdministrator().createEPL("select * from " + typeName + "(p1 < -" + i + ")");
+        }
+        epService.getEPAdministrator().createEPL("select * from " + typeName + "(p0 = 'E1')").addListener(listener);
+    }
+
+    private double measure(EventSender sender, Object[] events)
+    {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        if (!allocationMXBean.isThreadAllocatedMemorySupported() || !allocationMXBean.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        long threadId = Thread.currentThread().getId();
+
+        // warm up, then take the best of a few rounds
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < 3; round++) {
+            long before = allocationMXBean.getThreadAllocatedBytes(threadId);
+            for (int repeat = 0; repeat < NUM_REPEATS; repeat++) {
+                for (Object event : events) {
+                    sender.sendEvent(event);
+                }
+            }
+            long after = allocationMXBean.getThreadAllocatedBytes(threadId);
+            best = Math.min(best, (after - before) / (double) (NUM_REPEATS * events.length));
+        }
+        log.info("Allocated bytes per event " + best);
+        return best;
+    }
+
+    private void assertAllocation(double bytesPerEvent, int maxBytesPerEvent)
+    {
+        if (bytesPerEvent < 0 || InstrumentationHelper.ENABLED) {
+            return; // allocation measurement not supported
+        }
+        assertTrue("Allocated " + bytesPerEvent + " bytes per event, expected at most " + maxBytesPerEvent, bytesPerEvent <= maxBytesPerEvent);
+    }
+
+    private static class MyCountingListener implements UpdateListener
+    {
+        private int count;
+
+        public void update(EventBean[] newEvents, EventBean[] oldEvents)
+        {
+            count += newEvents.length;
+        }
+
+        public int getAndResetCount()
+        {
+            int result = count;
+            count = 0;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.bean.SupportBean_S0;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestSendEventBatch extends TestCase
+{
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+
+    public void setUp()
+    {
+        Configuration configuration = SupportConfigFactory.getConfiguration();
+        configuration.addEventType("SupportBean", SupportBean.class);
+        configuration.addEventType("SupportBean_S0", SupportBean_S0.class);
+        configuration.addEventType("MyOA", new String[] {"p0", "p1"}, new Object[] {String.class, int.class});
+        Map<String, Object> mapType = new HashMap<String, Object>();
+        mapType.put("p0", String.class);
+        configuration.addEventType("MyMap", mapType);
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        epService = EPServiceProviderManager.getDefaultProvider(configuration);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        listener = new SupportUpdateListener();
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+    }
+
+    public void testSendEventsList()
+    {
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        epService.getEPAdministrator().createEPL("insert into Totals select theString, sum(intPrimitive) as total from SupportBean group by theString");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select theString, total from Totals");
+        stmt.addListener(listener);
+
+        List<Object> events = new ArrayList<Object>();
+        events.add(new SupportBean("E1", 10));
+        events.add(new SupportBean("E1", 20));
+        events.add(new SupportBean("E2", 5));
+        epService.getEPRuntime().sendEvents(events);
+
+        // each event is processed and dispatched in turn, including insert-into
+        assertEquals(3, listener.getNewDataList().size());
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), "theString,total".split(","),
+                new Object[][]{{"E1", 10}, {"E1", 30}, {"E2", 5}});
+        listener.reset();
+
+        // timer events among the batch advance time in place
+        stmt.destroy();
+        stmt = epService.getEPAdministrator().createEPL("select irstream theString from SupportBean.win:time(1 sec)");
+        stmt.addListener(listener);
+        epService.getEPRuntime().sendEvents(Arrays.asList(new SupportBean("E3", 0), new CurrentTimeEvent(2000), new SupportBean("E4", 0)));
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), "theString".split(","), new Object[][]{{"E3"}, {"E4"}});
+        EPAssertionUtil.assertPropsPerRow(listener.getOldDataListFlattened(), "theString".split(","), new Object[][]{{"E3"}});
+        listener.reset();
+
+        // a listener may create statements that see the subsequent events of the batch
+        stmt.destroy();
+        final SupportUpdateListener listenerCreated = new SupportUpdateListener();
+        stmt = epService.getEPAdministrator().createEPL("select * from SupportBean_S0");
+        stmt.addListener(new UpdateListener() {
+            public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                epService.getEPAdministrator().createEPL("select theString from SupportBean").addListener(listenerCreated);
+            }
+        });
+        epService.getEPRuntime().sendEvents(Arrays.asList(new SupportBean("E5", 0), new SupportBean_S0(1), new SupportBean("E6", 0)));
+        EPAssertionUtil.assertPropsPerRow(listenerCreated.getNewDataListFlattened(), "theString".split(","), new Object[][]{{"E6"}});
+
+        epService.getEPRuntime().sendEvents(new ArrayList<Object>());
+    }
+
+    public void testSendEventsObjectArray()
+    {
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select p0, p1 from MyOA");
+        stmt.addListener(listener);
+
+        epService.getEPRuntime().sendEvents(new Object[][] {{"E1", 1}, {"E2", 2}}, "MyOA");
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), "p0,p1".split(","), new Object[][]{{"E1", 1}, {"E2", 2}});
+
+        try
+        {
+            epService.getEPRuntime().sendEvents(new Object[][] {{"E1", 1}}, "MyMap");
+            fail();
+        }
+        catch (EPException ex)
+        {
+            assertEquals("Event type named 'MyMap' has not been defined or is not a Object-array event type, the name 'MyMap' refers to a java.util.Map event type", ex.getMessage());
+        }
+    }
+
+    public void testSenderBatch()
+    {
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select p0 from MyMap");
+        stmt.addListener(listener);
+
+        Map<String, Object> eventOne = new HashMap<String, Object>();
+        eventOne.put("p0", "E1");
+        Map<String, Object> eventTwo = new HashMap<String, Object>();
+        eventTwo.put("p0", "E2");
+        epService.getEPRuntime().getEventSender("MyMap").sendEventBatch(Arrays.asList(eventOne, eventTwo));
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), "p0".split(","), new Object[][]{{"E1"}, {"E2"}});
+        listener.reset();
+
+        stmt.destroy();
+        stmt = epService.getEPAdministrator().createEPL("select theString from SupportBean");
+        stmt.addListener(listener);
+        epService.getEPRuntime().getEventSender("SupportBean").sendEventBatch(Arrays.asList(new SupportBean("E3", 0), new SupportBean("E4", 0)));
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), "theString".split(","), new Object[][]{{"E3"}, {"E4"}});
+        listener.reset();
+
+        stmt.destroy();
+        stmt = epService.getEPAdministrator().createEPL("select p1 from MyOA");
+        stmt.addListener(listener);
+        epService.getEPRuntime().getEventSender("MyOA").sendEventBatch(Arrays.asList(new Object[] {"E5", 5}, new Object[] {"E6", 6}));
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), "p1".split(","), new Object[][]{{5}, {6}});
+
+        try
+        {
+            epService.getEPRuntime().getEventSender("MyOA").sendEventBatch(Arrays.asList(new Object[] {"E7", 7}, new SupportBean()));
+            fail();
+        }
+        catch (EPException ex)
+        {
+            assertEquals("Unexpected event object of type com.espertech.esper.support.bean.SupportBean, expected Object[]", ex.getMessage());
+        }
+    }
+}
@@ -17,9 +17,14 @@ import com.espertech.esper.support.bean.SupportBean;
 import com.espertech.esper.support.client.SupportConfigFactory;
 import com.espertech.esper.support.epl.SupportStaticMethodLib;
 import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.core.thread.RingBufferBlockingQueue;
 import junit.framework.TestCase;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
 
 public class TestThreadedConfigInbound extends TestCase
 {
@@ -102,6 +107,163 @@ public class TestThreadedConfigInbound extends TestCase
         epService.destroy();
     }
 
+    public void testRingBufferWithoutCapacity()
+    {
+        Configuration config = new Configuration();
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        config.getEngineDefaults().getThreading().setThreadPoolInbound(true);
+        config.getEngineDefaults().getThreading().setThreadPoolQueueType(ConfigurationEngineDefaults.Threading.ThreadPoolQueueType.RINGBUFFER);
+        config.addEventType("SupportBean", SupportBean.class);
+
+        EPServiceProvider epService = EPServiceProviderManager.getProvider(this.getClass().getSimpleName(), config);
+        epService.initialize();
+
+        EPServiceProviderSPI spi = (EPServiceProviderSPI) epService;
+        assertTrue(spi.getThreadingService().getInboundQueue() instanceof LinkedBlockingQueue);
+
+        epService.destroy();
+    }
+
+    public void testRingBuffer() throws Exception
+    {
+        Configuration config = new Configuration();
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        config.getEngineDefaults().getThreading().setThreadPoolInbound(true);
+        config.getEngineDefaults().getThreading().setThreadPoolInboundNumThreads(4);
+        config.getEngineDefaults().getThreading().setThreadPoolInboundCapacity(16);
+        config.getEngineDefaults().getThreading().setThreadPoolQueueType(ConfigurationEngineDefaults.Threading.ThreadPoolQueueType.RINGBUFFER);
+        config.addEventType("SupportBean", SupportBean.class);
+
+        EPServiceProvider epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select count(*) as cnt from SupportBean");
+        SupportListenerTimerHRes listener = new SupportListenerTimerHRes();
+        stmt.addListener(listener);
+
+        EventSender sender = epService.getEPRuntime().getEventSender("SupportBean");
+        for (int i = 0; i < 5000; i++)
+        {
+            epService.getEPRuntime().sendEvent(new SupportBean());
+            sender.sendEvent(new SupportBean());
+        }
+
+        EPServiceProviderSPI spi = (EPServiceProviderSPI) epService;
+        assertTrue(spi.getThreadingService().getInboundQueue() instanceof RingBufferBlockingQueue);
+        long deadline = System.currentTimeMillis() + 10000;
+        while (listener.getNewEvents().size() < 10000 && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10);
+        }
+        assertEquals(10000, listener.getNewEvents().size());
+        assertEquals(10000L, stmt.iterator().next().get("cnt"));
+        assertEquals(0, spi.getThreadingService().getInboundQueue().size());
+
+        epService.destroy();
+    }
+
+    public void testKeyAffinity() throws Exception
+    {
+        // configured partition key
+        Configuration config = new Configuration();
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        config.getEngineDefaults().getThreading().setThreadPoolInbound(true);
+        config.getEngineDefaults().getThreading().setThreadPoolInboundNumThreads(4);
+        config.getEngineDefaults().getThreading().setThreadPoolInboundKeyAffinity(true);
+        config.getEngineDefaults().getThreading().addThreadPoolInboundPartitionKey("SupportBean", "theString");
+        config.addEventType("SupportBean", SupportBean.class);
+        runAssertionKeyAffinity(config, "select theString, intPrimitive from SupportBean");
+
+        // partition key derived from hash segmented context
+        config = new Configuration();
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        config.getEngineDefaults().getThreading().setThreadPoolInbound(true);
+        config.getEngineDefaults().getThreading().setThreadPoolInboundNumThreads(4);
+        config.getEngineDefaults().getThreading().setThreadPoolInboundKeyAffinity(true);
+        config.addEventType("SupportBean", SupportBean.class);
+        runAssertionKeyAffinity(config, "create context HashCtx coalesce by hash_code(theString) from SupportBean granularity 16;\n" +
+                "context HashCtx select theString, intPrimitive from SupportBean", false);
+
+        // partition key derived from hash segmented context created after events arrived
+        runAssertionKeyAffinity(config, "create context HashCtx coalesce by hash_code(theString) from SupportBean granularity 16;\n" +
+                "context HashCtx select theString, intPrimitive from SupportBean", true);
+    }
+
+    public void testKeyAffinityContextDestroyed() throws Exception
+    {
+        Configuration config = new Configuration();
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        config.getEngineDefaults().getThreading().setThreadPoolInbound(true);
+        config.getEngineDefaults().getThreading().setThreadPoolInboundNumThreads(4);
+        config.getEngineDefaults().getThreading().setThreadPoolInboundKeyAffinity(true);
+        config.addEventType("SupportBean", SupportBean.class);
+        EPServiceProvider epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+
+        // the destroyed context no longer provides the partition key, the context created later does
+        EPStatement stmtContext = epService.getEPAdministrator().createEPL("create context HashCtx coalesce by hash_code(intPrimitive) from SupportBean granularity 16");
+        stmtContext.destroy();
+        runAssertionKeyAffinity(epService, "create context HashCtxTwo coalesce by hash_code(theString) from SupportBean granularity 16;\n" +
+                "context HashCtxTwo select theString, intPrimitive from SupportBean", false);
+    }
+
+    private void runAssertionKeyAffinity(Configuration config, String epl) throws Exception
+    {
+        runAssertionKeyAffinity(config, epl, false);
+    }
+
+    private void runAssertionKeyAffinity(Configuration config, String epl, boolean sendBeforeDeploy) throws Exception
+    {
+        EPServiceProvider epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        runAssertionKeyAffinity(epService, epl, sendBeforeDeploy);
+    }
+
+    private void runAssertionKeyAffinity(EPServiceProvider epService, String epl, boolean sendBeforeDeploy) throws Exception
+    {
+        if (sendBeforeDeploy) {
+            for (int i = 0; i < 10; i++) {
+                epService.getEPRuntime().sendEvent(new SupportBean("A", -1));
+            }
+            sleepaLittle(200);
+        }
+        List<EPStatement> statements = epService.getEPAdministrator().getDeploymentAdmin().parseDeploy(epl).getStatements();
+
+        MyOrderListener listener = new MyOrderListener();
+        statements.get(statements.size() - 1).addListener(listener);
+
+        EPServiceProviderSPI spi = (EPServiceProviderSPI) epService;
+        assertTrue(spi.getThreadingService().isInboundThreadingKeyAffinity());
+        assertNull(spi.getThreadingService().getInboundQueue());
+
+        String[] keys = new String[] {"A", "B", "C", "D", "E", "F", "G", "H"};
+        EventSender sender = epService.getEPRuntime().getEventSender("SupportBean");
+        int numEvents = 2000;
+        for (int i = 0; i < numEvents; i++)
+        {
+            SupportBean bean = new SupportBean(keys[i % keys.length], i);
+            if (i % 3 == 0) {
+                epService.getEPRuntime().sendEvent(bean);
+            }
+            else if (i % 3 == 1) {
+                sender.sendEvent(bean);
+            }
+            else {
+                sender.sendEventBatch(Collections.singletonList(bean));
+            }
+        }
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (listener.getCount() < numEvents && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10);
+        }
+        assertEquals(numEvents, listener.getCount());
+        assertFalse(listener.isOutOfOrder());
+
+        epService.destroy();
+    }
+
     public static void sleepaLittle(long time) {
         try {
             Thread.sleep(time);
@@ -117,4 +279,30 @@ public class TestThreadedConfigInbound extends TestCase
 
     public static class MyEvent {
     }
+
+    public static class MyOrderListener implements UpdateListener {
+        private final Map<String, Integer> lastPerKey = new HashMap<String, Integer>();
+        private int count;
+        private boolean outOfOrder;
+
+        public synchronized void update(EventBean[] newEvents, EventBean[] oldEvents) {
+            for (EventBean event : newEvents) {
+                String key = (String) event.get("theString");
+                int value = (Integer) event.get("intPrimitive");
+                Integer last = lastPerKey.put(key, value);
+                if (last != null && last > value) {
+                    outOfOrder = true;
+                }
+                count++;
+            }
+        }
+
+        public synchronized int getCount() {
+            return count;
+        }
+
+        public synchronized boolean isOutOfOrder() {
+            return outOfOrder;
+        }
+    }
 }
@@ -49,4 +49,33 @@ public class TestThreadedConfigOutbound extends TestCase
 
         epService.destroy();
     }
+
+    public void testVirtualThreads() throws Exception
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        config.getEngineDefaults().getThreading().setThreadPoolOutbound(true);
+        config.getEngineDefaults().getThreading().setThreadPoolOutboundNumThreads(50);
+        config.getEngineDefaults().getThreading().setThreadPoolOutboundVirtualThreads(true);
+        config.addEventType("SupportBean", SupportBean.class);
+
+        // uses platform threads on a JVM without virtual threads
+        EPServiceProvider epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+
+        SupportListenerSleeping listener = new SupportListenerSleeping(200);
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select * from SupportBean");
+        stmt.addListener(listener);
+
+        for (int i = 0; i < 50; i++)
+        {
+            epService.getEPRuntime().sendEvent(new SupportBean());
+        }
+
+        // blocking listeners execute concurrently
+        Thread.sleep(1000);
+        assertEquals(50, listener.getNewEvents().size());
+
+        epService.destroy();
+    }
 }
@@ -26,12 +26,23 @@ public class TestThreadedConfigTimer extends TestCase
     private static final Logger log = LoggerFactory.getLogger(TestThreadedConfigTimer.class);
 
     public void testOp() throws Exception
+    {
+        runAssertionOp(1);
+    }
+
+    public void testOpPartitionedSchedule() throws Exception
+    {
+        runAssertionOp(4);
+    }
+
+    private void runAssertionOp(int schedulingServicePartitions) throws Exception
     {
         if (SupportConfigFactory.skipTest(TestThreadedConfigTimer.class)) {
             return;
         }
 
         Configuration config = SupportConfigFactory.getConfiguration();
+        config.getEngineDefaults().getExecution().setSchedulingServicePartitions(schedulingServicePartitions);
         config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
         config.getEngineDefaults().getExpression().setUdfCache(false);
         config.getEngineDefaults().getThreading().setThreadPoolTimerExec(true);
@@ -75,6 +86,7 @@ public class TestThreadedConfigTimer extends TestCase
         }
 
         assertEquals(100, listener.getNewEvents().size());
+        epService.destroy();
         // analyze result
         //List<Pair<Long, EventBean[]>> events = listener.getNewEvents();
         //OccuranceResult result = OccuranceAnalyzer.analyze(events, new long[] {100 * 1000 * 1000L, 10*1000 * 1000L});
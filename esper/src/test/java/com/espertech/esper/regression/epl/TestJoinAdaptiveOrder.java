@@ -0,0 +1,82 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.epl;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.epl.join.plan.AdaptiveNestedIterationNode;
+import com.espertech.esper.epl.join.plan.QueryPlan;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean_S0;
+import com.espertech.esper.support.bean.SupportBean_S1;
+import com.espertech.esper.support.bean.SupportBean_S2;
+import com.espertech.esper.support.bean.SupportBean_S3;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import com.espertech.esper.support.epl.SupportQueryPlanIndexHook;
+import junit.framework.TestCase;
+
+public class TestJoinAdaptiveOrder extends TestCase
+{
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+
+    public void setUp()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.getEngineDefaults().getLogging().setEnableQueryPlan(true);
+        config.getEngineDefaults().getExecution().setAdaptiveJoinOrderInterval(10);
+        config.addEventType("S0", SupportBean_S0.class);
+        config.addEventType("S1", SupportBean_S1.class);
+        config.addEventType("S2", SupportBean_S2.class);
+        config.addEventType("S3", SupportBean_S3.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        listener = new SupportUpdateListener();
+        SupportQueryPlanIndexHook.reset();
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+    }
+
+    public void testJoinOrderChanges()
+    {
+        String epl = "@Hook(type=HookType.INTERNAL_QUERY_PLAN, hook='" + SupportQueryPlanIndexHook.resetGetClassName() + "')" +
+                "select count(*) as cnt from S0#lastevent as s0, S1#keepall as s1, S2#keepall as s2, S3#keepall as s3 " +
+                "where s0.id = s1.id and s1.id = s2.id and s2.id = s3.id";
+        epService.getEPAdministrator().createEPL(epl).addListener(listener);
+
+        QueryPlan plan = SupportQueryPlanIndexHook.assertJoinAndReset();
+        assertTrue(plan.getExecNodeSpecs()[0] instanceof AdaptiveNestedIterationNode);
+
+        // many events in S1 per key, few in S2 and S3: looking up S1 last is cheaper
+        for (int i = 0; i < 200; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean_S1(i % 2));
+        }
+        for (int i = 0; i < 2; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean_S2(i));
+            epService.getEPRuntime().sendEvent(new SupportBean_S3(i));
+        }
+        listener.reset();
+
+        // the join result is the same regardless of order
+        for (int i = 0; i < 50; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean_S0(i % 3));
+            long expected = (i % 3) < 2 ? 100 : 0;
+            assertEquals(expected, listener.assertOneGetNewAndReset().get("cnt"));
+        }
+    }
+}
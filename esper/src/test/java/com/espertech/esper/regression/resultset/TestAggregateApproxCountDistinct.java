@@ -0,0 +1,128 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.resultset;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.soda.EPStatementObjectModel;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.bean.SupportBean_S0;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+public class TestAggregateApproxCountDistinct extends TestCase {
+
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+
+    public void setUp()
+    {
+        listener = new SupportUpdateListener();
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        config.addEventType("SupportBean_S0", SupportBean_S0.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+    }
+
+    public void testGrouped()
+    {
+        String epl = "select theString, " +
+                "approxCountDistinct(intPrimitive) as cnt, " +
+                "approxCountDistinct(intPrimitive,intPrimitive>0) as cntPos " +
+                "from SupportBean group by theString";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        stmt.addListener(listener);
+
+        runAssertion();
+
+        stmt.destroy();
+        EPStatementObjectModel model = epService.getEPAdministrator().compileEPL(epl);
+        stmt = epService.getEPAdministrator().create(model);
+        stmt.addListener(listener);
+        assertEquals(epl, model.toEPL());
+
+        runAssertion();
+    }
+
+    public void testTable()
+    {
+        epService.getEPAdministrator().createEPL("create table MyTable(theString string primary key, hll approxCountDistinct(int))");
+        epService.getEPAdministrator().createEPL("into table MyTable select approxCountDistinct(intPrimitive) as hll from SupportBean group by theString");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select MyTable[p00].hll as cnt from SupportBean_S0");
+        stmt.addListener(listener);
+
+        for (int i = 0; i < 1000; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E1", i % 100));
+            epService.getEPRuntime().sendEvent(new SupportBean("E2", i));
+        }
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(0, "E1"));
+        assertEquals(100L, (Long) listener.assertOneGetNewAndReset().get("cnt"), 100 * 0.05);
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(0, "E2"));
+        assertEquals(1000L, (Long) listener.assertOneGetNewAndReset().get("cnt"), 1000 * 0.05);
+
+        tryInvalid("into table MyTable select approxCountDistinct(theString) as hll from SupportBean group by theString",
+                "Error starting statement: Incompatible aggregation function for table 'MyTable' column 'hll', expecting 'approxCountDistinct(int)' and received 'approxCountDistinct(theString)': The required parameter type is java.lang.Integer and provided is java.lang.String [into table MyTable select approxCountDistinct(theString) as hll from SupportBean group by theString]");
+    }
+
+    public void testInvalid()
+    {
+        tryInvalid("select approxCountDistinct() from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'approxCountDistinct(*)': The 'approxCountDistinct' function expects at least 1 and up to 2 parameters [select approxCountDistinct() from SupportBean]");
+        tryInvalid("select approxCountDistinct(*) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'approxCountDistinct(*)': Invalid use of wildcard with aggregation function 'approxCountDistinct' [select approxCountDistinct(*) from SupportBean]");
+        tryInvalid("select approxCountDistinct(intPrimitive,theString) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'approxCountDistinct(intPrimitive,th...(43 chars)': Invalid filter expression parameter to the aggregation function 'approxCountDistinct' is expected to return a boolean value but returns java.lang.String [select approxCountDistinct(intPrimitive,theString) from SupportBean]");
+        tryInvalid("select approxCountDistinct(intPrimitive) from SupportBean#time(10 sec)",
+                "Error starting statement: Failed to validate select-clause expression 'approxCountDistinct(intPrimitive)': The approxCountDistinct aggregation function requires a stream without data window, values leaving a data window cannot be removed from the sketch, use count(distinct ...) instead [select approxCountDistinct(intPrimitive) from SupportBean#time(10 sec)]");
+    }
+
+    private void runAssertion() {
+        String[] fields = "theString,cnt,cntPos".split(",");
+
+        epService.getEPRuntime().sendEvent(new SupportBean("G1", 10));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"G1", 1L, 1L});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("G1", 10));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"G1", 1L, 1L});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("G2", -1));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"G2", 1L, 0L});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("G1", -5));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"G1", 2L, 1L});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("G1", 20));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"G1", 3L, 2L});
+    }
+
+    private void tryInvalid(String epl, String message) {
+        try
+        {
+            epService.getEPAdministrator().createEPL(epl);
+            fail();
+        }
+        catch (EPStatementException ex) {
+            assertEquals(message, ex.getMessage());
+        }
+    }
+}
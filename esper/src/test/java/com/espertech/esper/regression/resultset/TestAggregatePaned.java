@@ -0,0 +1,143 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.resultset;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.client.time.CurrentTimeSpanEvent;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+public class TestAggregatePaned extends TestCase {
+
+    private final static String HINT = "@Hint('enable_pane_aggregation') ";
+
+    private EPServiceProvider epService;
+
+    public void setUp()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+    }
+
+    public void testPanedTimeWindow()
+    {
+        String[] fields = "cnt,cntval,total,totallong,average,minval,maxval,filtered".split(",");
+        String select = "select count(*) as cnt, count(intBoxed) as cntval, sum(intPrimitive) as total, sum(longPrimitive) as totallong, " +
+                "avg(doublePrimitive) as average, min(intPrimitive) as minval, max(intPrimitive) as maxval, sum(intPrimitive, boolPrimitive) as filtered from SupportBean";
+
+        // pane size is the greatest common divisor of window and interval
+        runAssertionPaned(fields, select + "#time(10 sec) output snapshot every 4 seconds", 20);
+        runAssertionPaned(fields, select + "#time(6 sec) output snapshot every 3 seconds", 20);
+        runAssertionPaned(fields, select + "#time(2 sec) output snapshot every 5 seconds", 20);
+        runAssertionPaned(fields, select + "(theString = 'E1')#time(10 sec) having count(*) > 3 output snapshot every 4 seconds", 20);
+    }
+
+    public void testPanedNotApplicable()
+    {
+        // aggregations that cannot be combined from partial states use the time window as before
+        String[] fields = "cnt,distinctcnt".split(",");
+        runAssertionPaned(fields, "select count(*) as cnt, count(distinct intPrimitive) as distinctcnt from SupportBean#time(10 sec) output snapshot every 4 seconds", 10);
+
+        fields = "cnt,total".split(",");
+        runAssertionPaned(fields, "select count(*) as cnt, sum(intPrimitive) as total from SupportBean#time(10 sec) output every 4 seconds", 10);
+        runAssertionPaned(fields, "select count(*) as cnt, sum(intPrimitive) as total from SupportBean#time(10 sec)#length(5) output snapshot every 4 seconds", 10);
+        runAssertionPaned(fields, "select irstream count(*) as cnt, sum(intPrimitive) as total from SupportBean#time(10 sec) output snapshot every 4 seconds", 10);
+    }
+
+    public void testBatchWindow()
+    {
+        String[] fields = "cnt,total,minval,maxval,average".split(",");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        epService.getEPAdministrator().createEPL("select count(*) as cnt, sum(intPrimitive) as total, min(intPrimitive) as minval, max(intPrimitive) as maxval, avg(intPrimitive) as average " +
+                "from SupportBean#time_batch(1 sec)").addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 10));
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 20));
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(1000));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{2L, 30, 10, 20, 15d});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E3", 5));
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(2000));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{1L, 5, 5, 5, 5d});
+
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(3000));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{0L, null, null, null, null});
+
+        epService.getEPAdministrator().destroyAllStatements();
+        epService.getEPAdministrator().createEPL("select count(*) as cnt, sum(intPrimitive) as total, min(intPrimitive) as minval, max(intPrimitive) as maxval, avg(intPrimitive) as average " +
+                "from SupportBean#length_batch(2)").addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 10));
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 20));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{2L, 30, 10, 20, 15d});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E3", 5));
+        epService.getEPRuntime().sendEvent(new SupportBean("E4", 7));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{2L, 12, 5, 7, 6d});
+    }
+
+    private void runAssertionPaned(String[] fields, String epl, int numSeconds)
+    {
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        SupportUpdateListener listenerWindow = new SupportUpdateListener();
+        SupportUpdateListener listenerPaned = new SupportUpdateListener();
+        EPStatement stmtWindow = epService.getEPAdministrator().createEPL(epl);
+        stmtWindow.addListener(listenerWindow);
+        EPStatement stmtPaned = epService.getEPAdministrator().createEPL(HINT + epl);
+        stmtPaned.addListener(listenerPaned);
+
+        Random random = new Random(1000);
+        long time = 0;
+        int numOutputs = 0;
+        while (time < numSeconds * 1000) {
+            // advance time such that output and expiry take place at their scheduled time
+            time += random.nextInt(700);
+            epService.getEPRuntime().sendEvent(new CurrentTimeSpanEvent(time));
+            assertEquals(listenerWindow.isInvoked(), listenerPaned.isInvoked());
+            if (listenerWindow.isInvoked()) {
+                EventBean[] expected = listenerWindow.getAndResetLastNewData();
+                EPAssertionUtil.assertPropsPerRow(listenerPaned.getAndResetLastNewData(), fields, expected == null ? null : EPAssertionUtil.eventsToObjectArr(expected, fields));
+                listenerWindow.reset();
+                listenerPaned.reset();
+                numOutputs++;
+            }
+
+            int count = random.nextInt(4);
+            for (int i = 0; i < count; i++) {
+                SupportBean bean = new SupportBean("E" + random.nextInt(2), random.nextInt(100) - 20);
+                bean.setIntBoxed(random.nextBoolean() ? null : bean.getIntPrimitive());
+                bean.setLongPrimitive(random.nextInt(1000));
+                bean.setDoublePrimitive(random.nextInt(50));
+                bean.setBoolPrimitive(random.nextBoolean());
+                epService.getEPRuntime().sendEvent(bean);
+            }
+        }
+        assertTrue(numOutputs > 0);
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+}
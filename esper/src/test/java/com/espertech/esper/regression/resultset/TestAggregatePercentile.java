@@ -0,0 +1,147 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.resultset;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.soda.EPStatementObjectModel;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+public class TestAggregatePercentile extends TestCase {
+
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+
+    public void setUp()
+    {
+        listener = new SupportUpdateListener();
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+    }
+
+    public void testPercentile()
+    {
+        String epl = "select " +
+                "median(intPrimitive) as med, " +
+                "percentile(intPrimitive,0.5d) as p50, " +
+                "percentile(intPrimitive,0.9d) as p90, " +
+                "percentile(distinct intPrimitive,0) as p0 " +
+                "from SupportBean#length(4)";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        stmt.addListener(listener);
+
+        runAssertion();
+
+        stmt.destroy();
+        EPStatementObjectModel model = epService.getEPAdministrator().compileEPL(epl);
+        stmt = epService.getEPAdministrator().create(model);
+        stmt.addListener(listener);
+        assertEquals(epl, model.toEPL());
+
+        runAssertion();
+    }
+
+    public void testApproxPercentile()
+    {
+        String epl = "select approxPercentile(doubleBoxed,0.5d) as p50, approxPercentile(doubleBoxed,1) as p100 from SupportBean";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        stmt.addListener(listener);
+        String[] fields = "p50,p100".split(",");
+
+        sendEvent("E1", 0, null);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{null, null});
+
+        sendEvent("E1", 0, 10d);
+        sendEvent("E1", 0, 30d);
+        sendEvent("E1", 0, 20d);
+        EPAssertionUtil.assertProps(listener.getLastNewData()[0], fields, new Object[]{20d, 30d});
+
+        for (int i = 0; i < 10000; i++) {
+            sendEvent("E1", 0, (double) i);
+        }
+        EventBean event = listener.getLastNewData()[0];
+        assertEquals(5000d, (Double) event.get("p50"), 50d);
+        assertEquals(9999d, event.get("p100"));
+
+        stmt.destroy();
+        EPStatementObjectModel model = epService.getEPAdministrator().compileEPL(epl);
+        assertEquals(epl, model.toEPL());
+    }
+
+    public void testInvalid()
+    {
+        tryInvalid("select percentile(intPrimitive) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'percentile(intPrimitive)': The percentile aggregation function requires two parameters, an expression returning numeric values and a constant percentile between 0 and 1 [select percentile(intPrimitive) from SupportBean]");
+        tryInvalid("select percentile(theString,0.5) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'percentile(theString,0.5)': Implicit conversion from datatype 'String' to numeric is not allowed for aggregation function 'percentile' [select percentile(theString,0.5) from SupportBean]");
+        tryInvalid("select approxPercentile(intPrimitive,intBoxed) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'approxPercentile(intPrimitive,intBoxed)': The approxPercentile aggregation function requires two parameters, an expression returning numeric values and a constant percentile between 0 and 1 [select approxPercentile(intPrimitive,intBoxed) from SupportBean]");
+        tryInvalid("select approxPercentile(intPrimitive,1.5) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'approxPercentile(intPrimitive,1.5)': The approxPercentile aggregation function requires two parameters, an expression returning numeric values and a constant percentile between 0 and 1 [select approxPercentile(intPrimitive,1.5) from SupportBean]");
+        tryInvalid("select approxPercentile(intPrimitive,0.5) from SupportBean#length(10)",
+                "Error starting statement: Failed to validate select-clause expression 'approxPercentile(intPrimitive,0.5)': The approxPercentile aggregation function requires a stream without data window, values leaving a data window cannot be removed from the digest, use the percentile aggregation function instead [select approxPercentile(intPrimitive,0.5) from SupportBean#length(10)]");
+    }
+
+    private void runAssertion() {
+        String[] fields = "med,p50,p90,p0".split(",");
+
+        sendEvent("E1", 10, 0d);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{10d, 10d, 10d, 10d});
+
+        sendEvent("E1", 20, 0d);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{15d, 15d, 19d, 10d});
+
+        sendEvent("E1", 40, 0d);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{20d, 20d, 36d, 10d});
+
+        sendEvent("E1", 30, 0d);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{25d, 25d, 37d, 10d});
+
+        sendEvent("E1", 50, 0d);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{35d, 35d, 47d, 20d});
+
+        sendEvent("E1", 50, 0d);
+        sendEvent("E1", 50, 0d);
+        sendEvent("E1", 50, 0d);
+        EPAssertionUtil.assertProps(listener.getLastNewData()[0], fields, new Object[]{50d, 50d, 50d, 50d});
+        listener.reset();
+    }
+
+    private void sendEvent(String theString, int intPrimitive, Double doubleBoxed) {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setDoubleBoxed(doubleBoxed);
+        epService.getEPRuntime().sendEvent(bean);
+    }
+
+    private void tryInvalid(String epl, String message) {
+        try
+        {
+            epService.getEPAdministrator().createEPL(epl);
+            fail();
+        }
+        catch (EPStatementException ex) {
+            assertEquals(message, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.resultset;
+
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+public class TestAggregatePrimitive extends TestCase
+{
+    private static final String PRIMITIVE_COLUMNS = "sum(intPrimitive) as si, sum(longPrimitive) as sl, sum(doublePrimitive) as sd, sum(floatPrimitive) as sf, " +
+            "avg(intPrimitive) as ai, avg(doublePrimitive) as ad, count(longPrimitive) as cl, max(intPrimitive) as mx, min(doublePrimitive) as mn";
+    private static final String BOXED_COLUMNS = "sum(intBoxed) as si, sum(longBoxed) as sl, sum(doubleBoxed) as sd, sum(floatBoxed) as sf, " +
+            "avg(intBoxed) as ai, avg(doubleBoxed) as ad, count(longBoxed) as cl, max(intBoxed) as mx, min(doubleBoxed) as mn";
+    private static final String[] FIELDS = "k,si,sl,sd,sf,ai,ad,cl,mx,mn".split(",");
+
+    private EPServiceProvider epService;
+    private SupportUpdateListener listenerPrimitive;
+    private SupportUpdateListener listenerBoxed;
+
+    public void setUp()
+    {
+        listenerPrimitive = new SupportUpdateListener();
+        listenerBoxed = new SupportUpdateListener();
+        epService = EPServiceProviderManager.getDefaultProvider(SupportConfigFactory.getConfiguration());
+        epService.initialize();
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean.class);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listenerPrimitive = null;
+        listenerBoxed = null;
+    }
+
+    public void testUngrouped()
+    {
+        runAssertion("select 0 as k, %s from SupportBean#length(5)");
+        runAssertion("select 0 as k, %s from SupportBean#time(1 sec)");
+        runAssertion("select 0 as k, %s from SupportBean#sort(4, longPrimitive)");
+    }
+
+    public void testGrouped()
+    {
+        runAssertion("select theString as k, %s from SupportBean#length(10) group by theString");
+        runAssertion("@Hint('disable_reclaim_group') select theString as k, %s from SupportBean#length(10) group by theString");
+        runAssertion("select theString as k, %s from SupportBean#length(10) group by theString, shortPrimitive");
+        runAssertion("select theString as k, %s from SupportBean#unique(intPrimitive) group by theString");
+    }
+
+    private void runAssertion(String epl)
+    {
+        epService.getEPAdministrator().createEPL(String.format(epl, PRIMITIVE_COLUMNS)).addListener(listenerPrimitive);
+        epService.getEPAdministrator().createEPL(String.format(epl.replace("#sort(4, longPrimitive)", "#sort(4, longBoxed)"), BOXED_COLUMNS)).addListener(listenerBoxed);
+
+        // the boxed properties take the same values as the primitive properties and are evaluated boxed
+        Random random = new Random(1234);
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        for (int i = 0; i < 500; i++) {
+            epService.getEPRuntime().sendEvent(new CurrentTimeEvent(i * 300));
+            SupportBean bean = new SupportBean("G" + random.nextInt(3), random.nextInt(100) - 50);
+            bean.setLongPrimitive(random.nextInt(1000));
+            bean.setDoublePrimitive(random.nextInt(100) / 4d);
+            bean.setFloatPrimitive(random.nextInt(100) / 8f);
+            bean.setShortPrimitive((short) random.nextInt(2));
+            bean.setIntBoxed(bean.getIntPrimitive());
+            bean.setLongBoxed(bean.getLongPrimitive());
+            bean.setDoubleBoxed(bean.getDoublePrimitive());
+            bean.setFloatBoxed(bean.getFloatPrimitive());
+            epService.getEPRuntime().sendEvent(bean);
+
+            assertSameRows(listenerPrimitive.getAndResetLastNewData(), listenerBoxed.getAndResetLastNewData());
+        }
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void assertSameRows(EventBean[] primitive, EventBean[] boxed)
+    {
+        assertEquals(boxed == null, primitive == null);
+        if (boxed == null) {
+            return;
+        }
+        assertEquals(boxed.length, primitive.length);
+        for (int i = 0; i < boxed.length; i++) {
+            for (String field : FIELDS) {
+                assertEquals(field, boxed[i].get(field), primitive[i].get(field));
+            }
+        }
+    }
+}
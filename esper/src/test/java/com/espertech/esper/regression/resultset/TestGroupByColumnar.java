@@ -0,0 +1,157 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.resultset;
+
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.bean.SupportBean_S0;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+public class TestGroupByColumnar extends TestCase
+{
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+
+    public void setUp()
+    {
+        listener = new SupportUpdateListener();
+        epService = EPServiceProviderManager.getDefaultProvider(SupportConfigFactory.getConfiguration());
+        epService.initialize();
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean.class);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+    }
+
+    public void testIntKeyRowsRemovedAndReused()
+    {
+        String[] fields = "k,si,sl,sd,sf,av,cnt,cb".split(",");
+        epService.getEPAdministrator().createEPL("select intPrimitive as k, sum(intPrimitive) as si, sum(longPrimitive) as sl, " +
+                "sum(doublePrimitive) as sd, sum(floatPrimitive) as sf, avg(doublePrimitive) as av, count(*) as cnt, count(intBoxed) as cb " +
+                "from SupportBean#length(2) group by intPrimitive").addListener(listener);
+
+        sendEvent("E1", 1, 10, 1.5, 5);
+        assertGroupRow(fields, new Object[] {1, 1, 10L, 1.5, 0.75f, 1.5, 1L, 1L});
+
+        sendEvent("E2", 2, 20, 2.5, null);
+        assertGroupRow(fields, new Object[] {2, 2, 20L, 2.5, 1.25f, 2.5, 1L, 0L});
+
+        sendEvent("E3", 1, 30, 3.5, 6);    // E1 leaves
+        assertGroupRow(fields, new Object[] {1, 1, 30L, 3.5, 1.75f, 3.5, 1L, 1L});
+
+        sendEvent("E4", 3, 40, 4.5, null);     // E2 leaves, group 2 is removed
+        assertGroupRow(fields, new Object[] {3, 3, 40L, 4.5, 2.25f, 4.5, 1L, 0L});
+
+        sendEvent("E5", 2, 50, 5.5, 7);     // E3 leaves, group 2 starts over
+        assertGroupRow(fields, new Object[] {2, 2, 50L, 5.5, 2.75f, 5.5, 1L, 1L});
+
+        sendEvent("E6", 1, 60, 6.5, null);     // E4 leaves, group 1 starts over
+        assertGroupRow(fields, new Object[] {1, 1, 60L, 6.5, 3.25f, 6.5, 1L, 0L});
+
+        sendEvent("E7", 2, 70, 7.5, 8);    // E5 leaves
+        assertGroupRow(fields, new Object[] {2, 2, 70L, 7.5, 3.75f, 7.5, 1L, 1L});
+    }
+
+    public void testManyGroups()
+    {
+        epService.getEPAdministrator().createEPL("select theString as k, sum(intPrimitive) as s, count(*) as cnt " +
+                "from SupportBean#length(1000) group by theString").addListener(listener);
+
+        // cycle 500 groups through the window, growing the columns and reusing rows of removed groups
+        for (int i = 0; i < 5000; i++) {
+            String key = "G" + (i % 500);
+            sendEvent(key, i, 0, 0, null);
+            int expectedSum = i >= 500 ? i + (i - 500) : i;
+            assertGroupRow("k,s,cnt".split(","), new Object[] {key, expectedSum, i >= 500 ? 2L : 1L});
+        }
+    }
+
+    public void testNullAndLongKeys()
+    {
+        String[] fields = "k,s".split(",");
+        epService.getEPAdministrator().createEPL("select intBoxed as k, sum(longPrimitive) as s from SupportBean#length(3) group by intBoxed").addListener(listener);
+
+        sendEvent("E1", 0, 10, 0, null);
+        assertGroupRow(fields, new Object[] {null, 10L});
+        sendEvent("E2", 0, 20, 0, 1);
+        assertGroupRow(fields, new Object[] {1, 20L});
+        sendEvent("E3", 0, 30, 0, null);
+        assertGroupRow(fields, new Object[] {null, 40L});
+        sendEvent("E4", 0, 40, 0, null);     // E1 leaves
+        assertGroupRow(fields, new Object[] {null, 70L});
+
+        epService.getEPAdministrator().destroyAllStatements();
+        epService.getEPAdministrator().createEPL("@Hint('disable_reclaim_group') select longPrimitive as k, avg(intPrimitive) as a " +
+                "from SupportBean#length(1) group by longPrimitive").addListener(listener);
+
+        sendEvent("E1", 10, Long.MAX_VALUE, 0, null);
+        assertGroupRow("k,a".split(","), new Object[] {Long.MAX_VALUE, 10d});
+        sendEvent("E2", 20, -1, 0, null);
+        assertGroupRow("k,a".split(","), new Object[] {-1L, 20d});
+        sendEvent("E3", 30, Long.MAX_VALUE, 0, null);
+        assertGroupRow("k,a".split(","), new Object[] {Long.MAX_VALUE, 30d});
+    }
+
+    public void testSubqueryGroupKeys()
+    {
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean_S0.class);
+        epService.getEPAdministrator().createEPL("select (select sum(intPrimitive) from SupportBean#length(3) group by theString) as c " +
+                "from SupportBean_S0").addListener(listener);
+
+        sendEvent("E1", 10, 0, 0, null);
+        sendEvent("E1", 20, 0, 0, null);
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(1));
+        assertEquals(30, listener.assertOneGetNewAndReset().get("c"));
+
+        sendEvent("E2", 5, 0, 0, null);
+        sendEvent("E2", 6, 0, 0, null);     // E1 with 10 leaves
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(2));
+        assertNull(listener.assertOneGetNewAndReset().get("c"));    // two groups
+
+        sendEvent("E2", 7, 0, 0, null);     // last E1 leaves
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(3));
+        assertEquals(18, listener.assertOneGetNewAndReset().get("c"));
+    }
+
+    private void assertGroupRow(String[] fields, Object[] expected)
+    {
+        // rows are output for the groups of entering and of leaving events, the first field is the group key
+        EventBean[] rows = listener.getAndResetLastNewData();
+        for (EventBean row : rows) {
+            Object key = row.get(fields[0]);
+            if (key == null ? expected[0] == null : key.equals(expected[0])) {
+                EPAssertionUtil.assertProps(row, fields, expected);
+                return;
+            }
+        }
+        fail("No row for group " + expected[0]);
+    }
+
+    private void sendEvent(String theString, int intPrimitive, long longPrimitive, double doublePrimitive, Integer intBoxed)
+    {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setLongPrimitive(longPrimitive);
+        bean.setDoublePrimitive(doublePrimitive);
+        bean.setFloatPrimitive((float) doublePrimitive / 2);
+        bean.setIntBoxed(intBoxed);
+        epService.getEPRuntime().sendEvent(bean);
+    }
+}
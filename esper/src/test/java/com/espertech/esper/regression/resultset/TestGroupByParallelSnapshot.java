@@ -0,0 +1,126 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.resultset;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+public class TestGroupByParallelSnapshot extends TestCase {
+
+    private final static String HINT = "@Hint('enable_parallel_snapshot') ";
+    private final static int NUM_GROUPS = 6000;
+
+    private EPServiceProvider epService;
+
+    public void setUp()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+    }
+
+    public void testIterateRowPerGroup()
+    {
+        String[] fields = "theString,total,cnt".split(",");
+        runAssertionIterate(fields, "select theString, sum(intPrimitive) as total, count(*) as cnt from SupportBean#keepall group by theString");
+        runAssertionIterate(fields, "select theString, sum(intPrimitive) as total, count(*) as cnt from SupportBean#keepall group by theString having sum(intPrimitive) > 20");
+        runAssertionIterate(fields, "@IterableUnbound select theString, sum(intPrimitive) as total, count(*) as cnt from SupportBean group by theString");
+        runAssertionIterate(fields, "select theString, sum(intPrimitive) as total, count(*) as cnt from SupportBean#keepall group by theString, intPrimitive % 2");
+    }
+
+    public void testIterateAggregateGrouped()
+    {
+        String[] fields = "theString,intPrimitive,total".split(",");
+        runAssertionIterate(fields, "select theString, intPrimitive, sum(longPrimitive) as total from SupportBean#keepall group by theString");
+        runAssertionIterate(fields, "select theString, intPrimitive, sum(longPrimitive) as total from SupportBean#keepall group by theString having count(*) > 1");
+    }
+
+    public void testIterateSerialFallback()
+    {
+        // subqueries and order-by are evaluated on a single thread
+        String[] fields = "theString,total,cnt".split(",");
+        runAssertionIterate(fields, "select theString, sum(intPrimitive) as total, (select count(*) from SupportBean#lastevent) as cnt from SupportBean#keepall group by theString");
+        runAssertionIterate(fields, "select theString, sum(intPrimitive) as total, count(*) as cnt from SupportBean#keepall group by theString order by theString desc");
+    }
+
+    public void testOutputSnapshot()
+    {
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        String[] fields = "theString,total".split(",");
+        String epl = "select theString, sum(intPrimitive) as total from SupportBean#keepall group by theString output snapshot every 1 seconds";
+        SupportUpdateListener listenerSerial = new SupportUpdateListener();
+        SupportUpdateListener listenerParallel = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL(epl).addListener(listenerSerial);
+        epService.getEPAdministrator().createEPL(HINT + epl).addListener(listenerParallel);
+
+        sendEvents();
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(1000));
+        Object[][] expected = EPAssertionUtil.eventsToObjectArr(listenerSerial.getAndResetLastNewData(), fields);
+        assertEquals(NUM_GROUPS, expected.length);
+        EPAssertionUtil.assertPropsPerRow(listenerParallel.getAndResetLastNewData(), fields, expected);
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionIterate(String[] fields, String epl)
+    {
+        EPStatement stmtSerial = epService.getEPAdministrator().createEPL(epl);
+        EPStatement stmtParallel = epService.getEPAdministrator().createEPL(HINT + epl);
+
+        // below the threshold for building the snapshot on multiple threads
+        sendEvent("G0", 10, 1);
+        sendEvent("G0", 11, 2);
+        assertIterate(fields, stmtSerial, stmtParallel);
+
+        sendEvents();
+        assertIterate(fields, stmtSerial, stmtParallel);
+
+        stmtSerial.destroy();
+        stmtParallel.destroy();
+    }
+
+    private void assertIterate(String[] fields, EPStatement stmtSerial, EPStatement stmtParallel)
+    {
+        Object[][] expected = EPAssertionUtil.iteratorToObjectArr(stmtSerial.iterator(), fields);
+        Object[][] received = EPAssertionUtil.iteratorToObjectArr(stmtParallel.iterator(), fields);
+        assertEquals(expected.length, received.length);
+        for (int i = 0; i < expected.length; i++) {
+            EPAssertionUtil.assertEqualsExactOrder(expected[i], received[i]);
+        }
+    }
+
+    private void sendEvents()
+    {
+        for (int i = 0; i < NUM_GROUPS * 2; i++) {
+            sendEvent("G" + (i % NUM_GROUPS), i % 31, i);
+        }
+    }
+
+    private void sendEvent(String theString, int intPrimitive, long longPrimitive)
+    {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setLongPrimitive(longPrimitive);
+        epService.getEPRuntime().sendEvent(bean);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.view;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+public class TestViewGroupByCompact extends TestCase
+{
+    private final static String HINT = "@Hint('enable_compact_groupwin') ";
+
+    private EPServiceProvider epService;
+
+    public void setUp()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+    }
+
+    public void testCompareGroupWin()
+    {
+        String[] fields = "theString,intPrimitive,intBoxed".split(",");
+        runAssertionCompare(fields, "select irstream * from SupportBean#groupwin(theString)#length(3)");
+        runAssertionCompare(fields, "select irstream * from SupportBean#groupwin(theString)#lastevent");
+        runAssertionCompare(fields, "select irstream * from SupportBean#groupwin(intBoxed)#length(2)");
+        runAssertionCompare(fields, "select irstream * from SupportBean#groupwin(theString, intBoxed)#length(2)");
+        runAssertionCompare(fields, "select irstream * from SupportBean(intPrimitive > 10)#groupwin(theString)#length(1)");
+
+        fields = "theString,total".split(",");
+        runAssertionCompare(fields, "select irstream theString, sum(intPrimitive) as total from SupportBean#groupwin(theString)#length(2) group by theString");
+
+        // prev requires the view per group and is therefore not compacted
+        fields = "theString,prevInt".split(",");
+        runAssertionCompare(fields, "select irstream theString, prev(1, intPrimitive) as prevInt from SupportBean#groupwin(theString)#length(3)");
+    }
+
+    public void testCompareJoin()
+    {
+        String[] fields = "a.theString,a.intPrimitive,b.intPrimitive".split(",");
+        runAssertionCompare(fields, "select irstream * from SupportBean#groupwin(theString)#length(2) as a, SupportBean#groupwin(intBoxed)#lastevent as b where a.theString = b.theString");
+    }
+
+    public void testIterationOrderManyGroups()
+    {
+        int numGroups = 5000;
+        String epl = "select * from SupportBean#groupwin(theString)#length(4)";
+        SupportBean[] events = new SupportBean[numGroups * 2];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new SupportBean("G" + (i % numGroups), i);
+        }
+
+        EPStatement stmt = epService.getEPAdministrator().createEPL(HINT + epl);
+        sendEvents(events);
+        EventBean[] retained = EPAssertionUtil.iteratorToArray(stmt.iterator());
+        assertEquals(events.length, retained.length);
+        for (int i = 0; i < numGroups; i++) {
+            assertSame(events[i], retained[i * 2].getUnderlying());
+            assertSame(events[numGroups + i], retained[i * 2 + 1].getUnderlying());
+        }
+        stmt.destroy();
+    }
+
+    private void runAssertionCompare(String[] fields, String epl)
+    {
+        SupportUpdateListener listenerStandard = new SupportUpdateListener();
+        SupportUpdateListener listenerCompact = new SupportUpdateListener();
+        EPStatement stmtStandard = epService.getEPAdministrator().createEPL(epl);
+        stmtStandard.addListener(listenerStandard);
+        EPStatement stmtCompact = epService.getEPAdministrator().createEPL(HINT + epl);
+        stmtCompact.addListener(listenerCompact);
+
+        Random random = new Random(100);
+        for (int i = 0; i < 500; i++) {
+            SupportBean bean = new SupportBean("E" + random.nextInt(5), random.nextInt(20));
+            bean.setIntBoxed(random.nextInt(4) == 0 ? null : random.nextInt(3));
+            epService.getEPRuntime().sendEvent(bean);
+
+            assertEquals(listenerStandard.isInvoked(), listenerCompact.isInvoked());
+            if (listenerStandard.isInvoked()) {
+                EPAssertionUtil.assertPropsPerRow(listenerCompact.getLastNewData(), fields, toArray(listenerStandard.getLastNewData(), fields));
+                EPAssertionUtil.assertPropsPerRow(listenerCompact.getLastOldData(), fields, toArray(listenerStandard.getLastOldData(), fields));
+                listenerStandard.reset();
+                listenerCompact.reset();
+            }
+            if (i % 50 == 0) {
+                EPAssertionUtil.assertPropsPerRow(stmtCompact.iterator(), fields, toArray(EPAssertionUtil.iteratorToArray(stmtStandard.iterator()), fields));
+            }
+        }
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void sendEvents(SupportBean[] events) {
+        for (SupportBean event : events) {
+            epService.getEPRuntime().sendEvent(event);
+        }
+    }
+
+    private static Object[][] toArray(EventBean[] events, String[] fields) {
+        return events == null ? null : EPAssertionUtil.eventsToObjectArr(events, fields);
+    }
+}
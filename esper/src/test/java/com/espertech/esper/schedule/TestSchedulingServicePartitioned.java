@@ -0,0 +1,118 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.schedule;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.timer.TimeSourceServiceImpl;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestSchedulingServicePartitioned extends TestCase
+{
+    private SchedulingServicePartitioned service;
+
+    public void setUp()
+    {
+        service = (SchedulingServicePartitioned) SchedulingServiceProvider.newService(ConfigurationEngineDefaults.SchedulingServiceProfile.SORTEDMAP, 4, new TimeSourceServiceImpl());
+    }
+
+    public void testEvaluate()
+    {
+        assertEquals(4, service.getNumPartitions());
+        service.setTime(0);
+
+        // several handles per statement, added out of slot order
+        List<MyHandle> handles = new ArrayList<MyHandle>();
+        for (int stmt = 0; stmt < 10; stmt++) {
+            for (int i = 3; i >= 0; i--) {
+                MyHandle handle = new MyHandle(stmt, i);
+                handles.add(handle);
+                service.add(100 + stmt, handle, i);
+            }
+        }
+        assertEquals(40, service.getScheduleHandleCount());
+        assertEquals(100L, (long) service.getNearestTimeHandle());
+        assertEquals(109L, (long) service.getFurthestTimeHandle());
+        assertTrue(service.isScheduled(handles.get(0)));
+
+        service.remove(handles.get(0), handles.get(0).slot);
+        assertFalse(service.isScheduled(handles.get(0)));
+
+        service.setTime(104);
+        List<ScheduleHandle> due = new ArrayList<ScheduleHandle>();
+        service.evaluate(due);
+        assertEquals(19, due.size());
+        assertSlotOrderPerStatement(due);
+
+        // partitions are evaluated independently
+        service.setTime(200);
+        due.clear();
+        for (int i = 0; i < service.getNumPartitions(); i++) {
+            service.evaluatePartition(i, due);
+        }
+        assertEquals(20, due.size());
+        assertSlotOrderPerStatement(due);
+        assertEquals(0, service.getScheduleHandleCount());
+    }
+
+    public void testTakeApply()
+    {
+        service.setTime(0);
+        for (int stmt = 0; stmt < 10; stmt++) {
+            service.add(100, new MyHandle(stmt, stmt), stmt);
+        }
+
+        ScheduleSet set = service.take(new HashSet<Integer>(Arrays.asList(1, 2, 3)));
+        assertEquals(3, set.getList().size());
+        assertEquals(7, service.getScheduleHandleCount());
+
+        service.apply(set);
+        assertEquals(10, service.getScheduleHandleCount());
+
+        final Set<Integer> visited = new HashSet<Integer>();
+        service.visitSchedules(new ScheduleVisitor() {
+            public void visit(ScheduleVisit visit) {
+                visited.add(visit.getStatementId());
+            }
+        });
+        assertEquals(10, visited.size());
+    }
+
+    private void assertSlotOrderPerStatement(List<ScheduleHandle> due) {
+        Map<Integer, Integer> lastSlot = new HashMap<Integer, Integer>();
+        for (ScheduleHandle handle : due) {
+            MyHandle myHandle = (MyHandle) handle;
+            Integer last = lastSlot.get(myHandle.statementId);
+            assertTrue(last == null || last < myHandle.slot);
+            lastSlot.put(myHandle.statementId, myHandle.slot);
+        }
+    }
+
+    private static class MyHandle implements ScheduleHandle {
+        private final int statementId;
+        private final int slot;
+
+        private MyHandle(int statementId, int slot) {
+            this.statementId = statementId;
+            this.slot = slot;
+        }
+
+        public int getStatementId() {
+            return statementId;
+        }
+
+        public int getAgentInstanceId() {
+            return -1;
+        }
+    }
+}
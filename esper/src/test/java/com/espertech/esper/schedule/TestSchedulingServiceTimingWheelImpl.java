@@ -0,0 +1,192 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.schedule;
+
+import com.espertech.esper.support.schedule.SupportScheduleCallback;
+import com.espertech.esper.timer.TimeSourceServiceImpl;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestSchedulingServiceTimingWheelImpl extends TestCase
+{
+    private SchedulingServiceTimingWheelImpl service;
+    private SupportScheduleCallback callbacks[];
+
+    public void setUp()
+    {
+        service = new SchedulingServiceTimingWheelImpl(new TimeSourceServiceImpl());
+        callbacks = new SupportScheduleCallback[5];
+        for (int i= 0; i < callbacks.length; i++)
+        {
+            callbacks[i] = new SupportScheduleCallback();
+        }
+    }
+
+    public void tearDown()
+    {
+        SupportScheduleCallback.setCallbackOrderNum(0);
+    }
+
+    public void testTrigger()
+    {
+        service.setTime(0);
+        SupportScheduleCallback.setCallbackOrderNum(0);
+
+        service.add(20, callbacks[3], 4);
+        service.add(20, callbacks[2], 3);
+        service.add(20, callbacks[1], 2);
+        service.add(21, callbacks[0], 1);
+        assertTrue(service.isScheduled(callbacks[3]));
+        assertEquals(4, service.getScheduleHandleCount());
+        assertEquals(2, service.getTimeHandleCount());
+        assertEquals(20L, (long) service.getNearestTimeHandle());
+        assertEquals(21L, (long) service.getFurthestTimeHandle());
+
+        service.setTime(19);
+        evaluateSchedule();
+        checkCallbacks(new Integer[] {0, 0, 0, 0, 0});
+
+        service.setTime(20);
+        evaluateSchedule();
+        checkCallbacks(new Integer[] {0, 1, 2, 3, 0});
+        assertFalse(service.isScheduled(callbacks[3]));
+
+        service.setTime(21);
+        evaluateSchedule();
+        checkCallbacks(new Integer[] {4, 0, 0, 0, 0});
+        assertNull(service.getNearestTimeHandle());
+
+        // re-adding replaces the schedule, removing twice is fine
+        service.add(20, callbacks[0], 1);
+        service.add(28, callbacks[0], 1);
+        service.remove(callbacks[0], 1);
+        service.remove(callbacks[0], 1);
+        assertEquals(0, service.getScheduleHandleCount());
+
+        // large jump in time
+        service.add(10, callbacks[1], 2);
+        service.add(Integer.MAX_VALUE, callbacks[2], 3);
+        service.add(5L * Integer.MAX_VALUE, callbacks[3], 4);
+        service.setTime(21L + Integer.MAX_VALUE);
+        evaluateSchedule();
+        checkCallbacks(new Integer[] {0, 5, 6, 0, 0});
+        assertTrue(service.isScheduled(callbacks[3]));
+    }
+
+    public void testTimeBackwards()
+    {
+        service.setTime(1000);
+        service.add(100, callbacks[0], 1);
+        service.add(200, callbacks[1], 2);
+        SupportScheduleCallback.setCallbackOrderNum(0);
+
+        service.setTime(0);
+        evaluateSchedule();
+        checkCallbacks(new Integer[] {0, 0, 0, 0, 0});
+
+        service.add(50, callbacks[2], 3);
+        service.setTime(1100);
+        evaluateSchedule();
+        checkCallbacks(new Integer[] {2, 0, 1, 0, 0});
+
+        service.setTime(1200);
+        evaluateSchedule();
+        checkCallbacks(new Integer[] {0, 3, 0, 0, 0});
+    }
+
+    public void testTakeApply()
+    {
+        service.setTime(0);
+        service.add(100, callbacks[0], 1);
+        service.add(200, callbacks[1], 2);
+
+        ScheduleSet set = service.take(Collections.singleton(callbacks[0].getStatementId()));
+        assertEquals(2, set.getList().size());
+        assertEquals(0, service.getScheduleHandleCount());
+
+        service.setTime(50);
+        service.apply(set);
+        assertEquals(150L, (long) service.getNearestTimeHandle());
+        assertEquals(250L, (long) service.getFurthestTimeHandle());
+
+        final List<Long> visited = new ArrayList<Long>();
+        service.visitSchedules(new ScheduleVisitor() {
+            public void visit(ScheduleVisit visit) {
+                visited.add(visit.getTimestamp());
+            }
+        });
+        Collections.sort(visited);
+        assertEquals(Arrays.asList(150L, 250L), visited);
+    }
+
+    public void testCompareSortedMap()
+    {
+        Random random = new Random(1234);
+        long start = 1400000000000L;
+        SchedulingServiceImpl expected = new SchedulingServiceImpl(new TimeSourceServiceImpl());
+        expected.setTime(start);
+        service.setTime(start);
+
+        ScheduleHandle[] handles = new ScheduleHandle[500];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = new SupportScheduleCallback();
+        }
+
+        long time = start;
+        for (int i = 0; i < 20000; i++) {
+            int action = random.nextInt(10);
+            int index = random.nextInt(handles.length);
+            if (action < 5) {
+                long after = random.nextBoolean() ? random.nextInt(1000) : random.nextInt(100000000);
+                expected.add(after, handles[index], index);
+                service.add(after, handles[index], index);
+            }
+            else if (action < 7) {
+                expected.remove(handles[index], index);
+                service.remove(handles[index], index);
+            }
+            else {
+                time += random.nextInt(10) == 0 ? random.nextInt(10000000) : random.nextInt(100);
+                expected.setTime(time);
+                service.setTime(time);
+                List<ScheduleHandle> expectedHandles = new ArrayList<ScheduleHandle>();
+                List<ScheduleHandle> actualHandles = new ArrayList<ScheduleHandle>();
+                expected.evaluate(expectedHandles);
+                service.evaluate(actualHandles);
+                assertEquals(expectedHandles, actualHandles);
+            }
+            assertEquals(expected.getScheduleHandleCount(), service.getScheduleHandleCount());
+            assertEquals(expected.getNearestTimeHandle(), service.getNearestTimeHandle());
+        }
+    }
+
+    private void checkCallbacks(Integer[] results)
+    {
+        for (int i = 0; i < callbacks.length; i++)
+        {
+            assertEquals((int) results[i], (int) callbacks[i].clearAndGetOrderTriggered());
+        }
+    }
+
+    private void evaluateSchedule()
+    {
+        Collection<ScheduleHandle> handles = new LinkedList<ScheduleHandle>();
+        service.evaluate(handles);
+
+        for (ScheduleHandle handle : handles)
+        {
+            ScheduleHandleCallback cb = (ScheduleHandleCallback) handle;
+            cb.scheduledTrigger(null);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.view.std;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.core.support.SupportStatementContextFactory;
+import com.espertech.esper.support.bean.SupportMarketDataBean;
+import com.espertech.esper.support.epl.SupportExprNodeFactory;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import com.espertech.esper.support.event.SupportEventTypeFactory;
+import com.espertech.esper.support.view.SupportBaseView;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestGroupByViewCompact extends TestCase
+{
+    private GroupByViewCompactFactory factory;
+    private GroupByViewCompact myView;
+    private SupportCollectingView childView;
+
+    public void setUp() throws Exception
+    {
+        factory = new GroupByViewCompactFactory(SupportExprNodeFactory.makeIdentNodesMD("symbol"), 2, SupportEventTypeFactory.createBeanType(SupportMarketDataBean.class));
+        myView = (GroupByViewCompact) factory.makeView(SupportStatementContextFactory.makeAgentInstanceViewFactoryContext());
+        childView = new SupportCollectingView();
+        myView.addView(childView);
+    }
+
+    public void testViewPush()
+    {
+        assertTrue(myView.isEmpty());
+        assertTrue(factory.canReuse(myView));
+
+        EventBean ibm1 = makeTradeBean("IBM", 1);
+        myView.update(new EventBean[] {ibm1}, null);
+        assertPosted(0, new EventBean[] {ibm1}, null);
+        assertFalse(myView.isEmpty());
+        assertFalse(factory.canReuse(myView));
+
+        // multiple events post per group, in the order the group first appears
+        EventBean ibm2 = makeTradeBean("IBM", 2);
+        EventBean msft1 = makeTradeBean("MSFT", 1);
+        EventBean ibm3 = makeTradeBean("IBM", 3);
+        myView.update(new EventBean[] {ibm2, msft1, ibm3}, null);
+        assertEquals(3, childView.newDataList.size());
+        assertPosted(1, new EventBean[] {ibm2, ibm3}, new EventBean[] {ibm1});
+        assertPosted(2, new EventBean[] {msft1}, null);
+        EPAssertionUtil.assertEqualsExactOrder(new EventBean[] {ibm2, ibm3, msft1}, myView.iterator());
+
+        // more events than the window holds expire oldest first, same as the length window
+        EventBean ibm4 = makeTradeBean("IBM", 4);
+        EventBean ibm5 = makeTradeBean("IBM", 5);
+        EventBean ibm6 = makeTradeBean("IBM", 6);
+        myView.update(new EventBean[] {ibm4, ibm5, ibm6}, null);
+        assertPosted(3, new EventBean[] {ibm4, ibm5, ibm6}, new EventBean[] {ibm2, ibm3, ibm4});
+        EPAssertionUtil.assertEqualsExactOrder(new EventBean[] {ibm5, ibm6, msft1}, myView.iterator());
+
+        EventBean msft2 = makeTradeBean("MSFT", 2);
+        EventBean msft3 = makeTradeBean("MSFT", 3);
+        myView.update(new EventBean[] {msft2}, null);
+        myView.update(new EventBean[] {msft3}, null);
+        assertPosted(5, new EventBean[] {msft3}, new EventBean[] {msft1});
+        EPAssertionUtil.assertEqualsExactOrder(new EventBean[] {ibm5, ibm6, msft2, msft3}, myView.iterator());
+    }
+
+    public void testManyGroups()
+    {
+        // groups span multiple chunks
+        int numGroups = 3000;
+        for (int i = 0; i < numGroups * 3; i++) {
+            myView.update(new EventBean[] {makeTradeBean("S" + (i % numGroups), i)}, null);
+        }
+        EventBean[] events = EPAssertionUtil.iteratorToArray(myView.iterator());
+        assertEquals(numGroups * 2, events.length);
+        for (int i = 0; i < numGroups; i++) {
+            assertEquals((double) (numGroups + i), ((SupportMarketDataBean) events[i * 2].getUnderlying()).getPrice());
+            assertEquals((double) (numGroups * 2 + i), ((SupportMarketDataBean) events[i * 2 + 1].getUnderlying()).getPrice());
+        }
+
+        // footprint is the retained events plus at most the unused remainder of the last chunk
+        assertEquals(numGroups, myView.getNumGroups());
+        assertTrue(myView.getNumSlotsAllocated() >= numGroups * 2);
+        assertTrue(myView.getNumSlotsAllocated() < numGroups * 2 + 4096);
+    }
+
+    public void testLargeLength() throws Exception
+    {
+        // windows larger than a chunk grow per group
+        int size = 100000;
+        factory = new GroupByViewCompactFactory(SupportExprNodeFactory.makeIdentNodesMD("symbol"), size, SupportEventTypeFactory.createBeanType(SupportMarketDataBean.class));
+        myView = (GroupByViewCompact) factory.makeView(SupportStatementContextFactory.makeAgentInstanceViewFactoryContext());
+        childView = new SupportCollectingView();
+        myView.addView(childView);
+
+        int numGroups = 3;
+        int numEvents = size * numGroups + 10;
+        for (int i = 0; i < numEvents; i++) {
+            myView.update(new EventBean[] {makeTradeBean("S" + (i % numGroups), i)}, null);
+        }
+        assertNull(childView.oldDataList.get(size * numGroups - 1));
+        EventBean[] expired = childView.oldDataList.get(size * numGroups);
+        assertEquals(0d, ((SupportMarketDataBean) expired[0].getUnderlying()).getPrice());
+
+        EventBean[] events = EPAssertionUtil.iteratorToArray(myView.iterator());
+        assertEquals(size * numGroups, events.length);
+        for (int group = 0; group < numGroups; group++) {
+            // oldest first, the first events of the group expired
+            int expiredCount = group < 10 % numGroups ? 10 / numGroups + 1 : 10 / numGroups;
+            for (int j = 0; j < size; j++) {
+                double expected = (j + expiredCount) * numGroups + group;
+                assertEquals(expected, ((SupportMarketDataBean) events[group * size + j].getUnderlying()).getPrice());
+            }
+        }
+    }
+
+    private void assertPosted(int index, EventBean[] expectedNew, EventBean[] expectedOld)
+    {
+        EPAssertionUtil.assertEqualsExactOrder(expectedNew, childView.newDataList.get(index));
+        EPAssertionUtil.assertEqualsExactOrder(expectedOld, childView.oldDataList.get(index));
+    }
+
+    private EventBean makeTradeBean(String symbol, int price)
+    {
+        SupportMarketDataBean bean = new SupportMarketDataBean(symbol, price, 0L, "");
+        return SupportEventBeanFactory.createObject(bean);
+    }
+
+    private static class SupportCollectingView extends SupportBaseView
+    {
+        private final List<EventBean[]> newDataList = new ArrayList<EventBean[]>();
+        private final List<EventBean[]> oldDataList = new ArrayList<EventBean[]>();
+
+        public void update(EventBean[] newData, EventBean[] oldData)
+        {
+            newDataList.add(newData);
+            oldDataList.add(oldData);
+        }
+    }
+}